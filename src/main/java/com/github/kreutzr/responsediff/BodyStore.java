@@ -0,0 +1,295 @@
+package com.github.kreutzr.responsediff;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.xml.bind.Marshaller;
+
+/**
+ * Stores large response bodies of finished XmlTests in a temporary file, so they do not have to be kept in memory until the report is written.
+ * The bodies of the XmlHttpResponses of a finished XmlTest that exceed the threshold are appended to the file and removed from the XmlHttpResponse (see store()).
+ * When the report is marshalled, each stored body is read back (memory-mapped) for the time its XmlHttpResponse is marshalled (see createMarshallerListener()).
+ * <br/>
+ * <b>NOTE:</b> The bodies are required for validation. Hence they are stored after the XmlTest has finished. This class is thread safe.
+ */
+public class BodyStore implements AutoCloseable
+{
+  private static final Logger LOG = LoggerFactory.getLogger( BodyStore.class );
+
+  /**
+   * The position of a stored body within the file.
+   */
+  private static class Entry
+  {
+    final long position_;
+    final int  length_;
+
+    Entry( final long position, final int length )
+    {
+      position_ = position;
+      length_   = length;
+    }
+  }
+
+  private final Path                          filePath_;
+  private final int                           threshold_;
+  private final Map< XmlHttpResponse, Entry > entries_ = new IdentityHashMap<>();
+  private       FileChannel                   channel_;
+  private       long                          size_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private BodyStore( final Path filePath, final FileChannel channel, final int threshold )
+  {
+    filePath_  = filePath;
+    channel_   = channel;
+    threshold_ = threshold;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Opens a new body store file in the given path.
+   * @param storePath The path where the file is created. May be null (the default temporary directory is used).
+   * @param threshold The number of characters a body must exceed to be stored. Must not be negative.
+   * @return The opened BodyStore. Never null.
+   * @throws IOException
+   */
+  public static BodyStore open( final String storePath, final int threshold )
+  throws IOException
+  {
+    if( threshold < 0 ) {
+      throw new IllegalArgumentException( "The body store threshold must not be negative (was " + threshold + ")." );
+    }
+
+    final Path filePath;
+    if( storePath != null ) {
+      final Path path = Path.of( storePath );
+      Files.createDirectories( path );
+      filePath = Files.createTempFile( path, "bodies_", ".tmp" );
+    }
+    else {
+      filePath = Files.createTempFile( "bodies_", ".tmp" );
+    }
+
+    final FileChannel channel = FileChannel.open( filePath, StandardOpenOption.READ, StandardOpenOption.WRITE );
+    return new BodyStore( filePath, channel, threshold );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The number of characters a body must exceed to be stored.
+   */
+  public int getThreshold()
+  {
+    return threshold_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Stores the large response bodies (candidate, reference, control and their original responses) of the given finished XmlTest.
+   * @param xmlTest The finished XmlTest. Must not be null.
+   * @throws IOException
+   */
+  public void store( final XmlTest xmlTest )
+  throws IOException
+  {
+    final XmlResponse xmlResponse = xmlTest.getResponse();
+    if( xmlResponse == null ) {
+      return;
+    }
+
+    store( xmlResponse.getHttpResponse() );
+    store( xmlResponse.getReferenceResponse() );
+    store( xmlResponse.getControlResponse() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Reads the stored body of the given XmlHttpResponse.
+   * @param xmlHttpResponse The XmlHttpResponse. May be null.
+   * @return The stored body. If no body was stored for the given XmlHttpResponse, its current body is returned.
+   * @throws IOException
+   */
+  public synchronized String load( final XmlHttpResponse xmlHttpResponse )
+  throws IOException
+  {
+    if( xmlHttpResponse == null ) {
+      return null;
+    }
+
+    final Entry entry = entries_.get( xmlHttpResponse );
+    if( entry == null ) {
+      return xmlHttpResponse.getBody();
+    }
+    if( channel_ == null ) {
+      throw new IOException( "Body store file \"" + filePath_ + "\" is closed." );
+    }
+
+    final ByteBuffer buffer = channel_.map( FileChannel.MapMode.READ_ONLY, entry.position_, entry.length_ );
+    return StandardCharsets.UTF_8.decode( buffer ).toString();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Releases the stored bodies of the given XmlTest (e.g. because it is not reported). The bodies can not be loaded afterwards.
+   * @param xmlTest The XmlTest. Must not be null.
+   */
+  public synchronized void release( final XmlTest xmlTest )
+  {
+    final XmlResponse xmlResponse = xmlTest.getResponse();
+    if( xmlResponse == null ) {
+      return;
+    }
+
+    release( xmlResponse.getHttpResponse() );
+    release( xmlResponse.getReferenceResponse() );
+    release( xmlResponse.getControlResponse() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Releases the stored bodies of all XmlTests of the given XmlTestSet (recursively).
+   * @param xmlTestSet The XmlTestSet. Must not be null.
+   */
+  public synchronized void release( final XmlTestSet xmlTestSet )
+  {
+    for( final XmlTest xmlTest : xmlTestSet.getTest() ) {
+      release( xmlTest );
+    }
+    for( final XmlTestSet xmlTestSetChild : xmlTestSet.getTestSet() ) {
+      release( xmlTestSetChild );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The number of currently stored bodies.
+   */
+  public synchronized int size()
+  {
+    return entries_.size();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates a Marshaller.Listener that puts the stored bodies back while their XmlHttpResponses are marshalled.
+   * Afterwards the bodies are removed from the XmlHttpResponses again.
+   * @param release Flag, if the stored bodies are not required anymore after they were marshalled (true) or if they are kept (false).
+   * @return The Marshaller.Listener. Never null.
+   */
+  public Marshaller.Listener createMarshallerListener( final boolean release )
+  {
+    return new Marshaller.Listener() {
+      @Override
+      public void beforeMarshal( final Object source )
+      {
+        if( source instanceof XmlHttpResponse ) {
+          final XmlHttpResponse xmlHttpResponse = (XmlHttpResponse) source;
+          try {
+            xmlHttpResponse.setBody( load( xmlHttpResponse ) );
+          }
+          catch( final IOException ex ) {
+            throw new RuntimeException( "Unable to read stored body from \"" + filePath_ + "\".", ex );
+          }
+        }
+      }
+
+      @Override
+      public void afterMarshal( final Object source )
+      {
+        if( source instanceof XmlHttpResponse ) {
+          final XmlHttpResponse xmlHttpResponse = (XmlHttpResponse) source;
+          synchronized( BodyStore.this ) {
+            final Entry entry = release
+              ? entries_.remove( xmlHttpResponse )
+              : entries_.get   ( xmlHttpResponse );
+            if( entry != null ) {
+              xmlHttpResponse.setBody( null );
+            }
+          }
+        }
+      }
+    };
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Closes and deletes the body store file.
+   */
+  @Override
+  public synchronized void close() throws IOException
+  {
+    try {
+      if( channel_ != null ) {
+        channel_.close();
+        channel_ = null;
+      }
+      entries_.clear();
+    }
+    finally {
+      Files.deleteIfExists( filePath_ );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private synchronized void store( final XmlHttpResponse xmlHttpResponse )
+  throws IOException
+  {
+    if( xmlHttpResponse == null ) {
+      return;
+    }
+    store( xmlHttpResponse.getOriginalResponse() );
+
+    final String body = xmlHttpResponse.getBody();
+    if( body == null || body.length() <= threshold_ || entries_.containsKey( xmlHttpResponse ) ) {
+      return;
+    }
+    if( channel_ == null ) {
+      throw new IOException( "Body store file \"" + filePath_ + "\" is closed." );
+    }
+
+    final ByteBuffer buffer = ByteBuffer.wrap( body.getBytes( StandardCharsets.UTF_8 ) );
+    final Entry entry = new Entry( size_, buffer.remaining() );
+    while( buffer.hasRemaining() ) {
+      size_ += channel_.write( buffer, size_ );
+    }
+
+    entries_.put( xmlHttpResponse, entry );
+    xmlHttpResponse.setBody( null );
+
+    if( LOG.isTraceEnabled() ) {
+      LOG.trace( "Stored body of " + entry.length_ + " bytes at position " + entry.position_ + "." );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private void release( final XmlHttpResponse xmlHttpResponse )
+  {
+    if( xmlHttpResponse == null ) {
+      return;
+    }
+    release( xmlHttpResponse.getOriginalResponse() );
+    entries_.remove( xmlHttpResponse );
+  }
+}
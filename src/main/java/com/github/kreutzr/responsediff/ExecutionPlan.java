@@ -0,0 +1,234 @@
+package com.github.kreutzr.responsediff;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The parts of a XmlResponseDiffSetup that do not change during a run. They are compiled once before the run (see compile()).
+ * The plan holds the result of each execution context condition ("ifExecutionContextContains") and the parsed durations ("waitBefore" and "maxDuration").
+ * Iterations and parallel tests share the plan, so this work is not repeated for each execution.
+ * Conditions and durations that are not part of the plan (e.g. because they contain variables) are evaluated on demand.
+ * <br/>
+ * <b>NOTE:</b> This class is immutable and thus thread safe.
+ */
+public class ExecutionPlan
+{
+  private static final Logger LOG = LoggerFactory.getLogger( ExecutionPlan.class );
+
+  private final Set< String >           executionContext_;
+  private final Map< String, Boolean >  conditions_;
+  private final Map< String, Duration > durations_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private ExecutionPlan(
+    final Set< String >           executionContext,
+    final Map< String, Boolean >  conditions,
+    final Map< String, Duration > durations
+  )
+  {
+    executionContext_ = Collections.unmodifiableSet( executionContext );
+    conditions_       = Map.copyOf( conditions );
+    durations_        = Map.copyOf( durations );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates an empty plan. All conditions and durations are evaluated on demand.
+   * @param executionContext The execution context. Must not be null.
+   * @return The ExecutionPlan. Never null.
+   */
+  public static ExecutionPlan of( final Set< String > executionContext )
+  {
+    return new ExecutionPlan( executionContext, Collections.emptyMap(), Collections.emptyMap() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Compiles the plan of the given XmlResponseDiffSetup.
+   * NOTE: Iterations that are created at execution time are copies of the compiled XmlTests and XmlTestSets. Hence they are covered, too.
+   * @param xmlTestSetup The XmlResponseDiffSetup to execute. Must not be null.
+   * @param executionContext The execution context. Must not be null.
+   * @return The ExecutionPlan. Never null.
+   */
+  public static ExecutionPlan compile(
+    final XmlResponseDiffSetup xmlTestSetup,
+    final Set< String >        executionContext
+  )
+  {
+    final Map< String, Boolean >  conditions = new HashMap<>();
+    final Map< String, Duration > durations  = new HashMap<>();
+    for( final XmlTestSet xmlTestSet : xmlTestSetup.getTestSet() ) {
+      compile( xmlTestSet, executionContext, conditions, durations );
+    }
+
+    if( LOG.isDebugEnabled() ) {
+      LOG.debug( "Compiled execution plan with " + conditions.size() + " execution context conditions and " + durations.size() + " durations." );
+    }
+
+    return new ExecutionPlan( executionContext, conditions, durations );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The execution context. Never null.
+   */
+  public Set< String > getExecutionContext()
+  {
+    return executionContext_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Checks if the execution context applies to the given condition (see ExecutionContextHelper.matchesExecutionContext()).
+   * @param executionContextKeys The contexts for which an expectation must be considered. May be null.
+   * @param checkContext The current check context. Must not be null.
+   * @param logger The Logger to use. Must not be null.
+   * @return true if no executionContextKeys are defined (empty or null) or at least one of the given context keys can be found within the execution context. Otherwise false is returned.
+   */
+  public boolean matchesExecutionContext(
+    final String executionContextKeys,
+    final String checkContext,
+    final Logger logger
+  )
+  {
+    if( executionContextKeys == null ) {
+      return true;
+    }
+
+    final Boolean matches = conditions_.get( executionContextKeys );
+    // NOTE: A mismatch is evaluated once more to log it.
+    if( matches == null || ( !matches && logger.isDebugEnabled() ) ) {
+      return ExecutionContextHelper.matchesExecutionContext( executionContextKeys, executionContext_, checkContext, logger );
+    }
+
+    return matches;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @param duration The duration as ISO string. May be null.
+   * @return The parsed duration. If the given duration is null, null is returned.
+   * @throws java.time.format.DateTimeParseException If the given duration can not be parsed.
+   */
+  public Duration getDuration( final String duration )
+  {
+    if( duration == null ) {
+      return null;
+    }
+
+    final Duration result = durations_.get( duration );
+    return result != null
+      ? result
+      : Duration.parse( duration.trim() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void compile(
+    final XmlTestSet              xmlTestSet,
+    final Set< String >           executionContext,
+    final Map< String, Boolean >  conditions,
+    final Map< String, Duration > durations
+  )
+  {
+    addCondition( xmlTestSet.getIfExecutionContextContains(), executionContext, conditions );
+    addResponse( xmlTestSet.getResponse(), executionContext, conditions, durations );
+    if( xmlTestSet.getOverAllExpected() != null && xmlTestSet.getOverAllExpected().getMaxDuration() != null ) {
+      addDuration( xmlTestSet.getOverAllExpected().getMaxDuration().getValue(), durations );
+    }
+
+    for( final XmlTest xmlTest : xmlTestSet.getTest() ) {
+      addCondition( xmlTest.getIfExecutionContextContains(), executionContext, conditions );
+      addDuration( xmlTest.getWaitBefore(), durations );
+      addResponse( xmlTest.getResponse(), executionContext, conditions, durations );
+      if( xmlTest.getOverAllExpected() != null && xmlTest.getOverAllExpected().getMaxDuration() != null ) {
+        addDuration( xmlTest.getOverAllExpected().getMaxDuration().getValue(), durations );
+      }
+    }
+
+    for( final XmlTestSet xmlTestSetChild : xmlTestSet.getTestSet() ) {
+      compile( xmlTestSetChild, executionContext, conditions, durations );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void addResponse(
+    final XmlResponse             xmlResponse,
+    final Set< String >           executionContext,
+    final Map< String, Boolean >  conditions,
+    final Map< String, Duration > durations
+  )
+  {
+    if( xmlResponse == null || xmlResponse.getExpected() == null ) {
+      return;
+    }
+
+    final XmlExpected xmlExpected = xmlResponse.getExpected();
+    if( xmlExpected.getHeaders() != null ) {
+      for( final XmlHeader xmlHeader : xmlExpected.getHeaders().getHeader() ) {
+        addCondition( xmlHeader.getIfExecutionContextContains(), executionContext, conditions );
+      }
+    }
+    if( xmlExpected.getValues() != null ) {
+      for( final XmlValue xmlValue : xmlExpected.getValues().getValue() ) {
+        addCondition( xmlValue.getIfExecutionContextContains(), executionContext, conditions );
+      }
+    }
+    if( xmlExpected.getMaxDuration() != null ) {
+      addDuration( xmlExpected.getMaxDuration().getValue(), durations );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void addCondition(
+    final String                 executionContextKeys,
+    final Set< String >          executionContext,
+    final Map< String, Boolean > conditions
+  )
+  {
+    if( executionContextKeys == null || conditions.containsKey( executionContextKeys ) ) {
+      return;
+    }
+
+    boolean matches = executionContextKeys.isBlank();
+    for( final String part : executionContextKeys.split( "," ) ) {
+      matches |= executionContext.contains( part.trim().toLowerCase() );
+    }
+    conditions.put( executionContextKeys, matches );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void addDuration(
+    final String                  duration,
+    final Map< String, Duration > durations
+  )
+  {
+    // NOTE: Durations with variables are resolved at execution time.
+    if( duration == null || duration.contains( "${" ) || durations.containsKey( duration ) ) {
+      return;
+    }
+
+    try {
+      durations.put( duration, Duration.parse( duration.trim() ) );
+    }
+    catch( final Exception ex ) {
+      // NOTE: The error is reported when the duration is used.
+      LOG.trace( "Unable to compile duration \"" + duration + "\".", ex );
+    }
+  }
+}
@@ -0,0 +1,235 @@
+package com.github.kreutzr.responsediff;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Defines how the HttpClient of a service (candidate, reference or control) is created (see createHttpClient()).
+ * All attributes are optional. Attributes that are not set keep the defaults of HttpClient.newHttpClient().
+ * <br/>
+ * <b>NOTE:</b> The keep-alive timeout of idle connections is a setting of the Java runtime (system property "jdk.httpclient.keepalive.timeout") that is read once when the first HttpClient is created.
+ * Hence it applies to all services (and all other HttpClients of the JVM) and is rejected if it cannot take effect anymore (see applyKeepAliveTimeout()).
+ */
+public class HttpClientProfile
+{
+  public static final String HTTP_VERSION__HTTP_1_1 = "HTTP/1.1";
+  public static final String HTTP_VERSION__HTTP_2   = "HTTP/2";
+
+  public static final String EXECUTOR__DEFAULT      = "default";
+  public static final String EXECUTOR__FIXED        = "fixed";
+  public static final String EXECUTOR__VIRTUAL      = "virtual";
+
+  private static final String KEEP_ALIVE_TIMEOUT_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+  private static final AtomicBoolean httpClientCreated_ = new AtomicBoolean( false ); // Flag, if a HttpClient was created by any HttpClientProfile
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private String  httpVersion_;
+  private Long    connectTimeoutMs_;
+  private String  executor_;
+  private Integer executorThreads_;
+  private String  followRedirects_;
+  private Long    keepAliveTimeoutS_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The preferred HTTP version ("HTTP/1.1" or "HTTP/2"). May be null (HTTP/2 with fallback to HTTP/1.1).
+   */
+  public String getHttpVersion()
+  {
+    return httpVersion_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setHttpVersion( final String httpVersion )
+  {
+    httpVersion_ = httpVersion;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The maximum time to establish a connection. May be null (no timeout).
+   */
+  public Long getConnectTimeoutMs()
+  {
+    return connectTimeoutMs_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setConnectTimeoutMs( final Long connectTimeoutMs )
+  {
+    connectTimeoutMs_ = connectTimeoutMs;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The executor for the asynchronous tasks of the HttpClient ("default", "fixed" or "virtual"). May be null (default).
+   */
+  public String getExecutor()
+  {
+    return executor_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setExecutor( final String executor )
+  {
+    executor_ = executor;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The number of threads of a "fixed" executor. May be null (the number of available processors).
+   */
+  public Integer getExecutorThreads()
+  {
+    return executorThreads_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setExecutorThreads( final Integer executorThreads )
+  {
+    executorThreads_ = executorThreads;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The redirect policy ("never", "normal" or "always"). May be null (never).
+   */
+  public String getFollowRedirects()
+  {
+    return followRedirects_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setFollowRedirects( final String followRedirects )
+  {
+    followRedirects_ = followRedirects;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The time in seconds an idle connection is kept open for reuse. This applies to all HttpClients of the JVM. May be null (the default of the Java runtime).
+   */
+  public Long getKeepAliveTimeoutS()
+  {
+    return keepAliveTimeoutS_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setKeepAliveTimeoutS( final Long keepAliveTimeoutS )
+  {
+    keepAliveTimeoutS_ = keepAliveTimeoutS;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates a HttpClient with the settings of this profile. The HttpClient may be used concurrently.
+   * @return The created HttpClient. Never null.
+   * @throws IllegalArgumentException If any setting is not supported, an Exception is thrown.
+   */
+  public HttpClient createHttpClient()
+  {
+    applyKeepAliveTimeout();
+
+    final HttpClient.Builder builder = HttpClient.newBuilder();
+
+    if( httpVersion_ != null ) {
+      switch( httpVersion_.trim().toUpperCase() ) {
+        case HTTP_VERSION__HTTP_1_1 : builder.version( HttpClient.Version.HTTP_1_1 ); break;
+        case HTTP_VERSION__HTTP_2   : builder.version( HttpClient.Version.HTTP_2 );   break;
+        default:
+          throw new IllegalArgumentException( "Unsupported HTTP version \"" + httpVersion_ + "\". Supported versions are \"" + HTTP_VERSION__HTTP_1_1 + "\" and \"" + HTTP_VERSION__HTTP_2 + "\"." );
+      }
+    }
+
+    if( connectTimeoutMs_ != null && connectTimeoutMs_ > 0 ) {
+      builder.connectTimeout( Duration.ofMillis( connectTimeoutMs_ ) );
+    }
+
+    if( executor_ != null ) {
+      switch( executor_.trim().toLowerCase() ) {
+        case EXECUTOR__DEFAULT :
+          break;
+        case EXECUTOR__FIXED :
+          builder.executor( ParallelTestHandler.createExecutor(
+            executorThreads_ != null && executorThreads_ > 0 ? executorThreads_ : Runtime.getRuntime().availableProcessors(),
+            false
+          ) );
+          break;
+        case EXECUTOR__VIRTUAL :
+          builder.executor( ParallelTestHandler.createExecutor( Runtime.getRuntime().availableProcessors(), true ) );
+          break;
+        default:
+          throw new IllegalArgumentException( "Unsupported executor \"" + executor_ + "\". Supported executors are \"" + EXECUTOR__DEFAULT + "\", \"" + EXECUTOR__FIXED + "\" and \"" + EXECUTOR__VIRTUAL + "\"." );
+      }
+    }
+
+    if( followRedirects_ != null ) {
+      try {
+        builder.followRedirects( HttpClient.Redirect.valueOf( followRedirects_.trim().toUpperCase() ) );
+      }
+      catch( final IllegalArgumentException ex ) {
+        throw new IllegalArgumentException( "Unsupported redirect policy \"" + followRedirects_ + "\". Supported policies are \"never\", \"normal\" and \"always\"." );
+      }
+    }
+
+    httpClientCreated_.set( true );
+    return builder.build();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Sets the keep-alive timeout of this profile (if any) as JVM-wide system property.
+   * Call this for all profiles before any HttpClient is created, since the Java runtime reads the property only once.
+   * @throws IllegalArgumentException If the keep-alive timeout cannot take effect (because a HttpClient was already created or a different keep-alive timeout is already set), an Exception is thrown.
+   */
+  public void applyKeepAliveTimeout()
+  {
+    if( keepAliveTimeoutS_ == null ) {
+      return;
+    }
+
+    final String keepAliveTimeout = System.getProperty( KEEP_ALIVE_TIMEOUT_PROPERTY );
+    if( keepAliveTimeoutS_.toString().equals( keepAliveTimeout ) ) {
+      return; // Already applied
+    }
+    if( keepAliveTimeout != null ) {
+      throw new IllegalArgumentException( "The keep-alive timeout of " + keepAliveTimeoutS_ + " seconds cannot take effect, since \"" + KEEP_ALIVE_TIMEOUT_PROPERTY + "\" is already set to " + keepAliveTimeout + " seconds. The keep-alive timeout applies to all HttpClients of the JVM." );
+    }
+    if( httpClientCreated_.get() ) {
+      throw new IllegalArgumentException( "The keep-alive timeout of " + keepAliveTimeoutS_ + " seconds cannot take effect, since a HttpClient was already created. The keep-alive timeout must be set before the first HttpClient of the JVM is created." );
+    }
+
+    System.setProperty( KEEP_ALIVE_TIMEOUT_PROPERTY, keepAliveTimeoutS_.toString() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public String toString()
+  {
+    return "{ \"httpVersion\" : " + ( httpVersion_ != null ? "\"" + httpVersion_ + "\"" : null )
+      + ", \"connectTimeoutMs\" : " + connectTimeoutMs_
+      + ", \"executor\" : " + ( executor_ != null ? "\"" + executor_ + "\"" : null )
+      + ", \"executorThreads\" : " + executorThreads_
+      + ", \"followRedirects\" : " + ( followRedirects_ != null ? "\"" + followRedirects_ + "\"" : null )
+      + ", \"keepAliveTimeoutS\" : " + keepAliveTimeoutS_
+      + " }";
+  }
+}
@@ -1,6 +1,5 @@
 package com.github.kreutzr.responsediff;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
@@ -14,11 +13,15 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HexFormat;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +29,7 @@ import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -63,7 +67,27 @@ public class HttpHandler
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-  private static final Map< String, HttpClient > httpClientByServiceId_ = new TreeMap<>();
+  private static final Map< String, HttpClient > httpClientByServiceId_ = new ConcurrentHashMap<>();
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Defines the HttpClient of the given service. The HttpClient is created once and used for all requests (concurrently).
+   * @param serviceId A String that indicates the associated service (one of CANDIDATE, REFERENCE or CONTROL). Must not be null.
+   * @param httpClientProfile The HttpClientProfile to create the HttpClient by. May be null (the default HttpClient is used).
+   */
+  public static void setHttpClientProfile( final String serviceId, final HttpClientProfile httpClientProfile )
+  {
+    if( httpClientProfile == null ) {
+      httpClientByServiceId_.remove( serviceId );
+      return;
+    }
+
+    if( LOG.isDebugEnabled() ) {
+      LOG.debug( "Using HttpClient profile " + httpClientProfile + " for " + serviceId + " requests." );
+    }
+    httpClientByServiceId_.put( serviceId, httpClientProfile.createHttpClient() );
+  }
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -100,8 +124,7 @@ public class HttpHandler
     }
     else {
       if( xmlRequest.getUploadParts() != null && !xmlRequest.getUploadParts().getFile().isEmpty() ) {
-        final ByteArrayInputStream is = getUploadPartsAsStream( xmlRequest, testFileName );
-        bodyPublisher = HttpRequest.BodyPublishers.ofInputStream( () -> is );
+        bodyPublisher = getUploadPartsAsPublisher( xmlRequest, testFileName ); // Streams the files (they are not read into memory)
       }
       else {
         bodyPublisher = HttpRequest.BodyPublishers.noBody();
@@ -159,22 +182,24 @@ public class HttpHandler
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
   /**
-   * Creates a ByteArrayInputStream that contains all uploadParts. <b>NOTE:</b> The "Content-Type" header will be adjusted as a side effect.
+   * Creates a BodyPublisher that streams all uploadParts as multipart body. <b>NOTE:</b> The "Content-Type" header will be adjusted as a side effect.
+   * The files are not read into memory but streamed from disk each time the body is sent (e.g. to the reference, control and candidate service).
+   * Since the sizes of all parts are known in advance, the body is sent with a "Content-Length" header (instead of chunked).
    * @param xmlRequest The XmlRequest to use. Must not be null.
    * @param testFileName The complete file name of the test. Must not null.
-   * @return A ByteArrayInputStream. May be empty but never null.
-   * @throws IOException
+   * @return A BodyPublisher. May be empty but never null.
+   * @throws IOException If a file to upload does not exist, an Exception is thrown.
    */
-  static ByteArrayInputStream getUploadPartsAsStream(
+  static BodyPublisher getUploadPartsAsPublisher(
     final XmlRequest xmlRequest,
     final String testFileName
   )
   throws IOException
   {
     final String boundary = UUID.randomUUID().toString(); // Boundary must not be longer than 66 characters since "--" is set to front and (additionally) at the end (end of transmission) and total size must not be longer than 70 characters,
-    final List< byte[] > byteArrayList = new ArrayList<>();
+    final List< BodyPublisher > publishers = new ArrayList<>();
 
-    // Read all files to upload and create multipart content
+    // Join the multipart boundaries and the (streamed) files to upload
     final List< XmlFile > xmlFiles = xmlRequest.getUploadParts().getFile();
     for( int i=0; i < xmlFiles.size(); i++ ) {
       final XmlFile xmlFile = xmlFiles.get( i );
@@ -196,34 +221,22 @@ public class HttpHandler
         .append( xmlFile.getCharSet() != null ? "; charset=" + xmlFile.getCharSet().trim() : "" )  // This is an optional attribute
         .append( CRLF )
         .append( CRLF );
-      byteArrayList.add( sb.toString().getBytes() );
-
-      final byte[] fileBytes = Files.readAllBytes( Path.of( uploadFilePath ) );
-      byteArrayList.add( fileBytes );
+      publishers.add( HttpRequest.BodyPublishers.ofByteArray( sb.toString().getBytes() ) );
+      publishers.add( HttpRequest.BodyPublishers.ofFile( Path.of( uploadFilePath ) ) ); // Throws FileNotFoundException
     } // for
 
-    if( !xmlFiles.isEmpty() ) {
-      final StringBuilder sb = new StringBuilder()
-        .append( CRLF )
-        .append( "--" ).append( boundary ).append( "--" )
-        .append( CRLF );
-      byteArrayList.add( sb.toString().getBytes() );
+    if( xmlFiles.isEmpty() ) {
+      return HttpRequest.BodyPublishers.noBody();
     }
 
-    // Gather all bytes
-    int size = 0;
-    for( final byte[] byteArray : byteArrayList ) {
-      size += byteArray.length;
-    }
-    final byte[] bytes = new byte[ size ];
-    int targetPos = 0;
-    for( final byte[] byteArray : byteArrayList ) {
-      System.arraycopy( byteArray, 0, bytes, targetPos, byteArray.length );
-      targetPos += byteArray.length;
-    }
+    final StringBuilder sb = new StringBuilder()
+      .append( CRLF )
+      .append( "--" ).append( boundary ).append( "--" )
+      .append( CRLF );
+    publishers.add( HttpRequest.BodyPublishers.ofByteArray( sb.toString().getBytes() ) );
 
     // Set content-type header to "multipart"
-    if( size > 0 && xmlRequest.getHeaders() != null ) {
+    if( xmlRequest.getHeaders() != null ) {
       XmlHeader foundHeader = getHeader( HEADER_NAME__CONTENT_TYPE, xmlRequest.getHeaders().getHeader() );
 
       if( foundHeader == null ) {
@@ -234,7 +247,7 @@ public class HttpHandler
       foundHeader.setValue( "multipart/form-data; boundary=" + boundary );
     }
 
-    return new ByteArrayInputStream( bytes );
+    return HttpRequest.BodyPublishers.concat( publishers.toArray( new BodyPublisher[ 0 ] ) );
   }
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -310,31 +323,6 @@ public class HttpHandler
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-  /**
-   * Adds a CURL entry to the given XmlRequest.
-   * @param xmlRequest   The XmlRequest to use. May be null.
-   * @param serviceId    A String that indicates the associated service (one of CANDIDATE, REFERENCE or CONTROL). May be null.
-   * @param testFileName The current test file name. Must not be null.
-   * @param outerContext The outer context. Must not be null.
-   */
-  static void addCurl(
-    final XmlRequest xmlRequest,
-    final String serviceId,
-    final String testFileName,
-    final OuterContext outerContext
-  )
-  {
-    if( xmlRequest != null ) {
-      final String curl = toCurl( xmlRequest, testFileName, outerContext );
-      if( LOG.isTraceEnabled() ) {
-        LOG.trace( "Sending " + serviceId + " request. " + curl );
-      }
-      xmlRequest.setCurl( curl );
-    }
-  }
-
-  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
-
   /**
    * Send the given HttpRequest.
    * @param xmlRequest The XmlRequest to store the final URL to. May be null.
@@ -378,7 +366,7 @@ public class HttpHandler
    * @param serviceId A String that indicates the associated service (one of CANDIDATE, REFERENCE or CONTROL). May be null.
    * @param testId The current test id. Must not be null.
    * @param testFileName The file name the current test is configured in. Must not be null.
-   * @return A HttpResonse future. If builder or serviceUrl is null, null is returned.
+   * @return A HttpResonse future. Cancelling it aborts the HTTP exchange. If builder or serviceUrl is null, null is returned.
    * @throws Exception
    */
   public static CompletableFuture< HttpResponse< byte[]> > sendRequest(
@@ -413,21 +401,69 @@ public class HttpHandler
     final HttpRequest httpRequest = builder.build();
 
     // Send request
-    HttpClient client = httpClientByServiceId_.get( serviceId );
-    if( client == null ) {
-      client = HttpClient.newHttpClient();
-      httpClientByServiceId_.put( ( serviceId != null ? serviceId : "UNKNOWN" ), client );
-    }
-    final CompletableFuture< HttpResponse< byte[] > > response = client.sendAsync(
+    final HttpClient client = httpClientByServiceId_.computeIfAbsent(
+      ( serviceId != null ? serviceId : "UNKNOWN" ),
+      id -> new HttpClientProfile().createHttpClient() // The default HttpClient
+    );
+    final JsonBodyHandler bodyHandler = new JsonBodyHandler(); // Decodes and parses JSON bodies while they are received
+    final long start = System.nanoTime();
+    final CompletableFuture< HttpResponse< byte[] > > exchange = client.sendAsync(
        httpRequest,
-       HttpResponse.BodyHandlers.ofByteArray()
+       bodyHandler
     );
+    final CompletableFuture< HttpResponse< byte[] > > response = exchange
+      .thenApply( httpResponse -> new TimedHttpResponse<>( // Measure the HTTP exchange itself
+        httpResponse,
+        Duration.ofNanos( System.nanoTime() - start ),
+        Duration.ofNanos( bodyHandler.getHeadersReceivedNanoTime() - start ),
+        bodyHandler
+      ) );
+
+    // NOTE: Cancelling a dependent future does not cancel its source. So we abort the HTTP exchange (and release its connection) explicitly.
+    //       The body may have been received completely anyway. Its download is not processed then.
+    response.whenComplete( ( httpResponse, ex ) -> {
+      if( ex != null ) {
+        exchange.cancel( true );
+        exchange.whenComplete( ( exchangeResponse, exchangeEx ) -> deleteDownload( bodyHandler.getDownload() ) );
+      }
+    } );
 
     return response;
   }
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Discards a response that is not processed (see createXmlHttpResponse()).
+   * If the response was not received yet, the request is cancelled. If it was (or will be) received, its streamed download (if any) is deleted.
+   * @param httpResponseFuture The response future to discard. May be null.
+   */
+  static void discard( final CompletableFuture< HttpResponse< byte[] > > httpResponseFuture )
+  {
+    if( httpResponseFuture == null ) {
+      return;
+    }
+
+    httpResponseFuture.cancel( true ); // No effect if the response was already received
+    httpResponseFuture.thenAccept( httpResponse -> {
+      if( httpResponse instanceof TimedHttpResponse ) {
+        deleteDownload( ( (TimedHttpResponse< ? >) httpResponse ).getDownload() );
+        ( (TimedHttpResponse< ? >) httpResponse ).releaseBody();
+      }
+    } );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void deleteDownload( final StreamedDownload streamedDownload )
+  {
+    if( streamedDownload != null ) {
+      streamedDownload.delete(); // Unless it was moved to the report folder
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   private static String maskSpecialUrlCharacters( final String endPoint )
   {
 	return endPoint
@@ -555,21 +591,78 @@ public class HttpHandler
       LOG.trace( "createXmlHttpResponse( testId=" + testId + ", serviceId="+ serviceId + ", timeout=" + timeoutMs + ", endpoint=" + xmlRequest.getEndpoint() + ")" );
     }
 
-    final XmlHttpResponse xmlHttpResponse = new XmlHttpResponse();
-    xmlHttpResponse.setHeaders( new XmlHeaders() );
-
     HttpResponse< byte[] > httpResponse = null;
     try {
       httpResponse = httpResponseFuture.get( timeoutMs, TimeUnit.MILLISECONDS );
 //    ###  final HttpResponse< String > httpResponse = httpResponseFuture.join();
     }
     catch( final InterruptedException | CancellationException | ExecutionException | TimeoutException ex ) {
+      discard( httpResponseFuture ); // The response may still be received (e.g. after a timeout)
       throw new HttpHandlerException( ex.getMessage(), serviceId, ex );
     }
 
+    final StreamedDownload streamedDownload = httpResponse instanceof TimedHttpResponse
+      ? ( (TimedHttpResponse< ? >) httpResponse ).getDownload() // The body was streamed to a file (instead of the body array)
+      : null;
+    try {
+      return createXmlHttpResponse( httpResponse, streamedDownload, xmlResponse, filterRegistry, serviceId, testId, testFileName, storeReportPath, testSetPath, testSetWorkPath );
+    }
+    finally {
+      deleteDownload( streamedDownload );
+      if( httpResponse instanceof TimedHttpResponse ) {
+        // The XmlHttpResponse holds the body String (and the JsonBodyCache the tree). So the raw body is not kept while the response future is still referenced.
+        ( (TimedHttpResponse< ? >) httpResponse ).releaseBody();
+      }
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates a XmlHttpResponse from the given received HttpResponse.
+   * @param httpResponse The received HttpResponse. Must not be null.
+   * @param streamedDownload The download the body was streamed to. May be null (if the body was kept in memory).
+   * @param xmlResponse The XmlResponse. Must not be null.
+   * @param filterRegistry The registry that holds all registered filters. Must not be null.
+   * @param serviceId A String that indicates the associated service (one of CANDIDATE, REFERENCE or CONTROL). May be null.
+   * @param testId The current test id. Must not be null.
+   * @param testFileName The file name the current test is configured in. Must not be null.
+   * @param storeReportPath The path where the report is stored to. May be null.
+   * @param testSetPath The path of the current TestSet. Must not be null.
+   * @param testSetWorkPath An optional folder (relative to the testSetPath) that should be used (e.g., for downloads)
+   * @return The initialized XmlHttpResponse object. Never null.
+   * @throws DiffFilterException
+   * @throws IOException
+   */
+  private static XmlHttpResponse createXmlHttpResponse(
+    final HttpResponse< byte[] >    httpResponse,
+    final StreamedDownload          streamedDownload,
+    final XmlResponse               xmlResponse,
+    final Map< String, DiffFilter > filterRegistry,
+    final String                    serviceId,
+    final String                    testId,
+    final String                    testFileName,
+    final String                    storeReportPath,
+    final String                    testSetPath,
+    final String                    testSetWorkPath
+  )
+  throws DiffFilterException, IOException
+  {
+    final XmlHttpResponse xmlHttpResponse = new XmlHttpResponse();
+    xmlHttpResponse.setHeaders( new XmlHeaders() );
+
     // NOTE: Calculate request duration as soon as possible
     String requestDuration = null;
-    if( xmlResponse.getRequestTime() != null ) {
+    if( xmlResponse.getRequestTime() != null && httpResponse instanceof TimedHttpResponse ) {
+      // NOTE: This does not depend on the point in time the response is processed (e.g. if all requests were sent at once).
+      final TimedHttpResponse< ? > timedHttpResponse = (TimedHttpResponse< ? >) httpResponse;
+      requestDuration = timedHttpResponse.getDuration().toString();
+      if( timedHttpResponse.getTimeToFirstByte() != null ) {
+        xmlHttpResponse.setTimeToFirstByte     ( timedHttpResponse.getTimeToFirstByte().toString() );
+        xmlHttpResponse.setBodyTransferDuration( timedHttpResponse.getBodyTransferDuration().toString() );
+      }
+    }
+    else if( xmlResponse.getRequestTime() != null ) {
       final LocalDateTime now = LocalDateTime.now();
       final LocalDateTime start = LocalDateTime.parse( xmlResponse.getRequestTime() );
       final Duration duration = Duration.between( start, now );
@@ -582,7 +675,7 @@ public class HttpHandler
     xmlHttpResponse.setHttpStatus( xmlHttpStatus );
     xmlHttpResponse.setRequestDuration( requestDuration );
     String contentDisposition = null;
-    int    contentLength      = 0;
+    long   contentLength      = 0;
     String contentType        = null;
     final Map< String, List< String > > headers = new TreeMap<>( httpResponse.headers().map() );
     boolean hasContentLengthHeader = false;
@@ -620,7 +713,7 @@ public class HttpHandler
         contentDisposition = xmlHeader.getValue();
       }
       else if( key.equalsIgnoreCase( HEADER_NAME__CONTENT_LENGTH ) ) {
-        contentLength = Converter.asInteger( xmlHeader.getValue(), 0 );
+        contentLength = Converter.asLong( xmlHeader.getValue(), 0L );
         hasContentLengthHeader = true;
       }
       else if( key.equalsIgnoreCase( HEADER_NAME__CONTENT_TYPE ) ) {
@@ -634,17 +727,39 @@ public class HttpHandler
     // Set body
     final byte[] rawBody = httpResponse.body(); // NEEDS FIX C: Check if this is required (e.g., when downloading a PNG)
     final Charset charSet = readCharsetFromContentTypeHeader( contentType, StandardCharsets.UTF_8 );
-    xmlHttpResponse.setBody( new String( httpResponse.body(), charSet ) );
+    final String bodyText = httpResponse instanceof TimedHttpResponse
+      ? ( (TimedHttpResponse< ? >) httpResponse ).getBodyText() // JSON bodies were decoded while they were received (the raw body is empty)
+      : null;
+    final long bodySize = bodyText != null
+      ? ( (TimedHttpResponse< ? >) httpResponse ).getBodySize()
+      : rawBody.length;
+    xmlHttpResponse.setBody( bodyText != null ? bodyText : new String( rawBody, charSet ) );
+    long encodedBodySize = -1L;
+    if( httpResponse instanceof TimedHttpResponse ) {
+      // Keep the JSON tree that was parsed while the body was received (as long as no filter changes the body)
+      JsonBodyCache.put( xmlHttpResponse, ( (TimedHttpResponse< ? >) httpResponse ).getJson() );
+      encodedBodySize = ( (TimedHttpResponse< ? >) httpResponse ).getEncodedBodySize();
+    }
+    final boolean isDecoded = encodedBodySize >= 0;
+    if( isDecoded ) {
+      // Report the received (e.g. compressed) and the decoded size
+      xmlHttpResponse.setEncodedBodySize( encodedBodySize );
+      xmlHttpResponse.setBodySize( bodySize );
+    }
 
     // Fix missing content-length header
     // ( e.g., Jetty 12 does not return this header for performance reasons.
     //   They just stream the data, without knowing how long the body will be when sending the headers.
     // )
     if( !hasContentLengthHeader ) {
-      contentLength = rawBody.length; // The length of the e.g. compressed body)
+      contentLength = isDecoded
+        ? encodedBodySize // The length of the e.g. compressed body
+        : streamedDownload != null
+          ? streamedDownload.getSize()
+          : bodySize;
       final XmlHeader xmlHeader = new XmlHeader();
       xmlHeader.setName( HEADER_NAME__CONTENT_LENGTH );
-      xmlHeader.setValue( Integer.toString( contentLength ) );
+      xmlHeader.setValue( Long.toString( contentLength ) );
       xmlHttpResponse.getHeaders().getHeader().add( xmlHeader );
     }
 
@@ -653,8 +768,17 @@ public class HttpHandler
                + " )" + ( LOG.isTraceEnabled() ? ": " + xmlHttpResponse.getBody() : "" ) );
     }
 
+    // NOTE: Response filters (e.g. XmlToJsonResponseFilter) need the body. So a streamed download is read into the body first.
+    boolean bodyIsRead = streamedDownload == null;
+    if( !bodyIsRead && xmlResponse.getFilters() != null && !xmlResponse.getFilters().getFilter().isEmpty() ) {
+      xmlHttpResponse.setBody( new String( Files.readAllBytes( streamedDownload.getFile() ), charSet ) );
+      bodyIsRead = true;
+    }
+
     // Apply response filters
+    final long filterStart = System.nanoTime();
     applyResponseFilters( xmlHttpResponse, xmlResponse, filterRegistry, serviceId, testId, testFileName );
+    xmlHttpResponse.setFilterDuration( Duration.ofNanos( System.nanoTime() - filterStart ).toString() ); // Local processing (not part of the requestDuration)
     // NEEDS FIX C: Apply response variables if we have a use case for that
 
     // (Re-)set bodyIsJson flag (if changed by a filter)
@@ -662,7 +786,7 @@ public class HttpHandler
     final String newContentType = contentTypeHeader != null
       ? contentTypeHeader.getValue()
       : null;
-    xmlHttpResponse.setBodyIsJson( isJsonResponse( newContentType ) && !isCompressed( xmlHttpResponse.getHeaders().getHeader() ) );
+    xmlHttpResponse.setBodyIsJson( isJsonResponse( newContentType ) && ( isDecoded || !isCompressed( xmlHttpResponse.getHeaders().getHeader() ) ) );
 
     // Set body
     if( !xmlResponse.isHideBody() ) {
@@ -671,19 +795,17 @@ public class HttpHandler
        && contentLength > 0
       ) {
         // Download successful non JSON response body
-        xmlHttpResponse.setDownload( createXmlDownload(
-          rawBody,
-          newContentType,
-          serviceId,
-          testId,
-          contentDisposition,
-          storeReportPath,
-          testSetPath,
-          testSetWorkPath
-        ) );
+        xmlHttpResponse.setDownload( streamedDownload != null
+          ? createXmlDownload( streamedDownload, newContentType, serviceId, testId, contentDisposition, storeReportPath, testSetPath, testSetWorkPath )
+          : createXmlDownload( bodyText != null ? bodyText.getBytes( charSet ) : rawBody, newContentType, serviceId, testId, contentDisposition, storeReportPath, testSetPath, testSetWorkPath )
+        );
 
         xmlHttpResponse.setBody( null ); // Either download or body
       }
+      else if( !bodyIsRead ) {
+        // The body is needed after all (e.g. the response is not reported as download)
+        xmlHttpResponse.setBody( new String( Files.readAllBytes( streamedDownload.getFile() ), charSet ) );
+      }
     }
     else {
       xmlHttpResponse.setBody( "ResponseDiff: Body was hidden on demand (hideBody was set to true)." );
@@ -713,7 +835,7 @@ public class HttpHandler
 
   /**
    * Stores the body content to a file and creates a XmlDownload object that holds all information associated with to that file.
-   * @param bytes The bytes to store. May be null.
+   * @param bytes The bytes to store. Must not be null.
    * @param contentType The content type. May be null.
    * @param serviceId A String that indicates the associated service (one of CANDIDATE, REFERENCE or CONTROL). May be null.
    * @param testId The current test id. Must not be null.
@@ -733,6 +855,50 @@ public class HttpHandler
     final String storeReportPath,
     final String testSetPath,
     final String testSetWorkPath
+  ) throws IOException {
+    return createXmlDownload( bytes, null, contentType, serviceId, testId, contentDisposition, storeReportPath, testSetPath, testSetWorkPath );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Moves a streamed body to the report folder and creates a XmlDownload object that holds all information associated with to that file.
+   * @param streamedDownload The streamed body to move. Must not be null.
+   * @param contentType The content type. May be null.
+   * @param serviceId A String that indicates the associated service (one of CANDIDATE, REFERENCE or CONTROL). May be null.
+   * @param testId The current test id. Must not be null.
+   * @param contentDisposition The content disposition header. May be null.
+   * @param storeReportPath The path to store the download file. May be null.
+   * @param testSetPath The path of the current TestSet. Must not be null.
+   * @param testSetWorkPath An optional folder (relative to the testSetPath) that should be used (e.g., for downloads)
+   * @return The link to the downloaded file as JSON.
+   * @throws IOException
+   */
+  static XmlDownload createXmlDownload(
+    final StreamedDownload streamedDownload,
+    final String contentType,
+    final String serviceId,
+    final String testId,
+    final String contentDisposition,
+    final String storeReportPath,
+    final String testSetPath,
+    final String testSetWorkPath
+  ) throws IOException {
+    return createXmlDownload( null, streamedDownload, contentType, serviceId, testId, contentDisposition, storeReportPath, testSetPath, testSetWorkPath );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static XmlDownload createXmlDownload(
+    final byte[] bytes,
+    final StreamedDownload streamedDownload,
+    final String contentType,
+    final String serviceId,
+    final String testId,
+    final String contentDisposition,
+    final String storeReportPath,
+    final String testSetPath,
+    final String testSetWorkPath
   ) throws IOException {
     if( storeReportPath == null ) {
       return null;
@@ -774,7 +940,12 @@ public class HttpHandler
     final String filePath = folderPath + fileName;
 //LOG.error( "### RKR ###: filePath=" + filePath );
     try {
-      Files.write( Path.of( filePath ), bytes, StandardOpenOption.CREATE );  // Error with "file=/export/home/rkreutz/work/develop/test/aixigo-responsediff/src/test/resources/poc/goals-and-constraints/../info.xml"
+      if( streamedDownload != null ) {
+        Files.move( streamedDownload.getFile(), Path.of( filePath ), StandardCopyOption.REPLACE_EXISTING ); // The body is not loaded into memory
+      }
+      else {
+        Files.write( Path.of( filePath ), bytes, StandardOpenOption.CREATE );  // Error with "file=/export/home/rkreutz/work/develop/test/aixigo-responsediff/src/test/resources/poc/goals-and-constraints/../info.xml"
+      }
     }
     catch( final Throwable ex ) {
       final String message = "Error creating download file \"" + filePath + "\".";
@@ -784,13 +955,30 @@ public class HttpHandler
     // Create XmlDownload
     final XmlDownload xmlDownload= new XmlDownload();
     xmlDownload.setFilename( relativeTestSetPath + fileName ); // We add a relative path here
-    xmlDownload.setSize( bytes.length );
+    xmlDownload.setSize  ( streamedDownload != null ? streamedDownload.getSize() : bytes.length );
+    xmlDownload.setSha256( streamedDownload != null ? streamedDownload.getSha256() : sha256( bytes ) );
 
     return xmlDownload;
   }
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * @param bytes The bytes to digest. Must not be null.
+   * @return The SHA-256 digest of the given bytes (as lower case hex string). Never null.
+   */
+  static String sha256( final byte[] bytes )
+  {
+    try {
+      return HexFormat.of().formatHex( MessageDigest.getInstance( "SHA-256" ).digest( bytes ) );
+    }
+    catch( final NoSuchAlgorithmException ex ) {
+      throw new IllegalStateException( "SHA-256 is not supported.", ex ); // Every Java platform must support SHA-256
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   /**
    * Computes a file extension for a given content type.
    * @param contentType The content type. May be null.
@@ -1206,6 +1394,7 @@ public class HttpHandler
         LOG.warn( "Filter \"" + filterId + "\" in " + serviceId + " test \"" + testId + "\" was configured for request but is not a request filter. It is ignore. (file=" + testFileName + ")" );
       }
       else {
+        // NOTE: Request filters may be stateful (e.g. SetVariablesRequestFilter). Concurrent tests are serialized by the caller (see TestSetHandler.prepareRequests()).
         ( (DiffRequestFilter)filter ).apply( xmlRequest, serviceId, xmlTest );
         if( LOG.isTraceEnabled() ) {
           LOG.trace( "Request of " + serviceId + " test \"" + testId + "\" after applying filter \"" + filter.getClass().getSimpleName() + "\" : " + ToJson.fromXmlRequest( xmlRequest ) );
@@ -0,0 +1,62 @@
+package com.github.kreutzr.responsediff;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the requests that are currently in flight, so they can be cancelled at once (e.g. if a test broke and the follow-up tests are skipped).
+ * Cancelling a request aborts its HTTP exchange and releases its connection (see HttpHandler.sendRequest()).
+ */
+public class InFlightRequests
+{
+  private final Set< CompletableFuture< ? > > futures_ = ConcurrentHashMap.newKeySet();
+  private volatile boolean                    cancelled_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Registers the given request until it is completed. If the requests were already cancelled, the given request is cancelled right away.
+   * @param future The request to register. May be null.
+   * @return The given future. May be null.
+   */
+  public < T > CompletableFuture< T > register( final CompletableFuture< T > future )
+  {
+    if( future == null ) {
+      return null;
+    }
+
+    futures_.add( future );
+    future.whenComplete( ( result, ex ) -> futures_.remove( future ) );
+
+    // NOTE: A request may have been sent while the other requests were cancelled.
+    if( cancelled_ ) {
+      future.cancel( true );
+    }
+
+    return future;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Cancels all registered requests as well as all requests that are registered later on.
+   */
+  public void cancelAll()
+  {
+    cancelled_ = true;
+    for( final CompletableFuture< ? > future : futures_ ) {
+      future.cancel( true );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return true if cancelAll() was called. Otherwise false is returned.
+   */
+  public boolean isCancelled()
+  {
+    return cancelled_;
+  }
+}
@@ -0,0 +1,95 @@
+package com.github.kreutzr.responsediff;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Keeps the JSON trees of response bodies that were parsed while they were received (see JsonBodyHandler), so they do not have to be parsed again for validation.
+ * A tree is only provided as long as the body of its XmlHttpResponse was not changed (e.g. by a response filter).
+ * <br/>
+ * <b>NOTE:</b> The trees must not be modified. They are released after their test has finished (see release()). This class is thread safe.
+ */
+class JsonBodyCache
+{
+  /**
+   * A JSON tree and the body it was parsed from.
+   */
+  private static class Entry
+  {
+    final String   body_;
+    final JsonNode json_;
+
+    Entry( final String body, final JsonNode json )
+    {
+      body_ = body;
+      json_ = json;
+    }
+  }
+
+  // NOTE: XmlHttpResponse does not override equals(). So the XmlHttpResponses are identified by identity.
+  private static final Map< XmlHttpResponse, Entry > ENTRIES = new WeakHashMap<>();
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private JsonBodyCache()
+  {
+    // Static helper class
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Registers the JSON tree of the current body of the given XmlHttpResponse.
+   * @param xmlHttpResponse The XmlHttpResponse. Must not be null.
+   * @param json The JSON tree of the current body. May be null.
+   */
+  static void put( final XmlHttpResponse xmlHttpResponse, final JsonNode json )
+  {
+    if( json == null || xmlHttpResponse.getBody() == null ) {
+      return;
+    }
+    synchronized( ENTRIES ) {
+      ENTRIES.put( xmlHttpResponse, new Entry( xmlHttpResponse.getBody(), json ) );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @param xmlHttpResponse The XmlHttpResponse. May be null.
+   * @return The JSON tree of the current body of the given XmlHttpResponse. If the body was not parsed or was changed afterwards, null is returned.
+   */
+  static JsonNode get( final XmlHttpResponse xmlHttpResponse )
+  {
+    if( xmlHttpResponse == null ) {
+      return null;
+    }
+    synchronized( ENTRIES ) {
+      final Entry entry = ENTRIES.get( xmlHttpResponse );
+      return entry != null && entry.body_ == xmlHttpResponse.getBody() // Identity check. A filter sets a new body String.
+        ? entry.json_
+        : null;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Releases the JSON trees of all responses of the given finished XmlTest.
+   * @param xmlTest The finished XmlTest. Must not be null.
+   */
+  static void release( final XmlTest xmlTest )
+  {
+    final XmlResponse xmlResponse = xmlTest.getResponse();
+    if( xmlResponse == null ) {
+      return;
+    }
+    synchronized( ENTRIES ) {
+      ENTRIES.remove( xmlResponse.getHttpResponse() );
+      ENTRIES.remove( xmlResponse.getReferenceResponse() );
+      ENTRIES.remove( xmlResponse.getControlResponse() );
+    }
+  }
+}
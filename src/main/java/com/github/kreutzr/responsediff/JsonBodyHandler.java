@@ -0,0 +1,512 @@
+package com.github.kreutzr.responsediff;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.ResponseInfo;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.github.kreutzr.responsediff.decoder.ContentDecoder;
+import com.github.kreutzr.responsediff.decoder.ContentDecoders;
+import com.github.kreutzr.responsediff.tools.JsonHelper;
+
+/**
+ * A BodyHandler that receives the response body as byte array.
+ * Encoded (e.g. gzip compressed) JSON bodies are decoded while their bytes arrive, if the encoding is supported (see ContentDecoders). Other bodies are kept as they were received.
+ * UTF-8 JSON bodies are tokenized by a non-blocking parser while their (decoded) bytes arrive, so parsing overlaps with the network transfer.
+ * The resulting JSON tree is available after the body was received (see getJson()).
+ * JSON bodies are not returned as byte array (it is empty) but as text (see getBodyText()). The text is decoded directly from the receive buffer,
+ * which is pre-sized by the Content-Length header (if any and if the body is not decoded) and released afterwards. So no further copy of the raw bytes is kept.
+ * Successful non JSON bodies (downloads) are not kept in memory but streamed to a temporary file while their SHA-256 digest is calculated (see getDownload()).
+ * <br/>
+ * <b>NOTE:</b> A JsonBodyHandler must be used for one request only. If the body is no valid JSON, the tree is null.
+ */
+public class JsonBodyHandler implements HttpResponse.BodyHandler< byte[] >
+{
+  private static final ObjectMapper MAPPER = JsonHelper.provideObjectMapper();
+  private static final Logger       LOG    = LoggerFactory.getLogger( JsonBodyHandler.class );
+
+  private static final byte[] NO_BYTES = new byte[ 0 ];
+
+  private volatile JsonNode json_;
+  private volatile String   bodyText_;
+  private volatile long     bodySize_    = -1L;
+  private volatile long     encodedSize_ = -1L;
+  private volatile long     headersReceivedNanoTime_;
+  private volatile StreamedDownload download_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public BodySubscriber< byte[] > apply( final ResponseInfo responseInfo )
+  {
+    headersReceivedNanoTime_ = System.nanoTime(); // This is invoked as soon as the response headers were received
+
+    final String contentType     = responseInfo.headers().firstValue( HttpHandler.HEADER_NAME__CONTENT_TYPE ).orElse( null );
+    final String contentEncoding = responseInfo.headers().firstValue( HttpHandler.HEADER_NAME__CONTENT_ENCODING ).orElse( null );
+    final long   contentLength   = responseInfo.headers().firstValueAsLong( HttpHandler.HEADER_NAME__CONTENT_LENGTH ).orElse( -1 );
+
+    final boolean isJson       = HttpHandler.isJsonResponse( contentType );
+    if( !isJson && HttpHandler.isSuccessStatusCode( responseInfo.statusCode() ) && contentLength != 0 ) {
+      try {
+        return new DownloadSubscriber();
+      }
+      catch( final IOException ex ) {
+        LOG.warn( "Unable to create temporary download file. The body is kept in memory.", ex );
+      }
+    }
+
+    final boolean isIdentity   = contentEncoding == null || contentEncoding.trim().equalsIgnoreCase( ContentDecoders.ENCODING__IDENTITY );
+    final ContentDecoder decoder = isJson && !isIdentity
+      ? ContentDecoders.createDecoder( contentEncoding ) // NOTE: Downloads (non JSON bodies) are stored as they were received.
+      : null;
+
+    final boolean isParsable = isJson
+      && ( isIdentity || decoder != null )
+      && HttpHandler.readCharsetFromContentTypeHeader( contentType, StandardCharsets.UTF_8 ).equals( StandardCharsets.UTF_8 ); // The non-blocking parser supports UTF-8 only
+
+    final Charset textCharset = isJson && ( isIdentity || decoder != null )
+      ? HttpHandler.readCharsetFromContentTypeHeader( contentType, StandardCharsets.UTF_8 )
+      : null; // Bodies that can not be decoded are kept as bytes (e.g. for a download)
+
+    return new JsonBodySubscriber( isParsable, decoder, decoder == null ? contentLength : -1L, textCharset );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The JSON tree of the received body. May be null (e.g. if the body is no JSON or was not received yet).
+   */
+  public JsonNode getJson()
+  {
+    return json_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The (decoded) text of a JSON body. If the body was returned as byte array or was not received yet, null is returned.
+   */
+  public String getBodyText()
+  {
+    return bodyText_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The number of (decoded) bytes of the body text (see getBodyText()). If there is no body text, -1 is returned.
+   */
+  public long getBodySize()
+  {
+    return bodySize_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Releases the body text and the JSON tree (e.g. after they were handed to a XmlHttpResponse and the JsonBodyCache).
+   * Afterwards getBodyText() and getJson() return null.
+   */
+  public void releaseBody()
+  {
+    bodyText_ = null;
+    json_     = null;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The System.nanoTime() when the response headers were received. If no headers were received yet, 0 is returned.
+   */
+  public long getHeadersReceivedNanoTime()
+  {
+    return headersReceivedNanoTime_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The number of encoded bytes that were received. If the body was not decoded, -1 is returned.
+   */
+  public long getEncodedSize()
+  {
+    return encodedSize_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The download the body was streamed to. If the body was kept in memory, null is returned (the body is empty otherwise).
+   */
+  public StreamedDownload getDownload()
+  {
+    return download_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private class JsonBodySubscriber implements BodySubscriber< byte[] >
+  {
+    private final CompletableFuture< byte[] > result_ = new CompletableFuture<>();
+    private       ByteArrayOutputStream       bytes_;       // Null after the body was received
+    private final Charset                     textCharset_; // The charset to decode the body text with. Null if the body is returned as byte array.
+    private final ContentDecoder              decoder_;
+    private final OutputStream                decoded_;     // Receives the decoded bytes
+    private       Flow.Subscription           subscription_;
+    private       long                        receivedSize_; // The number of (encoded) bytes received so far
+    private       JsonParser                  parser_;
+    private       TokenBuffer                 tokens_;
+    private       int                         depth_;
+    private       boolean                     complete_;    // Flag, if the root value was read completely
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    JsonBodySubscriber( final boolean isParsable, final ContentDecoder decoder, final long contentLength, final Charset textCharset )
+    {
+      bytes_       = new ByteArrayOutputStream( contentLength > 0 && contentLength < Integer.MAX_VALUE ? (int) contentLength : 8192 );
+      textCharset_ = textCharset;
+      decoder_     = decoder;
+      decoded_ = new OutputStream() {
+        @Override
+        public void write( final int b )
+        {
+          write( new byte[] { (byte) b }, 0, 1 );
+        }
+
+        @Override
+        public void write( final byte[] bytes, final int offset, final int length )
+        {
+          bytes_.write( bytes, offset, length );
+          parse( ByteBuffer.wrap( bytes, offset, length ) );
+        }
+      };
+      if( isParsable ) {
+        try {
+          parser_ = MAPPER.getFactory().createNonBlockingByteBufferParser();
+          tokens_ = new TokenBuffer( MAPPER, false );
+        }
+        catch( final IOException ex ) {
+          LOG.debug( "Unable to create non-blocking JSON parser.", ex );
+          parser_ = null;
+        }
+      }
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public CompletionStage< byte[] > getBody()
+    {
+      return result_;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onSubscribe( final Flow.Subscription subscription )
+    {
+      subscription_ = subscription;
+      subscription.request( Long.MAX_VALUE );
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onNext( final List< ByteBuffer > buffers )
+    {
+      if( result_.isDone() ) {
+        return; // Decoding failed
+      }
+
+      for( final ByteBuffer buffer : buffers ) {
+        receivedSize_ += buffer.remaining();
+
+        if( decoder_ != null ) {
+          try {
+            decoder_.decode( buffer, decoded_ );
+          }
+          catch( final IOException ex ) {
+            subscription_.cancel();
+            onError( ex );
+            return;
+          }
+          continue;
+        }
+
+        final ByteBuffer copy = buffer.duplicate();
+        if( copy.hasArray() ) {
+          bytes_.write( copy.array(), copy.arrayOffset() + copy.position(), copy.remaining() );
+        }
+        else {
+          final byte[] chunk = new byte[ copy.remaining() ];
+          copy.get( chunk );
+          bytes_.write( chunk, 0, chunk.length );
+        }
+        parse( buffer );
+      }
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onError( final Throwable throwable )
+    {
+      closeParser();
+      result_.completeExceptionally( throwable );
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onComplete()
+    {
+      if( result_.isDone() ) {
+        return; // Decoding failed
+      }
+
+      if( decoder_ != null ) {
+        try {
+          decoder_.finish( decoded_ );
+        }
+        catch( final IOException ex ) {
+          onError( ex );
+          return;
+        }
+        encodedSize_ = receivedSize_;
+      }
+
+      if( parser_ != null ) {
+        try {
+          if( !complete_ ) {
+            parser_.getNonBlockingInputFeeder().endOfInput();
+            readTokens();
+          }
+          if( complete_ ) {
+            json_ = MAPPER.readTree( tokens_.asParser() );
+          }
+        }
+        catch( final IOException ex ) {
+          abortParsing( ex );
+        }
+        closeParser();
+      }
+
+      final ByteArrayOutputStream bytes = bytes_;
+      bytes_ = null; // Do not keep the raw bytes
+      if( textCharset_ != null ) {
+        // NOTE: The text is decoded from the buffer itself (toByteArray() would copy the bytes first).
+        bodySize_ = bytes.size();
+        bodyText_ = bytes.toString( textCharset_ );
+        result_.complete( NO_BYTES );
+      }
+      else {
+        result_.complete( bytes.toByteArray() );
+      }
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Feeds the given (decoded) bytes to the parser.
+     * @param buffer The bytes to parse. Must not be null. They are consumed completely before this method returns.
+     */
+    private void parse( final ByteBuffer buffer )
+    {
+      if( parser_ == null || complete_ ) {
+        return;
+      }
+      try {
+        ( (ByteBufferFeeder) parser_.getNonBlockingInputFeeder() ).feedInput( buffer );
+        readTokens();
+      }
+      catch( final IOException ex ) {
+        abortParsing( ex );
+      }
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Copies all available tokens of the root value to the TokenBuffer.
+     */
+    private void readTokens()
+    throws IOException
+    {
+      JsonToken token;
+      while( !complete_ && ( token = parser_.nextToken() ) != null && token != JsonToken.NOT_AVAILABLE ) {
+        tokens_.copyCurrentEvent( parser_ );
+        if( token.isStructStart() ) {
+          depth_++;
+        }
+        else if( token.isStructEnd() ) {
+          depth_--;
+        }
+        complete_ = depth_ == 0; // NOTE: Trailing content is ignored (like ObjectMapper.readTree() does).
+      }
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void abortParsing( final IOException ex )
+    {
+      if( LOG.isDebugEnabled() ) {
+        LOG.debug( "Response body is no valid JSON. It is parsed after it was received.", ex );
+      }
+      closeParser();
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void closeParser()
+    {
+      if( parser_ == null ) {
+        return;
+      }
+      try {
+        parser_.close();
+      }
+      catch( final IOException ex ) {
+        // Ignore this.
+      }
+      parser_ = null;
+      tokens_ = null;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Streams the body to a temporary file and calculates its size and SHA-256 digest. The resulting byte array is empty.
+   */
+  private class DownloadSubscriber implements BodySubscriber< byte[] >
+  {
+    private final CompletableFuture< byte[] > result_ = new CompletableFuture<>();
+    private final Path                        file_;
+    private final FileChannel                 channel_;
+    private final MessageDigest               digest_;
+    private       Flow.Subscription           subscription_;
+    private       long                        size_;
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    DownloadSubscriber()
+    throws IOException
+    {
+      try {
+        digest_ = MessageDigest.getInstance( "SHA-256" );
+      }
+      catch( final NoSuchAlgorithmException ex ) {
+        throw new IllegalStateException( "SHA-256 is not supported.", ex ); // Every Java platform must support SHA-256
+      }
+      file_    = Files.createTempFile( "responsediff-", ".download" );
+      channel_ = FileChannel.open( file_, StandardOpenOption.WRITE );
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public CompletionStage< byte[] > getBody()
+    {
+      return result_;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onSubscribe( final Flow.Subscription subscription )
+    {
+      subscription_ = subscription;
+      subscription.request( Long.MAX_VALUE );
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onNext( final List< ByteBuffer > buffers )
+    {
+      if( result_.isDone() ) {
+        return; // Writing failed
+      }
+
+      try {
+        for( final ByteBuffer buffer : buffers ) {
+          digest_.update( buffer.duplicate() );
+          size_ += buffer.remaining();
+          while( buffer.hasRemaining() ) {
+            channel_.write( buffer );
+          }
+        }
+      }
+      catch( final IOException ex ) {
+        subscription_.cancel();
+        onError( ex );
+      }
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onError( final Throwable throwable )
+    {
+      close();
+      try {
+        Files.deleteIfExists( file_ );
+      }
+      catch( final IOException ex ) {
+        LOG.warn( "Unable to delete temporary download file \"" + file_ + "\".", ex );
+      }
+      result_.completeExceptionally( throwable );
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onComplete()
+    {
+      if( result_.isDone() ) {
+        return; // Writing failed
+      }
+
+      close();
+      download_ = new StreamedDownload( file_, size_, HexFormat.of().formatHex( digest_.digest() ) );
+      result_.complete( new byte[ 0 ] );
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void close()
+    {
+      try {
+        channel_.close();
+      }
+      catch( final IOException ex ) {
+        LOG.warn( "Unable to close temporary download file \"" + file_ + "\".", ex );
+      }
+    }
+  }
+}
@@ -91,7 +91,19 @@ public class JsonDiff
    */
   public JsonDiff setReference( final String reference ) throws JsonMappingException, JsonProcessingException
   {
-    reference_ = JsonHelper.provideObjectMapper().readTree( reference );
+    return setReference( JsonHelper.provideObjectMapper().readTree( reference ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Sets the reference Json data set, the candidate is compared against.
+   * @param reference The parsed reference Json data set. Must not be null. It is not modified.
+   * @return this.
+   */
+  public JsonDiff setReference( final JsonNode reference )
+  {
+    reference_ = reference;
     ready_ = false;
     return this;
   }
@@ -107,11 +119,23 @@ public class JsonDiff
    */
   public JsonDiff setCandidate( final String candidate ) throws JsonMappingException, JsonProcessingException
   {
-    candidate_ = JsonHelper.provideObjectMapper().readTree( candidate );
-    ready_ = false;
 //
 //    jsonPathHelper_ = new JsonPathHelper( candidate );
 //
+    return setCandidate( JsonHelper.provideObjectMapper().readTree( candidate ) );
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Sets the candidate Json data set, to compared against the reference.
+   * @param candidate The parsed candidate Json data set. Must not be null. It is not modified.
+   * @return this.
+   */
+  public JsonDiff setCandidate( final JsonNode candidate )
+  {
+    candidate_ = candidate;
+    ready_ = false;
     return this;
   }
 
@@ -28,6 +28,14 @@ public class OuterContext
   private boolean maskAuthorizationHeaderInCurl_;
   private boolean reportControlResponse_;
   private Set< String > executionContext_;
+  private ExecutionPlan executionPlan_;
+  private boolean simultaneousRequests_;
+  private boolean dropUnreportedBodies_;
+  private TestJournal journal_;
+  private StreamingReportWriter reportWriter_;
+  private BodyStore bodyStore_;
+  private Set< String > testIds_;
+  private int maxReportedIterations_ = TestSetHandler.DEFAULT_MAX_REPORTED_ITERATIONS;
 
   ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -77,6 +85,8 @@ public class OuterContext
         }
       }
     }
+
+    executionPlan_ = ExecutionPlan.of( executionContext_ );
   }
 
   ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -287,5 +297,118 @@ public class OuterContext
   public void setExecutionContext( final Set< String > executionContext )
   {
     executionContext_ = executionContext;
+    executionPlan_    = ExecutionPlan.of( executionContext );
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public ExecutionPlan getExecutionPlan()
+  {
+    return executionPlan_;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setExecutionPlan( final ExecutionPlan executionPlan )
+  {
+    executionPlan_ = executionPlan;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public boolean getSimultaneousRequests()
+  {
+    return simultaneousRequests_;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setSimultaneousRequests( final boolean simultaneousRequests )
+  {
+    simultaneousRequests_ = simultaneousRequests;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public boolean isDropUnreportedBodies()
+  {
+    return dropUnreportedBodies_;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setDropUnreportedBodies( final boolean dropUnreportedBodies )
+  {
+    dropUnreportedBodies_ = dropUnreportedBodies;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public TestJournal getJournal()
+  {
+    return journal_;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setJournal( final TestJournal journal )
+  {
+    journal_ = journal;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public StreamingReportWriter getReportWriter()
+  {
+    return reportWriter_;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setReportWriter( final StreamingReportWriter reportWriter )
+  {
+    reportWriter_ = reportWriter;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public BodyStore getBodyStore()
+  {
+    return bodyStore_;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setBodyStore( final BodyStore bodyStore )
+  {
+    bodyStore_ = bodyStore;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public Set< String > getTestIds()
+  {
+    return testIds_;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setTestIds( final Set< String > testIds )
+  {
+    testIds_ = testIds;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public int getMaxReportedIterations()
+  {
+    return maxReportedIterations_;
+  }
+
+  ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setMaxReportedIterations( final int maxReportedIterations )
+  {
+    maxReportedIterations_ = maxReportedIterations;
   }
 }
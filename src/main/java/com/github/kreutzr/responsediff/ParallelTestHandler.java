@@ -0,0 +1,387 @@
+package com.github.kreutzr.responsediff;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the tests of a test set concurrently (test order "parallel"). Tests may depend on previous tests (e.g. because of response variables).
+ * The tests are executed either by a pool of platform threads or - if requested and supported by the Java runtime (Java 21 or later) - by virtual threads.
+ */
+public class ParallelTestHandler
+{
+  public static final int DEFAULT_MAX_CONCURRENCY                 = 10;
+  public static final int DEFAULT_MAX_CONCURRENCY_VIRTUAL_THREADS = 1000;
+
+  private static final int WAKE_UP = -1; // Signals the dispatcher to re-check the break condition
+
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger( 0 );
+
+  private static final Method        NEW_VIRTUAL_THREAD_EXECUTOR   = findVirtualThreadExecutorFactory();
+  private static final AtomicBoolean VIRTUAL_THREAD_WARNING_LOGGED = new AtomicBoolean( false );
+
+  private static final Logger LOG = LoggerFactory.getLogger( ParallelTestHandler.class );
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * A single unit of work (e.g. one XmlTest) that is executed by a worker thread.
+   * @param <T> The type of the item to handle.
+   */
+  @FunctionalInterface
+  public interface TestTask< T >
+  {
+    /**
+     * Handles the given item.
+     * @param item The item to handle. Must not be null.
+     * @throws BreakOnFailureException If the item failed and no further items shall be started.
+     */
+    void handle( T item ) throws BreakOnFailureException;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * The outcome of a parallel execution.
+   * @param <T> The type of the handled items.
+   */
+  public static class Result< T >
+  {
+    private final List< T >               notStartedItems_;
+    private final BreakOnFailureException breakException_;
+
+    Result( final List< T > notStartedItems, final BreakOnFailureException breakException )
+    {
+      notStartedItems_ = Collections.unmodifiableList( notStartedItems );
+      breakException_  = breakException;
+    }
+
+    /**
+     * @return The items that were not started because a BreakOnFailureException occurred (in the order they were passed). May be empty but never null.
+     */
+    public List< T > getNotStartedItems()
+    {
+      return notStartedItems_;
+    }
+
+    /**
+     * @return The first BreakOnFailureException that occurred. May be null.
+     */
+    public BreakOnFailureException getBreakException()
+    {
+      return breakException_;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Resolves the effective concurrency limit.
+   * @param maxConcurrency The configured concurrency limit. May be null.
+   * @return The given maxConcurrency if it is a positive number. Otherwise DEFAULT_MAX_CONCURRENCY is returned.
+   */
+  public static int getMaxConcurrency( final Integer maxConcurrency )
+  {
+    return getMaxConcurrency( maxConcurrency, false );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Resolves the effective concurrency limit.
+   * @param maxConcurrency The configured concurrency limit. May be null.
+   * @param useVirtualThreads Flag, if virtual threads shall be used (true) or not (false).
+   * @return The given maxConcurrency if it is a positive number. Otherwise DEFAULT_MAX_CONCURRENCY_VIRTUAL_THREADS is returned if virtual threads
+   *         shall be used and are supported by the Java runtime, and DEFAULT_MAX_CONCURRENCY in all other cases.
+   */
+  public static int getMaxConcurrency( final Integer maxConcurrency, final boolean useVirtualThreads )
+  {
+    if( maxConcurrency != null && maxConcurrency > 0 ) {
+      return maxConcurrency;
+    }
+
+    return ( useVirtualThreads && isVirtualThreadSupported() )
+      ? DEFAULT_MAX_CONCURRENCY_VIRTUAL_THREADS
+      : DEFAULT_MAX_CONCURRENCY;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return true if the Java runtime supports virtual threads (Java 21 or later). Otherwise false is returned.
+   */
+  public static boolean isVirtualThreadSupported()
+  {
+    return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Executes the given task for all given items using at most maxConcurrency worker threads.
+   * Items are started in the given order. If any task throws a BreakOnFailureException, no further items are started
+   * but all items that are already in progress are completed.
+   * @param items The items to handle. Must not be null.
+   * @param maxConcurrency The maximum number of items that are handled at the same time. Values below 1 are treated as 1.
+   * @param task The task to execute for each item. Must not be null.
+   * @return The Result of the execution. Never null.
+   * @throws RuntimeException If any task failed with a RuntimeException other than BreakOnFailureException (the first one is re-thrown).
+   */
+  public static < T > Result< T > execute(
+    final List< T >     items,
+    final int           maxConcurrency,
+    final TestTask< T > task
+  )
+  {
+    return execute( items, maxConcurrency, null, task );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Executes the given task for all given items using at most maxConcurrency worker threads.
+   * An item is started as soon as all of its prerequisites are completed (successfully or not). Items that are ready at the same time are started in the given order.
+   * If any task throws a BreakOnFailureException, no further items are started but all items that are already in progress are completed.
+   * @param items The items to handle. Must not be null.
+   * @param maxConcurrency The maximum number of items that are handled at the same time. Values below 1 are treated as 1.
+   * @param prerequisites The prerequisites of each item (by identity). Only prerequisites that precede an item within the given items are considered. May be null.
+   * @param task The task to execute for each item. Must not be null.
+   * @return The Result of the execution. Never null.
+   * @throws RuntimeException If any task failed with a RuntimeException other than BreakOnFailureException (the first one is re-thrown).
+   */
+  public static < T > Result< T > execute(
+    final List< T >                           items,
+    final int                                 maxConcurrency,
+    final Map< T, ? extends Collection< T > > prerequisites,
+    final TestTask< T >                       task
+  )
+  {
+    return execute( items, maxConcurrency, prerequisites, false, task );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Executes the given task for all given items with at most maxConcurrency items in flight.
+   * An item is started as soon as all of its prerequisites are completed (successfully or not). Items that are ready at the same time are started in the given order.
+   * If any task throws a BreakOnFailureException, no further items are started but all items that are already in progress are completed.
+   * @param items The items to handle. Must not be null.
+   * @param maxConcurrency The maximum number of items that are handled at the same time. Values below 1 are treated as 1.
+   * @param prerequisites The prerequisites of each item (by identity). Only prerequisites that precede an item within the given items are considered. May be null.
+   * @param useVirtualThreads Flag, if each item shall be handled by its own virtual thread (true) or by a pool of maxConcurrency platform threads (false).
+   *        If the Java runtime does not support virtual threads, a pool of platform threads is used.
+   * @param task The task to execute for each item. Must not be null.
+   * @return The Result of the execution. Never null.
+   * @throws RuntimeException If any task failed with a RuntimeException other than BreakOnFailureException (the first one is re-thrown).
+   */
+  public static < T > Result< T > execute(
+    final List< T >                           items,
+    final int                                 maxConcurrency,
+    final Map< T, ? extends Collection< T > > prerequisites,
+    final boolean                             useVirtualThreads,
+    final TestTask< T >                       task
+  )
+  {
+    final List< T > notStartedItems = new ArrayList<>();
+    if( items.isEmpty() ) {
+      return new Result<>( notStartedItems, null );
+    }
+
+    final int size     = items.size();
+    final int poolSize = Math.max( 1, Math.min( maxConcurrency, size ) );
+    if( LOG.isDebugEnabled() ) {
+      LOG.debug( "Executing " + size + " tests with a concurrency of " + poolSize + ( useVirtualThreads && isVirtualThreadSupported() ? " (virtual threads)." : "." ) );
+    }
+
+    // Build dependency graph (edges point from an item to its dependents)
+    final Map< T, Integer > indexByItem = new IdentityHashMap<>();
+    for( int i=0; i < size; i++ ) {
+      indexByItem.put( items.get( i ), i );
+    }
+    final AtomicIntegerArray      pendingPrerequisites = new AtomicIntegerArray( size );
+    final List< List< Integer > > dependents           = new ArrayList<>();
+    for( int i=0; i < size; i++ ) {
+      dependents.add( new ArrayList<>() );
+    }
+    for( int i=0; i < size; i++ ) {
+      final Collection< T > itemPrerequisites = prerequisites != null ? prerequisites.get( items.get( i ) ) : null;
+      if( itemPrerequisites == null ) {
+        continue;
+      }
+      for( final T prerequisite : itemPrerequisites ) {
+        final Integer index = indexByItem.get( prerequisite );
+        if( index != null && index < i ) { // NOTE: This prevents cycles.
+          pendingPrerequisites.incrementAndGet( i );
+          dependents.get( index ).add( i );
+        }
+      }
+    }
+
+    final BlockingQueue< Integer > readyIndexes = new PriorityBlockingQueue<>();
+    for( int i=0; i < size; i++ ) {
+      if( pendingPrerequisites.get( i ) == 0 ) {
+        readyIndexes.add( i );
+      }
+    }
+
+    final ExecutorService                            executor       = createExecutor( poolSize, useVirtualThreads );
+    final Semaphore                                  permits        = new Semaphore( poolSize );
+    final AtomicReference< BreakOnFailureException > breakException = new AtomicReference<>();
+    final List< Future< ? > >                        futures        = new ArrayList<>();
+    final boolean[]                                  dispatched     = new boolean[ size ];
+
+    try {
+      int dispatchedCount = 0;
+      while( dispatchedCount < size && breakException.get() == null ) {
+        // NOTE: We only dispatch an item if it is ready and a worker is free. This way no further item is started once a break occurred.
+        final int index;
+        try {
+          index = readyIndexes.take();
+          if( index == WAKE_UP ) {
+            continue;
+          }
+          permits.acquire();
+        }
+        catch( final InterruptedException ex ) {
+          Thread.currentThread().interrupt();
+          breakException.compareAndSet( null, new BreakOnFailureException( "Parallel test execution was interrupted.", ex ) );
+          break;
+        }
+
+        if( breakException.get() != null ) {
+          permits.release();
+          break;
+        }
+
+        dispatched[ index ] = true;
+        dispatchedCount++;
+
+        final T item = items.get( index );
+        futures.add( executor.submit( () -> {
+          try {
+            task.handle( item );
+          }
+          catch( final BreakOnFailureException ex ) {
+            breakException.compareAndSet( null, ex );
+          }
+          finally {
+            for( final Integer dependent : dependents.get( index ) ) {
+              if( pendingPrerequisites.decrementAndGet( dependent ) == 0 ) {
+                readyIndexes.add( dependent );
+              }
+            }
+            if( breakException.get() != null ) {
+              readyIndexes.add( WAKE_UP );
+            }
+            permits.release();
+          }
+        } ) );
+      }
+
+      for( int i=0; i < size; i++ ) {
+        if( !dispatched[ i ] ) {
+          notStartedItems.add( items.get( i ) );
+        }
+      }
+
+      // Wait for all dispatched items
+      RuntimeException firstException = null;
+      for( final Future< ? > future : futures ) {
+        try {
+          future.get();
+        }
+        catch( final InterruptedException ex ) {
+          Thread.currentThread().interrupt();
+          breakException.compareAndSet( null, new BreakOnFailureException( "Parallel test execution was interrupted.", ex ) );
+        }
+        catch( final ExecutionException ex ) {
+          if( firstException == null ) {
+            firstException = ex.getCause() instanceof RuntimeException
+              ? (RuntimeException) ex.getCause()
+              : new RuntimeException( ex.getCause() );
+          }
+        }
+      }
+
+      if( firstException != null ) {
+        throw firstException;
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+
+    return new Result<>( notStartedItems, breakException.get() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates the ExecutorService to handle the items by.
+   * NOTE: The number of items in flight is limited by the caller. So a virtual thread per task is fine here.
+   * @param poolSize The number of platform threads to use if no virtual threads are used.
+   * @param useVirtualThreads Flag, if virtual threads shall be used (true) or not (false).
+   * @return The ExecutorService to use. Never null.
+   */
+  static ExecutorService createExecutor( final int poolSize, final boolean useVirtualThreads )
+  {
+    if( useVirtualThreads ) {
+      if( NEW_VIRTUAL_THREAD_EXECUTOR != null ) {
+        try {
+          return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke( null );
+        }
+        catch( final ReflectiveOperationException ex ) {
+          LOG.warn( "Unable to create virtual threads. Using platform threads instead.", ex );
+        }
+      }
+      else if( !VIRTUAL_THREAD_WARNING_LOGGED.getAndSet( true ) ) {
+        LOG.warn( "Virtual threads are not supported by Java " + Runtime.version().feature() + ". Using platform threads instead." );
+      }
+    }
+
+    return Executors.newFixedThreadPool( poolSize, createThreadFactory() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static Method findVirtualThreadExecutorFactory()
+  {
+    // NOTE: The code is compiled for Java 17. Therefore Executors.newVirtualThreadPerTaskExecutor() (Java 21) is looked up by reflection.
+    try {
+      return Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" );
+    }
+    catch( final NoSuchMethodException ex ) {
+      return null;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static ThreadFactory createThreadFactory()
+  {
+    return runnable -> {
+      final Thread thread = new Thread( runnable, "responsediff-test-" + THREAD_COUNTER.incrementAndGet() );
+      thread.setDaemon( true );
+      return thread;
+    };
+  }
+}
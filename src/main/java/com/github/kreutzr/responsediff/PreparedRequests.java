@@ -0,0 +1,121 @@
+package com.github.kreutzr.responsediff;
+
+import java.net.http.HttpRequest.Builder;
+
+/**
+ * Holds the requests of a XmlTest that are ready to be sent to the reference, control and candidate services.
+ */
+public class PreparedRequests
+{
+  private final XmlRequest referenceXmlRequest_;
+  private final XmlRequest controlXmlRequest_;
+  private final XmlRequest candidateXmlRequest_;
+  private final Builder    referenceBuilder_;
+  private final Builder    controlBuilder_;
+  private final Builder    candidateBuilder_;
+  private final Exception  exception_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Constructor
+   * @param referenceXmlRequest The prepared reference XmlRequest. May be null.
+   * @param controlXmlRequest The prepared control XmlRequest. May be null.
+   * @param candidateXmlRequest The prepared candidate XmlRequest. Must not be null.
+   * @param referenceBuilder The reference request Builder. May be null.
+   * @param controlBuilder The control request Builder. May be null.
+   * @param candidateBuilder The candidate request Builder. Must not be null.
+   */
+  public PreparedRequests(
+    final XmlRequest referenceXmlRequest,
+    final XmlRequest controlXmlRequest,
+    final XmlRequest candidateXmlRequest,
+    final Builder    referenceBuilder,
+    final Builder    controlBuilder,
+    final Builder    candidateBuilder
+  )
+  {
+    referenceXmlRequest_ = referenceXmlRequest;
+    controlXmlRequest_   = controlXmlRequest;
+    candidateXmlRequest_ = candidateXmlRequest;
+    referenceBuilder_    = referenceBuilder;
+    controlBuilder_      = controlBuilder;
+    candidateBuilder_    = candidateBuilder;
+    exception_           = null;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Constructor for requests whose preparation failed.
+   * @param exception The Exception that occurred while preparing the requests. Must not be null.
+   */
+  public PreparedRequests( final Exception exception )
+  {
+    referenceXmlRequest_ = null;
+    controlXmlRequest_   = null;
+    candidateXmlRequest_ = null;
+    referenceBuilder_    = null;
+    controlBuilder_      = null;
+    candidateBuilder_    = null;
+    exception_           = exception;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Re-throws the Exception that occurred while the requests were prepared (if any).
+   * @return This object. Never null.
+   * @throws Exception If the preparation failed.
+   */
+  public PreparedRequests verify() throws Exception
+  {
+    if( exception_ != null ) {
+      throw exception_;
+    }
+
+    return this;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public XmlRequest getReferenceXmlRequest()
+  {
+    return referenceXmlRequest_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public XmlRequest getControlXmlRequest()
+  {
+    return controlXmlRequest_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public XmlRequest getCandidateXmlRequest()
+  {
+    return candidateXmlRequest_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public Builder getReferenceBuilder()
+  {
+    return referenceBuilder_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public Builder getControlBuilder()
+  {
+    return controlBuilder_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public Builder getCandidateBuilder()
+  {
+    return candidateBuilder_;
+  }
+}
@@ -0,0 +1,292 @@
+package com.github.kreutzr.responsediff;
+
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Prepares the requests of upcoming XmlTests of a sequentially executed XmlTestSet while the current XmlTest waits for its responses.
+ * At most lookAhead XmlTests are prepared in advance. They are prepared one after another (in execution order) by a single background thread,
+ * so request filters are applied in the same order as without look-ahead. For the same reason the current XmlTest is prepared by that thread, too, if it was not prepared in advance.
+ * The look-ahead stops at the first XmlTest that must not be prepared yet (e.g. because it uses a response variable of a XmlTest that has not finished).
+ * If the current XmlTest must not be prepared by the background thread at all (e.g. because it waits before its execution), no upcoming XmlTest is prepared before it.
+ */
+public class RequestPipeline implements AutoCloseable
+{
+  private static final long CLOSE_TIMEOUT_MS = 10000L;
+
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger( 0 );
+
+  private static final Logger LOG = LoggerFactory.getLogger( RequestPipeline.class );
+
+  private final List< XmlTest >                            xmlTests_;
+  private final int                                        lookAhead_;
+  private final Map< XmlTest, List< XmlTest > >            dependencies_;
+  private final Predicate< XmlTest >                       preparable_;
+  private final TestInitializer                            initializer_;
+  private final RequestPreparer                            preparer_;
+  private final Map< Integer, Future< PreparedRequests > > futures_          = new HashMap<>();
+  private final Set< XmlTest >                             initializedTests_ = Collections.synchronizedSet( Collections.newSetFromMap( new IdentityHashMap<>() ) );
+  private       ExecutorService                            executor_;
+  private       int                                        nextIndex_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Initializes a XmlTest (see TestSetHandler.initializeTest()).
+   */
+  @FunctionalInterface
+  public interface TestInitializer
+  {
+    /**
+     * @param xmlTest The XmlTest to initialize. Must not be null.
+     * @throws ParseException
+     */
+    void initialize( XmlTest xmlTest ) throws ParseException;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Prepares the requests of an initialized XmlTest (see TestSetHandler.prepareRequests()).
+   */
+  @FunctionalInterface
+  public interface RequestPreparer
+  {
+    /**
+     * @param xmlTest The XmlTest to prepare. Must not be null.
+     * @return The PreparedRequests (possibly holding the Exception that occurred). If the requests shall not be prepared (e.g. because the XmlTest is not executed), null is returned.
+     */
+    PreparedRequests prepare( XmlTest xmlTest );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Constructor
+   * @param xmlTests The XmlTests in their execution order. Must not be null.
+   * @param lookAhead The maximum number of XmlTests to prepare in advance. Values below 1 disable the look-ahead.
+   * @param dependencies The prerequisite XmlTests of each XmlTest (by identity, see TestDependencyHelper). May be null.
+   * @param preparable Decides if a XmlTest may be prepared in advance at all (e.g. false if it has to wait before execution). Must not be null.
+   * @param initializer Initializes a XmlTest that is prepared in advance. Must not be null.
+   * @param preparer Prepares the requests of a XmlTest that was initialized in advance. Must not be null.
+   */
+  public RequestPipeline(
+    final List< XmlTest >                 xmlTests,
+    final int                             lookAhead,
+    final Map< XmlTest, List< XmlTest > > dependencies,
+    final Predicate< XmlTest >            preparable,
+    final TestInitializer                 initializer,
+    final RequestPreparer                 preparer
+  )
+  {
+    xmlTests_     = xmlTests;
+    lookAhead_    = lookAhead;
+    dependencies_ = dependencies != null ? dependencies : Collections.emptyMap();
+    preparable_   = preparable;
+    initializer_  = initializer;
+    preparer_     = preparer;
+    executor_     = null;
+    nextIndex_    = 0;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Takes the preparation of the XmlTest at the given index and prepares the upcoming XmlTests.
+   * NOTE: This must be called once for each XmlTest in execution order.
+   * @param index The index of the XmlTest that is executed next.
+   * @return The Future of the PreparedRequests. If the look-ahead is disabled or the XmlTest must not be prepared by the background thread, null is returned.
+   *         In that case the XmlTest is neither initialized nor are its requests prepared (and no upcoming XmlTest is prepared before it).
+   */
+  public Future< PreparedRequests > take( final int index )
+  {
+    Future< PreparedRequests > result = futures_.remove( index );
+    if( lookAhead_ < 1 ) {
+      return result;
+    }
+
+    if( nextIndex_ <= index ) {
+      nextIndex_ = index + 1;
+
+      // NOTE: The XmlTest was not prepared in advance. All XmlTests before it are finished.
+      if( !isPreparable( xmlTests_.get( index ), index ) ) {
+        return null; // The caller prepares the XmlTest. Preparing upcoming XmlTests now would apply request filters out of order.
+      }
+      result = submit( index );
+    }
+
+    // NOTE: All XmlTests before the given index are finished. Hence XmlTests that only depend on them may be prepared.
+    final int last = Math.min( index + lookAhead_, xmlTests_.size() - 1 );
+    while( nextIndex_ <= last ) {
+      final XmlTest xmlTest = xmlTests_.get( nextIndex_ );
+      if( !isPreparable( xmlTest, index ) ) {
+        break;
+      }
+      futures_.put( nextIndex_, submit( nextIndex_ ) );
+      nextIndex_++;
+    }
+
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Initializes the XmlTest at the given index and prepares its requests by the background thread.
+   * @param index The index of the XmlTest to prepare.
+   * @return The Future of the PreparedRequests. Never null.
+   */
+  private Future< PreparedRequests > submit( final int index )
+  {
+    final XmlTest xmlTest = xmlTests_.get( index );
+    return getExecutor().submit( () -> {
+      initializer_.initialize( xmlTest );
+      initializedTests_.add( xmlTest );
+      return preparer_.prepare( xmlTest );
+    } );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Waits for the given preparation to complete.
+   * @param future The Future to wait for. May be null.
+   * @return The PreparedRequests. May be null.
+   * @throws ParseException If the XmlTest could not be initialized.
+   */
+  public static PreparedRequests await( final Future< PreparedRequests > future )
+  throws ParseException
+  {
+    if( future == null ) {
+      return null;
+    }
+
+    try {
+      return future.get();
+    }
+    catch( final InterruptedException ex ) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException( "Request preparation was interrupted." );
+    }
+    catch( final ExecutionException ex ) {
+      final Throwable cause = ex.getCause();
+      if( cause instanceof ParseException ) {
+        throw (ParseException) cause;
+      }
+      if( cause instanceof RuntimeException ) {
+        throw (RuntimeException) cause;
+      }
+      if( cause instanceof Error ) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException( cause );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The XmlTests that were initialized in advance (by identity). Call this after close() to get a stable result. Never null.
+   */
+  public Set< XmlTest > getInitializedTests()
+  {
+    return initializedTests_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Cancels all pending preparations right away (e.g. because a XmlTest broke) and releases the background thread.
+   * A preparation that is in progress is interrupted. Nevertheless this waits until it has terminated, so getInitializedTests() is stable afterwards.
+   */
+  @Override
+  public void close()
+  {
+    for( final Future< PreparedRequests > future : futures_.values() ) {
+      future.cancel( true );
+    }
+    futures_.clear();
+
+    if( executor_ != null ) {
+      executor_.shutdownNow();
+      try {
+        // NOTE: Preparing requests does not send any request. So this should not take long.
+        if( !executor_.awaitTermination( CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS ) ) {
+          LOG.warn( "Request preparation did not terminate within " + CLOSE_TIMEOUT_MS + " ms." );
+        }
+      }
+      catch( final InterruptedException ex ) {
+        Thread.currentThread().interrupt();
+      }
+      executor_ = null;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private boolean isPreparable( final XmlTest xmlTest, final int index )
+  {
+    if( !preparable_.test( xmlTest ) ) {
+      return false;
+    }
+
+    final List< XmlTest > prerequisites = dependencies_.get( xmlTest );
+    if( prerequisites != null ) {
+      for( final XmlTest prerequisite : prerequisites ) {
+        final int prerequisiteIndex = indexOf( prerequisite );
+        if( prerequisiteIndex >= index ) {
+          if( LOG.isTraceEnabled() ) {
+            LOG.trace( "Test \"" + xmlTest.getId() + "\" is not prepared in advance because it depends on test \"" + prerequisite.getId() + "\"." );
+          }
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private int indexOf( final XmlTest xmlTest )
+  {
+    for( int i=0; i < xmlTests_.size(); i++ ) {
+      if( xmlTests_.get( i ) == xmlTest ) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private ExecutorService getExecutor()
+  {
+    if( executor_ == null ) {
+      executor_ = Executors.newSingleThreadExecutor( runnable -> {
+        final Thread thread = new Thread( runnable, "responsediff-prepare-" + THREAD_COUNTER.incrementAndGet() );
+        thread.setDaemon( true );
+        return thread;
+      } );
+    }
+
+    return executor_;
+  }
+}
@@ -0,0 +1,155 @@
+package com.github.kreutzr.responsediff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Helper class to select the XmlTests of a previous XML report that shall be executed again (because they failed or were skipped).
+ * The XmlTests that provide response variables for the selected XmlTests are selected, too.
+ * <br/>
+ * <b>NOTE:</b> XmlTests are identified by their entire id (including the ids of their XmlTestSets, e.g. "Set / Inner set / Test").
+ */
+public class RerunFilter
+{
+  private static final Logger LOG = LoggerFactory.getLogger( RerunFilter.class );
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * A XmlTest together with its entire id and the XmlTestSets that enclose it.
+   */
+  private static class TestEntry
+  {
+    final String             id_;
+    final XmlTest            xmlTest_;
+    final List< XmlTestSet > xmlTestSets_; // From the XmlTest's parent up to the top level XmlTestSet
+
+    TestEntry( final String id, final XmlTest xmlTest, final List< XmlTestSet > xmlTestSets )
+    {
+      id_          = id;
+      xmlTest_     = xmlTest;
+      xmlTestSets_ = xmlTestSets;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gathers the ids of all XmlTests of the given XML report that failed or were skipped.
+   * XmlTests without analysis (e.g. because a previous XmlTest broke) are treated as skipped.
+   * @param xmlReport The XML report of a previous run (see XmlFileHandler.readSetup()). Must not be null.
+   * @return The ids of the XmlTests to execute again. May be empty but never null.
+   */
+  public static Set< String > getTestIdsToRerun( final XmlResponseDiffSetup xmlReport )
+  {
+    final Set< String > result = new TreeSet<>();
+    for( final XmlTestSet xmlTestSet : xmlReport.getTestSet() ) {
+      addTestIdsToRerun( xmlTestSet, result );
+    }
+
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Adds the XmlTests of the given (not yet executed) XmlResponseDiffSetup that provide response variables for the given XmlTests (recursively).
+   * A XmlTest may use the response variables of any XmlTest of its own XmlTestSet or of the enclosing XmlTestSets.
+   * @param xmlTestSetup The XmlResponseDiffSetup to execute. Must not be null.
+   * @param testIds The ids of the XmlTests to execute. Must not be null.
+   * @return The given ids together with the ids of all prerequisite XmlTests. Never null.
+   */
+  public static Set< String > addPrerequisites(
+    final XmlResponseDiffSetup xmlTestSetup,
+    final Set< String >        testIds
+  )
+  {
+    final List< TestEntry > testEntries = new ArrayList<>();
+    for( final XmlTestSet xmlTestSet : xmlTestSetup.getTestSet() ) {
+      addTestEntries( xmlTestSet, xmlTestSet.getId(), new ArrayList<>(), testEntries );
+    }
+
+    final Set< String > result = new TreeSet<>( testIds );
+    boolean changed = true;
+    while( changed ) {
+      changed = false;
+      for( final TestEntry testEntry : testEntries ) {
+        if( !result.contains( testEntry.id_ ) ) {
+          continue;
+        }
+
+        final Set< String > usedVariableNames = TestDependencyHelper.getUsedVariableNames( testEntry.xmlTest_ );
+        for( final XmlTestSet xmlTestSet : testEntry.xmlTestSets_ ) {
+          usedVariableNames.addAll( TestDependencyHelper.getUsedVariableNames( xmlTestSet ) );
+        }
+        if( usedVariableNames.isEmpty() ) {
+          continue;
+        }
+
+        for( final TestEntry candidate : testEntries ) {
+          if( candidate == testEntry
+           || result.contains( candidate.id_ )
+           || !testEntry.xmlTestSets_.contains( candidate.xmlTestSets_.get( 0 ) )
+          ) {
+            continue;
+          }
+          final Set< String > providedVariableNames = TestDependencyHelper.getProvidedVariableNames( candidate.xmlTest_, candidate.xmlTestSets_.get( 0 ) );
+          providedVariableNames.retainAll( usedVariableNames );
+          if( !providedVariableNames.isEmpty() ) {
+            if( LOG.isDebugEnabled() ) {
+              LOG.debug( "Test \"" + testEntry.id_ + "\" requires test \"" + candidate.id_ + "\" for variables " + providedVariableNames + "." );
+            }
+            result.add( candidate.id_ );
+            changed = true;
+          }
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void addTestIdsToRerun( final XmlTestSet xmlTestSet, final Set< String > testIds )
+  {
+    for( final XmlTest xmlTest : xmlTestSet.getTest() ) {
+      final XmlAnalysis xmlAnalysis = xmlTest.getAnalysis();
+      if( xmlAnalysis == null || xmlAnalysis.getFailCount() > 0 || xmlAnalysis.getSkipCount() > 0 ) {
+        testIds.add( xmlTest.getId() );
+      }
+    }
+    for( final XmlTestSet xmlTestSetChild : xmlTestSet.getTestSet() ) {
+      addTestIdsToRerun( xmlTestSetChild, testIds );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gathers the XmlTests of the given XmlTestSet (recursively) with the ids they get during initialization (see TestSetHandler.initializeTest()).
+   */
+  private static void addTestEntries(
+    final XmlTestSet         xmlTestSet,
+    final String             testSetId,
+    final List< XmlTestSet > parentXmlTestSets,
+    final List< TestEntry >  testEntries
+  )
+  {
+    final List< XmlTestSet > xmlTestSets = new ArrayList<>();
+    xmlTestSets.add( xmlTestSet );
+    xmlTestSets.addAll( parentXmlTestSets );
+
+    for( final XmlTest xmlTest : xmlTestSet.getTest() ) {
+      testEntries.add( new TestEntry( testSetId + TestSetHandler.ID_SEPARATOR + xmlTest.getId(), xmlTest, xmlTestSets ) );
+    }
+    for( final XmlTestSet xmlTestSetChild : xmlTestSet.getTestSet() ) {
+      addTestEntries( xmlTestSetChild, testSetId + TestSetHandler.ID_SEPARATOR + xmlTestSetChild.getId(), xmlTestSets, testEntries );
+    }
+  }
+}
@@ -9,9 +9,12 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLStreamException;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -37,6 +40,8 @@ public class ResponseDiff
 
    protected static final String DEFAULT_TICKET_SERVICE_ID = "default";
 
+   public static final String ARGUMENT__RESUME = "--resume";
+
    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
    private final String                    reportTitle_;
@@ -65,6 +70,11 @@ public class ResponseDiff
    private       boolean                   useLogo_;
    private       XmlResponseDiffSetup      xmlTestSetup_;
    private       Map< String, DiffFilter > filterRegistry_; // NOTE: Since filters are identified by id not by class, multiple instances of the same filter class are supported.
+   private       String                    journalFilePath_;
+   private       boolean                   resume_;
+   private       String                    rerunReportFilePath_;
+   private       boolean                   streamReport_;
+   private       int                       bodyStoreThreshold_ = -1;
 
    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -330,6 +340,82 @@ public class ResponseDiff
 
    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+   /**
+    * Configures the journal that records each finished test, so an interrupted run can be resumed.
+    * @param journalFilePath The path of the journal file. May be null (no journal is written).
+    * @param resume Flag, if the tests recorded in the journal by a previous run shall be restored instead of being executed again (true) or if a new journal shall be started (false).
+    */
+   public void setJournal( final String journalFilePath, final boolean resume )
+   {
+     journalFilePath_ = journalFilePath;
+     resume_          = resume;
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   /**
+    * Configures a XML report of a previous run. Only the tests that failed or were skipped in that report are executed again
+    * (together with the tests that provide the variables they use).
+    * @param rerunReportFilePath The path of the XML report. May be null (all tests are executed).
+    */
+   public void setRerunReportFilePath( final String rerunReportFilePath )
+   {
+     rerunReportFilePath_ = rerunReportFilePath;
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   /**
+    * Configures if the XML report shall be written while the tests are running (see StreamingReportWriter).
+    * Each finished test set (including nested test sets) is written right away and only its analysis is kept in memory.
+    * @param streamReport Flag, if the report shall be streamed (true) or stored after the run (false).
+    */
+   public void setStreamReport( final boolean streamReport )
+   {
+     streamReport_ = streamReport;
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   /**
+    * Configures the size (in characters) a response body must exceed to be stored in a temporary file while the run is in progress (see BodyStore).
+    * The stored bodies are read back when the report is written.
+    * @param bodyStoreThreshold The threshold. A negative value keeps all bodies in memory.
+    */
+   public void setBodyStoreThreshold( final int bodyStoreThreshold )
+   {
+     bodyStoreThreshold_ = bodyStoreThreshold;
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   /**
+    * Configures the HttpClients of the services (e.g. HTTP version, connect timeout, executor and redirect policy).
+    * Each HttpClient is created once and shared by all (parallel) requests to its service.
+    * The JVM-wide keep-alive timeout of all profiles is applied before any of these HttpClients is created.
+    * @param candidateHttpClientProfile The HttpClientProfile of the candidate service. May be null (the default HttpClient is used).
+    * @param referenceHttpClientProfile The HttpClientProfile of the reference service. May be null (the default HttpClient is used).
+    * @param controlHttpClientProfile The HttpClientProfile of the control service. May be null (the default HttpClient is used).
+    */
+   public void setHttpClientProfiles(
+     final HttpClientProfile candidateHttpClientProfile,
+     final HttpClientProfile referenceHttpClientProfile,
+     final HttpClientProfile controlHttpClientProfile
+   )
+   {
+     for( final HttpClientProfile httpClientProfile : new HttpClientProfile[]{ candidateHttpClientProfile, referenceHttpClientProfile, controlHttpClientProfile } ) {
+       if( httpClientProfile != null ) {
+         httpClientProfile.applyKeepAliveTimeout();
+       }
+     }
+
+     HttpHandler.setHttpClientProfile( TestSetHandler.CANDIDATE, candidateHttpClientProfile );
+     HttpHandler.setHttpClientProfile( TestSetHandler.REFERENCE, referenceHttpClientProfile );
+     HttpHandler.setHttpClientProfile( TestSetHandler.CONTROL,   controlHttpClientProfile );
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
    /**
     * Runs the tests configured within the setup file.
     * @throws IOException
@@ -346,27 +432,83 @@ public class ResponseDiff
        ? Pattern.compile( testIdPattern_ )
        : null;
 
+     Set< String > testIds = null;
+     if( rerunReportFilePath_ != null ) {
+       final XmlResponseDiffSetup rerunReport = XmlFileHandler.readSetup( rerunReportFilePath_, null, false );
+       final Set< String > testIdsToRerun = RerunFilter.getTestIdsToRerun( rerunReport );
+       testIds = RerunFilter.addPrerequisites( xmlTestSetup_, testIdsToRerun );
+       LOG.info( "Rerunning " + testIdsToRerun.size() + " failed or skipped tests of report \"" + rerunReportFilePath_ + "\" (" + ( testIds.size() - testIdsToRerun.size() ) + " additional tests provide their variables)." );
+     }
+
      LOG.info( "Starting test processing." );
 
-     TestSetHandler.processTestSetup(
-       testIdPattern,
-       xmlTestSetup_,
-       candidateServiceUrl_,
-       candidateHeaders_,
-       referenceServiceUrl_,
-       referenceHeaders_,
-       controlServiceUrl_,
-       controlHeaders_,
-       filterRegistry_,
-       timeoutMs_,
-       epsilon_,
-       referenceFilePath_,
-       storeReportPath_,
-       reportWhiteNoise_,
-       maskAuthorizationHeaderInCurl_,
-       reportControlResponse_,
-       executionContextAsString_
-     );
+     final BodyStore bodyStore = bodyStoreThreshold_ >= 0
+       ? BodyStore.open( storeReportPath_, bodyStoreThreshold_ )
+       : null;
+     try {
+       final StreamingReportWriter reportWriter = streamReport_
+         ? openReportWriter( bodyStore )
+         : null;
+       try {
+         runLocalTests( testIdPattern, testIds, reportWriter, bodyStore );
+       }
+       finally {
+         if( reportWriter != null ) {
+           reportWriter.close();
+         }
+       }
+     }
+     finally {
+       if( bodyStore != null ) {
+         bodyStore.close();
+       }
+     }
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   private void runLocalTests(
+     final Pattern               testIdPattern,
+     final Set< String >         testIds,
+     final StreamingReportWriter reportWriter,
+     final BodyStore             bodyStore
+   )
+   throws JAXBException, IOException, SAXException, ParseException
+   {
+     final TestJournal journal = journalFilePath_ != null
+       ? TestJournal.open( journalFilePath_, resume_ )
+       : null;
+     try {
+       TestSetHandler.processTestSetup(
+         testIdPattern,
+         xmlTestSetup_,
+         candidateServiceUrl_,
+         candidateHeaders_,
+         referenceServiceUrl_,
+         referenceHeaders_,
+         controlServiceUrl_,
+         controlHeaders_,
+         filterRegistry_,
+         timeoutMs_,
+         epsilon_,
+         referenceFilePath_,
+         storeReportPath_,
+         reportWhiteNoise_,
+         maskAuthorizationHeaderInCurl_,
+         reportControlResponse_,
+         executionContextAsString_,
+         new RunOptions()
+           .setTestIds     ( testIds )
+           .setJournal     ( journal )
+           .setReportWriter( reportWriter )
+           .setBodyStore   ( bodyStore )
+       );
+     }
+     finally {
+       if( journal != null ) {
+         journal.close();
+       }
+     }
 
      LOG.info( "Storing XML report." );
 
@@ -380,25 +522,47 @@ public class ResponseDiff
      }
 
      // Store test setup with all analysis results
-     final String xmlReportFileName = XmlFileHandler.storeXmlReport( xmlTestSetup_, storeReportPath_, null );
+     final String xmlReportFileName;
+     if( reportWriter != null ) {
+       // NOTE: The finished test sets were already written. Only their analysis is left in the test setup.
+       xmlReportFileName = XmlFileHandler.createReportFileName( xmlTestSetup_, storeReportPath_, null );
+       try {
+         reportWriter.finish( xmlTestSetup_, xmlReportFileName );
+       }
+       catch( final XMLStreamException ex ) {
+         throw new IOException( ex );
+       }
+     }
+     else {
+       xmlReportFileName = XmlFileHandler.storeXmlReport( xmlTestSetup_, storeReportPath_, null, bodyStore );
+     }
 
      // Convert XML report to e.g. HTML or ADOC
      if( xsltFilePath_ != null ) {
        Document doc = null;
-       try {
-         doc = XmlFileHandler.toDocument( xmlTestSetup_ );
-       }
-       catch( final Exception ex ) {
-         final String message = ErrorHandlingHelper.createSingleLineMessage( "Error while XML Document creation.", ex );
-         LOG.error( message );
+       // NOTE: A Document would hold all stored bodies in memory. Hence the report is transformed from its file if a BodyStore is used.
+       if( reportWriter == null && bodyStore == null ) {
+         try {
+           doc = XmlFileHandler.toDocument( xmlTestSetup_ );
+         }
+         catch( final Exception ex ) {
+           final String message = ErrorHandlingHelper.createSingleLineMessage( "Error while XML Document creation.", ex );
+           LOG.error( message );
+         }
        }
 
-       if( doc != null ) {
+       if( doc != null || reportWriter != null || bodyStore != null ) {
          LOG.info( "Transforming XML report to \"" + reportFileEnding_ + "\"." );
 
          int pos = xmlReportFileName.lastIndexOf( '.' );
          final String reportFilePath = xmlReportFileName.substring( 0, pos+1 ) + reportFileEnding_;
-         XsltProcessor.process( doc, xsltFilePath_, reportFilePath );
+         if( doc != null ) {
+           XsltProcessor.process( doc, xsltFilePath_, reportFilePath );
+         }
+         else {
+           // NOTE: The report is transformed from its file (without creating a Document from the test setup).
+           XsltProcessor.process( xmlReportFileName, xsltFilePath_, reportFilePath );
+         }
 
          // Convert AsciiDoc report to configured formats
          if( reportFileEnding_.equalsIgnoreCase( "adoc" ) && reportConversionFormats_ != null ) {
@@ -458,6 +622,19 @@ public class ResponseDiff
 
    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+   private StreamingReportWriter openReportWriter( final BodyStore bodyStore )
+   throws IOException, JAXBException
+   {
+     try {
+       return StreamingReportWriter.open( storeReportPath_, bodyStore );
+     }
+     catch( final XMLStreamException ex ) {
+       throw new IOException( ex );
+     }
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
    /**
     * Runs tests that were sent from a remote client.
     */
@@ -471,8 +648,12 @@ public class ResponseDiff
 
    public static void main( final String[] args )
    {
-     if( args == null || args.length != 1 ) {
-       LOG.error( "The configuration JSON parameter is missing. Pass it as first (only) parameter." );
+     if( args == null || args.length < 1 || args.length > 2 ) {
+       LOG.error( "The configuration JSON parameter is missing. Pass it as first parameter (optionally followed by \"" + ARGUMENT__RESUME + "\")." );
+       System.exit( 1 );
+     }
+     if( args.length == 2 && !args[ 1 ].equals( ARGUMENT__RESUME ) ) {
+       LOG.error( "Unknown parameter \"" + args[ 1 ] + "\". Only \"" + ARGUMENT__RESUME + "\" is supported as second parameter." );
        System.exit( 1 );
      }
 
@@ -512,6 +693,11 @@ public class ResponseDiff
      String   referenceFilePath             = null;
      Boolean  exitWithExitCode              = true; // Disable for local IDE testing
      long     startupSleepMs                = -1;
+     String   journalFilePath               = null;
+     boolean  resume                        = false;
+     String   rerunReportFilePath           = null;
+     boolean  streamReport                  = false;
+     int      bodyStoreThreshold            = -1;
 
      // Read parameters from configuration
      rootPath                      = Converter.asString ( config.getRootPath(),                      rootPath );
@@ -539,6 +725,11 @@ public class ResponseDiff
      referenceFilePath             = Converter.asString ( config.getReferenceFilePath(),             referenceFilePath );
      exitWithExitCode              = Converter.asBoolean( config.isExitWithExitCode(),               exitWithExitCode );
      startupSleepMs                = Converter.asLong   ( config.getStartupSleepMs(),                startupSleepMs );
+     journalFilePath               = Converter.asString ( config.getJournalFilePath(),               journalFilePath );
+     resume                        = Converter.asBoolean( config.isResume(),                         resume ) || args.length == 2;
+     rerunReportFilePath           = Converter.asString ( config.getRerunReportFilePath(),           rerunReportFilePath );
+     streamReport                  = Converter.asBoolean( config.isStreamReport(),                   streamReport );
+     bodyStoreThreshold            = Converter.asInteger( config.getBodyStoreThreshold(),            bodyStoreThreshold );
 
 
      Map< String, String > ticketServiceUrls = new TreeMap<>();
@@ -626,6 +817,21 @@ public class ResponseDiff
          exitWithExitCode
       );
 
+      if( journalFilePath != null && !journalFilePath.isEmpty() ) {
+        responseDiff.setJournal( rootPath + journalFilePath, resume );
+      }
+      else if( resume ) {
+        LOG.warn( "Resuming requires a journal (see \"journalFilePath\"). All tests are executed." );
+      }
+
+      if( rerunReportFilePath != null && !rerunReportFilePath.isEmpty() ) {
+        responseDiff.setRerunReportFilePath( rootPath + rerunReportFilePath );
+      }
+
+      responseDiff.setStreamReport( streamReport );
+      responseDiff.setBodyStoreThreshold( bodyStoreThreshold );
+      responseDiff.setHttpClientProfiles( config.getCandidateHttpClient(), config.getReferenceHttpClient(), config.getControlHttpClient() );
+
       responseDiff.runLocalTests();
     }
     catch( final Throwable ex ) {
@@ -35,6 +35,14 @@ public class ResponseDiffConfiguration
   private long                startupSleepMs_ = -1;
   private List< XmlVariable > initialVariables_ = null;
   private boolean             compareResponses_ = true;
+  private String              journalFilePath_;
+  private boolean             resume_ = false;
+  private String              rerunReportFilePath_;
+  private boolean             streamReport_ = false;
+  private int                 bodyStoreThreshold_ = -1;
+  private HttpClientProfile   candidateHttpClient_;
+  private HttpClientProfile   referenceHttpClient_;
+  private HttpClientProfile   controlHttpClient_;
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -438,6 +446,118 @@ public class ResponseDiffConfiguration
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  public String getJournalFilePath()
+  {
+    return journalFilePath_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setJournalFilePath( final String journalFilePath )
+  {
+    journalFilePath_ = journalFilePath;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public boolean isResume()
+  {
+    return resume_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setResume( final boolean resume )
+  {
+    resume_ = resume;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public String getRerunReportFilePath()
+  {
+    return rerunReportFilePath_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setRerunReportFilePath( final String rerunReportFilePath )
+  {
+    rerunReportFilePath_ = rerunReportFilePath;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public boolean isStreamReport()
+  {
+    return streamReport_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setStreamReport( final boolean streamReport )
+  {
+    streamReport_ = streamReport;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public int getBodyStoreThreshold()
+  {
+    return bodyStoreThreshold_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setBodyStoreThreshold( final int bodyStoreThreshold )
+  {
+    bodyStoreThreshold_ = bodyStoreThreshold;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public HttpClientProfile getCandidateHttpClient()
+  {
+    return candidateHttpClient_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setCandidateHttpClient( final HttpClientProfile candidateHttpClient )
+  {
+    candidateHttpClient_ = candidateHttpClient;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public HttpClientProfile getReferenceHttpClient()
+  {
+    return referenceHttpClient_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setReferenceHttpClient( final HttpClientProfile referenceHttpClient )
+  {
+    referenceHttpClient_ = referenceHttpClient;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public HttpClientProfile getControlHttpClient()
+  {
+    return controlHttpClient_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  public void setControlHttpClient( final HttpClientProfile controlHttpClient )
+  {
+    controlHttpClient_ = controlHttpClient;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   private List< XmlHeader > trim( final List< XmlHeader > xmlHeaders )
   {
     for( final XmlHeader xmlHeader : xmlHeaders ) {
@@ -0,0 +1,105 @@
+package com.github.kreutzr.responsediff;
+
+import java.util.Set;
+
+/**
+ * Holds the optional settings of a run of a test setup (see TestSetHandler.processTestSetup()).
+ * All settings are null by default, which means that all tests are executed, no journal is written, the report is stored after the run and all bodies are kept in memory.
+ */
+public class RunOptions
+{
+  private Set< String >         testIds_      = null;
+  private TestJournal           journal_      = null;
+  private StreamingReportWriter reportWriter_ = null;
+  private BodyStore             bodyStore_    = null;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The entire ids of the tests to execute (e.g. "Set / Test"). May be null (all tests are executed).
+   */
+  public Set< String > getTestIds()
+  {
+    return testIds_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Only the tests with the given ids are executed (e.g. to rerun the failed tests of a previous report, see RerunFilter).
+   * @param testIds The entire ids of the tests to execute (e.g. "Set / Test"). May be null (all tests are executed).
+   * @return this.
+   */
+  public RunOptions setTestIds( final Set< String > testIds )
+  {
+    testIds_ = testIds;
+    return this;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The TestJournal to record finished tests to (and to restore tests from). May be null.
+   */
+  public TestJournal getJournal()
+  {
+    return journal_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Each finished test is recorded in the given TestJournal. Tests that are already recorded there (from a previous run) are restored instead of being executed.
+   * @param journal The TestJournal to record finished tests to (and to restore tests from). May be null.
+   * @return this.
+   */
+  public RunOptions setJournal( final TestJournal journal )
+  {
+    journal_ = journal;
+    return this;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The StreamingReportWriter to write each finished XmlTestSet to. May be null (the report is stored after the run).
+   */
+  public StreamingReportWriter getReportWriter()
+  {
+    return reportWriter_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @param reportWriter The StreamingReportWriter to write each finished XmlTestSet to. May be null (the report is stored after the run).
+   * @return this.
+   */
+  public RunOptions setReportWriter( final StreamingReportWriter reportWriter )
+  {
+    reportWriter_ = reportWriter;
+    return this;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The BodyStore to store the large response bodies of finished tests to. May be null (all bodies are kept in memory).
+   */
+  public BodyStore getBodyStore()
+  {
+    return bodyStore_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @param bodyStore The BodyStore to store the large response bodies of finished tests to. May be null (all bodies are kept in memory).
+   * @return this.
+   */
+  public RunOptions setBodyStore( final BodyStore bodyStore )
+  {
+    bodyStore_ = bodyStore;
+    return this;
+  }
+}
@@ -0,0 +1,81 @@
+package com.github.kreutzr.responsediff;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A response body that was streamed to a (temporary) file while it was received (see JsonBodyHandler).
+ * Its size and SHA-256 digest were calculated while the file was written.
+ */
+public class StreamedDownload
+{
+  private static final Logger LOG = LoggerFactory.getLogger( StreamedDownload.class );
+
+  private final Path   file_;
+  private final long   size_;
+  private final String sha256_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Constructor.
+   * @param file The file that holds the response body. Must not be null.
+   * @param size The number of bytes of the response body.
+   * @param sha256 The SHA-256 digest of the response body (as lower case hex string). Must not be null.
+   */
+  public StreamedDownload( final Path file, final long size, final String sha256 )
+  {
+    file_   = file;
+    size_   = size;
+    sha256_ = sha256;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The file that holds the response body. Never null.
+   */
+  public Path getFile()
+  {
+    return file_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The number of bytes of the response body.
+   */
+  public long getSize()
+  {
+    return size_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The SHA-256 digest of the response body (as lower case hex string). Never null.
+   */
+  public String getSha256()
+  {
+    return sha256_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Deletes the file (if it was not moved before).
+   */
+  public void delete()
+  {
+    try {
+      Files.deleteIfExists( file_ );
+    }
+    catch( final IOException ex ) {
+      LOG.warn( "Unable to delete temporary download file \"" + file_ + "\".", ex );
+    }
+  }
+}
@@ -0,0 +1,491 @@
+package com.github.kreutzr.responsediff;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+
+/**
+ * Writes the XML report while the tests are running, so the requests and responses of finished XmlTestSets do not have to be kept in memory.
+ * Each finished XmlTestSet (of any depth) is written right away (by StAX) to a part file next to the report. Afterwards only its analysis is kept (see write()).
+ * A XmlTestSet is written after its child XmlTestSets. So it holds a placeholder instead of them and only the positions of all parts are kept.
+ * When the run has finished, the report is assembled from the XmlResponseDiffSetup and the parts in the order the XmlTestSets are declared (see finish()).
+ * <br/>
+ * <b>NOTE:</b> The report equals the report that is stored after the run (see XmlFileHandler.storeXmlReport()), no matter in which order the XmlTestSets finished. This class is thread safe.
+ */
+public class StreamingReportWriter implements AutoCloseable
+{
+  private static final String PLACEHOLDER_ID = "__streamed_test_sets__";
+
+  private static final QName            TEST_SET_QNAME     = new QName( "testSet" );
+  private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+  private static final JAXBContext      JAXB_CONTEXT       = createJaxbContext();
+  private static final byte[]           PLACEHOLDER_BYTES  = createPlaceholderBytes(); // The placeholder of the child XmlTestSets as it is written to the part file
+
+  private static final Logger LOG = LoggerFactory.getLogger( StreamingReportWriter.class );
+
+  private final Path                        partFilePath_;
+  private final Map< XmlTestSet, Fragment > fragments_ = new IdentityHashMap<>(); // The written XmlTestSets whose parent was not written yet
+  private final Marshaller                  marshaller_;
+  private final BodyStore                   bodyStore_;
+  private       PartOutputStream            os_;
+  private       XMLStreamWriter             writer_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * The position of a written XmlTestSet within the part file.
+   */
+  private static class Fragment
+  {
+    final long             begin_;
+    final long             placeholderBegin_; // The placeholder of the child XmlTestSets (if any)
+    final long             placeholderEnd_;
+    final long             end_;
+    final List< Fragment > children_;         // The written child XmlTestSets in the order they are declared
+
+    Fragment( final long begin, final long placeholderBegin, final long placeholderEnd, final long end, final List< Fragment > children )
+    {
+      begin_            = begin;
+      placeholderBegin_ = placeholderBegin;
+      placeholderEnd_   = placeholderEnd;
+      end_              = end;
+      children_         = children;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private StreamingReportWriter( final Path partFilePath, final PartOutputStream os, final XMLStreamWriter writer, final BodyStore bodyStore )
+  throws JAXBException
+  {
+    partFilePath_ = partFilePath;
+    os_           = os;
+    writer_       = writer;
+    bodyStore_    = bodyStore;
+    marshaller_   = JAXB_CONTEXT.createMarshaller();
+    marshaller_.setProperty( Marshaller.JAXB_FRAGMENT, true );
+    if( bodyStore != null ) {
+      // NOTE: Written XmlTestSets are pruned. Hence their stored bodies are not required anymore.
+      marshaller_.setListener( bodyStore.createMarshallerListener( true ) );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Opens a new part file in the given report path.
+   * @param storeReportPath The path where the report is stored to. Must not be null.
+   * @return The opened StreamingReportWriter. Never null.
+   * @throws IOException
+   * @throws XMLStreamException
+   * @throws JAXBException
+   */
+  public static StreamingReportWriter open( final String storeReportPath )
+  throws IOException, XMLStreamException, JAXBException
+  {
+    return open( storeReportPath, null );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Opens a new part file in the given report path.
+   * @param storeReportPath The path where the report is stored to. Must not be null.
+   * @param bodyStore The BodyStore the large response bodies of finished tests were stored to. May be null.
+   * @return The opened StreamingReportWriter. Never null.
+   * @throws IOException
+   * @throws XMLStreamException
+   * @throws JAXBException
+   */
+  public static StreamingReportWriter open( final String storeReportPath, final BodyStore bodyStore )
+  throws IOException, XMLStreamException, JAXBException
+  {
+    final Path path = Path.of( storeReportPath );
+    Files.createDirectories( path );
+    final Path partFilePath = Files.createTempFile( path, "report_", ".part" );
+
+    final PartOutputStream os = new PartOutputStream( new BufferedOutputStream( Files.newOutputStream( partFilePath ) ), PLACEHOLDER_BYTES );
+    return new StreamingReportWriter( partFilePath, os, XML_OUTPUT_FACTORY.createXMLStreamWriter( os, StandardCharsets.UTF_8.name() ), bodyStore );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Writes the given finished XmlTestSet to the part file. Afterwards all of its content except its analysis is dropped.
+   * Its child XmlTestSets that were not written yet (e.g. because they were not executed) are written before.
+   * XmlTestSets that were written before are ignored.
+   * <br/>
+   * <b>NOTE:</b> A XmlTestSet must be written before its parent XmlTestSet (like it finishes before its parent).
+   * @param xmlTestSet The finished XmlTestSet. Must not be null.
+   * @throws JAXBException
+   * @throws XMLStreamException
+   */
+  public synchronized void write( final XmlTestSet xmlTestSet )
+  throws JAXBException, XMLStreamException
+  {
+    if( writer_ == null ) {
+      throw new XMLStreamException( "Report part file \"" + partFilePath_ + "\" is closed." );
+    }
+    if( fragments_.containsKey( xmlTestSet ) ) {
+      return;
+    }
+
+    final List< XmlTestSet > xmlTestSets = new ArrayList<>( xmlTestSet.getTestSet() );
+    final List< Fragment >   children    = new ArrayList<>( xmlTestSets.size() );
+    for( final XmlTestSet xmlChildTestSet : xmlTestSets ) {
+      write( xmlChildTestSet );
+      children.add( fragments_.remove( xmlChildTestSet ) ); // Only the parent refers to the child from now on
+    }
+
+    // Marshal the XmlTestSet with a placeholder instead of its (already written) child XmlTestSets
+    xmlTestSet.getTestSet().clear();
+    if( !children.isEmpty() ) {
+      final XmlTestSet placeholder = new XmlTestSet();
+      placeholder.setId( PLACEHOLDER_ID );
+      xmlTestSet.getTestSet().add( placeholder );
+    }
+    writer_.flush();
+    final long begin = os_.getPosition();
+    os_.watch( !children.isEmpty() );
+    try {
+      marshaller_.marshal( new JAXBElement<>( TEST_SET_QNAME, XmlTestSet.class, xmlTestSet ), writer_ );
+      writer_.flush();
+    }
+    finally {
+      xmlTestSet.getTestSet().clear();
+      xmlTestSet.getTestSet().addAll( xmlTestSets );
+    }
+    final long end = os_.getPosition();
+
+    final long placeholderEnd = children.isEmpty() ? end : os_.getMatchEnd();
+    if( placeholderEnd < 0 ) {
+      throw new XMLStreamException( "Placeholder of the child test sets of test set \"" + xmlTestSet.getId() + "\" not found in report part file \"" + partFilePath_ + "\"." );
+    }
+    final long placeholderBegin = children.isEmpty() ? end : placeholderEnd - PLACEHOLDER_BYTES.length;
+    fragments_.put( xmlTestSet, new Fragment( begin, placeholderBegin, placeholderEnd, end, children ) );
+
+    prune( xmlTestSet );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Writes all XmlTestSets that were not written yet (e.g. because they were not executed) and assembles the XML report.
+   * The XmlTestSets are assembled in the order they are declared. The part file is deleted afterwards.
+   * @param xmlTestSetup The finished XmlResponseDiffSetup. Must not be null.
+   * @param reportFileName The name (entire path) of the XML report file (see XmlFileHandler.createReportFileName()). Must not be null.
+   * @throws JAXBException
+   * @throws XMLStreamException
+   * @throws IOException
+   */
+  public synchronized void finish( final XmlResponseDiffSetup xmlTestSetup, final String reportFileName )
+  throws JAXBException, XMLStreamException, IOException
+  {
+    final List< XmlTestSet > xmlTestSets = new ArrayList<>( xmlTestSetup.getTestSet() );
+    final List< Fragment >   fragments   = new ArrayList<>( xmlTestSets.size() );
+    for( final XmlTestSet xmlTestSet : xmlTestSets ) {
+      write( xmlTestSet );
+      fragments.add( fragments_.get( xmlTestSet ) );
+    }
+    closeWriter();
+
+    // Marshal the setup with a placeholder that is replaced by the written XmlTestSets.
+    final XmlTestSet placeholder = new XmlTestSet();
+    placeholder.setId( PLACEHOLDER_ID );
+    xmlTestSetup.getTestSet().clear();
+    xmlTestSetup.getTestSet().add( placeholder );
+
+    final StringWriter xml = new StringWriter();
+    try {
+      final Marshaller marshaller = JAXB_CONTEXT.createMarshaller();
+      marshaller.setProperty( Marshaller.JAXB_FORMATTED_OUTPUT, true );
+      if( bodyStore_ != null ) {
+        marshaller.setListener( bodyStore_.createMarshallerListener( false ) );
+      }
+      marshaller.marshal( xmlTestSetup, xml );
+    }
+    finally {
+      xmlTestSetup.getTestSet().clear();
+      xmlTestSetup.getTestSet().addAll( xmlTestSets );
+    }
+
+    final String setupXml = xml.toString();
+    final int    pos      = setupXml.indexOf( PLACEHOLDER_ID );
+    final int    begin    = setupXml.lastIndexOf( '<', pos );
+    final int    end      = setupXml.indexOf( '>', pos ) + 1;
+
+    try( final OutputStream os   = new BufferedOutputStream( Files.newOutputStream( Path.of( reportFileName ) ) );
+         final FileChannel  part = FileChannel.open( partFilePath_, StandardOpenOption.READ )
+    ) {
+      final WritableByteChannel target = Channels.newChannel( os );
+      os.write( setupXml.substring( 0, begin ).getBytes( StandardCharsets.UTF_8 ) );
+      for( final Fragment fragment : fragments ) {
+        copy( fragment, part, target );
+        os.write( '\n' );
+      }
+      os.write( setupXml.substring( end ).getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    Files.deleteIfExists( partFilePath_ );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Closes the part file. If the report was not assembled (see finish()), the part file is deleted.
+   */
+  @Override
+  public synchronized void close() throws IOException
+  {
+    try {
+      closeWriter();
+    }
+    catch( final XMLStreamException ex ) {
+      throw new IOException( ex );
+    }
+    finally {
+      Files.deleteIfExists( partFilePath_ );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private void closeWriter()
+  throws XMLStreamException, IOException
+  {
+    if( writer_ != null ) {
+      writer_.close();
+      os_.close();
+      writer_ = null;
+      os_     = null;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Copies the given written XmlTestSet (and all of its child XmlTestSets instead of their placeholder) from the part file.
+   * @param fragment The written XmlTestSet. Must not be null.
+   * @param part The part file. Must not be null.
+   * @param target The channel to copy to. Must not be null.
+   * @throws IOException
+   */
+  private static void copy( final Fragment fragment, final FileChannel part, final WritableByteChannel target )
+  throws IOException
+  {
+    copy( part, fragment.begin_, fragment.placeholderBegin_, target );
+    for( final Fragment child : fragment.children_ ) {
+      copy( child, part, target );
+    }
+    copy( part, fragment.placeholderEnd_, fragment.end_, target );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void copy( final FileChannel part, final long begin, final long end, final WritableByteChannel target )
+  throws IOException
+  {
+    long position = begin;
+    while( position < end ) {
+      position += part.transferTo( position, end - position, target );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Drops all content of the given written XmlTestSet except its analysis (and its identifying fields).
+   * @param xmlTestSet The written XmlTestSet. Must not be null.
+   */
+  private static void prune( final XmlTestSet xmlTestSet )
+  {
+    xmlTestSet.setFilterRegistry ( null );
+    xmlTestSet.setVariables      ( null );
+    xmlTestSet.setRequest        ( null );
+    xmlTestSet.setResponse       ( null );
+    xmlTestSet.setOverAllExpected( null );
+    xmlTestSet.getTest()          .clear();
+    xmlTestSet.getTestSet()       .clear();
+    xmlTestSet.getTestSetInclude().clear();
+
+    if( LOG.isDebugEnabled() ) {
+      LOG.debug( "Test set \"" + xmlTestSet.getId() + "\" was written to the report." );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static JAXBContext createJaxbContext()
+  {
+    try {
+      return JAXBContext.newInstance( XmlResponseDiffSetup.class );
+    }
+    catch( final JAXBException ex ) {
+      throw new RuntimeException( ex );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The placeholder of the child XmlTestSets as it is written to the part file (e.g. &lt;testSet id="..."&gt;&lt;/testSet&gt;).
+   */
+  private static byte[] createPlaceholderBytes()
+  {
+    final XmlTestSet placeholder = new XmlTestSet();
+    placeholder.setId( PLACEHOLDER_ID );
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      final XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter( bytes, StandardCharsets.UTF_8.name() );
+      final Marshaller marshaller = JAXB_CONTEXT.createMarshaller();
+      marshaller.setProperty( Marshaller.JAXB_FRAGMENT, true );
+      marshaller.marshal( new JAXBElement<>( TEST_SET_QNAME, XmlTestSet.class, placeholder ), writer );
+      writer.close();
+    }
+    catch( final JAXBException | XMLStreamException ex ) {
+      throw new RuntimeException( ex );
+    }
+    return bytes.toByteArray();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Counts the bytes written to the part file and finds the end of a byte sequence (the placeholder of the child XmlTestSets) on demand.
+   */
+  private static class PartOutputStream extends FilterOutputStream
+  {
+    private final byte[]  pattern_;
+    private final int[]   failure_;  // The length of the longest proper prefix of the pattern that is a suffix of pattern[0..i]
+    private       long    position_;
+    private       boolean watching_;
+    private       int     matched_;
+    private       long    matchEnd_ = -1L;
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    PartOutputStream( final OutputStream os, final byte[] pattern )
+    {
+      super( os );
+      pattern_ = pattern;
+      failure_ = new int[ pattern.length ];
+      for( int i=1, k=0; i < pattern.length; i++ ) {
+        while( k > 0 && pattern[ i ] != pattern[ k ] ) {
+          k = failure_[ k-1 ];
+        }
+        if( pattern[ i ] == pattern[ k ] ) {
+          k++;
+        }
+        failure_[ i ] = k;
+      }
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Watches the following bytes for the first occurrence of the pattern (see getMatchEnd()).
+     * @param watch Flag, if the following bytes shall be watched (true) or not (false).
+     */
+    void watch( final boolean watch )
+    {
+      watching_ = watch;
+      matched_  = 0;
+      matchEnd_ = -1L;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return The position right after the first occurrence of the pattern since watch() was invoked. If it was not found, -1 is returned.
+     */
+    long getMatchEnd()
+    {
+      return matchEnd_;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @return The number of bytes written so far.
+     */
+    long getPosition()
+    {
+      return position_;
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void write( final int b )
+    throws IOException
+    {
+      out.write( b );
+      position_++;
+      match( (byte) b );
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void write( final byte[] bytes, final int offset, final int length )
+    throws IOException
+    {
+      out.write( bytes, offset, length );
+      if( !watching_ ) {
+        position_ += length;
+        return;
+      }
+      for( int i=offset; i < offset + length; i++ ) {
+        position_++;
+        match( bytes[ i ] );
+      }
+    }
+
+    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void match( final byte b )
+    {
+      if( !watching_ ) {
+        return;
+      }
+      while( matched_ > 0 && b != pattern_[ matched_ ] ) {
+        matched_ = failure_[ matched_-1 ];
+      }
+      if( b == pattern_[ matched_ ] ) {
+        matched_++;
+      }
+      if( matched_ == pattern_.length ) {
+        matchEnd_ = position_;
+        watching_ = false; // The first occurrence only
+      }
+    }
+  }
+}
@@ -0,0 +1,231 @@
+package com.github.kreutzr.responsediff;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Helper class to find the dependencies between the XmlTests of a XmlTestSet that are caused by response variables.
+ * A XmlTest depends on a previous XmlTest if it uses a variable that the previous XmlTest reads from its response.
+ */
+public class TestDependencyHelper
+{
+  private static final String[] SERVICE_PREFIXES = {
+    "candidate.",
+    "reference.",
+    "control."
+  };
+
+  private static final Logger LOG = LoggerFactory.getLogger( TestDependencyHelper.class );
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Determines for each of the given XmlTests the previous XmlTests it depends on.
+   * NOTE: This must be called before the XmlTests are initialized because initialization joins the XmlTestSet variables.
+   * @param xmlTests The XmlTests in their intended execution order. Must not be null.
+   * @param xmlTestSet The parent XmlTestSet. Must not be null.
+   * @return A Map that holds the prerequisite XmlTests for each XmlTest (by identity). Never null.
+   */
+  public static Map< XmlTest, List< XmlTest > > getDependencies(
+    final List< XmlTest > xmlTests,
+    final XmlTestSet      xmlTestSet
+  )
+  {
+    final Map< XmlTest, List< XmlTest > > result = new IdentityHashMap<>();
+
+    // Variables used by the XmlTestSet's request are used by each of its XmlTests.
+    final Set< String > testSetUsedVariableNames = getUsedVariableNames( xmlTestSet );
+
+    final List< Set< String > > providedVariableNames = new ArrayList<>();
+    for( int i=0; i < xmlTests.size(); i++ ) {
+      final XmlTest xmlTest = xmlTests.get( i );
+      final Set< String > usedVariableNames = getUsedVariableNames( xmlTest );
+      usedVariableNames.addAll( testSetUsedVariableNames );
+
+      final List< XmlTest > prerequisites = new ArrayList<>();
+      for( int j=0; j < i; j++ ) {
+        for( final String variableName : providedVariableNames.get( j ) ) {
+          if( usedVariableNames.contains( variableName ) ) {
+            prerequisites.add( xmlTests.get( j ) );
+            break;
+          }
+        }
+      }
+      result.put( xmlTest, prerequisites );
+      providedVariableNames.add( getProvidedVariableNames( xmlTest, xmlTestSet ) );
+
+      if( LOG.isDebugEnabled() && !prerequisites.isEmpty() ) {
+        final List< String > prerequisiteIds = new ArrayList<>();
+        for( final XmlTest prerequisite : prerequisites ) {
+          prerequisiteIds.add( prerequisite.getId() );
+        }
+        LOG.debug( "Test \"" + xmlTest.getId() + "\" of test set \"" + xmlTestSet.getId() + "\" depends on " + prerequisiteIds + "." );
+      }
+    }
+
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gathers the names of all variables that are used by the given XmlTest. Service prefixes (e.g. "candidate.") are removed.
+   * @param xmlTest The XmlTest to inspect. Must not be null.
+   * @return A Set with all used variable names. May be empty but never null.
+   */
+  static Set< String > getUsedVariableNames( final XmlTest xmlTest )
+  {
+    final Set< String > variableNames = new TreeSet<>();
+
+    VariablesHandler.findVariableNames( xmlTest.getDescription(), variableNames );
+    VariablesHandler.findVariableNames( xmlTest.getWaitBefore(),  variableNames );
+    addUsedVariableNames( xmlTest.getVariables(), variableNames );
+    addUsedVariableNames( xmlTest.getRequest(),   variableNames );
+
+    final XmlResponse xmlResponse = xmlTest.getResponse();
+    if( xmlResponse != null && xmlResponse.getExpected() != null ) {
+      final XmlExpected xmlExpected = xmlResponse.getExpected();
+      addUsedVariableNames( xmlExpected.getHeaders(), variableNames );
+      if( xmlExpected.getValues() != null ) {
+        for( final XmlValue xmlValue : xmlExpected.getValues().getValue() ) {
+          VariablesHandler.findVariableNames( xmlValue.getValue(), variableNames );
+        }
+      }
+      if( xmlExpected.getBody() != null ) {
+        VariablesHandler.findVariableNames( xmlExpected.getBody().getValue(), variableNames );
+      }
+    }
+
+    return removeServicePrefixes( variableNames );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gathers the names of all variables that are used by the request of the given XmlTestSet (and hence by each of its XmlTests). Service prefixes (e.g. "candidate.") are removed.
+   * @param xmlTestSet The XmlTestSet to inspect. Must not be null.
+   * @return A Set with all used variable names. May be empty but never null.
+   */
+  static Set< String > getUsedVariableNames( final XmlTestSet xmlTestSet )
+  {
+    final Set< String > variableNames = new TreeSet<>();
+    addUsedVariableNames( xmlTestSet.getRequest(), variableNames );
+
+    return removeServicePrefixes( variableNames );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gathers the ids of all response variables the given XmlTest provides for following XmlTests.
+   * @param xmlTest The XmlTest to inspect. Must not be null.
+   * @param xmlTestSet The parent XmlTestSet. Must not be null.
+   * @return A Set with all provided variable ids. May be empty but never null.
+   */
+  static Set< String > getProvidedVariableNames(
+    final XmlTest    xmlTest,
+    final XmlTestSet xmlTestSet
+  )
+  {
+    // NOTE: A XmlTest without a response inherits the response variables of its XmlTestSet (see TestSetHandler.joinVariablesForXmlTest()).
+    final XmlResponse xmlResponse = xmlTest.getResponse() != null
+      ? xmlTest.getResponse()
+      : xmlTestSet.getResponse();
+
+    final Set< String > result = new TreeSet<>();
+    if( xmlResponse != null && xmlResponse.getVariables() != null ) {
+      for( final XmlVariable xmlVariable : xmlResponse.getVariables().getVariable() ) {
+        if( xmlVariable.getPath() != null ) {
+          result.add( xmlVariable.getId() );
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void addUsedVariableNames( final XmlRequest xmlRequest, final Set< String > variableNames )
+  {
+    if( xmlRequest == null ) {
+      return;
+    }
+
+    VariablesHandler.findVariableNames( xmlRequest.getDescription(), variableNames );
+    VariablesHandler.findVariableNames( xmlRequest.getEndpoint(),    variableNames );
+    VariablesHandler.findVariableNames( xmlRequest.getBody(),        variableNames );
+    addUsedVariableNames( xmlRequest.getVariables(), variableNames );
+    addUsedVariableNames( xmlRequest.getHeaders(),   variableNames );
+
+    if( xmlRequest.getParameters() != null ) {
+      for( final XmlParameter xmlParameter : xmlRequest.getParameters().getParameter() ) {
+        VariablesHandler.findVariableNames( xmlParameter.getValue(), variableNames );
+      }
+    }
+    if( xmlRequest.getUploadParts() != null ) {
+      for( final XmlFile xmlFile : xmlRequest.getUploadParts().getFile() ) {
+        VariablesHandler.findVariableNames( xmlFile.getValue(), variableNames );
+        VariablesHandler.findVariableNames( xmlFile.getName(),  variableNames );
+      }
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void addUsedVariableNames( final XmlVariables xmlVariables, final Set< String > variableNames )
+  {
+    if( xmlVariables == null ) {
+      return;
+    }
+
+    for( final XmlVariable xmlVariable : xmlVariables.getVariable() ) {
+      VariablesHandler.findVariableNames( xmlVariable.getValue(), variableNames );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void addUsedVariableNames( final XmlHeaders xmlHeaders, final Set< String > variableNames )
+  {
+    if( xmlHeaders == null ) {
+      return;
+    }
+
+    for( final XmlHeader xmlHeader : xmlHeaders.getHeader() ) {
+      VariablesHandler.findVariableNames( xmlHeader.getValue(), variableNames );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static Set< String > removeServicePrefixes( final Set< String > variableNames )
+  {
+    final Set< String > result = new TreeSet<>();
+    for( final String variableName : variableNames ) {
+      result.add( removeServicePrefix( variableName ) );
+    }
+
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static String removeServicePrefix( final String variableName )
+  {
+    for( final String servicePrefix : SERVICE_PREFIXES ) {
+      if( variableName.startsWith( servicePrefix ) ) {
+        return variableName.substring( servicePrefix.length() );
+      }
+    }
+
+    return variableName;
+  }
+}
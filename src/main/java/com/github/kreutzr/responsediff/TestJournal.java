@@ -0,0 +1,289 @@
+package com.github.kreutzr.responsediff;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+import javax.xml.transform.stream.StreamSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.kreutzr.responsediff.tools.JsonHelper;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+
+/**
+ * An append-only journal of the finished XmlTests (one JSON line per XmlTest).
+ * Each entry holds the entire XmlTest (including its analysis and messages) and the response variables it provided to its XmlTestSet.
+ * If a run is resumed, the XmlTests found in the journal are restored instead of being executed again.
+ * <br/>
+ * <b>NOTE:</b> This class is thread safe.
+ */
+public class TestJournal implements AutoCloseable
+{
+  private static final String FIELD__ID        = "id";
+  private static final String FIELD__BROKE     = "broke";
+  private static final String FIELD__TEST      = "test";
+  private static final String FIELD__VARIABLES = "variables";
+
+  private static final String[] SERVICE_IDS = { "reference", "control", "candidate" };
+
+  private static final QName        TEST_QNAME   = new QName( "test" );
+  private static final JAXBContext  JAXB_CONTEXT = createJaxbContext();
+  private static final ObjectMapper MAPPER       = JsonHelper.provideObjectMapper();
+
+  private static final Logger LOG = LoggerFactory.getLogger( TestJournal.class );
+
+  private final Path                             filePath_;
+  private final Map< String, Deque< JsonNode > > entriesById_;
+  private       BufferedWriter                   writer_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private TestJournal( final Path filePath, final Map< String, Deque< JsonNode > > entriesById, final BufferedWriter writer )
+  {
+    filePath_    = filePath;
+    entriesById_ = entriesById;
+    writer_      = writer;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Opens the journal at the given path.
+   * @param filePath The path of the journal file. Must not be null.
+   * @param resume Flag, if the XmlTests of an existing journal shall be restored (true) or if a new journal shall be started (false).
+   * @return The opened TestJournal. Never null.
+   * @throws IOException
+   */
+  public static TestJournal open( final String filePath, final boolean resume )
+  throws IOException
+  {
+    final Path path = Path.of( filePath );
+    if( path.getParent() != null ) {
+      Files.createDirectories( path.getParent() );
+    }
+
+    final Map< String, Deque< JsonNode > > entriesById = new HashMap<>();
+    if( resume && Files.exists( path ) ) {
+      final List< String > validLines = new ArrayList<>();
+      for( final String line : Files.readAllLines( path, StandardCharsets.UTF_8 ) ) {
+        if( line.isBlank() ) {
+          continue;
+        }
+        try {
+          final JsonNode entry = MAPPER.readTree( line );
+          entriesById.computeIfAbsent( entry.get( FIELD__ID ).asText(), id -> new ArrayDeque<>() ).add( entry );
+          validLines.add( line );
+        }
+        catch( final Exception ex ) {
+          // NOTE: The last line may be incomplete if the previous run was terminated while writing.
+          LOG.warn( "Ignoring incomplete journal entry in \"" + filePath + "\"." );
+          break;
+        }
+      }
+
+      // Drop an incomplete entry, so new entries are appended to a valid journal.
+      Files.write( path, validLines, StandardCharsets.UTF_8 );
+      LOG.info( "Resuming from journal \"" + filePath + "\" with " + validLines.size() + " finished tests." );
+    }
+
+    final BufferedWriter writer = Files.newBufferedWriter(
+      path,
+      StandardCharsets.UTF_8,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.WRITE,
+      resume ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING
+    );
+
+    return new TestJournal( path, entriesById, writer );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @param testId The id of the (initialized) XmlTest. Must not be null.
+   * @return true if the journal holds a finished XmlTest with the given id that was not restored yet. Otherwise false is returned.
+   */
+  public synchronized boolean contains( final String testId )
+  {
+    final Deque< JsonNode > entries = entriesById_.get( testId );
+    return entries != null && !entries.isEmpty();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Restores the given (initialized) XmlTest from the journal and provides its response variables to the given XmlTestSet.
+   * NOTE: XmlTests with the same id (e.g. iterations) are restored in the order they were recorded.
+   * @param xmlTestSet The XmlTest's parent XmlTestSet. Must not be null.
+   * @param xmlTest The XmlTest to restore. Must not be null.
+   * @return null if the journal does not hold the XmlTest. Otherwise true is returned if the XmlTest broke and false if not.
+   * @throws JAXBException
+   */
+  public Boolean restore( final XmlTestSet xmlTestSet, final XmlTest xmlTest )
+  throws JAXBException
+  {
+    final JsonNode entry;
+    synchronized( this ) {
+      final Deque< JsonNode > entries = entriesById_.get( xmlTest.getId() );
+      entry = entries != null ? entries.poll() : null;
+    }
+    if( entry == null ) {
+      return null;
+    }
+
+    final XmlTest journalXmlTest = JAXB_CONTEXT.createUnmarshaller()
+      .unmarshal( new StreamSource( new StringReader( entry.get( FIELD__TEST ).asText() ) ), XmlTest.class )
+      .getValue();
+
+    xmlTest.setDescription   ( journalXmlTest.getDescription() );
+    xmlTest.setVariables     ( journalXmlTest.getVariables() );
+    xmlTest.setRequest       ( journalXmlTest.getRequest() );
+    xmlTest.setResponse      ( journalXmlTest.getResponse() );
+    xmlTest.setAnalysis      ( journalXmlTest.getAnalysis() );
+    xmlTest.setStructureDepth( journalXmlTest.getStructureDepth() );
+
+    // NOTE: Tests of a parallel test set share the XmlTestSet variables.
+    synchronized( xmlTestSet ) {
+      if( xmlTestSet.getVariables() == null ) {
+        xmlTestSet.setVariables( new XmlVariables() );
+      }
+      final List< XmlVariable > xmlSetVariables = xmlTestSet.getVariables().getVariable();
+      for( final JsonNode variable : entry.get( FIELD__VARIABLES ) ) {
+        final XmlVariable xmlVariable = MAPPER.convertValue( variable, XmlVariable.class );
+        if( findVariable( xmlSetVariables, xmlVariable.getId() ) == null ) {
+          xmlSetVariables.add( xmlVariable );
+        }
+      }
+    }
+
+    return entry.get( FIELD__BROKE ).asBoolean();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Appends the given finished XmlTest to the journal. The entry is flushed right away.
+   * @param xmlTestSet The XmlTest's parent XmlTestSet. Must not be null.
+   * @param xmlTest The finished XmlTest. Must not be null.
+   * @param broke Flag, if the XmlTest terminated unsuccessfully (true) or not (false).
+   * @throws JAXBException
+   * @throws IOException
+   */
+  public void record( final XmlTestSet xmlTestSet, final XmlTest xmlTest, final boolean broke )
+  throws JAXBException, IOException
+  {
+    final StringWriter xml = new StringWriter();
+    final Marshaller marshaller = JAXB_CONTEXT.createMarshaller();
+    marshaller.setProperty( Marshaller.JAXB_FRAGMENT, true );
+    marshaller.marshal( new JAXBElement<>( TEST_QNAME, XmlTest.class, xmlTest ), xml );
+
+    final ObjectNode entry = MAPPER.createObjectNode();
+    entry.put( FIELD__ID,    xmlTest.getId() );
+    entry.put( FIELD__BROKE, broke );
+    entry.put( FIELD__TEST,  xml.toString() );
+    final ArrayNode variables = entry.putArray( FIELD__VARIABLES );
+    for( final XmlVariable xmlVariable : getProvidedVariables( xmlTestSet, xmlTest ) ) {
+      variables.add( MAPPER.valueToTree( xmlVariable ) );
+    }
+
+    final String line = MAPPER.writeValueAsString( entry );
+    synchronized( this ) {
+      if( writer_ == null ) {
+        throw new IOException( "Journal \"" + filePath_ + "\" is closed." );
+      }
+      writer_.write( line );
+      writer_.newLine();
+      writer_.flush();
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public synchronized void close() throws IOException
+  {
+    if( writer_ != null ) {
+      writer_.close();
+      writer_ = null;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Collects the XmlTestSet variables that were read from the responses of the given XmlTest (see TestSetHandler.handleTestResponse()).
+   * @param xmlTestSet The XmlTest's parent XmlTestSet. Must not be null.
+   * @param xmlTest The finished XmlTest. Must not be null.
+   * @return The provided variables. May be empty but never null.
+   */
+  private static List< XmlVariable > getProvidedVariables( final XmlTestSet xmlTestSet, final XmlTest xmlTest )
+  {
+    final List< XmlVariable > result = new ArrayList<>();
+    if( xmlTest.getResponse() == null || xmlTest.getResponse().getVariables() == null ) {
+      return result;
+    }
+
+    synchronized( xmlTestSet ) {
+      if( xmlTestSet.getVariables() == null ) {
+        return result;
+      }
+      for( final XmlVariable xmlVariable : xmlTest.getResponse().getVariables().getVariable() ) {
+        for( final String serviceId : SERVICE_IDS ) {
+          final XmlVariable xmlSetVariable = findVariable( xmlTestSet.getVariables().getVariable(), serviceId + "." + xmlVariable.getId() );
+          if( xmlSetVariable != null ) {
+            result.add( xmlSetVariable );
+          }
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static XmlVariable findVariable( final List< XmlVariable > xmlVariables, final String id )
+  {
+    for( final XmlVariable xmlVariable : xmlVariables ) {
+      if( xmlVariable.getId().equals( id ) ) {
+        return xmlVariable;
+      }
+    }
+
+    return null;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static JAXBContext createJaxbContext()
+  {
+    try {
+      return JAXBContext.newInstance( XmlTest.class );
+    }
+    catch( final JAXBException ex ) {
+      throw new RuntimeException( ex );
+    }
+  }
+}
@@ -1,8 +1,10 @@
 package com.github.kreutzr.responsediff;
 
+import java.io.IOException;
 import java.net.http.HttpRequest.Builder;
 import java.net.http.HttpResponse;
 import java.text.ParseException;
+import java.time.DateTimeException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -17,9 +19,16 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLStreamException;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
@@ -34,11 +43,13 @@ import jakarta.xml.bind.JAXBException;
 public class TestSetHandler
 {
   public  static final String CANDIDATE = "candidate";
-  private static final String REFERENCE = "reference";
-  private static final String CONTROL   = "control  ";
+  public  static final String REFERENCE = "reference";
+  public  static final String CONTROL   = "control  ";
 
   public  static final String ID_SEPARATOR = " / ";
 
+  public  static final int DEFAULT_MAX_REPORTED_ITERATIONS = 100;
+
   private static final Logger LOG = LoggerFactory.getLogger( TestSetHandler.class );
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -84,6 +95,74 @@ public class TestSetHandler
       final String                    executionContextAsString
   )
   throws JAXBException, SAXException, ParseException
+  {
+    processTestSetup(
+      testIdPattern,
+      xmlTestSetup,
+      candidateServiceUrl,
+      candidateHeaders,
+      referenceServiceUrl,
+      referenceHeaders,
+      controlServiceUrl,
+      controlHeaders,
+      filterRegistry,
+      timeoutMs,
+      epsilon,
+      referenceFilePath,
+      storeReportPath,
+      reportWhiteNoise,
+      maskAuthorizationHeaderInCurl,
+      reportControlResponse,
+      executionContextAsString,
+      new RunOptions()
+    );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Traverses the given xmlTestSetup (depth first order), performs each test and stores the results within the analysis section of each included test and test set.
+   * @param testIdPattern The pattern of the tests to execute. May be null. (default null means that all tests are executed)
+   * @param xmlTestSetup The XmlResponseDiffSetup to traverse. Must not be null.
+   * @param candidateServiceUrl The URL of the candidate server. Must not be null.
+   * @param candidateHeaders A list of XmlHeader objects. May be null. This is required for e.g. passing server individual authentication headers.
+   * @param referenceServiceUrl The URL of the reference server. Must not be null.
+   * @param referenceHeaders A list of XmlHeader objects. May be null. This is required for e.g. passing server individual authentication headers.
+   * @param controlServiceUrl The URL of the control server. Must be different to both - the reference and the candidate server. May be null.
+   * @param controlHeaders   A list of XmlHeader object. May be null. This is required for e.g. passing server individual authentication headers.
+   * @param filterRegistry The filter registry to use. Must not be null.
+   * @param timeoutMs The timeout for the HTTP handling in milliseconds.
+   * @param epsilon The epsilon for decimal comparison. Must not be null.
+   * @param referenceFilePath Optional filename that points to a XML report that shall be used to simulate reference responses, if no reference service URL is configured. May be null.
+   * @param storeReportPath The path where the report is stored to. May be null.
+   * @param reportWhiteNoise Flag, if any different value shall be reported (true) or only those that were not discovered to be white noise (differences between reference and control, or expected differences) (false).
+   * @param maskAuthorizationHeaderInCurl Flag, if authorization header shall be logged in the reported curl command (true) or not (false)
+   * @param runOptions The optional settings of the run (e.g. the ids of the tests to execute or the TestJournal). Must not be null.
+   * @throws SAXException
+   * @throws JAXBException
+   * @throws ParseException
+   */
+  public static void processTestSetup(
+      final Pattern                   testIdPattern,
+      final XmlResponseDiffSetup      xmlTestSetup,
+      final String                    candidateServiceUrl,
+      final List< XmlHeader >         candidateHeaders,
+      final String                    referenceServiceUrl,
+      final List< XmlHeader >         referenceHeaders,
+      final String                    controlServiceUrl,
+      final List< XmlHeader >         controlHeaders,
+      final Map< String, DiffFilter > filterRegistry,
+      final long                      timeoutMs,
+      final double                    epsilon,
+      final String                    referenceFilePath,
+      final String                    storeReportPath,
+      final boolean                   reportWhiteNoise,
+      final boolean                   maskAuthorizationHeaderInCurl,
+      final boolean                   reportControlResponse,
+      final String                    executionContextAsString,
+      final RunOptions                runOptions
+  )
+  throws JAXBException, SAXException, ParseException
   {
     LOG.trace( "processTestSetup()" );
 
@@ -109,46 +188,181 @@ public class TestSetHandler
       ? XmlFileHandler.readSetup( referenceFilePath, null, false )
       : null;
 
+    outerContext.setSimultaneousRequests( Boolean.TRUE.equals( xmlTestSetup.isSimultaneousRequests() ) );
+    outerContext.setDropUnreportedBodies( Boolean.TRUE.equals( xmlTestSetup.isDropUnreportedBodies() ) );
+    outerContext.setTestIds( runOptions.getTestIds() );
+    outerContext.setMaxReportedIterations( Converter.asInteger( xmlTestSetup.getMaxReportedIterations(), DEFAULT_MAX_REPORTED_ITERATIONS ) );
+    outerContext.setJournal( runOptions.getJournal() );
+    outerContext.setReportWriter( runOptions.getReportWriter() );
+    outerContext.setBodyStore( runOptions.getBodyStore() );
+    outerContext.setExecutionPlan( ExecutionPlan.compile( xmlTestSetup, outerContext.getExecutionContext() ) );
+
     final int structureDepth = 1;
     xmlTestSetup.setStructureDepth( structureDepth );
 
-    // Handle test sets
-    final Iterator< XmlTestSet > it = xmlTestSetup.getTestSet().iterator();
-    while( it.hasNext() ) {
-      final XmlTestSet xmlTestSet = it.next();
+    try {
+      // Handle test sets
+      if( Boolean.TRUE.equals( xmlTestSetup.isParallelTestSets() ) ) {
+        handleTestSetsInParallel(
+          xmlTestSetup,
+          outerContext,
+          referenceXmlSetup,
+          structureDepth + 1
+        );
+      }
+      else {
+        final Iterator< XmlTestSet > it = xmlTestSetup.getTestSet().iterator();
+        while( it.hasNext() ) {
+          final XmlTestSet xmlTestSet = it.next();
+
+          setTopLevelDefaults( xmlTestSet );
+
+          boolean breakTestExecution = false;
+          Exception breakException = null;
+
+          try {
+            handleTestSet(
+              xmlTestSet,
+              outerContext,
+              referenceXmlSetup,
+              structureDepth + 1
+            );
+          }
+          catch( final BreakOnFailureException ex ) {
+            ex.printStackTrace();
+            breakTestExecution = true;
+            breakException = ex;
+          }
 
-      // Set default values if required. Do NOT define a default in the XSD because then we can not inherit since the default value is never null.
-      if( xmlTestSet.getReport() == null ) { xmlTestSet.setReport( "fail,skip" ); }
-      if( xmlTestSet.getOrder()  == null ) { xmlTestSet.setOrder( XmlTestOrder.RANDOM ); }
+          xmlTestSetup.setAnalysis( handleXmlAnalysisDurations( null, xmlTestSetup.getTestSet() ) );
+          writeTestSet( xmlTestSet, outerContext );
 
-      boolean breakTestExecution = false;
-      Exception breakException = null;
+          if( breakTestExecution ) {
+            LOG.info( "Breaking test set execution because " + breakException.getMessage() );
+            break;
+          }
+        }
+      }
+    }
+    finally {
+      closeFilters( filterRegistry );
+    }
+
+    if( LOG.isDebugEnabled() ) {
+      LOG.debug( "Total analysis =" + ToJson.fromAnalysis( xmlTestSetup.getAnalysis() ) );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Closes all filters of the given filter registry, so they release their resources (e.g. open files or database connections).
+   * Errors are logged only, so all filters are closed.
+   * @param filterRegistry The filter registry whose filters shall be closed. Must not be null.
+   */
+  private static void closeFilters( final Map< String, DiffFilter > filterRegistry )
+  {
+    synchronized( filterRegistry ) {
+      for( final Map.Entry< String, DiffFilter > entry : filterRegistry.entrySet() ) {
+        try {
+          entry.getValue().close();
+        }
+        catch( final Exception ex ) {
+          LOG.error( "Error closing filter \"" + entry.getKey() + "\".", ex );
+        }
+      }
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Handles the top level XmlTestSets of the given XmlResponseDiffSetup concurrently (limited by the setup's maxConcurrency).
+   * A XmlTestSet that breaks (breakOnFailure) only skips its own subtree. All other XmlTestSets are continued.
+   * The analysis of the XmlResponseDiffSetup is calculated once after all XmlTestSets have finished.
+   * @param xmlTestSetup The XmlResponseDiffSetup to handle. Must not be null.
+   * @param outerContext The outer context. Must not be null.
+   * @param referenceXmlSetup An optional XmlSetup that shall be used to simulate reference responses, if no reference service URL is configured. May be null.
+   * @param structureDepth The depth of the top level XmlTestSets within the test structure.
+   */
+  private static void handleTestSetsInParallel(
+    final XmlResponseDiffSetup xmlTestSetup,
+    final OuterContext         outerContext,
+    final XmlResponseDiffSetup referenceXmlSetup,
+    final int                  structureDepth
+  )
+  {
+    final List< XmlTestSet > xmlTestSets = xmlTestSetup.getTestSet();
+    for( final XmlTestSet xmlTestSet : xmlTestSets ) {
+      setTopLevelDefaults( xmlTestSet );
+    }
+
+    final boolean useVirtualThreads = Boolean.TRUE.equals( xmlTestSetup.isVirtualThreads() );
+    final int     maxConcurrency    = ParallelTestHandler.getMaxConcurrency( xmlTestSetup.getMaxConcurrency(), useVirtualThreads );
+    ParallelTestHandler.execute( xmlTestSets, maxConcurrency, null, useVirtualThreads, xmlTestSet -> {
       try {
         handleTestSet(
           xmlTestSet,
           outerContext,
           referenceXmlSetup,
-          structureDepth + 1
+          structureDepth
         );
       }
       catch( final BreakOnFailureException ex ) {
-        ex.printStackTrace();
-        breakTestExecution = true;
-        breakException = ex;
+        // NOTE: The subtree of the XmlTestSet was already skipped. All other XmlTestSets are independent.
+        LOG.info( "Breaking test set \"" + xmlTestSet.getId() + "\" because " + ex.getMessage() );
+      }
+      catch( final ParseException | JAXBException ex ) {
+        throw new RuntimeException( ex );
       }
 
-      xmlTestSetup.setAnalysis( handleXmlAnalysisDurations( null, xmlTestSetup.getTestSet() ) );
-
-      if( breakTestExecution ) {
-        LOG.info( "Breaking test set execution because " + breakException.getMessage() );
-        break;
+      try {
+        writeTestSet( xmlTestSet, outerContext );
       }
+      catch( final JAXBException ex ) {
+        throw new RuntimeException( ex );
+      }
+    } );
+
+    xmlTestSetup.setAnalysis( handleXmlAnalysisDurations( null, xmlTestSets ) );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Writes the given finished XmlTestSet to the report (if the report is streamed, see StreamingReportWriter).
+   * NOTE: A XmlTestSet must be written before its parent XmlTestSet.
+   * @param xmlTestSet The finished XmlTestSet. Must not be null.
+   * @param outerContext The outer context. Must not be null.
+   * @throws JAXBException
+   */
+  private static void writeTestSet( final XmlTestSet xmlTestSet, final OuterContext outerContext )
+  throws JAXBException
+  {
+    final StreamingReportWriter reportWriter = outerContext.getReportWriter();
+    if( reportWriter == null ) {
+      return;
     }
 
-    if( LOG.isDebugEnabled() ) {
-      LOG.debug( "Total analysis =" + ToJson.fromAnalysis( xmlTestSetup.getAnalysis() ) );
+    try {
+      reportWriter.write( xmlTestSet );
     }
+    catch( final XMLStreamException ex ) {
+      throw new JAXBException( "Unable to write test set \"" + xmlTestSet.getId() + "\" to the report.", ex );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Sets the default values of a top level XmlTestSet if required.
+   * NOTE: Do NOT define a default in the XSD because then we can not inherit since the default value is never null.
+   * @param xmlTestSet The XmlTestSet to initialize. Must not be null.
+   */
+  private static void setTopLevelDefaults( final XmlTestSet xmlTestSet )
+  {
+    if( xmlTestSet.getReport() == null ) { xmlTestSet.setReport( "fail,skip" ); }
+    if( xmlTestSet.getOrder()  == null ) { xmlTestSet.setOrder( XmlTestOrder.RANDOM ); }
   }
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -161,6 +375,7 @@ public class TestSetHandler
    * @param structureDepth The depth within the test structure. The root element (setup) has depth 1.
    * @throws ParseException
    * @throws BreakOnFailureException
+   * @throws JAXBException
    */
   private static void handleTestSet(
      final XmlTestSet           xmlTestSet,
@@ -168,14 +383,12 @@ public class TestSetHandler
      final XmlResponseDiffSetup referenceXmlSetup,
      final int                  structureDepth
   )
-  throws BreakOnFailureException, ParseException
+  throws BreakOnFailureException, ParseException, JAXBException
   {
     LOG.trace( "handleTestSet()" );
-    final Set< String > executionContext = outerContext.getExecutionContext();
     // Check id execution context matches (if any)
-    if( !ExecutionContextHelper.matchesExecutionContext(
+    if( !outerContext.getExecutionPlan().matchesExecutionContext(
         xmlTestSet.getIfExecutionContextContains(),
-        executionContext,
         ExecutionContextHelper.CHECK_CONTEXT__TEST_EXPECTATION,
         LOG
     ) ) {
@@ -186,46 +399,89 @@ public class TestSetHandler
     xmlTestSet.setStructureDepth( structureDepth );
     final int childStructureDepth = structureDepth + 1;
 
+    // NOTE: Iterations are created right before their execution (see XmlFileHandler.createWrapperTestSet()).
+    //       Many iterations are handled one after another, so they never exist at once (except for parallel tests).
+    final Integer lazyIterations = xmlTestSet.getLazyIterations();
+    final boolean summarize      = lazyIterations != null && lazyIterations > outerContext.getMaxReportedIterations();
+    if( lazyIterations != null ) {
+      if( summarize && ( xmlTestSet.getTest().isEmpty() || xmlTestSet.getOrder() != XmlTestOrder.PARALLEL ) ) {
+        handleIterations( xmlTestSet, outerContext, referenceXmlSetup, structureDepth );
+        return;
+      }
+      XmlFileHandler.createIterations( xmlTestSet );
+    }
+
     Exception breakException = null;
 
     // Handle terminating tests
     final Collection< XmlTest > xmlTests = createTestCollection( xmlTestSet.getTest(), xmlTestSet.getOrder() );
-    for( final XmlTest xmlTest : xmlTests ) {
-      initializeTest( xmlTest, xmlTestSet );
-
+    if( xmlTestSet.getOrder() == XmlTestOrder.PARALLEL ) {
+      breakException = handleTestsInParallel(
+        xmlTestSet,
+        xmlTests,
+        outerContext,
+        referenceXmlSetup,
+        childStructureDepth
+      );
+    }
+    else {
+      final List< XmlTest > orderedXmlTests = new ArrayList<>( xmlTests );
+      final RequestPipeline pipeline        = createRequestPipeline( xmlTestSet, orderedXmlTests, outerContext );
       try {
-        handleTest(
-          xmlTestSet,
-          xmlTest,
-          outerContext,
-          xmlTestSet.getFileName(),
-          referenceXmlSetup,
-          childStructureDepth
-        );
-      }
-      catch( final BreakOnFailureException ex ) {
-        breakException = ex;
-      }
+        for( int i=0; i < orderedXmlTests.size(); i++ ) {
+          final XmlTest xmlTest = orderedXmlTests.get( i );
 
-      if( breakException != null ) {
-        // Adjust XmlAnalysis after XmlTest broke
-        final int numberOfSkippedTests = getRemainingTests( xmlTestSet, xmlTest, childStructureDepth ).size();
-        XmlAnalysis xmlAnalysis = xmlTestSet.getAnalysis();
-        if( xmlAnalysis == null ) {
-          xmlAnalysis = new XmlAnalysis();
-          xmlTestSet.setAnalysis( xmlAnalysis );
-        }
-        xmlAnalysis.setTotalCount( xmlAnalysis.getTotalCount() + numberOfSkippedTests );
-        xmlAnalysis.setSkipCount ( xmlAnalysis.getSkipCount () + numberOfSkippedTests );
+          // NOTE: A XmlTest that was prepared in advance is already initialized.
+          final Future< PreparedRequests > preparation = pipeline.take( i );
+          if( preparation == null ) {
+            initializeTest( xmlTest, xmlTestSet );
+          }
 
-        LOG.info( "Breaking test execution because " + breakException.getMessage() );
-        break;
+          try {
+            handleTest(
+              xmlTestSet,
+              xmlTest,
+              outerContext,
+              xmlTestSet.getFileName(),
+              referenceXmlSetup,
+              childStructureDepth,
+              RequestPipeline.await( preparation ),
+              null // inFlightRequests
+            );
+          }
+          catch( final BreakOnFailureException ex ) {
+            breakException = ex;
+          }
+
+          if( breakException != null ) {
+            pipeline.close();
+
+            // Adjust XmlAnalysis after XmlTest broke
+            final int numberOfSkippedTests = getRemainingTests( xmlTestSet, xmlTest, childStructureDepth, pipeline.getInitializedTests() ).size();
+            XmlAnalysis xmlAnalysis = xmlTestSet.getAnalysis();
+            if( xmlAnalysis == null ) {
+              xmlAnalysis = new XmlAnalysis();
+              xmlTestSet.setAnalysis( xmlAnalysis );
+            }
+            xmlAnalysis.setTotalCount( xmlAnalysis.getTotalCount() + numberOfSkippedTests );
+            xmlAnalysis.setSkipCount ( xmlAnalysis.getSkipCount () + numberOfSkippedTests );
+
+            LOG.info( "Breaking test execution because " + breakException.getMessage() );
+            break;
+          }
+        }
+      }
+      finally {
+        pipeline.close();
       }
     }
 
     if( breakException != null ) {
-      // Handle duration statistic for handled tests
-      xmlTestSet.setAnalysis( handleXmlAnalysisDurations( xmlTests, null ) );
+      // Handle duration statistic for handled tests (the skipped tests were counted above)
+      xmlTestSet.setAnalysis( carrySkippedTests( handleXmlAnalysisDurations( xmlTests, null ), xmlTestSet.getAnalysis() ) );
+      if( summarize ) {
+        summarizeIterations( xmlTestSet, lazyIterations, outerContext );
+      }
 
       // NOTE: The result of getRemainingTests() includes all following TestSets, too.
       //       Therefore we have to make sure that no sub-TestSet is executed.
@@ -253,6 +509,7 @@ public class TestSetHandler
           breakException = ex;
         }
       }
+      writeTestSet( xmlTestSetChild, outerContext );
 
       if( breakException != null ) {
         // Adjust XmlAnalysis after XmlTestSet broke
@@ -270,14 +527,18 @@ public class TestSetHandler
       }
     }
 
-    // Handle duration statistic for handled tests and test sets
-    xmlTestSet.setAnalysis( handleXmlAnalysisDurations( xmlTests, xmlTestSets ) );
+    // Handle duration statistic for handled tests and test sets (the skipped tests were counted above, if a XmlTestSet broke)
+    xmlTestSet.setAnalysis( carrySkippedTests( handleXmlAnalysisDurations( xmlTests, xmlTestSets ), xmlTestSet.getAnalysis() ) );
+    if( summarize ) {
+      summarizeIterations( xmlTestSet, lazyIterations, outerContext );
+    }
 
     // Check over all expected
     final List< JsonDiffEntry > jsonDiffEntries = validateOverAllExpected(
       xmlTestSet,
       null, // xmlTest
-      xmlTestSet.getAnalysis()
+      xmlTestSet.getAnalysis(),
+      outerContext.getExecutionPlan()
     );
 
     // Check if an exception occurred or an overall expectation was violated
@@ -291,6 +552,341 @@ public class TestSetHandler
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Handles the iterations of a wrapper XmlTestSet (see XmlFileHandler.createWrapperTestSet()) one after another.
+   * Each iteration is created from the template right before its execution. Only the first iteration and unsuccessful iterations are kept
+   * (at most maxReportedIterations). Of all other iterations only their analysis is kept to calculate the analysis of the wrapper XmlTestSet.
+   * @param xmlTestSet The wrapper XmlTestSet. Must not be null.
+   * @param outerContext The outer context. Must not be null.
+   * @param referenceXmlSetup An optional XmlSetup that shall be used to simulate reference responses, if no reference service URL is configured. May be null.
+   * @param structureDepth The depth of the wrapper XmlTestSet within the test structure.
+   * @throws ParseException
+   * @throws JAXBException
+   */
+  private static void handleIterations(
+     final XmlTestSet           xmlTestSet,
+     final OuterContext         outerContext,
+     final XmlResponseDiffSetup referenceXmlSetup,
+     final int                  structureDepth
+  )
+  throws ParseException, JAXBException
+  {
+    final int iterations            = xmlTestSet.getLazyIterations();
+    final int maxReportedIterations = outerContext.getMaxReportedIterations();
+    final int childStructureDepth   = structureDepth + 1;
+    xmlTestSet.setLazyIterations( null );
+
+    final XmlTest    templateTest    = !xmlTestSet.getTest().isEmpty() ? xmlTestSet.getTest().remove( 0 ) : null;
+    final XmlTestSet templateTestSet = templateTest == null ? xmlTestSet.getTestSet().remove( 0 ) : null;
+
+    // NOTE: These hold the reported iterations and the analysis records of all other iterations.
+    final List< XmlTest >    xmlTests    = new ArrayList<>();
+    final List< XmlTestSet > xmlTestSets = new ArrayList<>();
+
+    int reportedIterations = 0;
+    int handledIterations  = 0;
+    while( handledIterations < iterations ) {
+      final boolean first = handledIterations == 0;
+      handledIterations++;
+
+      if( templateTest != null ) {
+        final XmlTest xmlTest = XmlFileHandler.createIteration( templateTest, first );
+        xmlTestSet.getTest().add( xmlTest );
+        initializeTest( xmlTest, xmlTestSet );
+
+        boolean broke = false;
+        try {
+          handleTest(
+            xmlTestSet,
+            xmlTest,
+            outerContext,
+            xmlTestSet.getFileName(),
+            referenceXmlSetup,
+            childStructureDepth,
+            null, // preparedRequests
+            null  // inFlightRequests
+          );
+        }
+        catch( final BreakOnFailureException ex ) {
+          LOG.info( "Breaking iterations because " + ex.getMessage() );
+          broke = true;
+        }
+
+        if( isReportedIteration( xmlTest.getAnalysis(), first, reportedIterations, maxReportedIterations ) ) {
+          xmlTests.add( xmlTest );
+          reportedIterations++;
+        }
+        else {
+          xmlTestSet.getTest().remove( xmlTestSet.getTest().size() - 1 );
+          releaseBodies( xmlTest, null, outerContext );
+          final XmlTest record = new XmlTest();
+          record.setId( xmlTest.getId() );
+          record.setAnalysis( xmlTest.getAnalysis() );
+          xmlTests.add( record );
+        }
+
+        if( broke ) {
+          break;
+        }
+      }
+      else {
+        final XmlTestSet xmlTestSetChild = XmlFileHandler.createIteration( templateTestSet, first );
+        xmlTestSet.getTestSet().add( xmlTestSetChild );
+        initializeTestSet( xmlTestSetChild, xmlTestSet );
+
+        try {
+          handleTestSet(
+            xmlTestSetChild,
+            outerContext,
+            referenceXmlSetup,
+            childStructureDepth
+          );
+        }
+        catch( final BreakOnFailureException ex ) {
+          // NOTE: Like any child XmlTestSet of a XmlTestSet without breakOnFailure, a broken iteration does not stop the following iterations.
+          LOG.debug( "Iteration of test set \"" + xmlTestSetChild.getId() + "\" broke: " + ex.getMessage() );
+        }
+
+        if( isReportedIteration( xmlTestSetChild.getAnalysis(), first, reportedIterations, maxReportedIterations ) ) {
+          writeTestSet( xmlTestSetChild, outerContext );
+          xmlTestSets.add( xmlTestSetChild );
+          reportedIterations++;
+        }
+        else {
+          xmlTestSet.getTestSet().remove( xmlTestSet.getTestSet().size() - 1 );
+          releaseBodies( null, xmlTestSetChild, outerContext );
+          final XmlTestSet record = new XmlTestSet();
+          record.setId( xmlTestSetChild.getId() );
+          record.setAnalysis( xmlTestSetChild.getAnalysis() );
+          xmlTestSets.add( record );
+        }
+      }
+    }
+
+    if( handledIterations < iterations ) {
+      LOG.info( ( iterations - handledIterations ) + " iterations of test set \"" + xmlTestSet.getId() + "\" are skipped." );
+    }
+
+    xmlTestSet.setAnalysis( handleXmlAnalysisDurations( xmlTests, xmlTestSets ) );
+    if( reportedIterations < handledIterations ) {
+      xmlTestSet.setDescription( xmlTestSet.getDescription() + " - " + ( handledIterations - reportedIterations ) + " iterations are not reported" );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Removes the iterations of a wrapper XmlTestSet that shall not be reported (after they were handled).
+   * @param xmlTestSet The wrapper XmlTestSet. Must not be null.
+   * @param iterations The number of iterations.
+   * @param outerContext The outer context. Must not be null.
+   */
+  private static void summarizeIterations(
+    final XmlTestSet   xmlTestSet,
+    final int          iterations,
+    final OuterContext outerContext
+  )
+  {
+    final int maxReportedIterations = outerContext.getMaxReportedIterations();
+
+    int reportedIterations = 0;
+    final Iterator< XmlTest > it = xmlTestSet.getTest().iterator();
+    while( it.hasNext() ) {
+      final XmlTest xmlTest = it.next();
+      if( isReportedIteration( xmlTest.getAnalysis(), reportedIterations == 0, reportedIterations, maxReportedIterations ) ) {
+        reportedIterations++;
+      }
+      else {
+        it.remove();
+        releaseBodies( xmlTest, null, outerContext );
+      }
+    }
+
+    if( reportedIterations < iterations ) {
+      xmlTestSet.setDescription( xmlTestSet.getDescription() + " - " + ( iterations - reportedIterations ) + " iterations are not reported" );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @param xmlAnalysis The analysis of a handled iteration. May be null.
+   * @param first Flag, if this is the first iteration (true) or not (false).
+   * @param reportedIterations The number of iterations that are already reported.
+   * @param maxReportedIterations The maximum number of iterations to report.
+   * @return true if the iteration shall be reported (the first iteration and unsuccessful iterations). Otherwise false is returned.
+   */
+  private static boolean isReportedIteration(
+    final XmlAnalysis xmlAnalysis,
+    final boolean     first,
+    final int         reportedIterations,
+    final int         maxReportedIterations
+  )
+  {
+    if( reportedIterations >= maxReportedIterations ) {
+      return false;
+    }
+
+    return first
+        || ( xmlAnalysis != null && ( xmlAnalysis.getFailCount() > 0 || xmlAnalysis.getSkipCount() > 0 ) );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates the RequestPipeline that prepares the requests of the given (not yet initialized) XmlTests in advance.
+   * A XmlTest is only prepared in advance if it does not wait before its execution, matches the execution context and
+   * does not use response variables of XmlTests that have not finished yet.
+   * @param xmlTestSet The parent XmlTestSet. Its lookAhead defines the number of XmlTests to prepare in advance. Must not be null.
+   * @param xmlTests The XmlTests in their execution order. Must not be null.
+   * @param outerContext The outer context. Must not be null.
+   * @return The RequestPipeline. Never null.
+   */
+  private static RequestPipeline createRequestPipeline(
+    final XmlTestSet      xmlTestSet,
+    final List< XmlTest > xmlTests,
+    final OuterContext    outerContext
+  )
+  {
+    final int lookAhead = Converter.asInteger( xmlTestSet.getLookAhead(), 0 );
+    final Map< XmlTest, List< XmlTest > > dependencies = lookAhead > 0
+      ? TestDependencyHelper.getDependencies( xmlTests, xmlTestSet )
+      : null;
+    final Pattern       pattern = outerContext.getTestIdPattern();
+    final Set< String > testIds = outerContext.getTestIds();
+
+    return new RequestPipeline(
+      xmlTests,
+      lookAhead,
+      dependencies,
+      xmlTest -> xmlTest.getWaitBefore() == null
+        && outerContext.getExecutionPlan().matchesExecutionContext(
+             xmlTest.getIfExecutionContextContains(),
+             ExecutionContextHelper.CHECK_CONTEXT__TEST_EXPECTATION,
+             LOG
+           ),
+      xmlTest -> {
+        // NOTE: Initialization joins the XmlTestSet variables which may be updated by the current XmlTest's responses.
+        synchronized( xmlTestSet ) {
+          initializeTest( xmlTest, xmlTestSet );
+        }
+      },
+      xmlTest -> {
+        if( pattern != null && !pattern.matcher( xmlTest.getId() ).matches() ) {
+          return null; // The XmlTest is ignored (see handleTest())
+        }
+        if( testIds != null && !testIds.contains( xmlTest.getId() ) ) {
+          return null; // The XmlTest is ignored (see handleTest())
+        }
+        if( outerContext.getJournal() != null && outerContext.getJournal().contains( xmlTest.getId() ) ) {
+          return null; // The XmlTest is restored (see handleTest())
+        }
+        try {
+          return prepareRequests( xmlTest, outerContext, xmlTestSet.getFileName() );
+        }
+        catch( final Exception ex ) {
+          return new PreparedRequests( ex );
+        }
+      }
+    );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Handles the given XmlTests of a XmlTestSet with order PARALLEL concurrently (limited by the XmlTestSet's maxConcurrency).
+   * A XmlTest that uses a response variable of a previous XmlTest is started (and initialized) after that XmlTest has finished. All other XmlTests are started right away.
+   * If a XmlTest breaks, no further XmlTests are started and all XmlTests that were not started (including those of the child XmlTestSets) are counted as skipped.
+   * The requests of XmlTests that are in progress are cancelled and these XmlTests are counted as skipped, too.
+   * @param xmlTestSet The parent XmlTestSet. Must not be null.
+   * @param xmlTests The XmlTests to handle. Must not be null.
+   * @param outerContext The outer context. Must not be null.
+   * @param referenceXmlSetup An optional XmlSetup that shall be used to simulate reference responses, if no reference service URL is configured. May be null.
+   * @param structureDepth The depth of the XmlTests within the test structure.
+   * @return The BreakOnFailureException of the first XmlTest that broke. May be null.
+   * @throws ParseException
+   */
+  private static BreakOnFailureException handleTestsInParallel(
+     final XmlTestSet            xmlTestSet,
+     final Collection< XmlTest > xmlTests,
+     final OuterContext          outerContext,
+     final XmlResponseDiffSetup  referenceXmlSetup,
+     final int                   structureDepth
+  )
+  throws ParseException
+  {
+    LOG.trace( "handleTestsInParallel()" );
+
+    final List< XmlTest > orderedXmlTests = new ArrayList<>( xmlTests );
+    final Map< XmlTest, List< XmlTest > > dependencies = TestDependencyHelper.getDependencies( orderedXmlTests, xmlTestSet );
+    final boolean useVirtualThreads = Boolean.TRUE.equals( xmlTestSet.isVirtualThreads() );
+    final InFlightRequests inFlightRequests = new InFlightRequests();
+
+    final ParallelTestHandler.Result< XmlTest > result = ParallelTestHandler.execute(
+      orderedXmlTests,
+      ParallelTestHandler.getMaxConcurrency( xmlTestSet.getMaxConcurrency(), useVirtualThreads ),
+      dependencies,
+      useVirtualThreads,
+      xmlTest -> {
+        // NOTE: Initialization joins the XmlTestSet variables (including the response variables of finished XmlTests).
+        synchronized( xmlTestSet ) {
+          try {
+            initializeTest( xmlTest, xmlTestSet );
+          }
+          catch( final ParseException ex ) {
+            throw new RuntimeException( ex );
+          }
+        }
+
+        try {
+          handleTest(
+            xmlTestSet,
+            xmlTest,
+            outerContext,
+            xmlTestSet.getFileName(),
+            referenceXmlSetup,
+            structureDepth,
+            null, // preparedRequests
+            inFlightRequests
+          );
+        }
+        catch( final BreakOnFailureException ex ) {
+          // NOTE: The XmlTests in progress are skipped anyway. So there is no need to wait for their responses.
+          inFlightRequests.cancelAll();
+          throw ex;
+        }
+      }
+    );
+
+    final BreakOnFailureException breakException = result.getBreakException();
+    if( breakException != null ) {
+      // Adjust XmlAnalysis after XmlTest broke
+      int numberOfSkippedTests = 0;
+      for( final XmlTest xmlTest : result.getNotStartedItems() ) {
+        initializeTest( xmlTest, xmlTestSet );
+        xmlTest.setStructureDepth( structureDepth );
+        numberOfSkippedTests++;
+      }
+      for( final XmlTestSet xmlChildTestSet : xmlTestSet.getTestSet() ) {
+        initializeTestSet( xmlChildTestSet, xmlTestSet );
+        numberOfSkippedTests += getAllTests( xmlChildTestSet, structureDepth ).size();
+      }
+      XmlAnalysis xmlAnalysis = xmlTestSet.getAnalysis();
+      if( xmlAnalysis == null ) {
+        xmlAnalysis = new XmlAnalysis();
+        xmlTestSet.setAnalysis( xmlAnalysis );
+      }
+      xmlAnalysis.setTotalCount( xmlAnalysis.getTotalCount() + numberOfSkippedTests );
+      xmlAnalysis.setSkipCount ( xmlAnalysis.getSkipCount () + numberOfSkippedTests );
+
+      LOG.info( "Breaking parallel test execution because " + breakException.getMessage() );
+    }
+
+    return breakException;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   /**
    * Reads variables defined as response variables(!) from the response headers and provides them as test set variables for following tests.
    * @param xmlTestSet The XmlTestSet to store the variables into. Must not be null.
@@ -337,22 +933,25 @@ public class TestSetHandler
         // Read value from Body via JSON path
         final String value = (String) jph.getValue( xmlVariable.getPath() );
 
-        // Search variable with matching id in XmlTestSet variables
-        XmlVariable xmlSetVariable = null;
-        for( final XmlVariable xmlVar : xmlTestSet.getVariables().getVariable() ) {
-          if( xmlVar.getId().equals( xmlVariable.getId() ) ) {
-            xmlSetVariable = xmlVar;
+        // NOTE: Tests of a parallel test set share the XmlTestSet variables.
+        synchronized( xmlTestSet ) {
+          // Search variable with matching id in XmlTestSet variables
+          XmlVariable xmlSetVariable = null;
+          for( final XmlVariable xmlVar : xmlTestSet.getVariables().getVariable() ) {
+            if( xmlVar.getId().equals( xmlVariable.getId() ) ) {
+              xmlSetVariable = xmlVar;
+            }
           }
-        }
-        if( xmlSetVariable == null ) {
-          xmlSetVariable = new XmlVariable();
-          xmlSetVariable.setId( serviceId.trim() + "." + xmlVariable.getId() );
-          xmlSetVariable.setValue( value );
-          xmlSetVariable.setType( valueType );
-          if( xmlTestSet.getVariables() == null ) {
-            xmlTestSet.setVariables( new XmlVariables() );
+          if( xmlSetVariable == null ) {
+            xmlSetVariable = new XmlVariable();
+            xmlSetVariable.setId( serviceId.trim() + "." + xmlVariable.getId() );
+            xmlSetVariable.setValue( value );
+            xmlSetVariable.setType( valueType );
+            if( xmlTestSet.getVariables() == null ) {
+              xmlTestSet.setVariables( new XmlVariables() );
+            }
+            xmlTestSet.getVariables().getVariable().add( xmlSetVariable );
           }
-          xmlTestSet.getVariables().getVariable().add( xmlSetVariable );
         }
       }
       catch( final Exception ex ) {
@@ -414,27 +1013,30 @@ public class TestSetHandler
         // Read value from Body via JSON path
         final Object obj = jph.getValue( xmlVariable.getPath() );
 
-        // Search variable with matching id in XmlTestSet variables
-        XmlVariable xmlSetVariable = null;
-        for( final XmlVariable xmlVar : xmlTestSet.getVariables().getVariable() ) {
-          if( xmlVar.getId().equals( xmlVariable.getId() ) ) {
-            xmlSetVariable = xmlVar;
-            break;
+        // NOTE: Tests of a parallel test set share the XmlTestSet variables.
+        synchronized( xmlTestSet ) {
+          // Search variable with matching id in XmlTestSet variables
+          XmlVariable xmlSetVariable = null;
+          for( final XmlVariable xmlVar : xmlTestSet.getVariables().getVariable() ) {
+            if( xmlVar.getId().equals( xmlVariable.getId() ) ) {
+              xmlSetVariable = xmlVar;
+              break;
+            }
           }
-        }
-        // Provide a variable (already defined variables MUST NOT be updated at runtime (otherwise the XML file is not useful for debugging).
-        if( xmlSetVariable == null ) {
-          xmlSetVariable = new XmlVariable();
-          xmlSetVariable.setId( serviceId.trim() + "." + xmlVariable.getId() );
-          xmlSetVariable.setValue( obj == null ? null : obj.toString() );
-          xmlSetVariable.setType( valueType );
-          if( xmlTestSet.getVariables() == null ) {
-            xmlTestSet.setVariables( new XmlVariables() );
+          // Provide a variable (already defined variables MUST NOT be updated at runtime (otherwise the XML file is not useful for debugging).
+          if( xmlSetVariable == null ) {
+            xmlSetVariable = new XmlVariable();
+            xmlSetVariable.setId( serviceId.trim() + "." + xmlVariable.getId() );
+            xmlSetVariable.setValue( obj == null ? null : obj.toString() );
+            xmlSetVariable.setType( valueType );
+            if( xmlTestSet.getVariables() == null ) {
+              xmlTestSet.setVariables( new XmlVariables() );
+            }
+            xmlTestSet.getVariables().getVariable().add( xmlSetVariable );
+          }
+          else {
+            LOG.warn( "Found existing variable " + xmlVariable.getId() + " as follows \"" + ToJson.fromVariable( xmlSetVariable ) + "\". Reading variable value from response is skipped." );
           }
-          xmlTestSet.getVariables().getVariable().add( xmlSetVariable );
-        }
-        else {
-          LOG.warn( "Found existing variable " + xmlVariable.getId() + " as follows \"" + ToJson.fromVariable( xmlSetVariable ) + "\". Reading variable value from response is skipped." );
         }
       }
       catch( final Exception ex ) {
@@ -499,6 +1101,66 @@ public class TestSetHandler
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Prepares the reference, control and candidate requests of an (initialized) XmlTest.
+   * This applies the variables and request filters.
+   * <br/>
+   * <b>NOTE:</b> The curl command of the candidate request is not created here. It is only created if the finished XmlTest is reported (see addCurl()).
+   * @param xmlTest The XmlTest to prepare. Must not be null.
+   * @param outerContext The outer context. Must not be null.
+   * @param testFileName The file name the current test is configured in. Must not be null.
+   * @return The PreparedRequests. Never null.
+   * @throws Exception If a request could not be prepared.
+   */
+  static PreparedRequests prepareRequests(
+    final XmlTest      xmlTest,
+    final OuterContext outerContext,
+    final String       testFileName
+  )
+  throws Exception
+  {
+    final XmlRequest                xmlRequest     = xmlTest.getRequest();
+    final String                    testId         = xmlTest.getId();
+    final Map< String, DiffFilter > filterRegistry = outerContext.getFilterRegistry();
+
+    // Inherit description from XmlTest if not defined locally.
+    // NOTE: This has to be done before prepareXmlRequest is invoked!
+    xmlRequest.setDescription( joinString( xmlRequest.getDescription(), xmlTest.getDescription(), testId ) );
+
+    // NOTE: Request filters may be stateful (e.g. SetVariablesRequestFilter) and shared by concurrently executed tests.
+    //       The reference, control and candidate requests of a test must not interleave with the ones of other tests (e.g. to get the same variable set).
+    final XmlRequest referenceXmlRequest;
+    final XmlRequest controlXmlRequest;
+    final XmlRequest candidateXmlRequest;
+    synchronized( filterRegistry ) {
+      referenceXmlRequest = prepareXmlRequest( xmlRequest, REFERENCE, xmlTest, testFileName, outerContext.getReferenceHeaders(), outerContext.getReferenceServiceUrl(), filterRegistry );
+      controlXmlRequest   = prepareXmlRequest( xmlRequest, CONTROL,   xmlTest, testFileName, outerContext.getControlHeaders(),   outerContext.getControlServiceUrl(),   filterRegistry );
+      candidateXmlRequest = prepareXmlRequest( xmlRequest, CANDIDATE, xmlTest, testFileName, outerContext.getCandidateHeaders(), outerContext.getCandidateServiceUrl(), filterRegistry );
+    }
+
+    final Builder    referenceBuilder    = HttpHandler.prepareHttpRequest( referenceXmlRequest, REFERENCE, testId, testFileName );
+    final Builder    controlBuilder      = HttpHandler.prepareHttpRequest( controlXmlRequest,   CONTROL,   testId, testFileName );
+    final Builder    candidateBuilder    = HttpHandler.prepareHttpRequest( candidateXmlRequest, CANDIDATE, testId, testFileName );
+
+    // Copy variable replacements (applied by request filter(s) - see above)
+    xmlRequest.setEndpoint   ( candidateXmlRequest.getEndpoint() );
+    xmlRequest.setBody       ( candidateXmlRequest.getBody() );
+    xmlRequest.setHeaders    ( candidateXmlRequest.getHeaders() );
+    xmlRequest.setParameters ( candidateXmlRequest.getParameters() );
+    xmlRequest.setDescription( candidateXmlRequest.getDescription() );
+
+    return new PreparedRequests(
+      referenceXmlRequest,
+      controlXmlRequest,
+      candidateXmlRequest,
+      referenceBuilder,
+      controlBuilder,
+      candidateBuilder
+    );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   /**
    * Handles a test.
    * @param xmlTestSet The XmlTest's parent XmlTestSet. Must not be null.
@@ -507,6 +1169,8 @@ public class TestSetHandler
    * @param testFileName The file name the current test is configured in. Must not be null.
    * @param referenceXmlSetup An optional XmlSetup that shall be used to simulate reference responses, if no reference service URL is configured. May be null.
    * @param structureDepth The depth within the test structure. The root element (setup) has depth 1.
+   * @param preparedRequests The requests of the XmlTest if they were already prepared. May be null.
+   * @param inFlightRequests Keeps track of the requests of concurrently executed XmlTests (so they can be cancelled if a XmlTest breaks). May be null.
    * @throws BreakOnFailureException
    */
   private static void handleTest(
@@ -515,18 +1179,19 @@ public class TestSetHandler
      final OuterContext         outerContext,
      final String               testFileName,
      final XmlResponseDiffSetup referenceXmlSetup,
-     final int                  structureDepth
+     final int                  structureDepth,
+     final PreparedRequests     preparedRequests,
+     final InFlightRequests     inFlightRequests
   )
   throws BreakOnFailureException
   {
     if( LOG.isTraceEnabled() ) {
       LOG.trace( "handleTest( " + xmlTest.getId() + " )" );
     }
-    final Set< String > executionContext = outerContext.getExecutionContext();
+    final ExecutionPlan executionPlan = outerContext.getExecutionPlan();
     // Check id execution context matches (if any)
-    if( !ExecutionContextHelper.matchesExecutionContext(
+    if( !executionPlan.matchesExecutionContext(
         xmlTest.getIfExecutionContextContains(),
-        executionContext,
         ExecutionContextHelper.CHECK_CONTEXT__TEST_EXPECTATION,
         LOG
     ) ) {
@@ -536,7 +1201,15 @@ public class TestSetHandler
     // Update structure depth
     xmlTest.setStructureDepth( structureDepth );
 
-    final LocalDateTime begin = LocalDateTime.now();
+    // NOTE: A XmlTest that finished in a previous (interrupted) run is restored instead of being executed again.
+    final TestJournal journal = outerContext.getJournal();
+    if( journal != null && restoreTest( journal, xmlTestSet, xmlTest ) ) {
+      dropUnreportedBodies( xmlTest, outerContext );
+      storeBodies( xmlTest, outerContext );
+      return;
+    }
+
+          LocalDateTime begin = LocalDateTime.now();
           LocalDateTime end   = null;
 
     final String            testSetPath            = xmlTestSet.getFilePath();
@@ -545,23 +1218,24 @@ public class TestSetHandler
     final String            testId                 = xmlTest.getId();
     final long              timeoutMs              = outerContext.getTimeoutMs();
     final Map< String, DiffFilter > filterRegistry = outerContext.getFilterRegistry();
-    final String            candidateServiceUrl    = outerContext.getCandidateServiceUrl();
     final List< XmlHeader > candidateHeaders       = outerContext.getCandidateHeaders();
-    final String            referenceServiceUrl    = outerContext.getReferenceServiceUrl();
     final List< XmlHeader > referenceHeaders       = outerContext.getReferenceHeaders();
-    final String            controlServiceUrl      = outerContext.getControlServiceUrl();
     final List< XmlHeader > controlHeaders         = outerContext.getControlHeaders();
     final String            storeReportPath        = outerContext.getStroreReportPath();
     final Set< String >     ignorePaths            = getIgnorePaths  ( xmlResponse, xmlTest );
     final Set< String >     ignoreHeaders          = getIgnoreHeaders( xmlResponse );
     final String            testSetWorkPath        = VariablesHandler.applyVariables( Converter.asString( xmlTestSet.getWorkPath(), "" ), xmlRequest.getVariables(), "workPath for test \"" + testId + "\"", null, testId, testFileName );
 
-    boolean  skipped    = false;
-    boolean  hasError   = false;
-    JsonDiff foundDiffs = null;
+    boolean   skipped    = false;
+    boolean   hasError   = false;
+    JsonDiff  foundDiffs = null;
+    XmlWarmUp xmlWarmUp  = null;
+    long      validationNanos = -1L; // The duration of the local diff and validation (see XmlAnalysis.validationDuration)
+    XmlRequest curlXmlRequest = null; // The prepared candidate request the curl command is created from (see addCurl())
+    final List< CompletableFuture< HttpResponse< byte[] > > > sentRequests = new ArrayList<>(); // Discarded if the XmlTest fails (see HttpHandler.discard())
 
     try {
-      waitBefore( xmlTest.getWaitBefore() );
+      waitBefore( xmlTest.getWaitBefore(), executionPlan );
 
       final Pattern pattern = outerContext.getTestIdPattern();
       if( pattern != null ) {
@@ -570,32 +1244,51 @@ public class TestSetHandler
         }
       }
 
-      // Inherit description from XmlTest if not defined locally.
-      // NOTE: This has to be done before prepareXmlRequest is invoked!
-      xmlRequest.setDescription( joinString( xmlRequest.getDescription(), xmlTest.getDescription(), testId ) );
+      final Set< String > testIds = outerContext.getTestIds();
+      if( testIds != null && !testIds.contains( testId ) ) {
+        throw new TestIgnoredException( "Test id \"" + testId + "\" is not selected for rerun. It is skipped." );
+      }
+
+      if( inFlightRequests != null && inFlightRequests.isCancelled() ) {
+        throw new CancellationException( "Test \"" + testId + "\" was cancelled because another test broke." );
+      }
 
-      final XmlRequest referenceXmlRequest = prepareXmlRequest( xmlRequest, REFERENCE, xmlTest, testFileName, referenceHeaders, referenceServiceUrl, filterRegistry );
-      final XmlRequest controlXmlRequest   = prepareXmlRequest( xmlRequest, CONTROL,   xmlTest, testFileName, controlHeaders,   controlServiceUrl,   filterRegistry );
-      final XmlRequest candidateXmlRequest = prepareXmlRequest( xmlRequest, CANDIDATE, xmlTest, testFileName, candidateHeaders, candidateServiceUrl, filterRegistry );
+      // NOTE: The requests may have been prepared in advance (see RequestPipeline).
+      final PreparedRequests requests = preparedRequests != null
+        ? preparedRequests.verify()
+        : prepareRequests( xmlTest, outerContext, testFileName );
+      curlXmlRequest = requests.getCandidateXmlRequest();
 
-      final Builder    referenceBuilder    = HttpHandler.prepareHttpRequest( referenceXmlRequest, REFERENCE, testId, testFileName );
-      final Builder    controlBuilder      = HttpHandler.prepareHttpRequest( controlXmlRequest,   CONTROL,   testId, testFileName );
-      final Builder    candidateBuilder    = HttpHandler.prepareHttpRequest( candidateXmlRequest, CANDIDATE, testId, testFileName );
+      // NOTE: The warm-up is not part of the measured test (neither its durations nor its responses).
+      final int warmUpIterations = Converter.asInteger( xmlTest.getWarmUp(), 0 );
+      if( warmUpIterations > 0 ) {
+        xmlWarmUp = warmUp( warmUpIterations, requests, outerContext, inFlightRequests, testId, testFileName );
+        begin     = LocalDateTime.now();
+      }
 
-      // Copy variable replacements (applied by request filter(s) - see above)
-      xmlRequest.setEndpoint   ( candidateXmlRequest.getEndpoint() );
-      xmlRequest.setBody       ( candidateXmlRequest.getBody() );
-      xmlRequest.setHeaders    ( candidateXmlRequest.getHeaders() );
-      xmlRequest.setParameters ( candidateXmlRequest.getParameters() );
-      xmlRequest.setDescription( candidateXmlRequest.getDescription() );
+      final XmlRequest referenceXmlRequest = requests.getReferenceXmlRequest();
+      final XmlRequest controlXmlRequest   = requests.getControlXmlRequest();
+      final XmlRequest candidateXmlRequest = requests.getCandidateXmlRequest();
+      final Builder    referenceBuilder    = requests.getReferenceBuilder();
+      final Builder    controlBuilder      = requests.getControlBuilder();
+      final Builder    candidateBuilder    = requests.getCandidateBuilder();
 
-      // Create candidate CURL for reporting
-      HttpHandler.addCurl( candidateXmlRequest, CANDIDATE, testFileName, outerContext );
-      xmlRequest.setCurl( candidateXmlRequest.getCurl() );
+      // NOTE: If requested, the candidate service is invoked together with the reference and control services.
+      //       Its duration is measured by the HTTP exchange itself then (see HttpHandler.sendRequest()).
+      final String candidateRequestTime = LocalDateTime.now().toString();
+      long candidateSendNanos = System.nanoTime();
+      final CompletableFuture< HttpResponse< byte[] > > simultaneousCandidateResponseFuture = outerContext.getSimultaneousRequests()
+        ? register( HttpHandler.sendRequest( candidateXmlRequest, candidateHeaders, candidateBuilder, CANDIDATE, testId, testFileName ), inFlightRequests )
+        : null;
+      if( simultaneousCandidateResponseFuture != null ) {
+        sentRequests.add( simultaneousCandidateResponseFuture ); // Discarded if the reference or control handling fails
+      }
 
       // NOTE: We invoke the reference and the control services first, because we need their responses first
-      final CompletableFuture< HttpResponse< byte[] > > referenceResponseFuture = HttpHandler.sendRequest( referenceXmlRequest, referenceHeaders, referenceBuilder, REFERENCE, testId, testFileName );
-      final CompletableFuture< HttpResponse< byte[] > > controlResponseFuture   = HttpHandler.sendRequest( controlXmlRequest,   controlHeaders,   controlBuilder,   CONTROL,   testId, testFileName );
+      final CompletableFuture< HttpResponse< byte[] > > referenceResponseFuture = register( HttpHandler.sendRequest( referenceXmlRequest, referenceHeaders, referenceBuilder, REFERENCE, testId, testFileName ), inFlightRequests );
+      final CompletableFuture< HttpResponse< byte[] > > controlResponseFuture   = register( HttpHandler.sendRequest( controlXmlRequest,   controlHeaders,   controlBuilder,   CONTROL,   testId, testFileName ), inFlightRequests );
+      sentRequests.add( referenceResponseFuture );
+      sentRequests.add( controlResponseFuture );
 
             XmlHttpResponse referenceResponse = HttpHandler.createXmlHttpResponse( referenceResponseFuture, xmlResponse, timeoutMs, filterRegistry, REFERENCE, testId, testFileName, referenceXmlRequest, storeReportPath, testSetPath, testSetWorkPath );
       final XmlHttpResponse controlResponse   = HttpHandler.createXmlHttpResponse( controlResponseFuture,   xmlResponse, timeoutMs, filterRegistry, CONTROL,   testId, testFileName, controlXmlRequest,   storeReportPath, testSetPath, testSetWorkPath );
@@ -612,18 +1305,32 @@ public class TestSetHandler
       }
 
       // Calculate white noise
-      final JsonDiff whiteNoise = ValidationHandler.getWhiteNoise( referenceResponse, controlResponse, outerContext.getEpsilon(), executionContext, testId );
+      long validationStart = System.nanoTime();
+      final JsonDiff whiteNoise = ValidationHandler.getWhiteNoise( referenceResponse, controlResponse, outerContext.getEpsilon(), executionPlan, testId );
+      validationNanos = System.nanoTime() - validationStart;
 
       // Invoke candidate service as late as possible because we measure the time
-      xmlResponse.setRequestTime( LocalDateTime.now().toString() );
-      final CompletableFuture< HttpResponse< byte[] > > candidateResponseFuture = HttpHandler.sendRequest( candidateXmlRequest, candidateHeaders, candidateBuilder, CANDIDATE, testId, testFileName );
+      final CompletableFuture< HttpResponse< byte[] > > candidateResponseFuture;
+      if( simultaneousCandidateResponseFuture != null ) {
+        xmlResponse.setRequestTime( candidateRequestTime );
+        candidateResponseFuture = simultaneousCandidateResponseFuture;
+      }
+      else {
+        xmlResponse.setRequestTime( LocalDateTime.now().toString() );
+        candidateSendNanos = System.nanoTime();
+        candidateResponseFuture = register( HttpHandler.sendRequest( candidateXmlRequest, candidateHeaders, candidateBuilder, CANDIDATE, testId, testFileName ), inFlightRequests );
+        sentRequests.add( candidateResponseFuture );
+      }
+      // NOTE: The timeout of the candidate is measured from the moment it was sent (which may be before the reference and control responses were handled).
+      final long candidateTimeoutMs = Math.max( 0L, timeoutMs - TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - candidateSendNanos ) );
       // Compare candidate and reference considering optional white noise differences
-      final XmlHttpResponse candidateResponse = HttpHandler.createXmlHttpResponse( candidateResponseFuture, xmlResponse, timeoutMs, filterRegistry, CANDIDATE, testId, testFileName, candidateXmlRequest, storeReportPath, testSetPath, testSetWorkPath );
+      final XmlHttpResponse candidateResponse = HttpHandler.createXmlHttpResponse( candidateResponseFuture, xmlResponse, candidateTimeoutMs, filterRegistry, CANDIDATE, testId, testFileName, candidateXmlRequest, storeReportPath, testSetPath, testSetWorkPath );
       final boolean bodyIsJson = candidateResponse.isBodyIsJson();
 
       end = LocalDateTime.now();
 
       // Check expected values and unexpected changes
+      validationStart = System.nanoTime();
       foundDiffs = ValidationHandler.validateResponse(
         xmlResponse,
         xmlTest,
@@ -636,9 +1343,10 @@ public class TestSetHandler
         false, // Not only unexpected changes!
         outerContext.getEpsilon(),
         outerContext.getReportWhiteNoise(),
-        executionContext,
+        executionPlan,
         testId
       );
+      validationNanos += System.nanoTime() - validationStart;
 
       // Handle headers (read variables and store them in outer variables)
       handleTestHeaders( xmlTestSet, xmlTest, REFERENCE, referenceResponse, foundDiffs );
@@ -665,6 +1373,9 @@ public class TestSetHandler
       end      = LocalDateTime.now();
       hasError = true;
 
+      // NOTE: Responses that were not processed yet are still in flight or hold a streamed download.
+      sentRequests.forEach( HttpHandler::discard );
+
       if( foundDiffs == null ) {
         foundDiffs = JsonDiff.createDataInstance();
       }
@@ -677,6 +1388,14 @@ public class TestSetHandler
         jsonDiffEntry.setLogLevel( XmlLogLevel.INFO );
         hasError = false;
       }
+      else if( inFlightRequests != null && inFlightRequests.isCancelled() && isCancellation( ex ) ) {
+        // NOTE: The XmlTest was interrupted because another XmlTest broke. It is counted as skipped. All other failures are reported as they are.
+        final String message = "Test \"" + testId + "\" was cancelled because another test broke.";
+        LOG.debug( message );
+        jsonDiffEntry.setMessage( message );
+        jsonDiffEntry.setLogLevel( XmlLogLevel.INFO );
+        hasError = false;
+      }
       else if( ex instanceof HttpHandlerException ) {
         final String instance = " instance=" + ((HttpHandlerException)ex).getInstanceId();
         final Throwable innerEx = ex.getCause(); // "Remove" wrapping exception
@@ -707,21 +1426,41 @@ public class TestSetHandler
       end,
       testId
      ) );
+    xmlTest.getAnalysis().setWarmUp( xmlWarmUp );
+    if( validationNanos >= 0 ) {
+      xmlTest.getAnalysis().setValidationDuration( Duration.ofNanos( validationNanos ).toString() );
+    }
 
     // Check over all expected
     {
       final List< JsonDiffEntry > jsonDiffEntries = validateOverAllExpected(
         null, // xmlTestSet
         xmlTest,
-        xmlTest.getAnalysis()
+        xmlTest.getAnalysis(),
+        executionPlan
       );
       if( !jsonDiffEntries.isEmpty() ) {
         hasError = true;
       }
     }
 
+    addCurl( xmlTest, curlXmlRequest, outerContext, testFileName );
+
+    final boolean broke = hasError || foundDiffs.hasAnyError();
+    if( journal != null ) {
+      try {
+        journal.record( xmlTestSet, xmlTest, broke );
+      }
+      catch( final Exception ex ) {
+        LOG.error( "Unable to record test \"" + testId + "\" in journal.", ex );
+      }
+    }
+    JsonBodyCache.release( xmlTest ); // The validation has finished
+    dropUnreportedBodies( xmlTest, outerContext );
+    storeBodies( xmlTest, outerContext );
+
     // Check if an exception occurred or an expectation was violated
-    if( hasError || foundDiffs.hasAnyError() ) {
+    if( broke ) {
       if( xmlTest.isBreakOnFailure() ) {
         throw new BreakOnFailureException( "Test \"" + testId + "\" terminated unsuccessfully." );
       }
@@ -731,17 +1470,360 @@ public class TestSetHandler
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Checks if the given Throwable was caused by cancelling a request (see InFlightRequests.cancelAll()).
+   * @param ex The Throwable to check. May be null.
+   * @return true if the given Throwable or any of its causes is a CancellationException. Otherwise false is returned.
+   */
+  static boolean isCancellation( final Throwable ex )
+  {
+    for( Throwable cause = ex; cause != null; cause = cause.getCause() ) {
+      if( cause instanceof CancellationException ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Restores the given XmlTest from the given TestJournal (if it was recorded there).
+   * @param journal The TestJournal to restore from. Must not be null.
+   * @param xmlTestSet The XmlTest's parent XmlTestSet. Must not be null.
+   * @param xmlTest The XmlTest to restore. Must not be null.
+   * @return true if the XmlTest was restored. Otherwise false is returned.
+   * @throws BreakOnFailureException If the restored XmlTest terminated unsuccessfully and is marked with breakOnFailure.
+   */
+  private static boolean restoreTest(
+    final TestJournal journal,
+    final XmlTestSet  xmlTestSet,
+    final XmlTest     xmlTest
+  )
+  throws BreakOnFailureException
+  {
+    final Boolean broke;
+    try {
+      broke = journal.restore( xmlTestSet, xmlTest );
+    }
+    catch( final JAXBException ex ) {
+      LOG.warn( "Unable to restore test \"" + xmlTest.getId() + "\" from journal. It is executed again.", ex );
+      return false;
+    }
+
+    if( broke == null ) {
+      return false;
+    }
+
+    if( LOG.isDebugEnabled() ) {
+      LOG.debug( "Restored test \"" + xmlTest.getId() + "\" from journal." );
+    }
+    if( broke && xmlTest.isBreakOnFailure() ) {
+      throw new BreakOnFailureException( "Test \"" + xmlTest.getId() + "\" terminated unsuccessfully." );
+    }
+
+    return true;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Adds the curl command of the candidate request to the given finished XmlTest if it is reported.
+   * Creating the curl command (including the request body) for XmlTests that are not reported would be wasted effort.
+   * @param xmlTest The finished XmlTest. Must not be null.
+   * @param candidateXmlRequest The prepared candidate XmlRequest. May be null (if the requests could not be prepared).
+   * @param outerContext The outer context. Must not be null.
+   * @param testFileName The file name the current test is configured in. Must not be null.
+   */
+  private static void addCurl(
+    final XmlTest      xmlTest,
+    final XmlRequest   candidateXmlRequest,
+    final OuterContext outerContext,
+    final String       testFileName
+  )
+  {
+    if( candidateXmlRequest == null || !isReported( xmlTest ) ) {
+      return;
+    }
+
+    final String curl = HttpHandler.toCurl( candidateXmlRequest, testFileName, outerContext );
+    if( LOG.isTraceEnabled() ) {
+      LOG.trace( "Reporting " + CANDIDATE + " request of test \"" + xmlTest.getId() + "\". " + curl );
+    }
+    xmlTest.getRequest().setCurl( curl );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Drops the bodies and the curl command of the given finished XmlTest if it is not reported (and dropping is configured).
+   * Only the status, the headers and the analysis of the XmlTest are kept.
+   * @param xmlTest The finished XmlTest. Must not be null.
+   * @param outerContext The outer context. Must not be null.
+   */
+  private static void dropUnreportedBodies( final XmlTest xmlTest, final OuterContext outerContext )
+  {
+    if( !outerContext.isDropUnreportedBodies() || isReported( xmlTest ) ) {
+      return;
+    }
+
+    final XmlRequest xmlRequest = xmlTest.getRequest();
+    if( xmlRequest != null ) {
+      xmlRequest.setBody( null );
+      xmlRequest.setCurl( null );
+    }
+
+    final XmlResponse xmlResponse = xmlTest.getResponse();
+    if( xmlResponse != null ) {
+      dropBody( xmlResponse.getHttpResponse() );
+      dropBody( xmlResponse.getReferenceResponse() );
+      dropBody( xmlResponse.getControlResponse() );
+    }
+
+    if( LOG.isTraceEnabled() ) {
+      LOG.trace( "Dropped bodies of unreported test \"" + xmlTest.getId() + "\"." );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void dropBody( final XmlHttpResponse xmlHttpResponse )
+  {
+    if( xmlHttpResponse != null ) {
+      xmlHttpResponse.setBody( null );
+      xmlHttpResponse.setOriginalResponse( null );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Checks if the given finished XmlTest is reported according to its "report" and "orga" attributes (like the AsciiDoc transformer does).
+   * @param xmlTest The finished XmlTest. Must not be null.
+   * @return true if the XmlTest is reported. Otherwise false is returned.
+   */
+  static boolean isReported( final XmlTest xmlTest )
+  {
+    final XmlAnalysis xmlAnalysis = xmlTest.getAnalysis();
+    final String result;
+    if( xmlAnalysis == null ) {
+      result = "skip";
+    }
+    else if( xmlAnalysis.getFailCount() == 1 ) {
+      result = "fail";
+    }
+    else if( xmlAnalysis.getWarnCount() > 0 ) {
+      result = "warn";
+    }
+    else if( xmlAnalysis.getSuccessCount() == 1 ) {
+      result = "success";
+    }
+    else {
+      result = "skip";
+    }
+
+    final String report = xmlTest.getReport() != null
+      ? xmlTest.getReport()
+      : "fail,skip";
+
+    return xmlTest.isOrga()
+      ? !result.equals( "success" ) || report.contains( "orga" )
+      : report.contains( result ) || report.contains( "all" );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Stores the large response bodies of the given finished XmlTest (if a BodyStore is configured).
+   * @param xmlTest The finished XmlTest. Must not be null.
+   * @param outerContext The outer context. Must not be null.
+   */
+  private static void storeBodies( final XmlTest xmlTest, final OuterContext outerContext )
+  {
+    final BodyStore bodyStore = outerContext.getBodyStore();
+    if( bodyStore == null ) {
+      return;
+    }
+
+    try {
+      bodyStore.store( xmlTest );
+    }
+    catch( final IOException ex ) {
+      // NOTE: The bodies are kept in memory.
+      LOG.error( "Unable to store bodies of test \"" + xmlTest.getId() + "\".", ex );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Releases the stored response bodies of the given XmlTest or XmlTestSet that is not reported (if a BodyStore is configured).
+   * @param xmlTest The XmlTest. May be null.
+   * @param xmlTestSet The XmlTestSet. May be null.
+   * @param outerContext The outer context. Must not be null.
+   */
+  private static void releaseBodies( final XmlTest xmlTest, final XmlTestSet xmlTestSet, final OuterContext outerContext )
+  {
+    final BodyStore bodyStore = outerContext.getBodyStore();
+    if( bodyStore == null ) {
+      return;
+    }
+
+    if( xmlTest != null ) {
+      bodyStore.release( xmlTest );
+    }
+    if( xmlTestSet != null ) {
+      bodyStore.release( xmlTestSet );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Sends the given (prepared) requests the given number of times to warm up the services (e.g. their JIT compilers and caches).
+   * Each iteration sends copies of the prepared requests to all services at once and waits for all responses. The responses are discarded.
+   * @param iterations The number of warm-up iterations.
+   * @param requests The prepared requests of the XmlTest. Must not be null.
+   * @param outerContext The outer context. Must not be null.
+   * @param inFlightRequests Keeps track of the requests of concurrently executed XmlTests. May be null.
+   * @param testId The current test id. Must not be null.
+   * @param testFileName The file name the current test is configured in. Must not be null.
+   * @return The XmlWarmUp that holds the warm-up durations. Never null.
+   * @throws Exception
+   */
+  private static XmlWarmUp warmUp(
+    final int              iterations,
+    final PreparedRequests requests,
+    final OuterContext     outerContext,
+    final InFlightRequests inFlightRequests,
+    final String           testId,
+    final String           testFileName
+  )
+  throws Exception
+  {
+    if( LOG.isDebugEnabled() ) {
+      LOG.debug( "Warming up test \"" + testId + "\" with " + iterations + " iterations." );
+    }
+
+    Duration minDuration   = null;
+    Duration maxDuration   = null;
+    Duration totalDuration = Duration.ZERO;
+    int      failCount     = 0;
+
+    for( int i=0; i < iterations; i++ ) {
+      final long start = System.nanoTime();
+
+      final List< CompletableFuture< HttpResponse< byte[] > > > futures = new ArrayList<>();
+      futures.add( sendWarmUpRequest( requests.getReferenceXmlRequest(), outerContext.getReferenceHeaders(), REFERENCE, inFlightRequests, testId, testFileName ) );
+      futures.add( sendWarmUpRequest( requests.getControlXmlRequest(),   outerContext.getControlHeaders(),   CONTROL,   inFlightRequests, testId, testFileName ) );
+      futures.add( sendWarmUpRequest( requests.getCandidateXmlRequest(), outerContext.getCandidateHeaders(), CANDIDATE, inFlightRequests, testId, testFileName ) );
+
+      boolean failed = false;
+      for( final CompletableFuture< HttpResponse< byte[] > > future : futures ) {
+        if( future == null ) {
+          continue;
+        }
+        try {
+          future.get( outerContext.getTimeoutMs(), TimeUnit.MILLISECONDS );
+        }
+        catch( final TimeoutException | ExecutionException ex ) {
+          failed = true;
+        }
+        finally {
+          HttpHandler.discard( future ); // The warm-up responses are not processed
+        }
+      }
+
+      final Duration duration = Duration.ofNanos( System.nanoTime() - start );
+      minDuration   = minDuration == null || duration.compareTo( minDuration ) < 0 ? duration : minDuration;
+      maxDuration   = maxDuration == null || duration.compareTo( maxDuration ) > 0 ? duration : maxDuration;
+      totalDuration = totalDuration.plus( duration );
+      if( failed ) {
+        failCount++;
+      }
+    }
+
+    final XmlWarmUp result = new XmlWarmUp();
+    result.setIterations   ( iterations );
+    result.setFailCount    ( failCount );
+    result.setMinDuration  ( minDuration.toString() );
+    result.setMaxDuration  ( maxDuration.toString() );
+    result.setAvgDuration  ( totalDuration.dividedBy( iterations ).toString() );
+    result.setTotalDuration( totalDuration.toString() );
+
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Sends a copy of the given prepared XmlRequest, so neither the prepared XmlRequest nor its request body are consumed by the warm-up.
+   * @return The response future. If the service is not configured, null is returned.
+   */
+  private static CompletableFuture< HttpResponse< byte[] > > sendWarmUpRequest(
+    final XmlRequest        preparedXmlRequest,
+    final List< XmlHeader > headers,
+    final String            serviceId,
+    final InFlightRequests  inFlightRequests,
+    final String            testId,
+    final String            testFileName
+  )
+  throws Exception
+  {
+    final XmlRequest xmlRequest = CloneHelper.deepCopyJAXB( preparedXmlRequest, XmlRequest.class );
+    final Builder    builder    = HttpHandler.prepareHttpRequest( xmlRequest, serviceId, testId, testFileName );
+
+    return register( HttpHandler.sendRequest( xmlRequest, headers, builder, serviceId, testId, testFileName ), inFlightRequests );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Registers the given request at the given InFlightRequests (if any).
+   * @param future The request to register. May be null.
+   * @param inFlightRequests The InFlightRequests to register the request at. May be null.
+   * @return The given future. May be null.
+   */
+  private static CompletableFuture< HttpResponse< byte[] > > register(
+    final CompletableFuture< HttpResponse< byte[] > > future,
+    final InFlightRequests                            inFlightRequests
+  )
+  {
+    return inFlightRequests != null
+      ? inFlightRequests.register( future )
+      : future;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   /**
    * Pauses the execution for the given duration.
    * @param duration The duration as ISO string. May be null.
    */
   public static void waitBefore( final String duration )
+  {
+    waitBefore( duration, null );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Pauses the execution for the given duration.
+   * @param duration The duration as ISO string. May be null.
+   * @param executionPlan The ExecutionPlan that holds the parsed duration. May be null.
+   */
+  static void waitBefore( final String duration, final ExecutionPlan executionPlan )
   {
     Duration waitDuration = Duration.ZERO;
     try {
-      waitDuration = Converter.asDuration( duration, waitDuration, Converter.THROW_CONVERSION_EXCEPTION );
+      if( executionPlan != null && duration != null ) {
+        waitDuration = executionPlan.getDuration( duration );
+      }
+      else {
+        waitDuration = Converter.asDuration( duration, waitDuration, Converter.THROW_CONVERSION_EXCEPTION );
+      }
     }
-    catch( final IllegalArgumentException ex ) {
+    catch( final IllegalArgumentException | DateTimeException ex ) {
       LOG.error( "Unable to parse wait before duration \"" + duration + "\". Not waiting before test execution." );
     }
 
@@ -777,6 +1859,28 @@ public class TestSetHandler
     final int structureDepth
   )
   throws ParseException
+  {
+    return getRemainingTests( xmlTestSet, xmlTest, structureDepth, Collections.emptySet() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Gathers all XmlTests of the current XmlTestSet that have not been executed yet in any recursion level. The structureDepth of all XmlTestSets and all XmlTests is set.
+   * @param xmlTestSet The XmlTestSet to inspect. Must not be null.
+   * @param xmlTest The XmlTest that broke. Must not be null.
+   * @param structureDepth The depth within the test structure. The root element (setup) has depth 1.
+   * @param initializedXmlTests The XmlTests that are already initialized (e.g. by a RequestPipeline). They are not initialized again. Must not be null.
+   * @return A List that holds all XmlTests that have not been executed yet in any recursion level. May be empty but never null.
+   * @throws ParseException
+   */
+  static List< XmlTest > getRemainingTests(
+    final XmlTestSet     xmlTestSet,
+    final XmlTest        xmlTest,
+    final int            structureDepth,
+    final Set< XmlTest > initializedXmlTests
+  )
+  throws ParseException
   {
     final List< XmlTest > list = new ArrayList<>();
 
@@ -790,7 +1894,9 @@ public class TestSetHandler
         continue;
       }
       else {
-        initializeTest( candidate, xmlTestSet );
+        if( !initializedXmlTests.contains( candidate ) ) {
+          initializeTest( candidate, xmlTestSet );
+        }
         candidate.setStructureDepth( structureDepth );
         list.add( candidate );
       }
@@ -882,6 +1988,14 @@ public class TestSetHandler
       list.addAll( getAllTests( xmlChildTestSet, childStructureDepth ) );
     }
 
+    // NOTE: Iterations that were not created yet are represented by their template (see XmlFileHandler.createWrapperTestSet()).
+    if( xmlTestSet.getLazyIterations() != null ) {
+      final List< XmlTest > iteration = new ArrayList<>( list );
+      for( int i=1; i < xmlTestSet.getLazyIterations(); i++ ) {
+        list.addAll( iteration );
+      }
+    }
+
     return list;
   }
 
@@ -1140,6 +2254,24 @@ public class TestSetHandler
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Carries the skipped tests that were counted after a XmlTest or XmlTestSet broke over to the given (recalculated) XmlAnalysis.
+   * NOTE: handleXmlAnalysisDurations() ignores all XmlTests and XmlTestSets without analysis (e.g. those that were not started at all).
+   * @param xmlAnalysis The XmlAnalysis to adjust (see handleXmlAnalysisDurations()). NOTE: This will change as a side effect.
+   * @param skippedAnalysis The XmlAnalysis that holds the counted skipped tests only. May be null (if no tests were skipped).
+   * @return The given xmlAnalysis.
+   */
+  private static XmlAnalysis carrySkippedTests( final XmlAnalysis xmlAnalysis, final XmlAnalysis skippedAnalysis )
+  {
+    if( skippedAnalysis != null ) {
+      xmlAnalysis.setTotalCount( xmlAnalysis.getTotalCount() + skippedAnalysis.getTotalCount() );
+      xmlAnalysis.setSkipCount ( xmlAnalysis.getSkipCount () + skippedAnalysis.getSkipCount () );
+    }
+    return xmlAnalysis;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   /**
    * Adjusts the counters, begin, end, duration and expectedCount of the given XmlAnalysis object.
    * @param xmlAnalysis The XmlAnalysis object to adjust. NOTE: This will change as a side effect.
@@ -1179,6 +2311,27 @@ public class TestSetHandler
     final XmlTestSet  xmlTestSet,
     final XmlTest     xmlTest,
     final XmlAnalysis xmlAnalysis
+  ) {
+    return validateOverAllExpected( xmlTestSet, xmlTest, xmlAnalysis, ExecutionPlan.of( Collections.emptySet() ) );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Validates all expectations defined within the overAllExpected tag (if any).
+   * For each found conflict an entry for the resulting list is created and the XmlAnalysis is adjusted as a side effect.
+   * @param xmlTestSet The current XmlTestSet. May be null (e.g. when invoked for a XmlTest).
+   * @param xmlTest    The current XmlTest. May be null (e.g. when invoked for a XmlTestSet).
+   * @param xmlAnalysis The current XmlAnalysis. Must not be null. <b>CAUTION:</b> This may be adjusted as a side effect.
+   * @param executionPlan The ExecutionPlan that holds the parsed maxDuration. Must not be null.
+   * @return A list of JsonDiffEntry objects that describe all found conflicts. May be empty but never null.
+   *         If the passed non null XmlTest has no iterations set or the iterations value is one, the validation is skipped and an empty list is returned.
+   */
+  public static List< JsonDiffEntry > validateOverAllExpected(
+    final XmlTestSet    xmlTestSet,
+    final XmlTest       xmlTest,
+    final XmlAnalysis   xmlAnalysis,
+    final ExecutionPlan executionPlan
   ) {
     final List< JsonDiffEntry > result = new ArrayList<>();
 
@@ -1219,7 +2372,7 @@ public class TestSetHandler
         final String         totalDurationString = xmlAnalysis.getTotalDuration() != null
                                                  ? xmlAnalysis.getTotalDuration()
                                                  : xmlAnalysis.getDuration();
-        final Duration       maxDuration         = Duration.parse( maxDurationString );
+        final Duration       maxDuration         = executionPlan.getDuration( maxDurationString );
         final Duration       totalDuration       = Duration.parse( totalDurationString );
 
         // Check if maxDuration was exceeded
@@ -1483,6 +2636,9 @@ public class TestSetHandler
     if( xmlTestSetChild.getReport()  == null ) { xmlTestSetChild.setReport ( xmlTestSet.getReport()  ); }
     if( xmlTestSetChild.getProject() == null ) { xmlTestSetChild.setProject( xmlTestSet.getProject() ); }
     if( xmlTestSetChild.getOrder()   == null ) { xmlTestSetChild.setOrder  ( xmlTestSet.getOrder()   ); }
+    if( xmlTestSetChild.getMaxConcurrency() == null ) { xmlTestSetChild.setMaxConcurrency( xmlTestSet.getMaxConcurrency() ); }
+    if( xmlTestSetChild.isVirtualThreads()  == null ) { xmlTestSetChild.setVirtualThreads ( xmlTestSet.isVirtualThreads()  ); }
+    if( xmlTestSetChild.getLookAhead()      == null ) { xmlTestSetChild.setLookAhead     ( xmlTestSet.getLookAhead()      ); }
     if( xmlTestSetChild.getUserId()  == null ) { xmlTestSetChild.setUserId ( xmlTestSet.getUserId() == null ? null : xmlTestSet.getUserId().trim() ); }  else { xmlTestSetChild.setUserId( xmlTestSetChild.getUserId().trim() ); }
 
     // ---------------------------------------------------------------
@@ -1661,7 +2817,7 @@ public class TestSetHandler
     // Consistency check
     // ---------------------------------------------------------------
     if( xmlTestSetChild.isBreakOnFailure() && xmlTestSet.getOrder() == XmlTestOrder.RANDOM ) {
-      throw new RuntimeException( "Test set \"" + xmlTestSetChild.getId() + "\" has flag breakOnFailure set true but surrounding test set \"" + xmlTestSet.getId() + "\" has order RANDOM. BreakOnFailure is valid for STRICT order only." );
+      throw new RuntimeException( "Test set \"" + xmlTestSetChild.getId() + "\" has flag breakOnFailure set true but surrounding test set \"" + xmlTestSet.getId() + "\" has order RANDOM. BreakOnFailure is valid for STRICT or PARALLEL order only." );
     }
 
     // ---------------------------------------------------------------
@@ -1731,7 +2887,7 @@ public class TestSetHandler
     // Consistency check
     // ---------------------------------------------------------------
     if( xmlTest.isBreakOnFailure() && xmlTestSet.getOrder() == XmlTestOrder.RANDOM ) {
-      throw new RuntimeException( "Test \"" + xmlTest.getId() + "\" has flag breakOnFailure set true but surrounding test set \"" + xmlTestSet.getId() + "\" has order RANDOM. BreakOnFailure is valid for STRICT order only." );
+      throw new RuntimeException( "Test \"" + xmlTest.getId() + "\" has flag breakOnFailure set true but surrounding test set \"" + xmlTestSet.getId() + "\" has order RANDOM. BreakOnFailure is valid for STRICT or PARALLEL order only." );
     }
 
     // ---------------------------------------------------------------
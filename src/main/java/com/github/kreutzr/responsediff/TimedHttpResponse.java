@@ -0,0 +1,236 @@
+package com.github.kreutzr.responsediff;
+
+import java.net.URI;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+
+import javax.net.ssl.SSLSession;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A HttpResponse that knows the duration of its HTTP exchange (from sending the request until the response body was received).
+ * This allows to measure the duration independently of the point in time the response is processed.
+ * The duration may be split into the time to the first byte (until the response headers were received) and the transfer of the body.
+ * <br/>
+ * <b>NOTE:</b> The wrapped HttpResponse is not kept. So the body (and the JSON tree) can be released once they were processed (see releaseBody()).
+ * @param <T> The response body type.
+ */
+public class TimedHttpResponse< T > implements HttpResponse< T >
+{
+  private final int                           statusCode_;
+  private final HttpRequest                   request_;
+  private final Optional< HttpResponse< T > > previousResponse_;
+  private final HttpHeaders                   headers_;
+  private final Optional< SSLSession >        sslSession_;
+  private final URI                           uri_;
+  private final Version                       version_;
+  private final Duration                      duration_;
+  private final Duration                      timeToFirstByte_;
+  private final JsonBodyHandler               bodyHandler_;
+  private volatile T                          body_;        // Null after releaseBody()
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Constructor
+   * @param httpResponse The HttpResponse to wrap. Must not be null.
+   * @param duration The duration of the HTTP exchange. Must not be null.
+   */
+  public TimedHttpResponse( final HttpResponse< T > httpResponse, final Duration duration )
+  {
+    this( httpResponse, duration, null, null );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Constructor
+   * @param httpResponse The HttpResponse to wrap. Must not be null.
+   * @param duration The duration of the HTTP exchange. Must not be null.
+   * @param timeToFirstByte The duration from sending the request until the response headers were received. May be null.
+   * @param bodyHandler The JsonBodyHandler that received the body. May be null.
+   */
+  public TimedHttpResponse( final HttpResponse< T > httpResponse, final Duration duration, final Duration timeToFirstByte, final JsonBodyHandler bodyHandler )
+  {
+    statusCode_       = httpResponse.statusCode();
+    request_          = httpResponse.request();
+    previousResponse_ = httpResponse.previousResponse();
+    headers_          = httpResponse.headers();
+    sslSession_       = httpResponse.sslSession();
+    uri_              = httpResponse.uri();
+    version_          = httpResponse.version();
+    body_             = httpResponse.body();
+    duration_         = duration;
+    timeToFirstByte_  = timeToFirstByte;
+    bodyHandler_      = bodyHandler;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Releases the body, the body text and the JSON tree (e.g. after they were copied into a XmlHttpResponse), so they may be garbage collected
+   * while the response is still referenced. Afterwards body(), getBodyText() and getJson() return null.
+   * The durations, the encoded body size and the download are kept.
+   */
+  public void releaseBody()
+  {
+    body_ = null;
+    if( bodyHandler_ != null ) {
+      bodyHandler_.releaseBody();
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The duration of the HTTP exchange. Never null.
+   */
+  public Duration getDuration()
+  {
+    return duration_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The duration from sending the request until the response headers were received. May be null.
+   */
+  public Duration getTimeToFirstByte()
+  {
+    return timeToFirstByte_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The duration from receiving the response headers until the response body was received. May be null.
+   */
+  public Duration getBodyTransferDuration()
+  {
+    return timeToFirstByte_ != null
+      ? duration_.minus( timeToFirstByte_ )
+      : null;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The JSON tree that was parsed while the body was received. May be null (e.g. if the body was released).
+   */
+  public JsonNode getJson()
+  {
+    return bodyHandler_ != null ? bodyHandler_.getJson() : null;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The (decoded) text of a JSON body. If the body was returned as byte array (see body()) or was released, null is returned.
+   */
+  public String getBodyText()
+  {
+    return bodyHandler_ != null ? bodyHandler_.getBodyText() : null;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The number of (decoded) bytes of the body text (see getBodyText()). If there is no body text, -1 is returned.
+   */
+  public long getBodySize()
+  {
+    return bodyHandler_ != null ? bodyHandler_.getBodySize() : -1L;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The number of encoded (e.g. compressed) bytes that were received. If the body was not decoded, -1 is returned.
+   */
+  public long getEncodedBodySize()
+  {
+    return bodyHandler_ != null ? bodyHandler_.getEncodedSize() : -1L;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The download the body was streamed to. If the body was kept in memory, null is returned.
+   */
+  public StreamedDownload getDownload()
+  {
+    return bodyHandler_ != null ? bodyHandler_.getDownload() : null;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public int statusCode()
+  {
+    return statusCode_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public HttpRequest request()
+  {
+    return request_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public Optional< HttpResponse< T > > previousResponse()
+  {
+    return previousResponse_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public HttpHeaders headers()
+  {
+    return headers_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The body. May be null (if the body was released, see releaseBody()).
+   */
+  @Override
+  public T body()
+  {
+    return body_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public Optional< SSLSession > sslSession()
+  {
+    return sslSession_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public URI uri()
+  {
+    return uri_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public Version version()
+  {
+    return version_;
+  }
+}
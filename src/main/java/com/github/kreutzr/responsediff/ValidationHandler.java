@@ -16,6 +16,7 @@ import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.kreutzr.responsediff.tools.ComparatorHelper;
 import com.github.kreutzr.responsediff.tools.Converter;
 import com.jayway.jsonpath.PathNotFoundException;
@@ -29,6 +30,7 @@ public class ValidationHandler
    protected static final String EXPECTED_VALUE_TOKEN = "Expected value";
              static final String IGNORE_HEADER_TOKEN  = "Ignore header";
    private   static final String IGNORE_PATH_TOKEN    = "Ignore path";
+             static final String DOWNLOAD_PATH        = "$.:download"; // NOTE: ":" avoids conflicts with body paths
 
    private static final Logger LOG = LoggerFactory.getLogger( ValidationHandler.class );
 
@@ -39,7 +41,7 @@ public class ValidationHandler
     * @param referenceResponse The reference response. May be null.
     * @param controlResponse The control response. May be null.
     * @param epsilon The epsilon for decimal comparison. Must not be null.
-    * @param executionContext The executionContext. Must not be null.
+    * @param executionPlan The ExecutionPlan of the run. Must not be null.
     * @param testId The current test id. Must not be null.
     * @return A JsonDiff that holds all white noise differences. Never null.
     * @throws JsonProcessingException
@@ -49,13 +51,13 @@ public class ValidationHandler
      final XmlHttpResponse referenceResponse,
      final XmlHttpResponse controlResponse,
      final double epsilon,
-     final Set< String > executionContext,
+     final ExecutionPlan executionPlan,
      final String testId
    )
    throws JsonMappingException, JsonProcessingException
    {
-     if( ( referenceResponse == null || referenceResponse.getBody() == null || referenceResponse.getBody().trim().isEmpty() )
-      || ( controlResponse   == null || controlResponse  .getBody() == null || controlResponse  .getBody().trim().isEmpty() )
+     if( ( referenceResponse == null || ( ( referenceResponse.getBody() == null || referenceResponse.getBody().trim().isEmpty() ) && referenceResponse.getDownload() == null ) )
+      || ( controlResponse   == null || ( ( controlResponse  .getBody() == null || controlResponse  .getBody().trim().isEmpty() ) && controlResponse  .getDownload() == null ) )
      ) {
        return JsonDiff.createDataInstance();
      }
@@ -72,7 +74,7 @@ public class ValidationHandler
        true,              // checkOnlyUnexpected (Do not put mismatches in expected values into whiteNoise!)
        epsilon,
        false,             // reportWhiteNoise
-       executionContext,
+       executionPlan,
        testId
      );
 
@@ -130,6 +132,63 @@ public class ValidationHandler
      final String          testId
    )
    throws JsonMappingException, JsonProcessingException
+   {
+     return validateResponse(
+       xmlResponse,
+       xmlTest,
+       testFileName,
+       candidateResponse,
+       referenceResponse,
+       whiteNoise,
+       ignorePaths,
+       ignoreHeaders,
+       checkOnlyUnexpected,
+       epsilon,
+       reportWhiteNoise,
+       ExecutionPlan.of( executionContext ),
+       testId
+     );
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   /**
+    * Compares a candidate against a reference response and finds all relevant differences.
+    * All found differences are checked against the optional white Noise differences
+    * and only non white noise (irrelevant) differences are returned.
+    * @param xmlResponse The XmlResponse that shall be used for validation. May be null (e.g. for white noise computation).
+    * @param xmlTest The current XmlTest. May be null.
+    * @param testFileName The file name the current test is configured in. May be null.
+    * @param candidateResponse The candidate response. May be null.
+    * @param referenceResponse The reference response. May be null.
+    * @param whiteNoise A JsonDiff object that holds all irrelevant JsonPaths. May be null.
+    * @param ignorePaths A Set of paths to ignore additionally. May be null.
+    * @param ignoreHeaders A Set of "header paths" to ignore additionally. May be null.
+    * @param checkOnlyUnexpected Flag, if only unexpected changes shall be identified (true) (for whiteNoise computation) or expected values shall be checked, too (false).
+    * @param epsilon The epsilon for decimal comparison. Must not be null.
+    * @param reportWhiteNoise Flag, if any different value shall be reported (true) or only those that were not discovered to be white noise (differences between reference and control, or expected differences) (false).
+    * @param executionPlan The ExecutionPlan of the run. Must not be null.
+    * @param testId The current test id. Must not be null.
+    * @return A JsonDiff object that holds all relevant differences. Never null.
+    * @throws JsonProcessingException
+    * @throws JsonMappingException
+    */
+   protected static JsonDiff validateResponse(
+     final XmlResponse     xmlResponse,
+     final XmlTest         xmlTest,
+     final String          testFileName,
+     final XmlHttpResponse candidateResponse,
+     final XmlHttpResponse referenceResponse,
+     final JsonDiff        whiteNoise,
+     final Set< String >   ignorePaths,
+     final Set< String >   ignoreHeaders,
+     final boolean         checkOnlyUnexpected,
+     final double          epsilon,
+     final boolean         reportWhiteNoise,
+     final ExecutionPlan   executionPlan,
+     final String          testId
+   )
+   throws JsonMappingException, JsonProcessingException
    {
      if( LOG.isTraceEnabled() ) {
        LOG.trace("validateResponse() whiteNoise=" + whiteNoise + ", ignorePaths=" + ignorePaths + ", ignoreHeaders=" + ignoreHeaders + ", testId=" + testId );
@@ -217,9 +276,8 @@ public class ValidationHandler
          // Lookup expected headers
          for( final XmlHeader xmlHeader : xmlExpected.getHeaders().getHeader() ) {
            // Check id execution context matches (if any)
-           if( !ExecutionContextHelper.matchesExecutionContext(
+           if( !executionPlan.matchesExecutionContext(
                xmlHeader.getIfExecutionContextContains(),
-               executionContext,
                ExecutionContextHelper.CHECK_CONTEXT__TEST_EXPECTATION,
                LOG
            ) ) {
@@ -244,7 +302,7 @@ public class ValidationHandler
          relevantDiffs.incrementExpectedCount();
 
          final XmlMaxDuration xmlMaxDuration  = xmlExpected.getMaxDuration();
-         final Duration       maximumDuration = Duration.parse( xmlMaxDuration.getValue() );
+         final Duration       maximumDuration = executionPlan.getDuration( xmlMaxDuration.getValue() );
          final Duration       requestDuration = Duration.parse( candidateResponse.getRequestDuration() );
          if( ( requestDuration.getSeconds() >  maximumDuration.getSeconds() )
           || ( requestDuration.getSeconds() == maximumDuration.getSeconds()
@@ -272,9 +330,8 @@ public class ValidationHandler
 
              for( final XmlValue xmlValue : xmlExpected.getValues().getValue() ) {
                // Check id execution context matches (if any)
-               if( !ExecutionContextHelper.matchesExecutionContext(
+               if( !executionPlan.matchesExecutionContext(
                    xmlValue.getIfExecutionContextContains(),
-                   executionContext,
                    ExecutionContextHelper.CHECK_CONTEXT__TEST_EXPECTATION,
                    LOG
                ) ) {
@@ -363,14 +420,22 @@ public class ValidationHandler
      ) {
        final JsonDiff pathIgnore = createIgnoreJsonDiff( innerWhiteNoise, ignorePaths, null, IGNORE_PATH_TOKEN );
        relevantDiffs.join( validateJson(
-          candidateResponse.getBody(),
-          referenceResponse.getBody(),
+          candidateResponse,
+          referenceResponse,
           pathIgnore,
           reportWhiteNoise,
           testId
        ) );
      }
 
+     // Calculate download differences (if both bodies were downloaded)
+     relevantDiffs.join( removeWhiteNoise(
+       validateDownload( candidateResponse.getDownload(), referenceResponse.getDownload() ),
+       innerWhiteNoise,
+       reportWhiteNoise,
+       testId
+     ) );
+
      if( LOG.isTraceEnabled() ) {
        LOG.trace( "validateResponse(): After body check: relevantDiffs=" + relevantDiffs.toString() );
      }
@@ -380,6 +445,47 @@ public class ValidationHandler
 
    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+   /**
+    * Compares two downloads by their SHA-256 digests (so the files do not have to be read).
+    * @param candidateDownload The download of the candidate response. May be null.
+    * @param referenceDownload The download of the reference response. May be null.
+    * @return A JsonDiff that holds a change if the digests differ. Never null.
+    */
+   static JsonDiff validateDownload(
+     final XmlDownload candidateDownload,
+     final XmlDownload referenceDownload
+   )
+   {
+     final JsonDiff result = JsonDiff.createDataInstance();
+
+     if( candidateDownload == null || candidateDownload.getSha256() == null
+      || referenceDownload == null || referenceDownload.getSha256() == null
+     ) {
+       return result; // E.g. an old reference report without digest
+     }
+
+     if( !candidateDownload.getSha256().equals( referenceDownload.getSha256() ) ) {
+       result.getChanges().add( new JsonDiffEntry(
+         DOWNLOAD_PATH,
+         toString( candidateDownload ), // actual
+         toString( referenceDownload ), // expected
+         null,                          // executionContextConstraint
+         "Download differs from reference (size: " + candidateDownload.getSize() + " bytes, reference size: " + referenceDownload.getSize() + " bytes)."
+       ) );
+     }
+
+     return result;
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   private static String toString( final XmlDownload xmlDownload )
+   {
+     return "{ \"sha256\" : \"" + xmlDownload.getSha256() + "\", \"size\" : " + xmlDownload.getSize() + " }";
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
    private static String normalizeBody( final String body )
    {
      // NEEDS FIX C: This is a bit simple because spaces within quotes might be relevant! 
@@ -1130,6 +1236,43 @@ public class ValidationHandler
 
    /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+   /**
+    * Calculates the differences of the JSON bodies of the given responses.
+    * Bodies that were parsed while they were received (see JsonBodyCache) are not parsed again.
+    * @param candidate The candidate response. Must not be null.
+    * @param reference The reference response. Must not be null.
+    * @param whiteNoise The white noise to remove from the differences. May be null.
+    * @param reportWhiteNoise Flag, if white noise shall be reported (true) or removed (false).
+    * @param testId The current test id. Must not be null.
+    * @return The found differences. Never null.
+    * @throws JsonMappingException
+    * @throws JsonProcessingException
+    */
+   static JsonDiff validateJson(
+     final XmlHttpResponse candidate,
+     final XmlHttpResponse reference,
+     final JsonDiff        whiteNoise,
+     final boolean         reportWhiteNoise,
+     final String          testId
+   )
+   throws JsonMappingException, JsonProcessingException
+   {
+     final JsonNode candidateJson = JsonBodyCache.get( candidate );
+     final JsonNode referenceJson = JsonBodyCache.get( reference );
+     if( candidateJson == null || referenceJson == null ) {
+       return validateJson( candidate.getBody(), reference.getBody(), whiteNoise, reportWhiteNoise, testId );
+     }
+
+     final JsonDiff jsonDiff = JsonDiff.createInstance()
+       .setCandidate( candidateJson )
+       .setReference( referenceJson )
+       .calculate();
+
+     return removeWhiteNoise( jsonDiff, whiteNoise, reportWhiteNoise, testId );
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
    /**
     * Computes the differences (held within a JsonDiff object) between two JSON string representations.
     * @param candidate  The candidate. Must not be null.
@@ -1170,6 +1313,18 @@ public class ValidationHandler
        LOG.trace( "validateJson() jsonDiff=" + jsonDiff.toString() );
      }
 
+     return removeWhiteNoise( jsonDiff, whiteNoise, reportWhiteNoise, testId );
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   private static JsonDiff removeWhiteNoise(
+     final JsonDiff jsonDiff,
+     final JsonDiff whiteNoise,
+     final boolean  reportWhiteNoise,
+     final String   testId
+   )
+   {
      // Remove white noise differences
      if( whiteNoise != null && !reportWhiteNoise ) {
        removeDifference( jsonDiff.getChanges  (), whiteNoise.getChanges  (), testId );
@@ -150,6 +150,30 @@ public class VariablesHandler
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Adds the names of all variables used within the given text (plain "${name}" or URL encoded) to the given Set.
+   * @param text The text to inspect. May be null.
+   * @param variableNames The Set to add the found variable names to. Must not be null.
+   */
+  public static void findVariableNames( final String text, final Set< String > variableNames )
+  {
+    if( text == null ) {
+      return;
+    }
+
+    Matcher matcher = VARIABLE_GROUP_PATTERN.matcher( text );
+    while( matcher.find() ) {
+      variableNames.add( matcher.group( 1 ) );
+    }
+
+    matcher = VARIABLE_GROUP_PATTERN_ENCODED.matcher( text );
+    while( matcher.find() ) {
+      variableNames.add( matcher.group( 1 ) );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
 /*
   public static void main( String[] args )
   {
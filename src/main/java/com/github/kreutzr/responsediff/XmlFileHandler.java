@@ -193,6 +193,10 @@ public class XmlFileHandler
        readInnerTestSets( xmlTestSet, xmlFile, dummyTestSet, schema, initialize, testSetPath );
      }
 
+     for( final XmlTestSet xmlTestSet : setup.getTestSet() ) {
+       resolveWarmUp( xmlTestSet, setup.getWarmUp() );
+     }
+
      expandSetupByIterations( setup );
 
      return setup;
@@ -282,6 +286,45 @@ public class XmlFileHandler
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Passes the warm-up of the given XmlTestSet (or the inherited warm-up) to all inner XmlTests that have no warm-up set.
+   * @param xmlTestSet The XmlTestSet to resolve. Must not be null.
+   * @param inheritedWarmUp The warm-up of the outer XmlTestSet or setup. May be null.
+   */
+  private static void resolveWarmUp( final XmlTestSet xmlTestSet, final Integer inheritedWarmUp )
+  {
+    final Integer warmUp = xmlTestSet.getWarmUp() != null
+      ? xmlTestSet.getWarmUp()
+      : inheritedWarmUp;
+
+    for( final XmlTest xmlTest : xmlTestSet.getTest() ) {
+      if( xmlTest.getWarmUp() == null ) {
+        xmlTest.setWarmUp( warmUp );
+      }
+    }
+    for( final XmlTestSet xmlTestChildSet : xmlTestSet.getTestSet() ) {
+      resolveWarmUp( xmlTestChildSet, warmUp );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Removes the warm-up of all inner XmlTests of the given XmlTestSet (e.g. because it is a copy for another iteration).
+   * @param xmlTestSet The XmlTestSet to handle. Must not be null.
+   */
+  private static void removeWarmUp( final XmlTestSet xmlTestSet )
+  {
+    for( final XmlTest xmlTest : xmlTestSet.getTest() ) {
+      xmlTest.setWarmUp( null );
+    }
+    for( final XmlTestSet xmlTestChildSet : xmlTestSet.getTestSet() ) {
+      removeWarmUp( xmlTestChildSet );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   /**
    * Expands XmlTestSets with an "iterations=n" attribute (with n > 1) by a XmlTestSet that holds n copies of the original XmlTestSets each with iterations=1.
    * @param setup The XmlResponseDiffSetup to expand. Must not be null.
@@ -336,13 +379,9 @@ public class XmlFileHandler
     if( iterations > 1 ) {
       result = createWrapperTestSet( xmlTestSet, iterations );
 
+      // NOTE: The iterations are created right before their execution (see createIterations()).
       xmlTestSet.setIterations( null );
       result.getTestSet().add( xmlTestSet );
-
-      for( int i=0; i < iterations - 1; i++ ) {
-        final XmlTestSet clonedXmlTestSet = CloneHelper.deepCopyJAXB( xmlTestSet, XmlTestSet.class );
-        result.getTestSet().add( clonedXmlTestSet );
-      }
     }
 
     return result;
@@ -368,11 +407,8 @@ public class XmlFileHandler
         // Add wrapper XmlTestSet for XmlTest with iterations.
         final XmlTestSet wrapperTestSet = createWrapperTestSet( xmlTestSet, iterations );
 
+        // NOTE: The iterations are created right before their execution (see createIterations()).
         wrapperTestSet.getTest().add( xmlTest );
-        for( int i=0; i < iterations - 1; i++ ) {
-          final XmlTest clonedXmlTest = CloneHelper.deepCopyJAXB( xmlTest, XmlTest.class );
-          wrapperTestSet.getTest().add( clonedXmlTest );
-        }
 
         // Move XmlTest(s) with iterations to XmlTestSets.
         // NOTE: This will change the execution order of the tests since XmlTestSets are treated separately from XmlTests.
@@ -391,14 +427,25 @@ public class XmlFileHandler
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Creates a XmlTestSet that wraps the iterations of a XmlTest or XmlTestSet.
+   * Initially the wrapper holds only the original XmlTest or XmlTestSet as template for all iterations (see createIterations()).
+   * @param xmlTestSet The XmlTestSet to take the settings from. Must not be null.
+   * @param iterations The number of iterations.
+   * @return The wrapper XmlTestSet. Never null.
+   */
   static XmlTestSet createWrapperTestSet( final XmlTestSet xmlTestSet, final int iterations )
   {
     final XmlTestSet result = new XmlTestSet();
 
     result.setIterations( null ); // NOTE: Do NOT copy the iterations attribute here!
+    result.setLazyIterations( iterations );
     result.setDescription( "IterationWrapper( " + iterations + " )" );
     result.setFileName( xmlTestSet.getFileName() );
     result.setOrder( xmlTestSet.getOrder() );
+    result.setMaxConcurrency( xmlTestSet.getMaxConcurrency() );
+    result.setVirtualThreads( xmlTestSet.isVirtualThreads() );
+    result.setLookAhead( xmlTestSet.getLookAhead() );
     result.setId( xmlTestSet.getId() );
 
     return result;
@@ -406,6 +453,68 @@ public class XmlFileHandler
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Replaces the template of the given wrapper XmlTestSet (see createWrapperTestSet()) by all of its iterations.
+   * The template itself is used as first iteration.
+   * @param wrapperTestSet The wrapper XmlTestSet. Must not be null.
+   */
+  static void createIterations( final XmlTestSet wrapperTestSet )
+  {
+    final int iterations = wrapperTestSet.getLazyIterations();
+    wrapperTestSet.setLazyIterations( null );
+
+    if( !wrapperTestSet.getTest().isEmpty() ) {
+      final XmlTest template = wrapperTestSet.getTest().get( 0 );
+      for( int i=1; i < iterations; i++ ) {
+        wrapperTestSet.getTest().add( createIteration( template, false ) );
+      }
+    }
+    else {
+      final XmlTestSet template = wrapperTestSet.getTestSet().get( 0 );
+      for( int i=1; i < iterations; i++ ) {
+        wrapperTestSet.getTestSet().add( createIteration( template, false ) );
+      }
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates an iteration of the given (not yet initialized) template XmlTest.
+   * @param template The template. Must not be null.
+   * @param first Flag, if this is the first iteration (true) or not (false). The warm-up is performed for the first iteration only.
+   * @return A copy of the template. Never null.
+   */
+  static XmlTest createIteration( final XmlTest template, final boolean first )
+  {
+    final XmlTest result = CloneHelper.deepCopyJAXB( template, XmlTest.class );
+    if( !first ) {
+      result.setWarmUp( null );
+    }
+
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates an iteration of the given (not yet initialized) template XmlTestSet.
+   * @param template The template. Must not be null.
+   * @param first Flag, if this is the first iteration (true) or not (false). The warm-up is performed for the first iteration only.
+   * @return A copy of the template. Never null.
+   */
+  static XmlTestSet createIteration( final XmlTestSet template, final boolean first )
+  {
+    final XmlTestSet result = CloneHelper.deepCopyJAXB( template, XmlTestSet.class );
+    if( !first ) {
+      removeWarmUp( result );
+    }
+
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   static String getFileName( final String filePath )
   {
     if( filePath == null ) {
@@ -432,6 +541,70 @@ public class XmlFileHandler
       final String suffix
   )
   throws JAXBException, IOException
+  {
+    return storeXmlReport( xmlTestSetup, storeReportPath, suffix, null );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Writes the given XmlResponseDiffSetup object to a XML file. The path is given, the fileName is taken from the given setup object.
+   * @param xmlTestSetup The XmlResponseDiffSetup object to write. Must not be null.
+   * @param storeReportPath The path to write the XML file to. Must not be null.
+   * @param suffix An optional report file name suffix. May be null.
+   * @param bodyStore The BodyStore the large response bodies were stored to. May be null.
+   * @return The name (entire path) of the XML file.
+   * @throws JAXBException
+   * @throws IOException
+   */
+  static String storeXmlReport(
+      final XmlResponseDiffSetup xmlTestSetup,
+      final String storeReportPath,
+      final String suffix,
+      final BodyStore bodyStore
+  )
+  throws JAXBException, IOException
+  {
+    final String fileName = createReportFileName( xmlTestSetup, storeReportPath, suffix );
+
+    // Store XML report
+    final Marshaller jaxbMarshaller = JAXB_CONTEXT_FOR_SETUP.createMarshaller();
+    jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+    if( bodyStore != null ) {
+      jaxbMarshaller.setListener( bodyStore.createMarshallerListener( false ) );
+    }
+    OutputStream os = null;
+    try {
+      os = new FileOutputStream( fileName );
+      jaxbMarshaller.marshal( xmlTestSetup, os );
+      os.flush();
+    }
+    finally {
+      if( os != null ) {
+        try { os.close(); } catch( final Exception ex ) {}
+      }
+    }
+
+    return fileName;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates the name of the XML report file. The path is given, the fileName is taken from the given setup object.
+   * The path is created if required.
+   * @param xmlTestSetup The XmlResponseDiffSetup object to write. Must not be null.
+   * @param storeReportPath The path to write the XML file to. Must not be null.
+   * @param suffix An optional report file name suffix. May be null.
+   * @return The name (entire path) of the XML file.
+   * @throws IOException
+   */
+  static String createReportFileName(
+      final XmlResponseDiffSetup xmlTestSetup,
+      final String storeReportPath,
+      final String suffix
+  )
+  throws IOException
   {
     // Prepare report file name
     String fileName = xmlTestSetup.getTestSet().get( 0 ).getFileName();
@@ -456,21 +629,6 @@ public class XmlFileHandler
         + ( suffix != null ? suffix : "" )
         + ".xml";
 
-    // Store XML report
-    final Marshaller jaxbMarshaller = JAXB_CONTEXT_FOR_SETUP.createMarshaller();
-    jaxbMarshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-    OutputStream os = null;
-    try {
-      os = new FileOutputStream( fileName );
-      jaxbMarshaller.marshal( xmlTestSetup, os );
-      os.flush();
-    }
-    finally {
-      if( os != null ) {
-        try { os.close(); } catch( final Exception ex ) {}
-      }
-    }
-
     return fileName;
   }
 
@@ -0,0 +1,30 @@
+package com.github.kreutzr.responsediff.decoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes an encoded (e.g. compressed) response body chunk by chunk while it is received.
+ * <br/>
+ * <b>NOTE:</b> A ContentDecoder is used for one response body only. It must not keep a reference to the passed buffers after decode() has returned.
+ */
+public interface ContentDecoder
+{
+  /**
+   * Decodes the next chunk of the encoded body.
+   * @param input The next chunk of the encoded body. Must not be null. All remaining bytes are consumed.
+   * @param output The stream to write the decoded bytes to. Must not be null.
+   * @throws IOException If the body is not encoded properly, an Exception is thrown.
+   */
+  void decode( ByteBuffer input, OutputStream output )
+  throws IOException;
+
+  /**
+   * Finishes decoding after the last chunk of the encoded body was passed.
+   * @param output The stream to write the remaining decoded bytes to. Must not be null.
+   * @throws IOException If the encoded body is incomplete, an Exception is thrown.
+   */
+  void finish( OutputStream output )
+  throws IOException;
+}
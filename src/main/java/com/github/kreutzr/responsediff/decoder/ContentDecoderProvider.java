@@ -0,0 +1,19 @@
+package com.github.kreutzr.responsediff.decoder;
+
+/**
+ * Provides ContentDecoders for a content encoding (e.g. "br").
+ * Additional providers are loaded from the class path by the ServiceLoader (see META-INF/services/com.github.kreutzr.responsediff.decoder.ContentDecoderProvider)
+ * or may be registered explicitly (see ContentDecoders.register()).
+ */
+public interface ContentDecoderProvider
+{
+  /**
+   * @return The content encoding (the value of the "Content-Encoding" header) this provider supports. Must not be null.
+   */
+  String getEncoding();
+
+  /**
+   * @return A new ContentDecoder for one response body. Must not be null.
+   */
+  ContentDecoder createDecoder();
+}
@@ -0,0 +1,96 @@
+package com.github.kreutzr.responsediff.decoder;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the supported content encodings.
+ * "gzip" and "deflate" are supported out of the box. Further encodings (e.g. "br") may be added as plug-in (see ContentDecoderProvider).
+ */
+public class ContentDecoders
+{
+  public static final String ENCODING__GZIP     = "gzip";
+  public static final String ENCODING__X_GZIP   = "x-gzip";
+  public static final String ENCODING__DEFLATE  = "deflate";
+  public static final String ENCODING__IDENTITY = "identity";
+
+  private static final Logger LOG = LoggerFactory.getLogger( ContentDecoders.class );
+
+  private static final Map< String, ContentDecoderProvider > PROVIDERS = new ConcurrentHashMap<>();
+
+  static {
+    register( ENCODING__GZIP,    GzipContentDecoder::new );
+    register( ENCODING__X_GZIP,  GzipContentDecoder::new );
+    register( ENCODING__DEFLATE, DeflateContentDecoder::new );
+
+    for( final ContentDecoderProvider provider : ServiceLoader.load( ContentDecoderProvider.class ) ) {
+      if( LOG.isDebugEnabled() ) {
+        LOG.debug( "Registering content decoder plug-in " + provider.getClass().getName() + " for encoding \"" + provider.getEncoding() + "\"." );
+      }
+      register( provider );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private ContentDecoders()
+  {
+    // Static helper class
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Registers a ContentDecoderProvider. A formerly registered provider of the same encoding is replaced.
+   * @param provider The provider to register. Must not be null.
+   */
+  public static void register( final ContentDecoderProvider provider )
+  {
+    PROVIDERS.put( provider.getEncoding().trim().toLowerCase(), provider );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Checks if the given content encoding can be decoded.
+   * @param contentEncoding The value of the "Content-Encoding" header. May be null.
+   * @return true, if a ContentDecoder is registered for the given encoding. Otherwise false is returned (e.g. for null, "identity" or a list of encodings).
+   */
+  public static boolean isSupported( final String contentEncoding )
+  {
+    return contentEncoding != null && PROVIDERS.containsKey( contentEncoding.trim().toLowerCase() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Creates a ContentDecoder for the given content encoding.
+   * @param contentEncoding The value of the "Content-Encoding" header. May be null.
+   * @return A new ContentDecoder. If the encoding is not supported (see isSupported()), null is returned.
+   */
+  public static ContentDecoder createDecoder( final String contentEncoding )
+  {
+    if( contentEncoding == null ) {
+      return null;
+    }
+    final ContentDecoderProvider provider = PROVIDERS.get( contentEncoding.trim().toLowerCase() );
+    return provider != null
+      ? provider.createDecoder()
+      : null;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void register( final String encoding, final Supplier< ContentDecoder > factory )
+  {
+    register( new ContentDecoderProvider() {
+      @Override public String         getEncoding()   { return encoding; }
+      @Override public ContentDecoder createDecoder() { return factory.get(); }
+    } );
+  }
+}
@@ -0,0 +1,113 @@
+package com.github.kreutzr.responsediff.decoder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes "deflate" encoded bodies while they are received.
+ * Although RFC 9110 defines "deflate" as zlib format, some servers send raw deflate data. Like browsers, both formats are supported (the format is detected by the first two bytes).
+ */
+class DeflateContentDecoder implements ContentDecoder
+{
+  private final byte[] prefix_ = new byte[ 2 ];
+  private       int    prefixLength_;
+  private       Inflater inflater_;
+  private final byte[] buffer_ = new byte[ 8192 ];
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void decode( final ByteBuffer input, final OutputStream output )
+  throws IOException
+  {
+    if( inflater_ == null ) {
+      while( prefixLength_ < prefix_.length && input.hasRemaining() ) {
+        prefix_[ prefixLength_++ ] = input.get();
+      }
+      if( prefixLength_ < prefix_.length ) {
+        return; // Wait for more data
+      }
+      inflater_ = new Inflater( !isZlibHeader( prefix_ ) );
+      inflate( inflater_, ByteBuffer.wrap( prefix_ ), output, buffer_, null );
+    }
+
+    inflate( inflater_, input, output, buffer_, null );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void finish( final OutputStream output )
+  throws IOException
+  {
+    try {
+      if( inflater_ == null ? prefixLength_ > 0 : !inflater_.finished() ) { // NOTE: An empty body (e.g. of a HEAD request) is fine
+        throw new IOException( "Unexpected end of deflate encoded body." );
+      }
+    }
+    finally {
+      if( inflater_ != null ) {
+        inflater_.end();
+      }
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Inflates the given input until it is consumed or the end of the deflate data is reached.
+   * @param inflater The Inflater to use. Must not be null.
+   * @param input The deflated data. Must not be null. Its position is advanced by the number of consumed bytes.
+   * @param output The stream to write the inflated bytes to. Must not be null.
+   * @param buffer The buffer to use. Must not be null.
+   * @param crc A checksum to update with the inflated bytes. May be null.
+   * @throws IOException If the input is no valid deflate data, an Exception is thrown.
+   */
+  static void inflate( final Inflater inflater, final ByteBuffer input, final OutputStream output, final byte[] buffer, final CRC32 crc )
+  throws IOException
+  {
+    inflater.setInput( input );
+    try {
+      while( !inflater.finished() ) {
+        final int length = inflater.inflate( buffer );
+        if( length > 0 ) {
+          output.write( buffer, 0, length );
+          if( crc != null ) {
+            crc.update( buffer, 0, length );
+          }
+        }
+        else if( inflater.needsInput() ) {
+          break;
+        }
+        else if( inflater.needsDictionary() ) {
+          throw new IOException( "Deflate encoded bodies with preset dictionary are not supported." );
+        }
+      }
+    }
+    catch( final DataFormatException ex ) {
+      throw new IOException( "Invalid deflate encoded body.", ex );
+    }
+    finally {
+      inflater.setInput( new byte[ 0 ] ); // Do not keep a reference to the input
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @param bytes The first two bytes of the body. Must not be null.
+   * @return true, if the bytes are a zlib header (see RFC 1950). Otherwise false is returned (raw deflate data).
+   */
+  private static boolean isZlibHeader( final byte[] bytes )
+  {
+    final int cmf = bytes[ 0 ] & 0xFF;
+    final int flg = bytes[ 1 ] & 0xFF;
+    return ( cmf & 0x0F ) == 8             // Compression method "deflate"
+        && ( cmf >> 4 ) <= 7               // Window size of at most 32K
+        && ( ( cmf << 8 ) | flg ) % 31 == 0;
+  }
+}
@@ -0,0 +1,166 @@
+package com.github.kreutzr.responsediff.decoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes "gzip" encoded bodies (see RFC 1952) while they are received.
+ * The checksum and size of each member are verified. Concatenated members are supported.
+ */
+class GzipContentDecoder implements ContentDecoder
+{
+  private enum State { HEADER, DATA, TRAILER }
+
+  private static final int GZIP_MAGIC     = 0x8B1F;
+  private static final int FLAG__FHCRC    = 2;
+  private static final int FLAG__FEXTRA   = 4;
+  private static final int FLAG__FNAME    = 8;
+  private static final int FLAG__FCOMMENT = 16;
+  private static final int TRAILER_LENGTH = 8;
+
+  private final Inflater              inflater_ = new Inflater( true ); // Raw deflate data
+  private final CRC32                 crc_      = new CRC32();
+  private final byte[]                buffer_   = new byte[ 8192 ];
+  private final ByteArrayOutputStream pending_  = new ByteArrayOutputStream(); // The bytes of the current header or trailer
+  private       State                 state_    = State.HEADER;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void decode( final ByteBuffer input, final OutputStream output )
+  throws IOException
+  {
+    while( input.hasRemaining() ) {
+      switch( state_ ) {
+        case HEADER:
+          pending_.write( input.get() );
+          if( isHeaderComplete( pending_.toByteArray() ) ) {
+            pending_.reset();
+            inflater_.reset();
+            crc_.reset();
+            state_ = State.DATA;
+          }
+          break;
+        case DATA:
+          DeflateContentDecoder.inflate( inflater_, input, output, buffer_, crc_ );
+          if( inflater_.finished() ) {
+            state_ = State.TRAILER;
+          }
+          break;
+        case TRAILER:
+          pending_.write( input.get() );
+          if( pending_.size() == TRAILER_LENGTH ) {
+            verifyTrailer( pending_.toByteArray() );
+            pending_.reset();
+            state_ = State.HEADER; // Another member may follow
+          }
+          break;
+      }
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void finish( final OutputStream output )
+  throws IOException
+  {
+    inflater_.end();
+    if( state_ != State.HEADER || pending_.size() > 0 ) {
+      throw new IOException( "Unexpected end of gzip encoded body." );
+    }
+    // NOTE: An empty body (e.g. of a HEAD request) is fine.
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @param header The bytes of the header read so far. Must not be null.
+   * @return true, if the header is complete. Otherwise false is returned.
+   * @throws IOException If the bytes are no gzip header, an Exception is thrown.
+   */
+  private static boolean isHeaderComplete( final byte[] header )
+  throws IOException
+  {
+    if( header.length >= 2 && ( ( header[ 0 ] & 0xFF ) | ( ( header[ 1 ] & 0xFF ) << 8 ) ) != GZIP_MAGIC ) {
+      throw new IOException( "Invalid gzip encoded body (wrong magic number)." );
+    }
+    if( header.length >= 3 && header[ 2 ] != 8 ) {
+      throw new IOException( "Invalid gzip encoded body (unsupported compression method " + header[ 2 ] + ")." );
+    }
+    if( header.length < 10 ) {
+      return false;
+    }
+
+    final int flags = header[ 3 ] & 0xFF;
+    int length = 10;
+    if( ( flags & FLAG__FEXTRA ) != 0 ) {
+      if( header.length < length + 2 ) {
+        return false;
+      }
+      length += 2 + ( ( header[ length ] & 0xFF ) | ( ( header[ length + 1 ] & 0xFF ) << 8 ) );
+    }
+    if( ( flags & FLAG__FNAME ) != 0 ) {
+      length = skipZeroTerminated( header, length );
+    }
+    if( ( flags & FLAG__FCOMMENT ) != 0 ) {
+      length = skipZeroTerminated( header, length );
+    }
+    if( length < 0 ) {
+      return false; // A zero terminated field is incomplete
+    }
+    if( ( flags & FLAG__FHCRC ) != 0 ) {
+      length += 2;
+    }
+    return header.length == length;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @param header The bytes of the header read so far. Must not be null.
+   * @param start The index of the zero terminated field. May be negative (the field before is incomplete).
+   * @return The index behind the zero terminated field. If the field is incomplete, a negative value is returned.
+   */
+  private static int skipZeroTerminated( final byte[] header, final int start )
+  {
+    if( start < 0 ) {
+      return start;
+    }
+    for( int i=start; i < header.length; i++ ) {
+      if( header[ i ] == 0 ) {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private void verifyTrailer( final byte[] trailer )
+  throws IOException
+  {
+    final long crc  = readUnsignedInt( trailer, 0 );
+    final long size = readUnsignedInt( trailer, 4 );
+    if( crc != crc_.getValue() ) {
+      throw new IOException( "Invalid gzip encoded body (checksum mismatch)." );
+    }
+    if( size != ( inflater_.getBytesWritten() & 0xFFFFFFFFL ) ) {
+      throw new IOException( "Invalid gzip encoded body (size mismatch)." );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static long readUnsignedInt( final byte[] bytes, final int offset )
+  {
+    return   ( bytes[ offset     ] & 0xFFL )
+         | ( ( bytes[ offset + 1 ] & 0xFFL ) << 8 )
+         | ( ( bytes[ offset + 2 ] & 0xFFL ) << 16 )
+         | ( ( bytes[ offset + 3 ] & 0xFFL ) << 24 );
+  }
+}
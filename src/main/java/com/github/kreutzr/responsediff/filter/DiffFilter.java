@@ -35,6 +35,15 @@ public interface DiffFilter
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Releases the resources of the filter (e.g. open files or database connections). This is called when the test setup was processed.
+   * The filter may be initialized again afterwards.
+   * @throws DiffFilterException If an error occurs, an Exception is thrown.
+   */
+  public void close() throws DiffFilterException;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   /**
    * Sets the path to the central test setup XML file. This may be used for filters which read their configuration from the file system.
    * @param path The path to the central test setup XML file. May be null.
@@ -94,6 +94,14 @@ public abstract class DiffFilterImpl implements DiffFilter
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  @Override
+  public void close() throws DiffFilterException
+  {
+    // Override this if required
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   @Override
   public void setTestSetupPath( final String testSetupPath )
   {
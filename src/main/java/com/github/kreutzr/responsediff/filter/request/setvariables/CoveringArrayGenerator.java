@@ -0,0 +1,204 @@
+package com.github.kreutzr.responsediff.filter.request.setvariables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates the rows of a t-wise covering array one by one (see next()). Each row holds one value index per variable.
+ * After all rows were generated, each combination of values of any t variables was part of at least one row.
+ * Each row is built greedily: It starts with a not yet covered value combination and completes it with the values that cover most of the remaining combinations.
+ * When all combinations are covered, the generator starts again with the first row.
+ * <br/>
+ * <b>NOTE:</b> This requires far fewer rows than the cartesian product (e.g. fewer than 200 instead of 100,000,000 rows for a pairwise coverage of 8 variables with 10 values each).
+ */
+class CoveringArrayGenerator
+{
+  private static final Logger LOG = LoggerFactory.getLogger( CoveringArrayGenerator.class );
+
+  private final int[]                   sizes_;                  // The number of values per variable
+  private final List< int[] >           combinations_;           // All combinations of t variables
+  private final List< List< Integer > > combinationsByVariable_; // The indexes of the combinations per variable
+  private final List< BitSet >          uncovered_;              // The uncovered value combinations per combination of variables
+  private       long                    uncoveredCount_;
+  private       int                     rowCount_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Constructor.
+   * @param sizes The number of values per variable. Each must be positive. Must not be null.
+   * @param strength The number of variables whose value combinations shall be covered (e.g. 2 for pairwise). Values greater than the number of variables cover the entire cartesian product.
+   */
+  CoveringArrayGenerator( final int[] sizes, final int strength )
+  {
+    sizes_ = sizes.clone();
+
+    final int t = Math.max( 1, Math.min( strength, sizes_.length ) );
+    combinations_ = new ArrayList<>();
+    if( sizes_.length > 0 ) {
+      addCombinations( new int[ t ], 0, 0 );
+    }
+
+    combinationsByVariable_ = new ArrayList<>();
+    for( int i=0; i < sizes_.length; i++ ) {
+      combinationsByVariable_.add( new ArrayList<>() );
+    }
+    for( int i=0; i < combinations_.size(); i++ ) {
+      for( final int variable : combinations_.get( i ) ) {
+        combinationsByVariable_.get( variable ).add( i );
+      }
+    }
+
+    uncovered_ = new ArrayList<>();
+    reset();
+
+    if( LOG.isDebugEnabled() ) {
+      LOG.debug( "Covering " + uncoveredCount_ + " value combinations of " + combinations_.size() + " combinations of " + t + " variables." );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Generates the next row.
+   * @return The value index per variable. Never null.
+   */
+  int[] next()
+  {
+    if( uncoveredCount_ == 0 ) {
+      if( LOG.isDebugEnabled() ) {
+        LOG.debug( "All value combinations are covered by " + rowCount_ + " rows. Starting again with the first row." );
+      }
+      reset();
+    }
+
+    final int[] row = new int[ sizes_.length ];
+    Arrays.fill( row, -1 );
+
+    // Start with the first uncovered value combination (this guarantees progress)
+    for( int i=0; i < combinations_.size(); i++ ) {
+      final int tuple = uncovered_.get( i ).nextSetBit( 0 );
+      if( tuple >= 0 ) {
+        decode( combinations_.get( i ), tuple, row );
+        break;
+      }
+    }
+
+    // Complete the row with the values that cover most of the uncovered value combinations
+    for( int variable=0; variable < row.length; variable++ ) {
+      if( row[ variable ] >= 0 ) {
+        continue;
+      }
+
+      int bestValue = 0;
+      int bestGain  = -1;
+      for( int value=0; value < sizes_[ variable ]; value++ ) {
+        row[ variable ] = value;
+        final int gain = countUncovered( variable, row );
+        if( gain > bestGain ) {
+          bestGain  = gain;
+          bestValue = value;
+        }
+      }
+      row[ variable ] = bestValue;
+    }
+
+    // Mark the value combinations of the row as covered
+    for( int i=0; i < combinations_.size(); i++ ) {
+      final int tuple = encode( combinations_.get( i ), row );
+      final BitSet uncovered = uncovered_.get( i );
+      if( uncovered.get( tuple ) ) {
+        uncovered.clear( tuple );
+        uncoveredCount_--;
+      }
+    }
+    rowCount_++;
+
+    return row;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private void reset()
+  {
+    uncovered_.clear();
+    uncoveredCount_ = 0;
+    rowCount_       = 0;
+    for( final int[] combination : combinations_ ) {
+      int tuples = 1;
+      for( final int variable : combination ) {
+        tuples *= sizes_[ variable ];
+      }
+      final BitSet uncovered = new BitSet( tuples );
+      uncovered.set( 0, tuples );
+      uncovered_.add( uncovered );
+      uncoveredCount_ += tuples;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Counts the uncovered value combinations of the given variable whose variables all have a value within the given row.
+   */
+  private int countUncovered( final int variable, final int[] row )
+  {
+    int result = 0;
+    for( final int index : combinationsByVariable_.get( variable ) ) {
+      final int[] combination = combinations_.get( index );
+      boolean complete = true;
+      for( final int member : combination ) {
+        if( row[ member ] < 0 ) {
+          complete = false;
+          break;
+        }
+      }
+      if( complete && uncovered_.get( index ).get( encode( combination, row ) ) ) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private void addCombinations( final int[] combination, final int position, final int start )
+  {
+    if( position == combination.length ) {
+      combinations_.add( combination.clone() );
+      return;
+    }
+    for( int variable=start; variable < sizes_.length; variable++ ) {
+      combination[ position ] = variable;
+      addCombinations( combination, position + 1, variable + 1 );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private int encode( final int[] combination, final int[] row )
+  {
+    int result = 0;
+    for( int i=combination.length - 1; i >= 0; i-- ) {
+      result = result * sizes_[ combination[ i ] ] + row[ combination[ i ] ];
+    }
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private void decode( final int[] combination, final int tuple, final int[] row )
+  {
+    int rest = tuple;
+    for( int i=0; i < combination.length; i++ ) {
+      final int size = sizes_[ combination[ i ] ];
+      row[ combination[ i ] ] = rest % size;
+      rest /= size;
+    }
+  }
+}
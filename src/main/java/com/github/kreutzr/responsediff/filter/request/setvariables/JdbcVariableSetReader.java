@@ -0,0 +1,184 @@
+package com.github.kreutzr.responsediff.filter.request.setvariables;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the variable sets of a database query one by one (see read()), so the result set does not have to be loaded into memory.
+ * The query is executed with a forward-only cursor and the given fetch size. Each row is one variable set (the column labels are the variable names).
+ * Only every stride-th row (beginning with the one at the given offset) is read (see VariableSetReader).
+ * When the last row was read, the query is executed again and reading starts again with the first row.
+ * <br/>
+ * <b>NOTE:</b> The JDBC driver must be on the class path. Auto commit is disabled, since some drivers (e.g. PostgreSQL) only use a cursor within a transaction.
+ */
+class JdbcVariableSetReader implements VariableSetStream
+{
+  private static final Logger LOG = LoggerFactory.getLogger( JdbcVariableSetReader.class );
+
+  private final String            url_;
+  private final String            query_;
+  private final int               fetchSize_;
+  private final int               offset_;
+  private final int               stride_;
+  private       Connection        connection_;
+  private       PreparedStatement statement_;
+  private       ResultSet         resultSet_;
+  private       List< String >    columnNames_;
+  private       long              index_;       // The index of the next row within the result set
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Constructor.
+   * @param url The JDBC URL of the database. Must not be null.
+   * @param user The database user. May be null.
+   * @param password The password of the database user. May be null.
+   * @param query The query to execute. Must not be null.
+   * @param fetchSize The number of rows to fetch from the database at once. Must be positive.
+   * @param offset The index of the first row to read. Must not be negative.
+   * @param stride Only every stride-th row is read. Must be positive.
+   * @throws IOException
+   */
+  JdbcVariableSetReader(
+    final String url,
+    final String user,
+    final String password,
+    final String query,
+    final int    fetchSize,
+    final int    offset,
+    final int    stride
+  )
+  throws IOException
+  {
+    if( offset < 0 || stride < 1 || fetchSize < 1 ) {
+      throw new IllegalArgumentException( "Offset must not be negative and stride and fetch size must be positive (offset=" + offset + ", stride=" + stride + ", fetchSize=" + fetchSize + ")." );
+    }
+
+    url_       = url;
+    query_     = query;
+    fetchSize_ = fetchSize;
+    offset_    = offset;
+    stride_    = stride;
+
+    try {
+      connection_ = DriverManager.getConnection( url, user, password );
+      connection_.setAutoCommit( false );
+      connection_.setReadOnly( true );
+      execute();
+    }
+    catch( final SQLException ex ) {
+      close();
+      throw new IOException( "Error executing query \"" + query + "\" on \"" + url + "\".", ex );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public Map< String, Object > read()
+  throws IOException
+  {
+    if( connection_ == null ) {
+      throw new IOException( "Connection to \"" + url_ + "\" is closed." );
+    }
+
+    try {
+      boolean restarted = false;
+      while( true ) {
+        if( !resultSet_.next() ) {
+          if( restarted ) {
+            return null;
+          }
+          if( LOG.isDebugEnabled() ) {
+            LOG.debug( "Reached end of result set of query \"" + query_ + "\". Starting again with the first row." );
+          }
+          closeResultSet();
+          execute();
+          restarted = true;
+          continue;
+        }
+
+        final long index = index_++;
+        if( index >= offset_ && ( index - offset_ ) % stride_ == 0 ) {
+          final Map< String, Object > result = new LinkedHashMap<>();
+          for( int i=0; i < columnNames_.size(); i++ ) {
+            result.put( columnNames_.get( i ), resultSet_.getObject( i + 1 ) );
+          }
+          return result;
+        }
+      }
+    }
+    catch( final SQLException ex ) {
+      throw new IOException( "Error reading row " + index_ + " of query \"" + query_ + "\".", ex );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void close()
+  throws IOException
+  {
+    try {
+      closeResultSet();
+      if( connection_ != null ) {
+        connection_.rollback(); // Read only. Nothing to commit.
+        connection_.close();
+      }
+    }
+    catch( final SQLException ex ) {
+      throw new IOException( "Error closing connection to \"" + url_ + "\".", ex );
+    }
+    finally {
+      connection_ = null;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private void execute()
+  throws SQLException
+  {
+    statement_ = connection_.prepareStatement( query_, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY );
+    statement_.setFetchSize( fetchSize_ );
+    resultSet_ = statement_.executeQuery();
+    index_     = 0;
+
+    final ResultSetMetaData metaData = resultSet_.getMetaData();
+    columnNames_ = new ArrayList<>();
+    for( int i=1; i <= metaData.getColumnCount(); i++ ) {
+      columnNames_.add( metaData.getColumnLabel( i ) );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private void closeResultSet()
+  throws SQLException
+  {
+    try {
+      if( resultSet_ != null ) {
+        resultSet_.close();
+      }
+    }
+    finally {
+      resultSet_ = null;
+      if( statement_ != null ) {
+        statement_.close();
+        statement_ = null;
+      }
+    }
+  }
+}
@@ -33,8 +33,20 @@ import com.github.kreutzr.responsediff.tools.JsonHelper;
  * <p>
  * <b>Supported parameters:</b>
  * <ul>
- * <li>id="source", values=path-to-JSON-file</li>
+ * <li>id="source", values=path-to-JSON-file or JDBC URL</li>
  * <li>id="useVariables" values=[ true | false (default) ]</li>
+ * <li>id="sourceFormat" values=[ json | jsonl | csv | jdbc ] (default is derived from the file ending or the "jdbc:" prefix, otherwise json)</li>
+ * <li>id="offset" values=index of the first variable set to use (default 0, for jsonl, csv and jdbc only)</li>
+ * <li>id="stride" values=only every stride-th variable set is used (default 1, for jsonl, csv and jdbc only)</li>
+ * <li>id="csvSeparator" values=the separator of CSV values (default ",")</li>
+ * <li>id="query" values=the query whose rows are the variable sets (for jdbc only)</li>
+ * <li>id="user" values=the database user (for jdbc only)</li>
+ * <li>id="password" values=the password of the database user (for jdbc only)</li>
+ * <li>id="fetchSize" values=the number of rows to fetch from the database at once (default 1000, for jdbc only)</li>
+ * <li>id="combinationStrategy" values=[ product (default) | pairwise | nwise | random ] (for useVariables only)</li>
+ * <li>id="combinationStrength" values=the number of variables whose value combinations are covered (default 2, for nwise only)</li>
+ * <li>id="sampleSize" values=the number of random combinations (default 100, for random only)</li>
+ * <li>id="seed" values=the seed of the random combinations (default 0, for random only)</li>
  * </ul>
  * You may use a source file as follows:
  * <pre>
@@ -65,11 +77,32 @@ import com.github.kreutzr.responsediff.tools.JsonHelper;
  *}
  *</pre>
  *for deterministic variable combinations.
+ * <p>
+ * Mass data files with millions of variable sets may be given as JSON Lines (one JSON object like the ones of "variableSets" per line)
+ * or as CSV (the first line holds the variable names). These files are streamed (see VariableSetReader) instead of being loaded into memory.
+ * Likewise the rows of a database query may be used as variable sets. They are read by a cursor (see JdbcVariableSetReader).
  */
 public class SetVariablesRequestFilter extends DiffFilterImpl implements DiffRequestFilter
 {
   public  static final String PARAMETER_NAME__SOURCE        = "source";
   public  static final String PARAMETER_NAME__USE_VARIABLES = "useVariables";
+  public  static final String PARAMETER_NAME__SOURCE_FORMAT = "sourceFormat";
+  public  static final String PARAMETER_NAME__OFFSET        = "offset";
+  public  static final String PARAMETER_NAME__STRIDE        = "stride";
+  public  static final String PARAMETER_NAME__CSV_SEPARATOR = "csvSeparator";
+  public  static final String PARAMETER_NAME__QUERY         = "query";
+  public  static final String PARAMETER_NAME__USER          = "user";
+  public  static final String PARAMETER_NAME__PASSWORD      = "password";
+  public  static final String PARAMETER_NAME__FETCH_SIZE    = "fetchSize";
+  public  static final String PARAMETER_NAME__COMBINATION_STRATEGY = "combinationStrategy";
+  public  static final String PARAMETER_NAME__COMBINATION_STRENGTH = "combinationStrength";
+  public  static final String PARAMETER_NAME__SAMPLE_SIZE          = "sampleSize";
+  public  static final String PARAMETER_NAME__SEED                 = "seed";
+
+  public  static final String SOURCE_FORMAT__JSON           = "json";
+  public  static final String SOURCE_FORMAT__JSON_LINES     = "jsonl";
+  public  static final String SOURCE_FORMAT__CSV            = "csv";
+  public  static final String SOURCE_FORMAT__JDBC           = "jdbc";
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
@@ -78,6 +111,8 @@ public class SetVariablesRequestFilter extends DiffFilterImpl implements DiffReq
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
   private SetVariablesRequestFilterSource source_ = null;
+  private VariableSetStream reader_ = null; // For streamed sources (JSON Lines, CSV and JDBC) only
+  private Map< String, Object > variableSet_ = null; // The current variable set of a streamed source
 
   private VariablesPermutationHandler variablesPermutationHandler_ = null;
   private int variableSetsIndex_ = 0;
@@ -92,6 +127,18 @@ public class SetVariablesRequestFilter extends DiffFilterImpl implements DiffReq
     super.registerFilterParameterNames();
     registerFilterParameterName( PARAMETER_NAME__SOURCE );
     registerFilterParameterName( PARAMETER_NAME__USE_VARIABLES );
+    registerFilterParameterName( PARAMETER_NAME__SOURCE_FORMAT );
+    registerFilterParameterName( PARAMETER_NAME__OFFSET );
+    registerFilterParameterName( PARAMETER_NAME__STRIDE );
+    registerFilterParameterName( PARAMETER_NAME__CSV_SEPARATOR );
+    registerFilterParameterName( PARAMETER_NAME__QUERY );
+    registerFilterParameterName( PARAMETER_NAME__USER );
+    registerFilterParameterName( PARAMETER_NAME__PASSWORD );
+    registerFilterParameterName( PARAMETER_NAME__FETCH_SIZE );
+    registerFilterParameterName( PARAMETER_NAME__COMBINATION_STRATEGY );
+    registerFilterParameterName( PARAMETER_NAME__COMBINATION_STRENGTH );
+    registerFilterParameterName( PARAMETER_NAME__SAMPLE_SIZE );
+    registerFilterParameterName( PARAMETER_NAME__SEED );
   }
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -99,7 +146,16 @@ public class SetVariablesRequestFilter extends DiffFilterImpl implements DiffReq
   @Override
   public void next()
   {
-    if( useVariables_ ) {
+    if( reader_ != null ) {
+      try {
+        variableSet_ = reader_.read();
+      }
+      catch( final IOException ex ) {
+        LOG.error( "Error reading next variable set from \"" + getFilterParameter( PARAMETER_NAME__SOURCE ) + "\".", ex );
+        variableSet_ = null;
+      }
+    }
+    else if( useVariables_ ) {
       variablesPermutationHandler_.next();
     }
     else {
@@ -122,7 +178,7 @@ public class SetVariablesRequestFilter extends DiffFilterImpl implements DiffReq
   )
   throws DiffFilterException
   {
-    if( source_ == null || useVariables_ == null ) {
+    if( ( source_ == null && reader_ == null ) || useVariables_ == null ) {
       init();
     }
 
@@ -152,16 +208,25 @@ public class SetVariablesRequestFilter extends DiffFilterImpl implements DiffReq
           }
         }
         else {
-          if( source_.getVariableSets().size() == 0 ) {
-            LOG.warn( "There are no variable sets defined." );
-            return;
+          final Map< String, Object > variableSet;
+          if( reader_ != null ) {
+            variableSet = variableSet_;
+          }
+          else if( source_.getVariableSets().size() > 0 ) {
+            if( LOG.isDebugEnabled() ) {
+              LOG.debug( "Applying variable set at index " + variableSetsIndex_ + "." );
+            }
+            variableSet = source_.getVariableSets().get( variableSetsIndex_ );
+          }
+          else {
+            variableSet = null;
           }
 
-          if( LOG.isDebugEnabled() ) {
-            LOG.debug( "Applying variable set at index " + variableSetsIndex_ + "." );
+          if( variableSet == null ) {
+            LOG.warn( "There are no variable sets defined." );
+            return;
           }
 
-          final Map< String, Object > variableSet = source_.getVariableSets().get( variableSetsIndex_ );
           for( final String key : variableSet.keySet() ) {
             final String value = variableSet.get( key ) != null
               ? variableSet.get( key ).toString()
@@ -220,16 +285,239 @@ public class SetVariablesRequestFilter extends DiffFilterImpl implements DiffReq
   @Override
   public void init() throws DiffFilterException
   {
+    useVariables_ = Converter.asBoolean( getFilterParameter( PARAMETER_NAME__USE_VARIABLES ), false );
+
+    final boolean isJdbcSource = source_ == null && isJdbcSource();
+    final VariableSetReader.Format format = source_ == null && !isJdbcSource
+      ? getStreamFormat()
+      : null;
+    if( format != null || isJdbcSource ) {
+      if( useVariables_ ) {
+        throw new DiffFilterException( "Filter parameter \"" + PARAMETER_NAME__USE_VARIABLES + "\" is not supported for source format \"" + ( isJdbcSource ? SOURCE_FORMAT__JDBC : format ) + "\"." );
+      }
+      if( reader_ == null ) {
+        reader_ = isJdbcSource
+          ? openJdbcReader()
+          : openReader( format );
+        try {
+          variableSet_ = reader_.read();
+        }
+        catch( final IOException ex ) {
+          throw new DiffFilterException( "Error reading first variable set from \"" + getFilterParameter( PARAMETER_NAME__SOURCE ) + "\".", ex );
+        }
+      }
+      return;
+    }
+
     if( source_ == null ) {
       source_ = readSource();
     }
 
-    useVariables_ = Converter.asBoolean( getFilterParameter( PARAMETER_NAME__USE_VARIABLES ), false );
-
     if( useVariables_ && variablesPermutationHandler_ == null ) {
+      final int sampleSize = Converter.asInteger( getFilterParameter( PARAMETER_NAME__SAMPLE_SIZE ), 100 );
+      if( sampleSize < 1 ) {
+        throw new DiffFilterException( "Filter parameter \"" + PARAMETER_NAME__SAMPLE_SIZE + "\" must be positive (was " + sampleSize + ")." );
+      }
+
       variablesPermutationHandler_ = new VariablesPermutationHandler();
-      variablesPermutationHandler_.init( source_.getVariables() );
+      variablesPermutationHandler_.init(
+        source_.getVariables(),
+        getCombinationStrategy(),
+        Converter.asInteger( getFilterParameter( PARAMETER_NAME__COMBINATION_STRENGTH ), 2 ),
+        sampleSize,
+        Converter.asLong( getFilterParameter( PARAMETER_NAME__SEED ), 0L )
+      );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void close() throws DiffFilterException
+  {
+    if( reader_ == null ) {
+      return;
+    }
+
+    try {
+      reader_.close(); // Closes the file or the database connection (and its open transaction)
+    }
+    catch( final IOException ex ) {
+      throw new DiffFilterException( "Error closing \"" + getFilterParameter( PARAMETER_NAME__SOURCE ) + "\".", ex );
+    }
+    finally {
+      reader_       = null;
+      variableSet_  = null;
+      xmlVariables_ = null;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The configured strategy to combine the values of the variables. Never null.
+   * @throws DiffFilterException If the configured strategy is not supported, an Exception is thrown.
+   */
+  private VariablesPermutationHandler.Strategy getCombinationStrategy() throws DiffFilterException
+  {
+    final String strategy = getFilterParameter( PARAMETER_NAME__COMBINATION_STRATEGY );
+    if( strategy == null || strategy.isBlank() ) {
+      return VariablesPermutationHandler.Strategy.PRODUCT;
+    }
+
+    try {
+      return VariablesPermutationHandler.Strategy.valueOf( strategy.trim().toUpperCase() );
+    }
+    catch( final IllegalArgumentException ex ) {
+      throw new DiffFilterException( "Unsupported combination strategy \"" + strategy + "\". Supported strategies are \"product\", \"pairwise\", \"nwise\" and \"random\"." );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return Flag, if the source is a database (true) or a file (false).
+   */
+  private boolean isJdbcSource()
+  {
+    final String sourceFormat = getFilterParameter( PARAMETER_NAME__SOURCE_FORMAT );
+    if( sourceFormat != null ) {
+      return sourceFormat.trim().equalsIgnoreCase( SOURCE_FORMAT__JDBC );
+    }
+    final String source = getFilterParameter( PARAMETER_NAME__SOURCE );
+    return source != null && source.trim().startsWith( "jdbc:" );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The format of a streamed file source (JSON Lines or CSV). If the source is a JSON file, null is returned.
+   * @throws DiffFilterException If the configured source format is not supported, an Exception is thrown.
+   */
+  private VariableSetReader.Format getStreamFormat() throws DiffFilterException
+  {
+    final String fileName = getFilterParameter( PARAMETER_NAME__SOURCE );
+    String sourceFormat = getFilterParameter( PARAMETER_NAME__SOURCE_FORMAT );
+    if( sourceFormat == null && fileName != null ) {
+      final String lowerCaseFileName = fileName.trim().toLowerCase();
+      if( lowerCaseFileName.endsWith( ".jsonl" ) || lowerCaseFileName.endsWith( ".ndjson" ) ) {
+        sourceFormat = SOURCE_FORMAT__JSON_LINES;
+      }
+      else if( lowerCaseFileName.endsWith( ".csv" ) ) {
+        sourceFormat = SOURCE_FORMAT__CSV;
+      }
+    }
+    if( sourceFormat == null ) {
+      return null;
+    }
+
+    switch( sourceFormat.trim().toLowerCase() ) {
+      case SOURCE_FORMAT__JSON       : return null;
+      case SOURCE_FORMAT__JSON_LINES : return VariableSetReader.Format.JSON_LINES;
+      case SOURCE_FORMAT__CSV        : return VariableSetReader.Format.CSV;
+      default:
+        throw new DiffFilterException( "Unsupported source format \"" + sourceFormat + "\". Supported formats are \"" + SOURCE_FORMAT__JSON + "\", \"" + SOURCE_FORMAT__JSON_LINES + "\", \"" + SOURCE_FORMAT__CSV + "\" and \"" + SOURCE_FORMAT__JDBC + "\"." );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private VariableSetReader openReader( final VariableSetReader.Format format ) throws DiffFilterException
+  {
+    final String fileName  = getFilterParameter( PARAMETER_NAME__SOURCE );
+    final String separator = getFilterParameter( PARAMETER_NAME__CSV_SEPARATOR );
+    final int    offset    = Converter.asInteger( getFilterParameter( PARAMETER_NAME__OFFSET ), 0 );
+    final int    stride    = Converter.asInteger( getFilterParameter( PARAMETER_NAME__STRIDE ), 1 );
+
+    final Path path = resolvePath( fileName );
+    try {
+      return new VariableSetReader(
+        path,
+        format,
+        offset,
+        stride,
+        separator != null && !separator.isEmpty() ? separator.charAt( 0 ) : ','
+      );
+    }
+    catch( final IOException | IllegalArgumentException ex ) {
+      throw new DiffFilterException( "Error opening file \"" + path + "\".", ex );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private VariableSetStream openJdbcReader() throws DiffFilterException
+  {
+    // NOTE: Credentials may be given as system or environment properties (e.g. "${DB_PASSWORD}") to keep them out of the setup.
+    final String url       = resolveProperties( getFilterParameter( PARAMETER_NAME__SOURCE ),   PARAMETER_NAME__SOURCE );
+    final String user      = resolveProperties( getFilterParameter( PARAMETER_NAME__USER ),     PARAMETER_NAME__USER );
+    final String password  = resolveProperties( getFilterParameter( PARAMETER_NAME__PASSWORD ), PARAMETER_NAME__PASSWORD );
+    final String query     = getFilterParameter( PARAMETER_NAME__QUERY );
+    final int    fetchSize = Converter.asInteger( getFilterParameter( PARAMETER_NAME__FETCH_SIZE ), 1000 );
+    final int    offset    = Converter.asInteger( getFilterParameter( PARAMETER_NAME__OFFSET ), 0 );
+    final int    stride    = Converter.asInteger( getFilterParameter( PARAMETER_NAME__STRIDE ), 1 );
+
+    if( url == null || query == null || query.isBlank() ) {
+      throw new DiffFilterException( "Filter parameters \"" + PARAMETER_NAME__SOURCE + "\" and \"" + PARAMETER_NAME__QUERY + "\" must be set for source format \"" + SOURCE_FORMAT__JDBC + "\"." );
+    }
+
+    try {
+      return new JdbcVariableSetReader(
+        url.trim(),
+        user,
+        password,
+        query,
+        fetchSize,
+        offset,
+        stride
+      );
     }
+    catch( final IOException | IllegalArgumentException ex ) {
+      throw new DiffFilterException( "Error opening database \"" + url + "\".", ex );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private String resolveProperties( final String value, final String parameterName )
+  {
+    return VariablesHandler.applyVariables( value, new XmlVariables(), "filter parameter \"" + parameterName + "\"", null, getClass().getSimpleName(), getTestSetupPath() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Resolves the given file name relative to the setup directory, the current working directory or as absolute file (in this order).
+   * @param fileName The file name. Must not be null.
+   * @return The path of the first readable file.
+   * @throws DiffFilterException If no readable file was found, an Exception is thrown.
+   */
+  private Path resolvePath( final String fileName ) throws DiffFilterException
+  {
+    final String rootPath = new File( "" ).getAbsolutePath() + File.separator;
+    final String[] candidates = {
+      getTestSetupPath() + fileName, // Relative file from setup directory
+      rootPath + fileName,           // Fall back to current working directory
+      fileName                       // Fall back to absolute file
+    };
+
+    for( final String candidate : candidates ) {
+      if( LOG.isDebugEnabled() ) {
+        // CAUTION: This message is mentioned in the manual. => DO NOT CHANGE THIS!
+        LOG.debug( "Trying to read variables file \"" + candidate + "\"." );
+      }
+      try {
+        final Path path = Path.of( candidate );
+        if( Files.isRegularFile( path ) && Files.isReadable( path ) ) {
+          return path;
+        }
+      }
+      catch( final Exception ex ) {
+        // Try next candidate
+      }
+    }
+
+    throw new DiffFilterException( "Error reading file \"" + fileName + "\"." );
   }
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,224 @@
+package com.github.kreutzr.responsediff.filter.request.setvariables;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.kreutzr.responsediff.tools.JsonHelper;
+
+/**
+ * Reads the variable sets of a mass data file one by one (see read()), so the file does not have to be loaded into memory.
+ * Supported formats are JSON Lines (one JSON object per line) and CSV (the first line holds the variable names).
+ * Only every stride-th variable set (beginning with the one at the given offset) is read. This allows to cover a slice of a huge file (e.g. offset=2 and stride=10 for the third of ten shards).
+ * When the end of the file is reached, reading starts again with the first variable set.
+ * <br/>
+ * <b>NOTE:</b> Blank lines are ignored and do not count as variable sets.
+ */
+class VariableSetReader implements VariableSetStream
+{
+  /**
+   * The supported file formats.
+   */
+  enum Format
+  {
+    JSON_LINES,
+    CSV
+  }
+
+  private static final TypeReference< LinkedHashMap< String, Object > > MAP_TYPE = new TypeReference<>() {};
+
+  private static final ObjectMapper MAPPER = JsonHelper.provideObjectMapper();
+  private static final Logger       LOG    = LoggerFactory.getLogger( VariableSetReader.class );
+
+  private final Path           path_;
+  private final Format         format_;
+  private final int            offset_;
+  private final int            stride_;
+  private final char           separator_;
+  private       BufferedReader reader_;
+  private       List< String > columnNames_;
+  private       long           index_;       // The index of the next variable set within the file
+  private       long           lineNumber_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Constructor.
+   * @param path The path of the file to read. Must not be null.
+   * @param format The format of the file. Must not be null.
+   * @param offset The index of the first variable set to read. Must not be negative.
+   * @param stride Only every stride-th variable set is read. Must be positive.
+   * @param separator The separator of the CSV format.
+   * @throws IOException
+   */
+  VariableSetReader(
+    final Path   path,
+    final Format format,
+    final int    offset,
+    final int    stride,
+    final char   separator
+  )
+  throws IOException
+  {
+    if( offset < 0 || stride < 1 ) {
+      throw new IllegalArgumentException( "Offset must not be negative and stride must be positive (offset=" + offset + ", stride=" + stride + ")." );
+    }
+
+    path_      = path;
+    format_    = format;
+    offset_    = offset;
+    stride_    = stride;
+    separator_ = separator;
+    open();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public Map< String, Object > read()
+  throws IOException
+  {
+    boolean restarted = false;
+    while( true ) {
+      final String line = reader_.readLine();
+      if( line == null ) {
+        if( restarted ) {
+          return null;
+        }
+        if( LOG.isDebugEnabled() ) {
+          LOG.debug( "Reached end of variables file \"" + path_ + "\". Starting again with the first variable set." );
+        }
+        close();
+        open();
+        restarted = true;
+        continue;
+      }
+      lineNumber_++;
+
+      if( line.isBlank() ) {
+        continue;
+      }
+
+      final long index = index_++;
+      if( index >= offset_ && ( index - offset_ ) % stride_ == 0 ) {
+        return parse( line );
+      }
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void close()
+  throws IOException
+  {
+    if( reader_ != null ) {
+      reader_.close();
+      reader_ = null;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private void open()
+  throws IOException
+  {
+    reader_     = Files.newBufferedReader( path_, StandardCharsets.UTF_8 );
+    index_      = 0;
+    lineNumber_ = 0;
+
+    if( format_ == Format.CSV ) {
+      String header = reader_.readLine();
+      lineNumber_++;
+      while( header != null && header.isBlank() ) {
+        header = reader_.readLine();
+        lineNumber_++;
+      }
+      columnNames_ = header != null
+        ? splitCsvLine( header ).stream().map( String::trim ).toList()
+        : new ArrayList<>();
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private Map< String, Object > parse( final String line )
+  throws IOException
+  {
+    if( format_ == Format.JSON_LINES ) {
+      try {
+        return MAPPER.readValue( line, MAP_TYPE );
+      }
+      catch( final IOException ex ) {
+        throw new IOException( "Error reading JSON object in line " + lineNumber_ + " of file \"" + path_ + "\".", ex );
+      }
+    }
+
+    final List< String > values = splitCsvLine( line );
+    if( values.size() != columnNames_.size() ) {
+      throw new IOException( "Line " + lineNumber_ + " of file \"" + path_ + "\" has " + values.size() + " values but " + columnNames_.size() + " columns are defined." );
+    }
+
+    final Map< String, Object > result = new LinkedHashMap<>();
+    for( int i=0; i < values.size(); i++ ) {
+      result.put( columnNames_.get( i ), values.get( i ) );
+    }
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Splits a CSV line into its values. Values may be enclosed in double quotes (an inner double quote is escaped by another double quote).
+   * @param line The line to split. Must not be null.
+   * @return The values. Never null.
+   */
+  private List< String > splitCsvLine( final String line )
+  {
+    final List< String >  result   = new ArrayList<>();
+    final StringBuilder   sb       = new StringBuilder();
+    boolean               inQuotes = false;
+
+    for( int i=0; i < line.length(); i++ ) {
+      final char c = line.charAt( i );
+      if( inQuotes ) {
+        if( c == '"' ) {
+          if( i + 1 < line.length() && line.charAt( i + 1 ) == '"' ) {
+            sb.append( '"' );
+            i++;
+          }
+          else {
+            inQuotes = false;
+          }
+        }
+        else {
+          sb.append( c );
+        }
+      }
+      else if( c == '"' ) {
+        inQuotes = true;
+      }
+      else if( c == separator_ ) {
+        result.add( sb.toString() );
+        sb.setLength( 0 );
+      }
+      else {
+        sb.append( c );
+      }
+    }
+    result.add( sb.toString() );
+
+    return result;
+  }
+}
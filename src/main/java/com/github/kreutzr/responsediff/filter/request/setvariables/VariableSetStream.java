@@ -0,0 +1,25 @@
+package com.github.kreutzr.responsediff.filter.request.setvariables;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * A source of variable sets that are read one by one (see read()), so the entire mass data does not have to be loaded into memory.
+ * When the last variable set was read, reading starts again with the first variable set.
+ */
+interface VariableSetStream extends AutoCloseable
+{
+  /**
+   * Reads the next variable set.
+   * @return The next variable set (names and values). If the source holds no variable set to read, null is returned.
+   * @throws IOException
+   */
+  Map< String, Object > read()
+  throws IOException;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  void close()
+  throws IOException;
+}
@@ -4,13 +4,36 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.TreeMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Walks through the combinations of the values of some variables (see next() and getIndexes()).
+ * By default all combinations (the cartesian product) are walked through. Other strategies cover the values with far fewer combinations (see Strategy).
+ * When all combinations were walked through, the handler starts again with the first combination.
+ */
 public class VariablesPermutationHandler
 {
+  /**
+   * The strategies to combine the values of the variables.
+   */
+  public enum Strategy
+  {
+    /** All combinations (the cartesian product). */
+    PRODUCT,
+    /** Each combination of the values of any two variables is part of at least one combination (all-pairs). */
+    PAIRWISE,
+    /** Each combination of the values of any n variables is part of at least one combination (see strength). */
+    NWISE,
+    /** A fixed number of random combinations (see sampleSize and seed). */
+    RANDOM
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   private static final Logger LOG = LoggerFactory.getLogger( VariablesPermutationHandler.class );
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -20,11 +43,50 @@ public class VariablesPermutationHandler
   private List< String > variableNames_ = null;
   private int variablesNameIndex_ = 0;
 
+  private Strategy strategy_ = Strategy.PRODUCT;
+  private CoveringArrayGenerator coveringArrayGenerator_ = null; // For PAIRWISE and NWISE only
+  private Random random_ = null;                                 // For RANDOM only
+  private long seed_ = 0;
+  private int sampleSize_ = 0;
+  private int sampleIndex_ = 0;
+
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Initializes the handler to walk through all combinations (the cartesian product).
+   * @param variables The values per variable name. Must not be null.
+   */
   public void init( final Map< String, List< Object > > variables )
   {
-    variables_ = variables;
+    init( variables, Strategy.PRODUCT, 2, 1, 0L );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Initializes the handler. The first combination is available right away (see getIndexes()).
+   * @param variables The values per variable name. Must not be null.
+   * @param strategy The strategy to combine the values. Must not be null.
+   * @param strength The number of variables whose value combinations shall be covered (for NWISE only).
+   * @param sampleSize The number of random combinations before the handler starts again with the first one (for RANDOM only). Must be positive.
+   * @param seed The seed of the random combinations (for RANDOM only).
+   */
+  public void init(
+    final Map< String, List< Object > > variables,
+    final Strategy                      strategy,
+    final int                           strength,
+    final int                           sampleSize,
+    final long                          seed
+  )
+  {
+    if( strategy == Strategy.RANDOM && sampleSize < 1 ) {
+      throw new IllegalArgumentException( "The sample size must be positive (was " + sampleSize + ")." );
+    }
+
+    variables_  = variables;
+    strategy_   = strategy;
+    sampleSize_ = sampleSize;
+    seed_       = seed;
 
     // Initialize index map
     variablesIndexByName_ = new TreeMap<>();
@@ -43,6 +105,24 @@ public class VariablesPermutationHandler
     }
 
     variablesNameIndex_ = 0;
+
+    switch( strategy_ ) {
+      case PAIRWISE:
+        coveringArrayGenerator_ = new CoveringArrayGenerator( getSizes(), 2 );
+        setIndexes( coveringArrayGenerator_.next() );
+        break;
+      case NWISE:
+        coveringArrayGenerator_ = new CoveringArrayGenerator( getSizes(), strength );
+        setIndexes( coveringArrayGenerator_.next() );
+        break;
+      case RANDOM:
+        random_      = new Random( seed_ );
+        sampleIndex_ = 0;
+        setRandomIndexes();
+        break;
+      default:
+        break;
+    }
   }
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -51,6 +131,26 @@ public class VariablesPermutationHandler
   {
     LOG.trace( "next()" );
 
+    switch( strategy_ ) {
+      case PAIRWISE:
+      case NWISE:
+        setIndexes( coveringArrayGenerator_.next() );
+        return;
+      case RANDOM:
+        sampleIndex_++;
+        if( sampleIndex_ >= sampleSize_ ) {
+          if( LOG.isDebugEnabled() ) {
+            LOG.debug( "All " + sampleSize_ + " random combinations were used. Starting again with the first one." );
+          }
+          random_      = new Random( seed_ );
+          sampleIndex_ = 0;
+        }
+        setRandomIndexes();
+        return;
+      default:
+        break;
+    }
+
     final String currentVariableName = variableNames_.get( variablesNameIndex_ );
     int nextVariableValueIndex = variablesIndexByName_.get( currentVariableName ) + 1;
 
@@ -75,6 +175,42 @@ public class VariablesPermutationHandler
 
   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * @return The number of values per variable (in the order of variableNames_). Variables without values count as one value.
+   */
+  private int[] getSizes()
+  {
+    final int[] result = new int[ variableNames_.size() ];
+    for( int i=0; i < result.length; i++ ) {
+      final List< Object > values = variables_.get( variableNames_.get( i ) );
+      result[ i ] = values == null || values.isEmpty() ? 1 : values.size();
+    }
+    return result;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private void setIndexes( final int[] indexes )
+  {
+    for( int i=0; i < indexes.length; i++ ) {
+      variablesIndexByName_.put( variableNames_.get( i ), indexes[ i ] );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private void setRandomIndexes()
+  {
+    final int[] sizes = getSizes();
+    final int[] indexes = new int[ sizes.length ];
+    for( int i=0; i < sizes.length; i++ ) {
+      indexes[ i ] = random_.nextInt( sizes[ i ] );
+    }
+    setIndexes( indexes );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   private void updateVariablesIndexMap( final int oldIndex )
   {
     LOG.trace( "updateVariablesIndexMap()" );
@@ -13,6 +13,7 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.kreutzr.responsediff.HttpClientProfile;
 import com.github.kreutzr.responsediff.XmlHeader;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
@@ -40,7 +41,7 @@ public class ProxyHandler implements HttpHandler
   {
     config_                   = config;
     shutDownCommand_          = shutDownCommand;
-    httpClient_               = HttpClient.newBuilder().build();
+    httpClient_               = new HttpClientProfile().createHttpClient();
     restrictedRequestHeaders_ =  List.of( 
       "host", 
       "content-length", 
@@ -8,9 +8,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
@@ -21,7 +18,6 @@ import javax.xml.transform.stream.StreamSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
-import org.xml.sax.SAXException;
 
 import com.github.kreutzr.responsediff.tools.Converter;
 import com.github.kreutzr.responsediff.tools.ErrorHandlingHelper;
@@ -31,8 +27,7 @@ import com.github.kreutzr.responsediff.tools.ErrorHandlingHelper;
  */
 public class XsltProcessor
 {
-  private static final TransformerFactory     TRANSFORMER_FACTORY      = TransformerFactory.newInstance();
-  private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
+  private static final TransformerFactory TRANSFORMER_FACTORY = TransformerFactory.newInstance();
 
   private static final Logger LOG = LoggerFactory.getLogger( XsltProcessor.class );
 
@@ -53,14 +48,18 @@ public class XsltProcessor
     final String targetFilePath
   )
   {
-    try( InputStream is = new FileInputStream( sourceFilePath ) ) {
-      final DocumentBuilder db  = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
-      final Document        doc = db.parse( is );
-
-      process( doc, xsltFilePath, targetFilePath );
+    if( LOG.isTraceEnabled() ) {
+      LOG.trace( "Processing XSLT: sourceFile=" + sourceFilePath + " , xsltFile=" + xsltFilePath + " , targetFile="  + targetFilePath );
+    }
+    // NOTE: The source file is streamed into the transformation (without creating a Document first).
+    try( InputStream is = new FileInputStream( sourceFilePath );
+         FileOutputStream output = new FileOutputStream( targetFilePath )
+    ) {
+      final Transformer transformer = TRANSFORMER_FACTORY.newTransformer( new StreamSource( new File( xsltFilePath ) ) );
+      transformer.transform( new StreamSource( is, new File( sourceFilePath ).toURI().toString() ), new StreamResult( output ) );
     }
-    catch( IOException | ParserConfigurationException | SAXException ex ) {
-      final String message = ErrorHandlingHelper.createSingleLineMessage( "Error while reading XML.", ex );
+    catch( IOException | TransformerException ex ) {
+      final String message = ErrorHandlingHelper.createSingleLineMessage( "Error while XSLT processing.", ex );
       LOG.error( message );
     }
   }
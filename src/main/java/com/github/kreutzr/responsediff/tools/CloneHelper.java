@@ -1,5 +1,8 @@
 package com.github.kreutzr.responsediff.tools;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import javax.xml.namespace.QName;
 
 import jakarta.xml.bind.JAXBContext;
@@ -9,6 +12,9 @@ import jakarta.xml.bind.util.JAXBSource;
 
 public class CloneHelper
 {
+  // NOTE: Creating a JAXBContext is expensive, whereas a JAXBContext is thread safe. Hence we create it only once per class.
+  private static final Map< Class< ? >, JAXBContext > JAXB_CONTEXTS = new ConcurrentHashMap<>();
+
   /**
    * Creates a deep copy (clone) using JaxB
    * @param <T> The type of the object to clone.
@@ -24,7 +30,7 @@ public class CloneHelper
     }
 
     try {
-      final JAXBContext jaxbContext = JAXBContext.newInstance(clazz);
+      final JAXBContext jaxbContext = getJaxbContext( clazz );
       final JAXBElement< T > contentObject = new JAXBElement< T >(new QName( clazz.getSimpleName() ), clazz, object );
       final JAXBSource source = new JAXBSource( jaxbContext, contentObject );
       return jaxbContext.createUnmarshaller().unmarshal( source, clazz ).getValue();
@@ -33,4 +39,18 @@ public class CloneHelper
         throw new RuntimeException( ex );
     }
   }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static JAXBContext getJaxbContext( final Class< ? > clazz )
+  throws JAXBException
+  {
+    JAXBContext result = JAXB_CONTEXTS.get( clazz );
+    if( result == null ) {
+      result = JAXBContext.newInstance( clazz );
+      JAXB_CONTEXTS.putIfAbsent( clazz, result );
+    }
+
+    return result;
+  }
 }
@@ -0,0 +1,123 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.kreutzr.responsediff.base.HttpServerStub;
+import com.github.kreutzr.responsediff.base.TestSetupRunner;
+
+public class BodyStoreTest
+{
+  private static final String rootPath_ = new File( "" ).getAbsolutePath() + File.separator;
+
+  @TempDir
+  Path tempDir_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatStoredBodiesAreReadBackForReport() throws Exception
+  {
+    final String setupFilePath   = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_journal/setup.xml";
+    final String storeReportPath = tempDir_.toString() + File.separator;
+
+    // ==========================
+    // Given
+    // ==========================
+    final XmlResponseDiffSetup inMemorySetup = XmlFileHandler.readSetup( setupFilePath, null, true );
+    try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+      TestSetupRunner.processTestSetup( inMemorySetup, server, new RunOptions() );
+    }
+    final XmlResponseDiffSetup inMemoryReport = XmlFileHandler.readSetup( XmlFileHandler.storeXmlReport( inMemorySetup, storeReportPath, "-memory" ), null, false );
+
+    // ==========================
+    // When
+    // ==========================
+    final XmlResponseDiffSetup storedSetup = XmlFileHandler.readSetup( setupFilePath, null, true );
+    final XmlResponseDiffSetup storedReport;
+    try( final BodyStore bodyStore = BodyStore.open( storeReportPath, 10 );
+         final HttpServerStub server = new HttpServerStub( 0 )
+    ) {
+      TestSetupRunner.processTestSetup( storedSetup, server, new RunOptions().setBodyStore( bodyStore ) );
+
+      // ==========================
+      // Then
+      // ==========================
+      // The bodies are not kept in memory
+      assertThat( bodyStore.size() ).isEqualTo( 2 * 4 ); // Candidate and reference (the control response is not reported)
+      for( final XmlTest xmlTest : storedSetup.getTestSet().get( 0 ).getTest() ) {
+        assertThat( xmlTest.getResponse().getHttpResponse().getBody()      ).isNull();
+        assertThat( xmlTest.getResponse().getReferenceResponse().getBody() ).isNull();
+        assertThat( bodyStore.load( xmlTest.getResponse().getHttpResponse() ) ).contains( "\"endpoint\"" );
+      }
+
+      storedReport = XmlFileHandler.readSetup( XmlFileHandler.storeXmlReport( storedSetup, storeReportPath, "-stored", bodyStore ), null, false );
+
+      // The bodies are removed again after the report was written
+      assertThat( storedSetup.getTestSet().get( 0 ).getTest().get( 0 ).getResponse().getHttpResponse().getBody() ).isNull();
+    }
+
+    // The report holds the same bodies as the report of the in memory run
+    final XmlTestSet inMemoryTestSet = inMemoryReport.getTestSet().get( 0 );
+    final XmlTestSet storedTestSet   = storedReport  .getTestSet().get( 0 );
+    assertThat( storedTestSet.getTest() ).hasSameSizeAs( inMemoryTestSet.getTest() );
+    for( int i=0; i < inMemoryTestSet.getTest().size(); i++ ) {
+      final XmlResponse inMemoryResponse = inMemoryTestSet.getTest().get( i ).getResponse();
+      final XmlResponse storedResponse   = storedTestSet  .getTest().get( i ).getResponse();
+      assertThat( storedResponse.getHttpResponse().getBody()      ).isNotNull().isEqualTo( inMemoryResponse.getHttpResponse().getBody() );
+      assertThat( storedResponse.getReferenceResponse().getBody() ).isNotNull().isEqualTo( inMemoryResponse.getReferenceResponse().getBody() );
+    }
+    assertThat( storedTestSet.getAnalysis().getFailCount() ).isEqualTo( inMemoryTestSet.getAnalysis().getFailCount() );
+
+    // The body store file was removed
+    try( final var files = Files.list( tempDir_ ) ) {
+      assertThat( files.map( file -> file.getFileName().toString() ) ).noneMatch( fileName -> fileName.startsWith( "bodies_" ) );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatSmallBodiesAreKeptInMemory() throws Exception
+  {
+    // ==========================
+    // Given
+    // ==========================
+    final XmlHttpResponse small = new XmlHttpResponse();
+    small.setBody( "{ \"a\" : 1 }" );
+    final XmlHttpResponse large = new XmlHttpResponse();
+    large.setBody( "{ \"text\" : \"äöü " + "x".repeat( 100 ) + "\" }" );
+    final String largeBody = large.getBody();
+
+    final XmlResponse xmlResponse = new XmlResponse();
+    xmlResponse.setHttpResponse     ( small );
+    xmlResponse.setReferenceResponse( large );
+    final XmlTest xmlTest = new XmlTest();
+    xmlTest.setResponse( xmlResponse );
+
+    try( final BodyStore bodyStore = BodyStore.open( tempDir_.toString(), 20 ) ) {
+      // ==========================
+      // When
+      // ==========================
+      bodyStore.store( xmlTest );
+
+      // ==========================
+      // Then
+      // ==========================
+      assertThat( bodyStore.size() ).isEqualTo( 1 );
+      assertThat( small.getBody() ).isEqualTo( "{ \"a\" : 1 }" );
+      assertThat( large.getBody() ).isNull();
+      assertThat( bodyStore.load( small ) ).isEqualTo( "{ \"a\" : 1 }" );
+      assertThat( bodyStore.load( large ) ).isEqualTo( largeBody );
+
+      bodyStore.release( xmlTest );
+      assertThat( bodyStore.size() ).isZero();
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.kreutzr.responsediff.base.HttpServerStub;
+import com.github.kreutzr.responsediff.base.TestSetupRunner;
+
+public class DropUnreportedBodiesTest
+{
+  private static final String rootPath_ = new File( "" ).getAbsolutePath() + File.separator;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatBodiesOfUnreportedTestsAreDropped() throws Exception
+  {
+    final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_drop_bodies/setup.xml";
+
+    // ==========================
+    // Given
+    // ==========================
+    final XmlResponseDiffSetup setup = XmlFileHandler.readSetup( setupFilePath, null, true );
+
+    // ==========================
+    // When
+    // ==========================
+    try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+      TestSetupRunner.processTestSetup( setup, server, new RunOptions() );
+    }
+
+    // ==========================
+    // Then
+    // ==========================
+    final List< XmlTest > xmlTests = setup.getTestSet().get( 0 ).getTest();
+    assertThat( xmlTests ).hasSize( 4 );
+
+    // The successful test is not reported (report="fail,skip")
+    final XmlTest success = xmlTests.get( 0 );
+    assertThat( TestSetHandler.isReported( success ) ).isFalse();
+    assertThat( success.getRequest().getCurl() ).isNull();
+    assertThat( success.getResponse().getHttpResponse().getBody()      ).isNull();
+    assertThat( success.getResponse().getReferenceResponse().getBody() ).isNull();
+    assertThat( success.getResponse().getHttpResponse().getHttpStatus() ).isNotNull();
+    assertThat( success.getAnalysis().getSuccessCount() ).isEqualTo( 1 );
+    assertThat( success.getAnalysis().getBegin() ).isNotNull();
+
+    // Failed tests and tests that are reported anyway are kept
+    for( final XmlTest xmlTest : List.of( xmlTests.get( 1 ), xmlTests.get( 2 ), xmlTests.get( 3 ) ) ) {
+      assertThat( TestSetHandler.isReported( xmlTest ) ).as( xmlTest.getId() ).isTrue();
+      assertThat( xmlTest.getRequest().getCurl() ).as( xmlTest.getId() ).isNotNull();
+      assertThat( xmlTest.getResponse().getHttpResponse().getBody() ).as( xmlTest.getId() ).contains( "\"endpoint\"" );
+    }
+    assertThat( xmlTests.get( 1 ).getAnalysis().getFailCount() ).isEqualTo( 1 );
+    assertThat( xmlTests.get( 3 ).getAnalysis().getFailCount() ).isEqualTo( 1 );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatCurlIsOnlyCreatedForReportedTests() throws Exception
+  {
+    final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_drop_bodies/setup.xml";
+
+    // ==========================
+    // Given
+    // ==========================
+    final XmlResponseDiffSetup setup = XmlFileHandler.readSetup( setupFilePath, null, true );
+    setup.setDropUnreportedBodies( false );
+
+    // ==========================
+    // When
+    // ==========================
+    try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+      TestSetupRunner.processTestSetup( setup, server, new RunOptions() );
+    }
+
+    // ==========================
+    // Then
+    // ==========================
+    final List< XmlTest > xmlTests = setup.getTestSet().get( 0 ).getTest();
+    assertThat( xmlTests ).hasSize( 4 );
+
+    // The successful test is not reported (report="fail,skip"). Its bodies are kept, but no curl command is created.
+    final XmlTest success = xmlTests.get( 0 );
+    assertThat( TestSetHandler.isReported( success ) ).isFalse();
+    assertThat( success.getRequest().getCurl() ).isNull();
+    assertThat( success.getResponse().getHttpResponse().getBody() ).contains( "\"endpoint\"" );
+
+    for( final XmlTest xmlTest : List.of( xmlTests.get( 1 ), xmlTests.get( 2 ), xmlTests.get( 3 ) ) ) {
+      assertThat( xmlTest.getRequest().getCurl() ).as( xmlTest.getId() ).startsWith( "curl -X GET " ).contains( xmlTest.getRequest().getEndpoint() );
+    }
+  }
+}
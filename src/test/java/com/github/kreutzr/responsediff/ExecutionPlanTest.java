@@ -0,0 +1,54 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ExecutionPlanTest
+{
+  private static final Logger LOG = LoggerFactory.getLogger( ExecutionPlanTest.class );
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatCompiledPlanMatchesLikeExecutionContextHelper()
+  {
+    // Given
+    final Set< String > executionContext = new TreeSet<>();
+    executionContext.add( "releasing" ); // Lower case as in OuterContext
+
+    final XmlTest xmlTest = new XmlTest();
+    xmlTest.setIfExecutionContextContains( "AAA, RELEASING" );
+    xmlTest.setWaitBefore( "PT0.5S" );
+    final XmlTestSet xmlTestSet = new XmlTestSet();
+    xmlTestSet.setIfExecutionContextContains( "BBB" );
+    xmlTestSet.getTest().add( xmlTest );
+    final XmlResponseDiffSetup xmlTestSetup = new XmlResponseDiffSetup();
+    xmlTestSetup.getTestSet().add( xmlTestSet );
+
+    // When
+    final ExecutionPlan executionPlan = ExecutionPlan.compile( xmlTestSetup, executionContext );
+
+    // Then
+    assertThat( executionPlan.matchesExecutionContext( "AAA, RELEASING", "test", LOG ) ).isTrue();
+    assertThat( executionPlan.matchesExecutionContext( "BBB",            "test", LOG ) ).isFalse();
+    assertThat( executionPlan.matchesExecutionContext( null,             "test", LOG ) ).isTrue();
+    assertThat( executionPlan.matchesExecutionContext( "   ",            "test", LOG ) ).isTrue();
+    // Not compiled conditions are evaluated on demand
+    assertThat( executionPlan.matchesExecutionContext( "releasing, CCC", "test", LOG ) ).isTrue();
+    assertThat( executionPlan.matchesExecutionContext( "CCC",            "test", LOG ) ).isFalse();
+
+    assertThat( executionPlan.getDuration( "PT0.5S" ) ).isEqualTo( Duration.ofMillis( 500 ) );
+    assertThat( executionPlan.getDuration( "PT2S"   ) ).isEqualTo( Duration.ofSeconds( 2 ) );
+    assertThat( executionPlan.getDuration( null     ) ).isNull();
+    assertThatThrownBy( () -> executionPlan.getDuration( "2 seconds" ) ).isInstanceOf( DateTimeParseException.class );
+  }
+}
@@ -0,0 +1,126 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.kreutzr.responsediff.tools.JsonHelper;
+
+public class HttpClientProfileTest
+{
+  @Test
+  public void testThatHttpClientIsCreatedFromProfile()
+  {
+    // Given
+    final HttpClientProfile profile = new HttpClientProfile();
+    profile.setHttpVersion     ( HttpClientProfile.HTTP_VERSION__HTTP_1_1 );
+    profile.setConnectTimeoutMs( 2500L );
+    profile.setExecutor        ( HttpClientProfile.EXECUTOR__FIXED );
+    profile.setExecutorThreads ( 2 );
+    profile.setFollowRedirects ( "normal" );
+
+    // When
+    final HttpClient httpClient = profile.createHttpClient();
+
+    // Then
+    assertThat( httpClient.version() ).isEqualTo( HttpClient.Version.HTTP_1_1 );
+    assertThat( httpClient.connectTimeout() ).contains( Duration.ofMillis( 2500 ) );
+    assertThat( httpClient.executor() ).isPresent();
+    assertThat( httpClient.followRedirects() ).isEqualTo( HttpClient.Redirect.NORMAL );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatEmptyProfileKeepsDefaults()
+  {
+    // Given
+    final HttpClientProfile profile = new HttpClientProfile();
+
+    // When
+    final HttpClient httpClient = profile.createHttpClient();
+
+    // Then
+    final HttpClient defaultHttpClient = HttpClient.newHttpClient();
+    assertThat( httpClient.version() ).isEqualTo( defaultHttpClient.version() );
+    assertThat( httpClient.connectTimeout() ).isEmpty();
+    assertThat( httpClient.executor() ).isEmpty();
+    assertThat( httpClient.followRedirects() ).isEqualTo( HttpClient.Redirect.NEVER );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatUnsupportedSettingsAreRejected()
+  {
+    // Given
+    final HttpClientProfile profile = new HttpClientProfile();
+    profile.setHttpVersion( "HTTP/3" );
+
+    // When / Then
+    assertThatThrownBy( profile::createHttpClient )
+      .isInstanceOf( IllegalArgumentException.class )
+      .hasMessageContaining( "HTTP/3" );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatKeepAliveTimeoutIsRejectedIfItCannotTakeEffect()
+  {
+    // Given
+    final String keepAliveTimeoutProperty = "jdk.httpclient.keepalive.timeout";
+    assertThat( System.getProperty( keepAliveTimeoutProperty ) ).isNull();
+    new HttpClientProfile().createHttpClient(); // The Java runtime reads the keep-alive timeout when the first HttpClient is created
+
+    final HttpClientProfile profile = new HttpClientProfile();
+    profile.setKeepAliveTimeoutS( 30L );
+
+    // When / Then
+    assertThatThrownBy( profile::createHttpClient )
+      .isInstanceOf( IllegalArgumentException.class )
+      .hasMessageContaining( "HttpClient was already created" );
+    assertThat( System.getProperty( keepAliveTimeoutProperty ) ).isNull();
+
+    // A keep-alive timeout that is already set (e.g. by the command line) is accepted
+    System.setProperty( keepAliveTimeoutProperty, "30" );
+    try {
+      assertThat( profile.createHttpClient() ).isNotNull();
+
+      profile.setKeepAliveTimeoutS( 60L );
+      assertThatThrownBy( profile::createHttpClient )
+        .isInstanceOf( IllegalArgumentException.class )
+        .hasMessageContaining( "already set to 30 seconds" );
+    }
+    finally {
+      System.clearProperty( keepAliveTimeoutProperty );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatProfilesAreReadFromConfiguration() throws Exception
+  {
+    // Given
+    final String json = "{"
+      + " \"candidateHttpClient\" : { \"httpVersion\" : \"HTTP/2\", \"connectTimeoutMs\" : 1000, \"executor\" : \"virtual\" },"
+      + " \"referenceHttpClient\" : { \"httpVersion\" : \"HTTP/1.1\", \"followRedirects\" : \"always\" }"
+      + " }";
+
+    // When
+    final ResponseDiffConfiguration config = JsonHelper.provideObjectMapper().readValue( json, ResponseDiffConfiguration.class );
+
+    // Then
+    assertThat( config.getCandidateHttpClient().getHttpVersion()      ).isEqualTo( "HTTP/2" );
+    assertThat( config.getCandidateHttpClient().getConnectTimeoutMs() ).isEqualTo( 1000L );
+    assertThat( config.getCandidateHttpClient().getExecutor()         ).isEqualTo( "virtual" );
+    assertThat( config.getReferenceHttpClient().getFollowRedirects()  ).isEqualTo( "always" );
+    assertThat( config.getControlHttpClient() ).isNull();
+    assertThat( config.getCandidateHttpClient().createHttpClient().executor() ).isPresent();
+  }
+}
@@ -2,7 +2,26 @@ package com.github.kreutzr.responsediff;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.Builder;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.kreutzr.responsediff.base.HttpServerStub;
+import com.github.kreutzr.responsediff.filter.DiffFilter;
+import com.github.kreutzr.responsediff.filter.response.XmlToJsonResponseFilter;
+import com.jayway.jsonpath.JsonPath;
 
 public class HttpHandlerTest
 {
@@ -84,4 +103,189 @@ public class HttpHandlerTest
      assertThat( HttpHandler.getFileExtensionFromContentType( "application/hal+json; charset=UTF-8" ) ).isEqualTo( "json" );
      assertThat( HttpHandler.getFileExtensionFromContentType( "image/png" ) ).isEqualTo( "png" );
    }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   @Test
+   public void testThatUploadPartsAreStreamedFromFiles( @TempDir final Path tempDir ) throws Exception
+   {
+     // Given
+     final Path file1 = Files.writeString( tempDir.resolve( "file1.txt" ), "First file" );
+     final Path file2 = Files.write( tempDir.resolve( "file2.bin" ), new byte[ 100_000 ] );
+
+     final XmlRequest xmlRequest = new XmlRequest();
+     xmlRequest.setHeaders( new XmlHeaders() );
+     xmlRequest.setUploadParts( new XmlUploadParts() );
+     for( final Path file : new Path[] { file1, file2 } ) {
+       final XmlFile xmlFile = new XmlFile();
+       xmlFile.setValue( file.toString() );
+       xmlFile.setContentType( "application/octet-stream" );
+       xmlRequest.getUploadParts().getFile().add( xmlFile );
+     }
+
+     // When
+     final BodyPublisher publisher = HttpHandler.getUploadPartsAsPublisher( xmlRequest, tempDir.resolve( "test.xml" ).toString() );
+
+     // Then
+     final String contentType = HttpHandler.getHeader( HttpHandler.HEADER_NAME__CONTENT_TYPE, xmlRequest.getHeaders().getHeader() ).getValue();
+     assertThat( contentType ).startsWith( "multipart/form-data; boundary=" );
+     final String boundary = contentType.substring( contentType.indexOf( '=' ) + 1 );
+
+     final byte[] body = readBody( publisher );
+     final String text = new String( body, StandardCharsets.ISO_8859_1 );
+     assertThat( publisher.contentLength() ).isEqualTo( body.length ); // No chunked transfer
+     assertThat( text ).contains( "--" + boundary + "\r\nContent-Disposition: form-data; name=\"file1.txt\"" );
+     assertThat( text ).contains( "\r\n\r\nFirst file\r\n--" + boundary + "\r\n" );
+     assertThat( text ).endsWith( "\r\n--" + boundary + "--\r\n" );
+     assertThat( body.length ).isGreaterThan( 100_000 );
+
+     // The publisher may be sent again (e.g. to another service)
+     assertThat( readBody( publisher ) ).isEqualTo( body );
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   @Test
+   public void testThatResponseFiltersAreAppliedToNonJsonBodies() throws Throwable
+   {
+     try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+       // Given
+       final XmlRequest xmlRequest = new XmlRequest();
+       xmlRequest.setMethod( XmlHttpRequestMethod.GET );
+       xmlRequest.setEndpoint( server.getServiceUrl( TestSetHandler.CANDIDATE ) + "/xml/01" );
+
+       final XmlFilter xmlFilter = new XmlFilter();
+       xmlFilter.setId( "xmlToJson" );
+       final XmlResponse xmlResponse = new XmlResponse();
+       xmlResponse.setFilters( new XmlFilters() );
+       xmlResponse.getFilters().getFilter().add( xmlFilter );
+
+       final Map< String, DiffFilter > filterRegistry = Map.of( "xmlToJson", new XmlToJsonResponseFilter() );
+
+       // When
+       final Builder builder = HttpHandler.prepareHttpRequest( xmlRequest, TestSetHandler.CANDIDATE, "test", "test.xml" );
+       final XmlHttpResponse xmlHttpResponse = HttpHandler.createXmlHttpResponse(
+         HttpHandler.sendRequest( xmlRequest, null, builder, TestSetHandler.CANDIDATE, "test", "test.xml" ),
+         xmlResponse,
+         5000L,
+         filterRegistry,
+         TestSetHandler.CANDIDATE,
+         "test",
+         "test.xml",
+         xmlRequest,
+         null, // storeReportPath
+         "",   // testSetPath
+         null  // testSetWorkPath
+       );
+
+       // Then
+       assertThat( xmlHttpResponse.isBodyIsJson() ).isTrue();
+       assertThat( xmlHttpResponse.getDownload() ).isNull();
+       assertThat( (String) JsonPath.read( xmlHttpResponse.getBody(), "$.response.#value[0].endpoint.#value" ) ).isEqualTo( "/xml/01" );
+     }
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   @Test
+   public void testThatRawBodyIsReleasedWhenXmlHttpResponseIsCreated() throws Throwable
+   {
+     try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+       // Given
+       final XmlRequest xmlRequest = new XmlRequest();
+       xmlRequest.setMethod( XmlHttpRequestMethod.GET );
+       xmlRequest.setEndpoint( server.getServiceUrl( TestSetHandler.CANDIDATE ) + "/json/01" );
+
+       final Builder builder = HttpHandler.prepareHttpRequest( xmlRequest, TestSetHandler.CANDIDATE, "test", "test.xml" );
+       final CompletableFuture< HttpResponse< byte[] > > future = HttpHandler.sendRequest( xmlRequest, null, builder, TestSetHandler.CANDIDATE, "test", "test.xml" );
+
+       // When
+       final XmlHttpResponse xmlHttpResponse = HttpHandler.createXmlHttpResponse(
+         future,
+         new XmlResponse(),
+         5000L,
+         Map.of(),
+         TestSetHandler.CANDIDATE,
+         "test",
+         "test.xml",
+         xmlRequest,
+         null, // storeReportPath
+         "",   // testSetPath
+         null  // testSetWorkPath
+       );
+
+       // Then
+       final TimedHttpResponse< ? > timedHttpResponse = (TimedHttpResponse< ? >) future.get();
+       assertThat( timedHttpResponse.body() ).isNull();
+       assertThat( timedHttpResponse.getBodyText() ).isNull();
+       assertThat( timedHttpResponse.getJson() ).isNull();
+       assertThat( timedHttpResponse.getDuration() ).isNotNull();
+       assertThat( xmlHttpResponse.getBody() ).isNotEmpty();
+       assertThat( JsonBodyCache.get( xmlHttpResponse ) ).isNotNull(); // The tree is kept until the validation has finished
+     }
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   @Test
+   public void testThatDownloadsOfDiscardedResponsesAreDeleted() throws Throwable
+   {
+     try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+       // Given
+       final XmlRequest xmlRequest = new XmlRequest();
+       xmlRequest.setMethod( XmlHttpRequestMethod.GET );
+       xmlRequest.setEndpoint( server.getServiceUrl( TestSetHandler.CANDIDATE ) + "/download/01" );
+
+       final Builder builder = HttpHandler.prepareHttpRequest( xmlRequest, TestSetHandler.CANDIDATE, "test", "test.xml" );
+       final CompletableFuture< HttpResponse< byte[] > > future = HttpHandler.sendRequest( xmlRequest, null, builder, TestSetHandler.CANDIDATE, "test", "test.xml" );
+       final StreamedDownload streamedDownload = ( (TimedHttpResponse< ? >) future.get( 5, TimeUnit.SECONDS ) ).getDownload();
+       assertThat( streamedDownload ).isNotNull();
+       assertThat( streamedDownload.getFile() ).exists();
+
+       // When
+       HttpHandler.discard( future );
+
+       // Then
+       assertThat( streamedDownload.getFile() ).doesNotExist();
+     }
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   @Test
+   public void testThatSizeOfLargeStreamedDownloadIsNotClamped( @TempDir final Path tempDir ) throws Exception
+   {
+     // Given
+     // NOTE: The size is recorded while the body is streamed. So the file itself may be small.
+     final long size = 3L * 1024 * 1024 * 1024;
+     final Path file = Files.write( tempDir.resolve( "download.tmp" ), new byte[ 10 ] );
+     final StreamedDownload streamedDownload = new StreamedDownload( file, size, "0123456789abcdef" );
+
+     // When
+     final XmlDownload xmlDownload = HttpHandler.createXmlDownload( streamedDownload, "application/pdf", TestSetHandler.CANDIDATE, "test", null, tempDir.toString(), "/report", "" );
+
+     // Then
+     assertThat( xmlDownload.getSize() ).isEqualTo( size );
+     assertThat( xmlDownload.getSha256() ).isEqualTo( "0123456789abcdef" );
+     assertThat( file ).doesNotExist();
+   }
+
+   /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+   private static byte[] readBody( final BodyPublisher publisher ) throws Exception
+   {
+     final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+     final CompletableFuture< byte[] > result = new CompletableFuture<>();
+     publisher.subscribe( new Flow.Subscriber< ByteBuffer >() {
+       @Override public void onSubscribe( final Flow.Subscription subscription ) { subscription.request( Long.MAX_VALUE ); }
+       @Override public void onNext( final ByteBuffer buffer ) {
+         final byte[] chunk = new byte[ buffer.remaining() ];
+         buffer.get( chunk );
+         bytes.write( chunk, 0, chunk.length );
+       }
+       @Override public void onError( final Throwable throwable ) { result.completeExceptionally( throwable ); }
+       @Override public void onComplete() { result.complete( bytes.toByteArray() ); }
+     } );
+     return result.get( 10, TimeUnit.SECONDS );
+   }
 }
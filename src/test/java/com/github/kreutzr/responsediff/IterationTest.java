@@ -0,0 +1,93 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.kreutzr.responsediff.base.HttpServerStub;
+import com.github.kreutzr.responsediff.base.TestSetupRunner;
+
+public class IterationTest
+{
+  private static final String rootPath_ = new File( "" ).getAbsolutePath() + File.separator;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatIterationsAreCreatedLazily() throws Exception
+  {
+    final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_iterations/setup.xml";
+
+    // ==========================
+    // When
+    // ==========================
+    final XmlResponseDiffSetup setup = XmlFileHandler.readSetup( setupFilePath, null, true );
+
+    // ==========================
+    // Then
+    // ==========================
+    final XmlTestSet wrapperTestSet = setup.getTestSet().get( 0 ).getTestSet().get( 0 );
+    assertThat( wrapperTestSet.getTest() ).hasSize( 1 );
+    assertThat( wrapperTestSet.getLazyIterations() ).isEqualTo( 20 );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatSuccessfulIterationsAreSummarized() throws Exception
+  {
+    final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_iterations/setup.xml";
+
+    // ==========================
+    // Given
+    // ==========================
+    final XmlResponseDiffSetup setup = XmlFileHandler.readSetup( setupFilePath, null, true );
+
+    try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+      // ==========================
+      // When
+      // ==========================
+      TestSetupRunner.processTestSetup( setup, server, new RunOptions() );
+
+      // ==========================
+      // Then
+      // ==========================
+      // All iterations are executed
+      assertThat( Collections.frequency( server.getRequestedPaths(), "/candidate/many/01" ) ).isEqualTo( 20 );
+      assertThat( Collections.frequency( server.getRequestedPaths(), "/candidate/fail/01" ) ).isEqualTo( 10 );
+      assertThat( Collections.frequency( server.getRequestedPaths(), "/candidate/few/01"  ) ).isEqualTo( 3 );
+      assertThat( Collections.frequency( server.getRequestedPaths(), "/candidate/set/01"  ) ).isEqualTo( 5 );
+    }
+
+    final XmlTestSet xmlTestSet = setup.getTestSet().get( 0 );
+    assertThat( xmlTestSet.getAnalysis().getTotalCount()   ).isEqualTo( 20 + 10 + 3 );
+    assertThat( xmlTestSet.getAnalysis().getSuccessCount() ).isEqualTo( 20 + 3 );
+    assertThat( xmlTestSet.getAnalysis().getFailCount()    ).isEqualTo( 10 );
+
+    // Only the first iteration of successful iterations is reported
+    final XmlTestSet manyTestSet = xmlTestSet.getTestSet().get( 0 );
+    assertThat( manyTestSet.getTest() ).hasSize( 1 );
+    assertThat( manyTestSet.getAnalysis().getTotalCount() ).isEqualTo( 20 );
+    assertThat( manyTestSet.getDescription() ).endsWith( " - 19 iterations are not reported" );
+
+    // Failed iterations are reported up to maxReportedIterations
+    final XmlTestSet failingTestSet = xmlTestSet.getTestSet().get( 1 );
+    assertThat( failingTestSet.getTest() ).hasSize( 3 );
+    assertThat( failingTestSet.getAnalysis().getTotalCount() ).isEqualTo( 10 );
+    assertThat( failingTestSet.getAnalysis().getFailCount()  ).isEqualTo( 10 );
+
+    // Iterations up to maxReportedIterations are reported entirely
+    final XmlTestSet fewTestSet = xmlTestSet.getTestSet().get( 2 );
+    assertThat( fewTestSet.getTest() ).hasSize( 3 );
+    assertThat( fewTestSet.getDescription() ).isEqualTo( "IterationWrapper( 3 )" );
+
+    // Iterations of test sets are summarized, too
+    final XmlTestSet setWrapperTestSet = setup.getTestSet().get( 1 );
+    assertThat( setWrapperTestSet.getTestSet() ).hasSize( 1 );
+    assertThat( setWrapperTestSet.getAnalysis().getTotalCount()   ).isEqualTo( 5 );
+    assertThat( setWrapperTestSet.getAnalysis().getSuccessCount() ).isEqualTo( 5 );
+  }
+}
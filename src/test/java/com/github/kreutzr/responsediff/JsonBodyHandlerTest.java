@@ -0,0 +1,263 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.ResponseInfo;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.kreutzr.responsediff.tools.JsonHelper;
+
+public class JsonBodyHandlerTest
+{
+  private static final String JSON = "{ \"name\" : \"Grüße\", \"values\" : [ 1, 12345678901234, 0.1, 1e400, true, null ], \"nested\" : { \"empty\" : {} } }";
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatJsonBodyIsParsedWhileReceived() throws Exception
+  {
+    // Given
+    final JsonBodyHandler bodyHandler = new JsonBodyHandler();
+    final byte[] bytes = JSON.getBytes( StandardCharsets.UTF_8 );
+
+    // When
+    final BodySubscriber< byte[] > subscriber = bodyHandler.apply( createResponseInfo( "application/json; charset=UTF-8", bytes.length ) );
+    final byte[] body = receive( subscriber, bytes, 7 ); // Chunks split tokens and multi-byte characters
+
+    // Then
+    assertThat( body ).isEmpty(); // The raw bytes are not kept
+    assertThat( bodyHandler.getBodyText() ).isEqualTo( JSON );
+    assertThat( bodyHandler.getBodySize() ).isEqualTo( bytes.length );
+    final JsonNode expected = JsonHelper.provideObjectMapper().readTree( JSON );
+    assertThat( bodyHandler.getJson() ).isEqualTo( expected );
+    assertThat( bodyHandler.getJson().toString() ).isEqualTo( expected.toString() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatCompressedJsonBodyIsDecodedWhileReceived() throws Exception
+  {
+    // Given
+    final JsonBodyHandler bodyHandler = new JsonBodyHandler();
+    final byte[] bytes = gzip( JSON.getBytes( StandardCharsets.UTF_8 ) );
+
+    // When
+    final BodySubscriber< byte[] > subscriber = bodyHandler.apply( createResponseInfo( "application/json", bytes.length, "gzip" ) );
+    final byte[] body = receive( subscriber, bytes, 3 );
+
+    // Then
+    assertThat( body ).isEmpty();
+    assertThat( bodyHandler.getBodyText() ).isEqualTo( JSON );
+    assertThat( bodyHandler.getBodySize() ).isEqualTo( JSON.getBytes( StandardCharsets.UTF_8 ).length );
+    assertThat( bodyHandler.getJson() ).isEqualTo( JsonHelper.provideObjectMapper().readTree( JSON ) );
+    assertThat( bodyHandler.getEncodedSize() ).isEqualTo( bytes.length );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatCorruptCompressedBodyFails() throws Exception
+  {
+    // Given
+    final JsonBodyHandler bodyHandler = new JsonBodyHandler();
+    final byte[] bytes = JSON.getBytes( StandardCharsets.UTF_8 ); // Not compressed at all
+
+    // When / Then
+    assertThatThrownBy( () -> receive( bodyHandler.apply( createResponseInfo( "application/json", bytes.length, "gzip" ) ), bytes, 10 ) )
+      .isInstanceOf( ExecutionException.class )
+      .hasCauseInstanceOf( IOException.class );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatCompressedNonJsonBodyIsNotDecoded() throws Exception
+  {
+    // Given
+    final JsonBodyHandler bodyHandler = new JsonBodyHandler();
+    final byte[] bytes = gzip( JSON.getBytes( StandardCharsets.UTF_8 ) );
+
+    // When
+    receive( bodyHandler.apply( createResponseInfo( "image/png", bytes.length, "gzip" ) ), bytes, 100 );
+
+    // Then
+    final StreamedDownload download = bodyHandler.getDownload();
+    try {
+      assertThat( Files.readAllBytes( download.getFile() ) ).isEqualTo( bytes ); // Downloads are stored as they were received
+      assertThat( bodyHandler.getJson() ).isNull();
+      assertThat( bodyHandler.getEncodedSize() ).isEqualTo( -1L );
+    }
+    finally {
+      download.delete();
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatNonJsonBodyIsStreamedToFile() throws Exception
+  {
+    // Given
+    final JsonBodyHandler bodyHandler = new JsonBodyHandler();
+    final byte[] bytes = new byte[ 300_000 ];
+    new Random( 42 ).nextBytes( bytes );
+
+    // When
+    final byte[] body = receive( bodyHandler.apply( createResponseInfo( "application/pdf", bytes.length ) ), bytes, 16_384 );
+
+    // Then
+    assertThat( body ).isEmpty(); // The body is not kept in memory
+    final StreamedDownload download = bodyHandler.getDownload();
+    try {
+      assertThat( download.getSize() ).isEqualTo( bytes.length );
+      assertThat( download.getSha256() ).isEqualTo( HttpHandler.sha256( bytes ) );
+      assertThat( Files.readAllBytes( download.getFile() ) ).isEqualTo( bytes );
+    }
+    finally {
+      download.delete();
+    }
+    assertThat( download.getFile() ).doesNotExist();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatInvalidJsonBodyIsReceivedWithoutTree() throws Exception
+  {
+    // Given
+    final JsonBodyHandler bodyHandler = new JsonBodyHandler();
+    final byte[] bytes = "{ \"name\" : oops }".getBytes( StandardCharsets.UTF_8 );
+
+    // When
+    final byte[] body = receive( bodyHandler.apply( createResponseInfo( "application/json", -1 ) ), bytes, 4 );
+
+    // Then
+    assertThat( body ).isEmpty();
+    assertThat( bodyHandler.getBodyText() ).isEqualTo( "{ \"name\" : oops }" );
+    assertThat( bodyHandler.getJson() ).isNull();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatNonJsonBodyIsNotParsed() throws Exception
+  {
+    // Given
+    final JsonBodyHandler bodyHandler = new JsonBodyHandler();
+    final byte[] bytes = JSON.getBytes( StandardCharsets.UTF_8 );
+
+    // When
+    final byte[] body = receive( bodyHandler.apply( createResponseInfo( "text/plain", bytes.length, null, 404 ) ), bytes, 100 ); // No download (no success)
+
+    // Then
+    assertThat( body ).isEqualTo( bytes );
+    assertThat( bodyHandler.getBodyText() ).isNull();
+    assertThat( bodyHandler.getJson() ).isNull();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatParsedTreeIsOnlyUsedForUnchangedBody()
+  {
+    // Given
+    final XmlHttpResponse xmlHttpResponse = new XmlHttpResponse();
+    xmlHttpResponse.setBody( new String( JSON ) );
+    final JsonNode json = JsonHelper.provideObjectMapper().createObjectNode();
+
+    // When
+    JsonBodyCache.put( xmlHttpResponse, json );
+
+    // Then
+    assertThat( JsonBodyCache.get( xmlHttpResponse ) ).isSameAs( json );
+
+    // When (a filter replaces the body - even by an equal text)
+    xmlHttpResponse.setBody( new String( JSON ) );
+
+    // Then
+    assertThat( JsonBodyCache.get( xmlHttpResponse ) ).isNull();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static byte[] receive( final BodySubscriber< byte[] > subscriber, final byte[] bytes, final int chunkSize ) throws Exception
+  {
+    subscriber.onSubscribe( new Flow.Subscription() {
+      @Override public void request( final long n ) {}
+      @Override public void cancel() {}
+    } );
+    for( int offset=0; offset < bytes.length; offset += chunkSize ) {
+      final int length = Math.min( chunkSize, bytes.length - offset );
+      final ByteBuffer buffer = ByteBuffer.allocateDirect( length ); // Direct buffers (like the HttpClient uses)
+      buffer.put( bytes, offset, length ).flip();
+      subscriber.onNext( List.of( buffer ) );
+    }
+    subscriber.onComplete();
+    return subscriber.getBody().toCompletableFuture().get();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static byte[] gzip( final byte[] bytes ) throws IOException
+  {
+    final ByteArrayOutputStream result = new ByteArrayOutputStream();
+    try( final GZIPOutputStream os = new GZIPOutputStream( result ) ) {
+      os.write( bytes );
+    }
+    return result.toByteArray();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static ResponseInfo createResponseInfo( final String contentType, final long contentLength )
+  {
+    return createResponseInfo( contentType, contentLength, null );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static ResponseInfo createResponseInfo( final String contentType, final long contentLength, final String contentEncoding )
+  {
+    return createResponseInfo( contentType, contentLength, contentEncoding, 200 );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static ResponseInfo createResponseInfo( final String contentType, final long contentLength, final String contentEncoding, final int statusCode )
+  {
+    final Map< String, List< String > > map = new TreeMap<>();
+    map.put( HttpHandler.HEADER_NAME__CONTENT_TYPE, List.of( contentType ) );
+    if( contentLength >= 0 ) {
+      map.put( HttpHandler.HEADER_NAME__CONTENT_LENGTH, List.of( Long.toString( contentLength ) ) );
+    }
+    if( contentEncoding != null ) {
+      map.put( HttpHandler.HEADER_NAME__CONTENT_ENCODING, List.of( contentEncoding ) );
+    }
+    final HttpHeaders headers = HttpHeaders.of( map, ( name, value ) -> true );
+
+    return new ResponseInfo() {
+      @Override public int                statusCode() { return statusCode; }
+      @Override public HttpHeaders        headers()    { return headers; }
+      @Override public HttpClient.Version version()    { return HttpClient.Version.HTTP_1_1; }
+    };
+  }
+}
@@ -0,0 +1,428 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.kreutzr.responsediff.base.HttpServerStub;
+import com.github.kreutzr.responsediff.base.TestSetupRunner;
+import com.github.kreutzr.responsediff.filter.DiffFilter;
+import com.github.kreutzr.responsediff.filter.DiffFilterImpl;
+import com.github.kreutzr.responsediff.filter.DiffRequestFilter;
+
+public class ParallelTestHandlerTest
+{
+  private static final String rootPath_ = new File( "" ).getAbsolutePath() + File.separator;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatConcurrencyIsLimited()
+  {
+    // Given
+    final List< Integer > items = new ArrayList<>();
+    for( int i=0; i < 20; i++ ) {
+      items.add( i );
+    }
+    final AtomicInteger inFlight    = new AtomicInteger( 0 );
+    final AtomicInteger maxInFlight = new AtomicInteger( 0 );
+    final List< Integer > handled   = new CopyOnWriteArrayList<>();
+
+    // When
+    final ParallelTestHandler.Result< Integer > result = ParallelTestHandler.execute( items, 3, item -> {
+      maxInFlight.accumulateAndGet( inFlight.incrementAndGet(), Math::max );
+      sleep( 20 );
+      handled.add( item );
+      inFlight.decrementAndGet();
+    } );
+
+    // Then
+    assertThat( result.getBreakException() ).isNull();
+    assertThat( result.getNotStartedItems() ).isEmpty();
+    assertThat( handled ).containsExactlyInAnyOrderElementsOf( items );
+    assertThat( maxInFlight.get() ).isGreaterThan( 1 ).isLessThanOrEqualTo( 3 );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatVirtualThreadsAreUsedIfSupported()
+  {
+    // Given
+    final List< Integer > items = new ArrayList<>();
+    for( int i=0; i < 50; i++ ) {
+      items.add( i );
+    }
+    final AtomicInteger inFlight    = new AtomicInteger( 0 );
+    final AtomicInteger maxInFlight = new AtomicInteger( 0 );
+    final Set< String > threadNames = ConcurrentHashMap.newKeySet();
+
+    // When
+    final ParallelTestHandler.Result< Integer > result = ParallelTestHandler.execute( items, 20, null, true, item -> {
+      maxInFlight.accumulateAndGet( inFlight.incrementAndGet(), Math::max );
+      threadNames.add( Thread.currentThread().getName() );
+      sleep( 20 );
+      inFlight.decrementAndGet();
+    } );
+
+    // Then
+    assertThat( result.getNotStartedItems() ).isEmpty();
+    assertThat( maxInFlight.get() ).isGreaterThan( 1 ).isLessThanOrEqualTo( 20 );
+    if( ParallelTestHandler.isVirtualThreadSupported() ) {
+      assertThat( threadNames ).allMatch( String::isEmpty ); // Virtual threads are unnamed
+    }
+    else {
+      assertThat( threadNames ).allMatch( name -> name.startsWith( "responsediff-test-" ) );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatDefaultConcurrencyDependsOnThreadType()
+  {
+    assertThat( ParallelTestHandler.getMaxConcurrency( 5,    true  ) ).isEqualTo( 5 );
+    assertThat( ParallelTestHandler.getMaxConcurrency( null, false ) ).isEqualTo( ParallelTestHandler.DEFAULT_MAX_CONCURRENCY );
+    assertThat( ParallelTestHandler.getMaxConcurrency( null, true  ) ).isEqualTo( ParallelTestHandler.isVirtualThreadSupported()
+      ? ParallelTestHandler.DEFAULT_MAX_CONCURRENCY_VIRTUAL_THREADS
+      : ParallelTestHandler.DEFAULT_MAX_CONCURRENCY
+    );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatNoFurtherItemsAreStartedAfterBreak()
+  {
+    // Given
+    final List< Integer > items = List.of( 0, 1, 2, 3, 4, 5 );
+    final List< Integer > handled = new CopyOnWriteArrayList<>();
+
+    // When
+    final ParallelTestHandler.Result< Integer > result = ParallelTestHandler.execute( items, 1, item -> {
+      handled.add( item );
+      if( item == 2 ) {
+        throw new BreakOnFailureException( "Item " + item + " failed." );
+      }
+    } );
+
+    // Then
+    assertThat( result.getBreakException() ).hasMessage( "Item 2 failed." );
+    assertThat( handled ).containsExactly( 0, 1, 2 );
+    assertThat( result.getNotStartedItems() ).containsExactly( 3, 4, 5 );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatRuntimeExceptionsArePropagated()
+  {
+    // Given
+    final List< Integer > items = List.of( 0, 1, 2 );
+
+    // When / Then
+    assertThatThrownBy( () -> ParallelTestHandler.execute( items, 2, item -> {
+      if( item == 1 ) {
+        throw new IllegalStateException( "Configuration error" );
+      }
+    } ) )
+    .isInstanceOf( IllegalStateException.class )
+    .hasMessage( "Configuration error" );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatParallelTestSetIsExecutedConcurrently() throws Exception
+  {
+    try( final HttpServerStub server = new HttpServerStub( 200 ) ) {
+      // ==========================
+      // Given
+      // ==========================
+      final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_parallel/setup.xml";
+
+      // ==========================
+      // When
+      // ==========================
+      final XmlResponseDiffSetup setup = processTestSetup( setupFilePath, server );
+
+      // ==========================
+      // Then
+      // ==========================
+      final XmlTestSet parallelTestSet = setup.getTestSet().get( 0 );
+      assertThat( parallelTestSet.getTest() ).hasSize( 8 );
+      assertThat( parallelTestSet.getTest() ).allMatch( xmlTest -> xmlTest.getAnalysis().getSuccessCount() == 1 );
+      assertThat( parallelTestSet.getAnalysis().getSuccessCount() ).isEqualTo( 10 );
+      assertThat( parallelTestSet.getAnalysis().getTotalCount()   ).isEqualTo( 10 );
+
+      // Inner test set inherits order and concurrency limit
+      final XmlTestSet innerTestSet = parallelTestSet.getTestSet().get( 0 );
+      assertThat( innerTestSet.getOrder()          ).isEqualTo( XmlTestOrder.PARALLEL );
+      assertThat( innerTestSet.getMaxConcurrency() ).isEqualTo( 4 );
+
+      // Each test sends 3 requests (reference and control at once, then candidate). 4 tests in parallel => more than 3 requests at a time.
+      assertThat( server.getMaxInFlight() ).isGreaterThan( 3 ).isLessThanOrEqualTo( 4 * 2 );
+
+      // Break on failure stops further tests from being started
+      final XmlTestSet breakTestSet = setup.getTestSet().get( 1 );
+      assertThat( breakTestSet.getTest().get( 0 ).getAnalysis().getFailCount() ).isEqualTo( 1 );
+      assertThat( breakTestSet.getTest().get( 1 ).getAnalysis() ).isNull();
+      assertThat( server.getRequestedPaths() ).noneMatch( path -> path.contains( "skipped" ) );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatItemsWaitForTheirPrerequisites()
+  {
+    // Given
+    final List< Integer > items = List.of( 0, 1, 2, 3 );
+    final Map< Integer, List< Integer > > prerequisites = new IdentityHashMap<>();
+    prerequisites.put( items.get( 2 ), List.of( items.get( 0 ) ) );
+    prerequisites.put( items.get( 3 ), List.of( items.get( 0 ), items.get( 2 ) ) );
+    final List< Integer > finished = new CopyOnWriteArrayList<>();
+
+    // When
+    final ParallelTestHandler.Result< Integer > result = ParallelTestHandler.execute( items, 4, prerequisites, item -> {
+      sleep( item == 0 ? 100 : 10 );
+      finished.add( item );
+    } );
+
+    // Then
+    assertThat( result.getNotStartedItems() ).isEmpty();
+    assertThat( finished ).hasSize( 4 );
+    assertThat( finished.indexOf( 1 ) ).isLessThan( finished.indexOf( 0 ) ); // Independent item does not wait
+    assertThat( finished.indexOf( 0 ) ).isLessThan( finished.indexOf( 2 ) );
+    assertThat( finished.indexOf( 2 ) ).isLessThan( finished.indexOf( 3 ) );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatDependentTestsWaitForResponseVariables() throws Exception
+  {
+    try( final HttpServerStub server = new HttpServerStub( 200 ) ) {
+      // ==========================
+      // Given
+      // ==========================
+      final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_parallel/setup_dependencies.xml";
+
+      // ==========================
+      // When
+      // ==========================
+      final XmlResponseDiffSetup setup = processTestSetup( setupFilePath, server );
+
+      // ==========================
+      // Then
+      // ==========================
+      final XmlTestSet xmlTestSet = setup.getTestSet().get( 0 );
+      assertThat( xmlTestSet.getTest() ).allMatch( xmlTest -> xmlTest.getAnalysis().getSuccessCount() == 1 );
+
+      final List< String > paths = server.getRequestedPaths();
+      assertThat( paths ).contains( "/candidate/read/01/login", "/reference/read/01/login", "/candidate/read/02/login" );
+
+      // Dependent tests are started after the login test finished
+      final int loginFinished = paths.indexOf( "/candidate/login" );
+      assertThat( paths.indexOf( "/reference/read/01/login" ) ).isGreaterThan( loginFinished );
+      assertThat( paths.indexOf( "/reference/read/02/login" ) ).isGreaterThan( loginFinished );
+
+      // Independent tests do not wait for the login test
+      assertThat( paths.indexOf( "/reference/other/02" ) ).isLessThan( loginFinished );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatTopLevelTestSetsAreExecutedConcurrently() throws Exception
+  {
+    try( final HttpServerStub server = new HttpServerStub( 200 ) ) {
+      // ==========================
+      // Given
+      // ==========================
+      final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_parallel/setup_test_sets.xml";
+
+      // ==========================
+      // When
+      // ==========================
+      final XmlResponseDiffSetup setup = processTestSetup( setupFilePath, server );
+
+      // ==========================
+      // Then
+      // ==========================
+      // Each test set sends 2 requests at a time (reference and control). 3 test sets in parallel => more than 2 requests at a time.
+      assertThat( server.getMaxInFlight() ).isGreaterThan( 2 ).isLessThanOrEqualTo( 3 * 2 );
+
+      // The breaking test set only skips its own subtree
+      final XmlTestSet testSetB = setup.getTestSet().get( 1 );
+      assertThat( testSetB.getTest().get( 0 ).getAnalysis().getFailCount() ).isEqualTo( 1 );
+      assertThat( testSetB.getTest().get( 1 ).getAnalysis() ).isNull();
+      assertThat( server.getRequestedPaths() ).noneMatch( path -> path.contains( "skipped" ) );
+
+      final XmlTestSet testSetC = setup.getTestSet().get( 2 );
+      assertThat( testSetC.getTest() ).allMatch( xmlTest -> xmlTest.getAnalysis().getSuccessCount() == 1 );
+
+      // The analyses are merged
+      final XmlAnalysis xmlAnalysis = setup.getAnalysis();
+      assertThat( xmlAnalysis.getSuccessCount() ).isEqualTo( 4 );
+      assertThat( xmlAnalysis.getFailCount()    ).isEqualTo( 1 );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatRequestsInFlightAreCancelledAfterBreak() throws Exception
+  {
+    // NOTE: The slow requests would run into the timeout (5 seconds) if they were not cancelled.
+    try( final HttpServerStub server = new HttpServerStub( 0, 20000 ) ) {
+      // ==========================
+      // Given
+      // ==========================
+      final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_parallel/setup_cancel.xml";
+
+      // ==========================
+      // When
+      // ==========================
+      final long start = System.currentTimeMillis();
+      final XmlResponseDiffSetup setup = processTestSetup( setupFilePath, server );
+      final long durationMs = System.currentTimeMillis() - start;
+
+      // ==========================
+      // Then
+      // ==========================
+      assertThat( durationMs ).isLessThan( 4000L );
+
+      final XmlTestSet xmlTestSet = setup.getTestSet().get( 0 );
+      assertThat( xmlTestSet.getTest().get( 3 ).getAnalysis().getFailCount() ).isEqualTo( 1 );
+
+      // The tests in progress are cancelled and count as skipped
+      for( int i=0; i < 3; i++ ) {
+        final XmlAnalysis xmlAnalysis = xmlTestSet.getTest().get( i ).getAnalysis();
+        assertThat( xmlAnalysis.getSkipCount() ).isEqualTo( 1 );
+        assertThat( xmlAnalysis.getFailCount() ).isEqualTo( 0 );
+      }
+
+      // NOTE: The last test is either not started at all or it is cancelled before any request is sent. It is skipped either way.
+      assertThat( server.getRequestedPaths() ).noneMatch( path -> path.contains( "skipped" ) );
+      assertThat( xmlTestSet.getAnalysis().getTotalCount() ).isEqualTo( 5 );
+      assertThat( xmlTestSet.getAnalysis().getFailCount()  ).isEqualTo( 1 );
+      assertThat( xmlTestSet.getAnalysis().getSkipCount()  ).isEqualTo( 4 );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatRequestsOfATestGetTheSameFilterState() throws Exception
+  {
+    try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+      // ==========================
+      // Given
+      // ==========================
+      final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_parallel/setup_filters.xml";
+      final Map< String, DiffFilter > filterRegistry = new TreeMap<>();
+      final SequenceRequestFilter filter = new SequenceRequestFilter();
+      filterRegistry.put( "sequence", filter );
+
+      // ==========================
+      // When
+      // ==========================
+      final XmlResponseDiffSetup setup = processTestSetup( setupFilePath, server, filterRegistry );
+
+      // ==========================
+      // Then
+      // ==========================
+      assertThat( setup.getTestSet().get( 0 ).getTest() ).allMatch( xmlTest -> xmlTest.getAnalysis().getSuccessCount() == 1 );
+
+      // The reference, control and candidate requests of each test carry the same sequence number
+      final Map< String, Set< String > > sequencesByEndpoint = new TreeMap<>();
+      for( final String path : server.getRequestedPaths() ) {
+        final String endpoint = path.substring( path.indexOf( '/', 1 ), path.indexOf( '?' ) ); // Remove the service prefix
+        sequencesByEndpoint.computeIfAbsent( endpoint, key -> new TreeSet<>() ).add( path.substring( path.indexOf( '?' ) ) );
+      }
+      assertThat( sequencesByEndpoint ).hasSize( 16 );
+      assertThat( sequencesByEndpoint.values() ).allMatch( sequences -> sequences.size() == 1 );
+
+      // The filter was closed after the test setup was processed
+      assertThat( filter.closed_ ).isTrue();
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  static XmlResponseDiffSetup processTestSetup( final String setupFilePath, final HttpServerStub server )
+  throws Exception
+  {
+    return processTestSetup( setupFilePath, server, new TreeMap<>() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  static XmlResponseDiffSetup processTestSetup( final String setupFilePath, final HttpServerStub server, final Map< String, DiffFilter > filterRegistry )
+  throws Exception
+  {
+    final XmlResponseDiffSetup setup = XmlFileHandler.readSetup( setupFilePath, null, true );
+
+    TestSetupRunner.processTestSetup( setup, server, "candidate", filterRegistry, TestSetupRunner.TIMEOUT_MS, new RunOptions() );
+
+    return setup;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * A stateful request filter that appends a sequence number to the endpoint. The sequence number is increased after each candidate request.
+   */
+  private static class SequenceRequestFilter extends DiffFilterImpl implements DiffRequestFilter
+  {
+    private int     sequence_ = 0;
+    private boolean closed_   = false;
+
+    @Override
+    public void apply( final XmlRequest xmlRequest, final String serviceId, final XmlTest xmlTest )
+    {
+      final int sequence = sequence_;
+      sleep( 1 ); // Give concurrent tests the chance to interleave
+      xmlRequest.setEndpoint( xmlRequest.getEndpoint() + "?sequence=" + sequence );
+    }
+
+    @Override
+    public void next()
+    {
+      sequence_++;
+    }
+
+    @Override
+    public void close()
+    {
+      closed_ = true;
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void sleep( final long ms )
+  {
+    try {
+      Thread.sleep( ms );
+    }
+    catch( final InterruptedException ex ) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
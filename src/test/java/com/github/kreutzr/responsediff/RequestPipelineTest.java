@@ -0,0 +1,146 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.kreutzr.responsediff.base.HttpServerStub;
+
+public class RequestPipelineTest
+{
+  private static final String rootPath_ = new File( "" ).getAbsolutePath() + File.separator;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatLookAheadIsBoundedAndStopsAtDependencies() throws Exception
+  {
+    // Given
+    final List< XmlTest > xmlTests = new ArrayList<>();
+    for( int i=0; i < 6; i++ ) {
+      final XmlTest xmlTest = new XmlTest();
+      xmlTest.setId( "test" + i );
+      xmlTests.add( xmlTest );
+    }
+    final Map< XmlTest, List< XmlTest > > dependencies = new IdentityHashMap<>();
+    dependencies.put( xmlTests.get( 2 ), List.of( xmlTests.get( 1 ) ) );
+    final List< String > initialized = new CopyOnWriteArrayList<>();
+
+    try( final RequestPipeline pipeline = new RequestPipeline(
+      xmlTests,
+      2, // lookAhead
+      dependencies,
+      xmlTest -> true,
+      xmlTest -> initialized.add( xmlTest.getId() ),
+      xmlTest -> null
+    ) ) {
+      // When
+      final Future< PreparedRequests > preparation0 = pipeline.take( 0 );
+      final Future< PreparedRequests > preparation1 = pipeline.take( 1 );
+      RequestPipeline.await( preparation1 );
+
+      // Then
+      assertThat( preparation0 ).isNotNull(); // The first test is prepared by the pipeline, too
+      assertThat( preparation1 ).isNotNull();
+      assertThat( initialized ).containsExactly( "test0", "test1" ); // test2 depends on test1 which is still running
+
+      // When
+      final Future< PreparedRequests > preparation2 = pipeline.take( 2 );
+      RequestPipeline.await( preparation2 );
+
+      // Then
+      assertThat( preparation2 ).isNotNull(); // test2 could not be prepared in advance but is prepared now
+
+      // When
+      RequestPipeline.await( pipeline.take( 3 ) );
+      RequestPipeline.await( pipeline.take( 4 ) );
+      pipeline.close();
+
+      // Then
+      assertThat( initialized ).startsWith( "test0", "test1", "test2", "test3", "test4" );
+      assertThat( pipeline.getInitializedTests() ).contains( xmlTests.get( 0 ), xmlTests.get( 1 ), xmlTests.get( 2 ), xmlTests.get( 3 ), xmlTests.get( 4 ) );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatNoTestIsPreparedBeforeATestThatIsNotPreparable() throws Exception
+  {
+    // Given
+    final List< XmlTest > xmlTests = new ArrayList<>();
+    for( int i=0; i < 4; i++ ) {
+      final XmlTest xmlTest = new XmlTest();
+      xmlTest.setId( "test" + i );
+      xmlTests.add( xmlTest );
+    }
+    final List< String > initialized = new CopyOnWriteArrayList<>();
+
+    try( final RequestPipeline pipeline = new RequestPipeline(
+      xmlTests,
+      2, // lookAhead
+      new IdentityHashMap<>(),
+      xmlTest -> !xmlTest.getId().equals( "test1" ),
+      xmlTest -> initialized.add( xmlTest.getId() ),
+      xmlTest -> null
+    ) ) {
+      // When
+      RequestPipeline.await( pipeline.take( 0 ) );
+      final Future< PreparedRequests > preparation1 = pipeline.take( 1 );
+
+      // Then
+      assertThat( preparation1 ).isNull(); // test1 is prepared by the caller
+      assertThat( initialized ).containsExactly( "test0" ); // test2 must not be prepared before test1
+
+      // When
+      initialized.add( "test1" ); // Simulates the caller
+      RequestPipeline.await( pipeline.take( 2 ) );
+      RequestPipeline.await( pipeline.take( 3 ) );
+
+      // Then
+      assertThat( initialized ).containsExactly( "test0", "test1", "test2", "test3" );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatPreparedTestsAreExecutedCorrectly() throws Exception
+  {
+    try( final HttpServerStub server = new HttpServerStub( 50 ) ) {
+      // ==========================
+      // Given
+      // ==========================
+      final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_pipeline/setup.xml";
+
+      // ==========================
+      // When
+      // ==========================
+      final XmlResponseDiffSetup setup = ParallelTestHandlerTest.processTestSetup( setupFilePath, server );
+
+      // ==========================
+      // Then
+      // ==========================
+      final XmlTestSet xmlTestSet = setup.getTestSet().get( 0 );
+      assertThat( xmlTestSet.getTest() ).allMatch( xmlTest -> xmlTest.getAnalysis().getSuccessCount() == 1 );
+      assertThat( xmlTestSet.getTest() ).extracting( XmlTest::getId )
+        .containsExactly( "Look ahead / Login", "Look ahead / Other 01", "Look ahead / Read 01", "Look ahead / Other 02" );
+      assertThat( server.getRequestedPaths() ).contains( "/candidate/read/01/login" );
+
+      // Tests that were prepared in advance are skipped (and initialized only once) if a test breaks
+      final XmlTestSet breakTestSet = setup.getTestSet().get( 1 );
+      assertThat( breakTestSet.getTest().get( 0 ).getAnalysis().getFailCount() ).isEqualTo( 1 );
+      assertThat( breakTestSet.getTest() ).extracting( XmlTest::getId )
+        .containsExactly( "Look ahead with break / Break", "Look ahead with break / Skipped 01", "Look ahead with break / Skipped 02" );
+      assertThat( server.getRequestedPaths() ).noneMatch( path -> path.contains( "skipped" ) );
+    }
+  }
+}
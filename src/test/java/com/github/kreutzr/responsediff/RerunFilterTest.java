@@ -0,0 +1,67 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.kreutzr.responsediff.base.HttpServerStub;
+import com.github.kreutzr.responsediff.base.TestSetupRunner;
+
+public class RerunFilterTest
+{
+  private static final String rootPath_ = new File( "" ).getAbsolutePath() + File.separator;
+
+  @TempDir
+  Path tempDir_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatOnlyFailedTestsAndTheirPrerequisitesAreRerun() throws Exception
+  {
+    final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_rerun/setup.xml";
+
+    // ==========================
+    // Given
+    // ==========================
+    final String reportFilePath;
+    try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+      final XmlResponseDiffSetup setup = XmlFileHandler.readSetup( setupFilePath, null, true );
+      TestSetupRunner.processTestSetup( setup, server, new RunOptions() );
+      reportFilePath = XmlFileHandler.storeXmlReport( setup, tempDir_.toString() + File.separator, null );
+    }
+
+    // ==========================
+    // When
+    // ==========================
+    final XmlResponseDiffSetup report = XmlFileHandler.readSetup( reportFilePath, null, false );
+    final Set< String > testIdsToRerun = RerunFilter.getTestIdsToRerun( report );
+
+    final XmlResponseDiffSetup setup = XmlFileHandler.readSetup( setupFilePath, null, true );
+    final Set< String > testIds = RerunFilter.addPrerequisites( setup, testIdsToRerun );
+
+    // ==========================
+    // Then
+    // ==========================
+    assertThat( testIdsToRerun ).containsExactlyInAnyOrder( "Rerun / Read 01", "Rerun / Inner / Fail 02" );
+    assertThat( testIds ).containsExactlyInAnyOrder( "Rerun / Login", "Rerun / Read 01", "Rerun / Inner / Fail 02" );
+
+    try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+      TestSetupRunner.processTestSetup( setup, server, new RunOptions().setTestIds( testIds ) );
+
+      assertThat( server.getRequestedPaths() )
+        .contains( "/candidate/login", "/candidate/fail/01/login", "/candidate/fail/02" )
+        .doesNotContain( "/candidate/other/01", "/candidate/other/02", "/candidate/read/02/login" );
+    }
+
+    final XmlTestSet xmlTestSet = setup.getTestSet().get( 0 );
+    assertThat( xmlTestSet.getAnalysis().getTotalCount() ).isEqualTo( 6 );
+    assertThat( xmlTestSet.getAnalysis().getSkipCount()  ).isEqualTo( 3 );
+    assertThat( xmlTestSet.getAnalysis().getFailCount()  ).isEqualTo( 2 );
+  }
+}
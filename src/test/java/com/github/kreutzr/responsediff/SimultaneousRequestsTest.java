@@ -0,0 +1,89 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.kreutzr.responsediff.base.HttpServerStub;
+import com.github.kreutzr.responsediff.base.TestSetupRunner;
+
+public class SimultaneousRequestsTest
+{
+  private static final String rootPath_ = new File( "" ).getAbsolutePath() + File.separator;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatCandidateIsRequestedTogetherWithReferenceAndControl() throws Exception
+  {
+    try( final HttpServerStub server = new HttpServerStub( 300 ) ) {
+      // ==========================
+      // Given
+      // ==========================
+      final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_simultaneous/setup.xml";
+
+      // ==========================
+      // When
+      // ==========================
+      final XmlResponseDiffSetup setup = ParallelTestHandlerTest.processTestSetup( setupFilePath, server );
+
+      // ==========================
+      // Then
+      // ==========================
+      final XmlTestSet xmlTestSet = setup.getTestSet().get( 0 );
+      assertThat( xmlTestSet.getTest() ).allMatch( xmlTest -> xmlTest.getAnalysis().getSuccessCount() == 1 );
+
+      // All three services are requested at once (the tests themselves are executed one after another)
+      assertThat( server.getMaxInFlight() ).isEqualTo( 3 );
+
+      // The candidate duration is measured by the HTTP exchange itself
+      for( final XmlTest xmlTest : xmlTestSet.getTest() ) {
+        final Duration requestDuration = Duration.parse( xmlTest.getResponse().getHttpResponse().getRequestDuration() );
+        assertThat( requestDuration ).isGreaterThanOrEqualTo( Duration.ofMillis( 300 ) );
+
+        // The delay of the server is part of the time to first byte. Local processing is measured separately.
+        final XmlHttpResponse candidateResponse    = xmlTest.getResponse().getHttpResponse();
+        final Duration        timeToFirstByte      = Duration.parse( candidateResponse.getTimeToFirstByte() );
+        final Duration        bodyTransferDuration = Duration.parse( candidateResponse.getBodyTransferDuration() );
+        assertThat( timeToFirstByte ).isGreaterThanOrEqualTo( Duration.ofMillis( 300 ) );
+        assertThat( bodyTransferDuration ).isGreaterThanOrEqualTo( Duration.ZERO );
+        assertThat( timeToFirstByte.plus( bodyTransferDuration ) ).isEqualTo( requestDuration );
+        assertThat( Duration.parse( candidateResponse.getFilterDuration() ) ).isGreaterThanOrEqualTo( Duration.ZERO );
+        assertThat( Duration.parse( xmlTest.getAnalysis().getValidationDuration() ) ).isGreaterThanOrEqualTo( Duration.ZERO );
+      }
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatCandidateTimeoutIsMeasuredFromItsRequest() throws Exception
+  {
+    // NOTE: Only the candidate is slow (its service path contains "slow"). It would answer in time if its timeout started after the reference and control responses.
+    try( final HttpServerStub server = new HttpServerStub( 600, 1500 ) ) {
+      // ==========================
+      // Given
+      // ==========================
+      final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_simultaneous/setup.xml";
+      final XmlResponseDiffSetup setup = XmlFileHandler.readSetup( setupFilePath, null, true );
+
+      // ==========================
+      // When
+      // ==========================
+      final long start = System.currentTimeMillis();
+      TestSetupRunner.processTestSetup( setup, server, "slow-candidate", new TreeMap<>(), 1000L, new RunOptions() );
+      final long durationMs = System.currentTimeMillis() - start;
+
+      // ==========================
+      // Then
+      // ==========================
+      final XmlTestSet xmlTestSet = setup.getTestSet().get( 0 );
+      assertThat( xmlTestSet.getTest() ).allMatch( xmlTest -> xmlTest.getAnalysis().getSuccessCount() == 0 );
+      assertThat( durationMs ).isLessThan( 2 * 1400L ); // Each test times out 1000 ms after its candidate request was sent
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.kreutzr.responsediff.base.HttpServerStub;
+import com.github.kreutzr.responsediff.base.TestSetupRunner;
+
+public class StreamingReportWriterTest
+{
+  private static final String rootPath_ = new File( "" ).getAbsolutePath() + File.separator;
+
+  @TempDir
+  Path tempDir_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatStreamedReportEqualsStoredReport() throws Exception
+  {
+    final String setupFilePath   = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_iterations/setup.xml";
+    final String storeReportPath = tempDir_.toString() + File.separator;
+
+    // ==========================
+    // Given
+    // ==========================
+    final XmlResponseDiffSetup storedSetup = XmlFileHandler.readSetup( setupFilePath, null, true );
+    try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+      TestSetupRunner.processTestSetup( storedSetup, server, new RunOptions() );
+    }
+    final XmlResponseDiffSetup storedReport = XmlFileHandler.readSetup( XmlFileHandler.storeXmlReport( storedSetup, storeReportPath, "-stored" ), null, false );
+
+    // ==========================
+    // When
+    // ==========================
+    final XmlResponseDiffSetup streamedSetup = XmlFileHandler.readSetup( setupFilePath, null, true );
+    final String reportFileName = XmlFileHandler.createReportFileName( streamedSetup, storeReportPath, "-streamed" );
+    try( final StreamingReportWriter reportWriter = StreamingReportWriter.open( storeReportPath );
+         final HttpServerStub server = new HttpServerStub( 0 )
+    ) {
+      TestSetupRunner.processTestSetup( streamedSetup, server, new RunOptions().setReportWriter( reportWriter ) );
+      reportWriter.finish( streamedSetup, reportFileName );
+    }
+    final XmlResponseDiffSetup streamedReport = XmlFileHandler.readSetup( reportFileName, null, false );
+
+    // ==========================
+    // Then
+    // ==========================
+    // Only the analysis of the written test sets is kept in memory
+    for( final XmlTestSet xmlTestSet : streamedSetup.getTestSet() ) {
+      assertThat( xmlTestSet.getTest()    ).isEmpty();
+      assertThat( xmlTestSet.getTestSet() ).isEmpty();
+      assertThat( xmlTestSet.getAnalysis() ).isNotNull();
+    }
+    assertThat( streamedSetup.getAnalysis().getTotalCount() ).isEqualTo( storedSetup.getAnalysis().getTotalCount() );
+
+    // The streamed report holds the same test sets as the stored one
+    assertThat( streamedReport.getId() ).isEqualTo( storedReport.getId() );
+    assertThat( streamedReport.getAnalysis().getTotalCount() ).isEqualTo( storedReport.getAnalysis().getTotalCount() );
+    assertSameTestSets( streamedReport.getTestSet(), storedReport.getTestSet() );
+
+    // The part file was removed
+    try( final var files = Files.list( tempDir_ ) ) {
+      assertThat( files.map( file -> file.getFileName().toString() ) ).noneMatch( fileName -> fileName.endsWith( ".part" ) );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatNestedTestSetsAreStreamedInDeclarationOrder() throws Exception
+  {
+    final String setupFilePath   = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_streaming/setup.xml";
+    final String storeReportPath = tempDir_.toString() + File.separator;
+
+    // ==========================
+    // Given
+    // ==========================
+    // NOTE: The first top level test set is slow. So it finishes after the second one.
+    final XmlResponseDiffSetup storedSetup = XmlFileHandler.readSetup( setupFilePath, null, true );
+    try( final HttpServerStub server = new HttpServerStub( 0, 500 ) ) {
+      TestSetupRunner.processTestSetup( storedSetup, server, new RunOptions() );
+    }
+    final XmlResponseDiffSetup storedReport = XmlFileHandler.readSetup( XmlFileHandler.storeXmlReport( storedSetup, storeReportPath, "-stored" ), null, false );
+
+    // ==========================
+    // When
+    // ==========================
+    final XmlResponseDiffSetup streamedSetup = XmlFileHandler.readSetup( setupFilePath, null, true );
+    final XmlTestSet innerTestSet = streamedSetup.getTestSet().get( 0 ).getTestSet().get( 0 );
+    final String reportFileName = XmlFileHandler.createReportFileName( streamedSetup, storeReportPath, "-streamed" );
+    try( final StreamingReportWriter reportWriter = StreamingReportWriter.open( storeReportPath );
+         final HttpServerStub server = new HttpServerStub( 0, 500 )
+    ) {
+      TestSetupRunner.processTestSetup( streamedSetup, server, new RunOptions().setReportWriter( reportWriter ) );
+
+      // Nested test sets were written (and pruned) as well
+      assertThat( innerTestSet.getTest()    ).isEmpty();
+      assertThat( innerTestSet.getTestSet() ).isEmpty();
+      assertThat( innerTestSet.getAnalysis().getTotalCount() ).isEqualTo( 2 );
+
+      reportWriter.finish( streamedSetup, reportFileName );
+    }
+    final XmlResponseDiffSetup streamedReport = XmlFileHandler.readSetup( reportFileName, null, false );
+
+    // ==========================
+    // Then
+    // ==========================
+    assertThat( streamedReport.getTestSet() ).extracting( XmlTestSet::getId ).containsExactly( "API A", "API B" );
+    assertSameTestSets( streamedReport.getTestSet(), storedReport.getTestSet() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static void assertSameTestSets( final List< XmlTestSet > streamedTestSets, final List< XmlTestSet > storedTestSets )
+  {
+    assertThat( streamedTestSets ).extracting( XmlTestSet::getId ).containsExactlyElementsOf( storedTestSets.stream().map( XmlTestSet::getId ).toList() );
+    for( int i=0; i < storedTestSets.size(); i++ ) {
+      final XmlTestSet storedTestSet   = storedTestSets  .get( i );
+      final XmlTestSet streamedTestSet = streamedTestSets.get( i );
+      assertThat( streamedTestSet.getTest() ).extracting( XmlTest::getId ).containsExactlyElementsOf( storedTestSet.getTest().stream().map( XmlTest::getId ).toList() );
+      assertThat( streamedTestSet.getAnalysis().getTotalCount() ).isEqualTo( storedTestSet.getAnalysis().getTotalCount() );
+      assertThat( streamedTestSet.getAnalysis().getFailCount()  ).isEqualTo( storedTestSet.getAnalysis().getFailCount() );
+      assertSameTestSets( streamedTestSet.getTestSet(), storedTestSet.getTestSet() );
+    }
+  }
+}
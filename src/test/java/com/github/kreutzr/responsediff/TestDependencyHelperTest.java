@@ -0,0 +1,69 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class TestDependencyHelperTest
+{
+  private static final String rootPath_ = new File( "" ).getAbsolutePath() + File.separator;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatDependenciesAreFoundByResponseVariables() throws Exception
+  {
+    // Given
+    final XmlResponseDiffSetup setup = XmlFileHandler.readSetup( rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_parallel/setup_dependencies.xml", null, true );
+    final XmlTestSet    xmlTestSet = setup.getTestSet().get( 0 );
+    final List< XmlTest > xmlTests = xmlTestSet.getTest();
+
+    // When
+    final Map< XmlTest, List< XmlTest > > result = TestDependencyHelper.getDependencies( xmlTests, xmlTestSet );
+
+    // Then
+    final XmlTest login = xmlTests.get( 0 );
+    assertThat( result.get( login           ) ).isEmpty();
+    assertThat( result.get( xmlTests.get( 1 ) ) ).isEmpty();
+    assertThat( result.get( xmlTests.get( 2 ) ) ).containsExactly( login );   // ${TOKEN}
+    assertThat( result.get( xmlTests.get( 3 ) ) ).containsExactly( login );   // ${candidate.TOKEN}
+    assertThat( result.get( xmlTests.get( 4 ) ) ).isEmpty();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatTestSetRequestVariablesAreUsedByAllTests()
+  {
+    // Given
+    final XmlTestSet xmlTestSet = new XmlTestSet();
+    xmlTestSet.setId( "testSet" );
+    final XmlRequest xmlTestSetRequest = new XmlRequest();
+    xmlTestSetRequest.setEndpoint( "items/${reference.ID}" );
+    xmlTestSet.setRequest( xmlTestSetRequest );
+
+    final XmlTest provider = new XmlTest();
+    provider.setId( "provider" );
+    final XmlVariable xmlVariable = new XmlVariable();
+    xmlVariable.setId( "ID" );
+    xmlVariable.setPath( "$.id" );
+    final XmlResponse xmlResponse = new XmlResponse();
+    xmlResponse.setVariables( new XmlVariables() );
+    xmlResponse.getVariables().getVariable().add( xmlVariable );
+    provider.setResponse( xmlResponse );
+
+    final XmlTest consumer = new XmlTest();
+    consumer.setId( "consumer" );
+
+    // When
+    final Map< XmlTest, List< XmlTest > > result = TestDependencyHelper.getDependencies( List.of( provider, consumer ), xmlTestSet );
+
+    // Then
+    assertThat( result.get( provider ) ).isEmpty();
+    assertThat( result.get( consumer ) ).containsExactly( provider );
+  }
+}
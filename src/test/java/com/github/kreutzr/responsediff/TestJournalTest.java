@@ -0,0 +1,106 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.kreutzr.responsediff.base.HttpServerStub;
+import com.github.kreutzr.responsediff.base.TestSetupRunner;
+
+public class TestJournalTest
+{
+  private static final String rootPath_ = new File( "" ).getAbsolutePath() + File.separator;
+
+  @TempDir
+  Path tempDir_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatInterruptedRunIsResumedFromJournal() throws Exception
+  {
+    final String setupFilePath   = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_journal/setup.xml";
+    final Path   journalFilePath = tempDir_.resolve( "journal.jsonl" );
+
+    // ==========================
+    // Given
+    // ==========================
+    final XmlResponseDiffSetup uninterruptedSetup;
+    try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+      uninterruptedSetup = processTestSetup( setupFilePath, server, journalFilePath, false );
+    }
+    final List< String > lines = Files.readAllLines( journalFilePath, StandardCharsets.UTF_8 );
+    assertThat( lines ).hasSize( 4 );
+
+    // Simulate a run that was terminated while the third test was recorded
+    final List< String > interruptedLines = new ArrayList<>( lines.subList( 0, 2 ) );
+    interruptedLines.add( lines.get( 2 ).substring( 0, 40 ) );
+    Files.write( journalFilePath, interruptedLines, StandardCharsets.UTF_8 );
+
+    // ==========================
+    // When
+    // ==========================
+    final XmlResponseDiffSetup resumedSetup;
+    try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+      resumedSetup = processTestSetup( setupFilePath, server, journalFilePath, true );
+
+      // ==========================
+      // Then
+      // ==========================
+      // Finished tests are not executed again
+      assertThat( server.getRequestedPaths() ).doesNotContain( "/candidate/login", "/reference/login", "/candidate/other/01" );
+
+      // The variables of finished tests are restored
+      assertThat( server.getRequestedPaths() ).contains( "/candidate/read/01/login" );
+    }
+
+    final XmlTestSet uninterruptedTestSet = uninterruptedSetup.getTestSet().get( 0 );
+    final XmlTestSet resumedTestSet       = resumedSetup.getTestSet().get( 0 );
+    for( int i=0; i < uninterruptedTestSet.getTest().size(); i++ ) {
+      final XmlTest uninterruptedTest = uninterruptedTestSet.getTest().get( i );
+      final XmlTest resumedTest       = resumedTestSet.getTest().get( i );
+      assertThat( resumedTest.getId() ).isEqualTo( uninterruptedTest.getId() );
+      assertThat( resumedTest.getAnalysis().getSuccessCount() ).isEqualTo( uninterruptedTest.getAnalysis().getSuccessCount() );
+      assertThat( resumedTest.getAnalysis().getFailCount()    ).isEqualTo( uninterruptedTest.getAnalysis().getFailCount() );
+    }
+
+    // Restored tests are identical to the recorded ones (even the port of the former server)
+    for( int i=0; i < 2; i++ ) {
+      assertThat( resumedTestSet.getTest().get( i ).getRequest().getCurl() ).isEqualTo( uninterruptedTestSet.getTest().get( i ).getRequest().getCurl() );
+      assertThat( resumedTestSet.getTest().get( i ).getAnalysis().getBegin() ).isEqualTo( uninterruptedTestSet.getTest().get( i ).getAnalysis().getBegin() );
+    }
+    assertThat( resumedTestSet.getAnalysis().getTotalCount()   ).isEqualTo( 4 );
+    assertThat( resumedTestSet.getAnalysis().getSuccessCount() ).isEqualTo( 3 );
+    assertThat( resumedTestSet.getAnalysis().getFailCount()    ).isEqualTo( 1 );
+
+    // The incomplete entry was replaced
+    assertThat( Files.readAllLines( journalFilePath, StandardCharsets.UTF_8 ) ).hasSize( 4 ).startsWith( lines.get( 0 ), lines.get( 1 ) );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static XmlResponseDiffSetup processTestSetup(
+    final String         setupFilePath,
+    final HttpServerStub server,
+    final Path           journalFilePath,
+    final boolean        resume
+  )
+  throws Exception
+  {
+    final XmlResponseDiffSetup setup = XmlFileHandler.readSetup( setupFilePath, null, true );
+
+    try( final TestJournal journal = TestJournal.open( journalFilePath.toString(), resume ) ) {
+      TestSetupRunner.processTestSetup( setup, server, new RunOptions().setJournal( journal ) );
+    }
+
+    return setup;
+  }
+}
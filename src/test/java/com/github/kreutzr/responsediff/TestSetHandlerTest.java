@@ -3,10 +3,14 @@ package com.github.kreutzr.responsediff;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.File;
+import java.net.ConnectException;
 import java.text.ParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 import org.junit.jupiter.api.Test;
 import org.xml.sax.SAXException;
@@ -493,4 +497,22 @@ public class TestSetHandlerTest
     assertThat( end - start ).isGreaterThanOrEqualTo( 3000 );
     assertThat( end - start ).isLessThanOrEqualTo( 3020 ); // +20 = almost no execution time (NOTE: 10 was sometimes exceeded (15))
   }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatOnlyCancellationsAreDetectedAsCancellation()
+  {
+    // Given
+    final Throwable cancelled       = new HttpHandlerException( "cancelled", TestSetHandler.CANDIDATE, new ExecutionException( new CancellationException() ) );
+    final Throwable connectionError = new HttpHandlerException( "refused",   TestSetHandler.CANDIDATE, new ExecutionException( new ConnectException() ) );
+    final Throwable timeout         = new HttpHandlerException( "timeout",   TestSetHandler.CANDIDATE, new TimeoutException() );
+
+    // When / Then
+    assertThat( TestSetHandler.isCancellation( new CancellationException() ) ).isTrue();
+    assertThat( TestSetHandler.isCancellation( cancelled ) ).isTrue();
+    assertThat( TestSetHandler.isCancellation( connectionError ) ).isFalse();
+    assertThat( TestSetHandler.isCancellation( timeout ) ).isFalse();
+    assertThat( TestSetHandler.isCancellation( null ) ).isFalse();
+  }
 }
@@ -2122,4 +2122,60 @@ public class ValidationHandlerTest
       assertThat( mismatches.hasDifference() ).isFalse();
     }
   }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatDownloadsAreComparedByDigest() throws Exception
+  {
+    // Given
+    final XmlHttpResponse candidate = createDownloadResponse( "aaa", 3 );
+    final XmlHttpResponse reference = createDownloadResponse( "aaa", 3 );
+    final XmlHttpResponse changed   = createDownloadResponse( "bbb", 4 );
+    final XmlHttpResponse legacy    = createDownloadResponse( null,  3 ); // E.g. from an old report
+
+    // When / Then
+    assertThat( ValidationHandler.validateResponse( null, null, null, candidate, reference, null, null, null, false, 0.0, false, (ExecutionPlan) null, "TEST_ID" ).hasDifference() ).isFalse();
+    assertThat( ValidationHandler.validateResponse( null, null, null, candidate, legacy,    null, null, null, false, 0.0, false, (ExecutionPlan) null, "TEST_ID" ).hasDifference() ).isFalse();
+
+    final JsonDiff jsonDiff = ValidationHandler.validateResponse( null, null, null, changed, reference, null, null, null, false, 0.0, false, (ExecutionPlan) null, "TEST_ID" );
+    assertThat( jsonDiff.getChanges() ).hasSize( 1 );
+    assertThat( jsonDiff.getChanges().get( 0 ).getJsonPath() ).isEqualTo( ValidationHandler.DOWNLOAD_PATH );
+    assertThat( jsonDiff.getChanges().get( 0 ).getMessage() ).contains( "size: 4 bytes, reference size: 3 bytes" );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatDifferentDownloadsOfReferenceAndControlAreWhiteNoise() throws Exception
+  {
+    // Given
+    final XmlHttpResponse candidate = createDownloadResponse( "ccc", 3 );
+    final XmlHttpResponse reference = createDownloadResponse( "aaa", 3 );
+    final XmlHttpResponse control   = createDownloadResponse( "bbb", 3 ); // E.g. a PDF with a creation date
+
+    // When
+    final JsonDiff whiteNoise = ValidationHandler.getWhiteNoise( reference, control, 0.0, null, "TEST_ID" );
+    final JsonDiff jsonDiff   = ValidationHandler.validateResponse( null, null, null, candidate, reference, whiteNoise, null, null, false, 0.0, false, (ExecutionPlan) null, "TEST_ID" );
+
+    // Then
+    assertThat( whiteNoise.getChanges() ).extracting( JsonDiffEntry::getJsonPath ).containsExactly( ValidationHandler.DOWNLOAD_PATH );
+    assertThat( jsonDiff.hasDifference() ).isFalse();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static XmlHttpResponse createDownloadResponse( final String sha256, final long size )
+  {
+    final XmlDownload xmlDownload = new XmlDownload();
+    xmlDownload.setFilename( "test_candidate_download.pdf" );
+    xmlDownload.setSize( size );
+    xmlDownload.setSha256( sha256 );
+
+    final XmlHttpResponse xmlHttpResponse = new XmlHttpResponse();
+    xmlHttpResponse.setHeaders( new XmlHeaders() );
+    xmlHttpResponse.setBodyIsJson( false );
+    xmlHttpResponse.setDownload( xmlDownload );
+    return xmlHttpResponse;
+  }
 }
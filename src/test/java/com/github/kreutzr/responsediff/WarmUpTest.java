@@ -0,0 +1,61 @@
+package com.github.kreutzr.responsediff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.kreutzr.responsediff.base.HttpServerStub;
+import com.github.kreutzr.responsediff.base.TestSetupRunner;
+
+public class WarmUpTest
+{
+  private static final String rootPath_ = new File( "" ).getAbsolutePath() + File.separator;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatWarmUpIsExcludedFromReport() throws Exception
+  {
+    final String setupFilePath = rootPath_ + "src/test/resources/com/github/kreutzr/responsediff/test_warmup/setup.xml";
+
+    // ==========================
+    // Given
+    // ==========================
+    final XmlResponseDiffSetup setup = XmlFileHandler.readSetup( setupFilePath, null, true );
+
+    try( final HttpServerStub server = new HttpServerStub( 0 ) ) {
+      // ==========================
+      // When
+      // ==========================
+      TestSetupRunner.processTestSetup( setup, server, new RunOptions() );
+
+      // ==========================
+      // Then
+      // ==========================
+      // The warm-up requests are sent (iterated tests are warmed up only once)
+      assertThat( Collections.frequency( server.getRequestedPaths(), "/candidate/warm/01"     ) ).isEqualTo( 1 + 2 );
+      assertThat( Collections.frequency( server.getRequestedPaths(), "/reference/warm/01"     ) ).isEqualTo( 1 + 2 );
+      assertThat( Collections.frequency( server.getRequestedPaths(), "/candidate/cold/01"     ) ).isEqualTo( 1 );
+      assertThat( Collections.frequency( server.getRequestedPaths(), "/candidate/iterated/01" ) ).isEqualTo( 3 + 2 );
+    }
+
+    // The warm-up is reported separately but not as tests
+    final XmlTestSet xmlTestSet = setup.getTestSet().get( 0 );
+    assertThat( xmlTestSet.getAnalysis().getTotalCount()   ).isEqualTo( 5 );
+    assertThat( xmlTestSet.getAnalysis().getSuccessCount() ).isEqualTo( 5 );
+
+    final XmlWarmUp xmlWarmUp = xmlTestSet.getTest().get( 0 ).getAnalysis().getWarmUp();
+    assertThat( xmlWarmUp ).isNotNull();
+    assertThat( xmlWarmUp.getIterations()    ).isEqualTo( 2 );
+    assertThat( xmlWarmUp.getFailCount()     ).isEqualTo( 0 );
+    assertThat( xmlWarmUp.getTotalDuration() ).isNotNull();
+    assertThat( xmlTestSet.getTest().get( 1 ).getAnalysis().getWarmUp() ).isNull();
+
+    final XmlTestSet wrapperTestSet = xmlTestSet.getTestSet().get( 0 );
+    assertThat( wrapperTestSet.getTest() ).hasSize( 3 );
+    assertThat( wrapperTestSet.getTest().stream().filter( xmlTest -> xmlTest.getAnalysis().getWarmUp() != null ) ).hasSize( 1 );
+  }
+}
@@ -0,0 +1,148 @@
+package com.github.kreutzr.responsediff.base;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A minimal local HTTP server that answers every request with a JSON body after an optional delay.
+ * Requests whose path contains "xml" are answered with a XML body, requests whose path contains "download" with a binary body.
+ * In contrast to the static HttpHandler mock of TestBase (which is bound to the test thread) this allows to test concurrent test execution.
+ */
+public class HttpServerStub implements AutoCloseable
+{
+  private final HttpServer     server_;
+  private final long           delayMs_;
+  private final long           slowDelayMs_;
+  private final AtomicInteger  inFlight_       = new AtomicInteger( 0 );
+  private final AtomicInteger  maxInFlight_    = new AtomicInteger( 0 );
+  private final List< String > requestedPaths_ = new CopyOnWriteArrayList<>();
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts a server on a free local port.
+   * @param delayMs The delay in milliseconds before each response is sent.
+   * @throws IOException
+   */
+  public HttpServerStub( final long delayMs ) throws IOException
+  {
+    this( delayMs, delayMs );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts a server on a free local port.
+   * @param delayMs The delay in milliseconds before each response is sent.
+   * @param slowDelayMs The delay in milliseconds before a response to a request whose path contains "slow" is sent.
+   * @throws IOException
+   */
+  public HttpServerStub( final long delayMs, final long slowDelayMs ) throws IOException
+  {
+    delayMs_     = delayMs;
+    slowDelayMs_ = slowDelayMs;
+    server_      = HttpServer.create( new InetSocketAddress( "127.0.0.1", 0 ), 0 );
+    server_.setExecutor( Executors.newCachedThreadPool() );
+    server_.createContext( "/", this::handle );
+    server_.start();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @param serviceId The service path prefix (e.g. "candidate").
+   * @return The service URL (without trailing "/").
+   */
+  public String getServiceUrl( final String serviceId )
+  {
+    return "http://127.0.0.1:" + server_.getAddress().getPort() + "/" + serviceId;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The maximum number of requests that were handled at the same time.
+   */
+  public int getMaxInFlight()
+  {
+    return maxInFlight_.get();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * @return The paths (including the query) of all requests in the order of their arrival.
+   */
+  public List< String > getRequestedPaths()
+  {
+    return requestedPaths_;
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private void handle( final HttpExchange exchange ) throws IOException
+  {
+    final int inFlight = inFlight_.incrementAndGet();
+    maxInFlight_.accumulateAndGet( inFlight, Math::max );
+    boolean inFlightReleased = false;
+    try {
+      requestedPaths_.add( exchange.getRequestURI().toString() );
+      exchange.getRequestBody().readAllBytes();
+      final long delayMs = exchange.getRequestURI().getPath().contains( "slow" ) ? slowDelayMs_ : delayMs_;
+      if( delayMs > 0 ) {
+        Thread.sleep( delayMs );
+      }
+
+      // NOTE: The service prefix is removed, so all services answer identically.
+      final String path     = exchange.getRequestURI().getPath();
+      final int    index    = path.indexOf( '/', 1 );
+      final String endpoint = index < 0 ? "" : path.substring( index );
+      final int    status   = endpoint.contains( "fail" ) ? 500 : 200;
+      final boolean isXml      = endpoint.contains( "xml" );
+      final boolean isDownload = endpoint.contains( "download" );
+      final byte[] body     = ( isXml
+        ? "<response><endpoint>" + endpoint + "</endpoint></response>"
+        : "{ \"endpoint\" : \"" + endpoint + "\" }"
+      ).getBytes( StandardCharsets.UTF_8 );
+
+      exchange.getResponseHeaders().add( "content-type",
+        isXml      ? "application/xml; charset=utf-8"
+      : isDownload ? "application/octet-stream"
+      :              "application/json; charset=utf-8"
+      );
+      // NOTE: The client may send its next request as soon as it has received the response. So the request is not in flight anymore.
+      inFlight_.decrementAndGet();
+      inFlightReleased = true;
+      exchange.sendResponseHeaders( status, body.length );
+      try( final OutputStream os = exchange.getResponseBody() ) {
+        os.write( body );
+      }
+    }
+    catch( final InterruptedException ex ) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      if( !inFlightReleased ) {
+        inFlight_.decrementAndGet();
+      }
+      exchange.close();
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Override
+  public void close()
+  {
+    server_.stop( 0 );
+  }
+}
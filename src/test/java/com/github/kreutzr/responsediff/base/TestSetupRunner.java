@@ -0,0 +1,85 @@
+package com.github.kreutzr.responsediff.base;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.github.kreutzr.responsediff.RunOptions;
+import com.github.kreutzr.responsediff.TestSetHandler;
+import com.github.kreutzr.responsediff.XmlResponseDiffSetup;
+import com.github.kreutzr.responsediff.filter.DiffFilter;
+
+/**
+ * Processes a test setup against the candidate, reference and control services of a HttpServerStub (see TestSetHandler.processTestSetup()).
+ * All settings that are not passed are the same for all tests (e.g. no filters, a timeout of 5 seconds and no report).
+ */
+public class TestSetupRunner
+{
+  public static final long TIMEOUT_MS = 5000L;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private TestSetupRunner()
+  {
+    // Static helper class
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Processes the given test setup.
+   * @param setup The test setup to process. Must not be null.
+   * @param server The HttpServerStub that provides the services. Must not be null.
+   * @param runOptions The optional settings of the run (e.g. a journal or a report writer). Must not be null.
+   * @throws Exception
+   */
+  public static void processTestSetup(
+    final XmlResponseDiffSetup setup,
+    final HttpServerStub       server,
+    final RunOptions           runOptions
+  )
+  throws Exception
+  {
+    processTestSetup( setup, server, "candidate", new TreeMap<>(), TIMEOUT_MS, runOptions );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Processes the given test setup.
+   * @param setup The test setup to process. Must not be null.
+   * @param server The HttpServerStub that provides the services. Must not be null.
+   * @param candidateServiceId The service path prefix of the candidate (e.g. "slow-candidate" to delay its responses). Must not be null.
+   * @param filterRegistry The filter registry to use. Must not be null.
+   * @param timeoutMs The timeout for the HTTP handling in milliseconds.
+   * @param runOptions The optional settings of the run (e.g. a journal or a report writer). Must not be null.
+   * @throws Exception
+   */
+  public static void processTestSetup(
+    final XmlResponseDiffSetup      setup,
+    final HttpServerStub            server,
+    final String                    candidateServiceId,
+    final Map< String, DiffFilter > filterRegistry,
+    final long                      timeoutMs,
+    final RunOptions                runOptions
+  )
+  throws Exception
+  {
+    TestSetHandler.processTestSetup(
+      null, // testIdPattern
+      setup,
+      server.getServiceUrl( candidateServiceId ), null,
+      server.getServiceUrl( "reference" ),        null,
+      server.getServiceUrl( "control" ),          null,
+      filterRegistry,
+      timeoutMs,
+      0.00000001, // epsilon
+      null,       // referenceFilePath
+      null,       // storeReportPath
+      false,      // reportWhiteNoise
+      true,       // maskAuthorizationHeaderInCurl
+      false,      // reportControlResponse
+      null,       // executionContextAsString
+      runOptions
+    );
+  }
+}
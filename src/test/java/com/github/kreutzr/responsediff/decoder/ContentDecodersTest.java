@@ -0,0 +1,160 @@
+package com.github.kreutzr.responsediff.decoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+public class ContentDecodersTest
+{
+  private static final byte[] CONTENT = "{ \"text\" : \"Grüße aus dem Süden\", \"values\" : [ 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 ] }".repeat( 100 ).getBytes( StandardCharsets.UTF_8 );
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatGzipIsDecodedInChunks() throws IOException
+  {
+    // Given
+    final byte[] encoded = gzip( CONTENT );
+
+    // When / Then
+    for( final int chunkSize : new int[] { 1, 7, 1000, encoded.length } ) {
+      assertThat( decode( ContentDecoders.ENCODING__GZIP, encoded, chunkSize ) ).isEqualTo( CONTENT );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatConcatenatedGzipMembersAreDecoded() throws IOException
+  {
+    // Given
+    final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+    encoded.write( gzip( CONTENT ) );
+    encoded.write( gzip( CONTENT ) );
+
+    // When
+    final byte[] decoded = decode( "GZIP", encoded.toByteArray(), 13 );
+
+    // Then
+    final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    expected.write( CONTENT );
+    expected.write( CONTENT );
+    assertThat( decoded ).isEqualTo( expected.toByteArray() );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatZlibAndRawDeflateAreDecoded() throws IOException
+  {
+    // Given
+    final byte[] zlib = deflate( CONTENT, false );
+    final byte[] raw  = deflate( CONTENT, true );
+
+    // When / Then
+    assertThat( decode( ContentDecoders.ENCODING__DEFLATE, zlib, 1 ) ).isEqualTo( CONTENT );
+    assertThat( decode( ContentDecoders.ENCODING__DEFLATE, raw,  5 ) ).isEqualTo( CONTENT );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatCorruptOrIncompleteBodiesAreRejected() throws IOException
+  {
+    // Given
+    final byte[] encoded = gzip( CONTENT );
+    final byte[] corrupt = encoded.clone();
+    corrupt[ corrupt.length - 5 ] ^= 0x01; // Checksum
+    final byte[] incomplete = new byte[ encoded.length - 3 ];
+    System.arraycopy( encoded, 0, incomplete, 0, incomplete.length );
+
+    // When / Then
+    assertThatThrownBy( () -> decode( ContentDecoders.ENCODING__GZIP, corrupt, 100 ) ).isInstanceOf( IOException.class ).hasMessageContaining( "checksum" );
+    assertThatThrownBy( () -> decode( ContentDecoders.ENCODING__GZIP, incomplete, 100 ) ).isInstanceOf( IOException.class ).hasMessageContaining( "Unexpected end" );
+    assertThatThrownBy( () -> decode( ContentDecoders.ENCODING__GZIP, CONTENT, 100 ) ).isInstanceOf( IOException.class ).hasMessageContaining( "magic" );
+    assertThat( decode( ContentDecoders.ENCODING__GZIP, new byte[ 0 ], 1 ) ).isEmpty();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatDecodersMayBeRegistered() throws IOException
+  {
+    // Given
+    assertThat( ContentDecoders.isSupported( "x-test" ) ).isFalse();
+    assertThat( ContentDecoders.isSupported( ContentDecoders.ENCODING__IDENTITY ) ).isFalse();
+    assertThat( ContentDecoders.isSupported( "gzip, deflate" ) ).isFalse();
+
+    // When
+    ContentDecoders.register( new ContentDecoderProvider() {
+      @Override public String getEncoding() { return "X-Test"; }
+      @Override public ContentDecoder createDecoder() {
+        return new ContentDecoder() {
+          @Override public void decode( final ByteBuffer input, final OutputStream output ) throws IOException {
+            while( input.hasRemaining() ) {
+              output.write( input.get() + 1 );
+            }
+          }
+          @Override public void finish( final OutputStream output ) {}
+        };
+      }
+    } );
+
+    // Then
+    assertThat( ContentDecoders.isSupported( " x-test " ) ).isTrue();
+    assertThat( decode( "x-test", new byte[] { 'a', 'b' }, 1 ) ).isEqualTo( new byte[] { 'b', 'c' } );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static byte[] decode( final String encoding, final byte[] encoded, final int chunkSize ) throws IOException
+  {
+    final ContentDecoder decoder = ContentDecoders.createDecoder( encoding );
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    for( int offset=0; offset < encoded.length; offset += chunkSize ) {
+      final int length = Math.min( chunkSize, encoded.length - offset );
+      final ByteBuffer buffer = ByteBuffer.allocateDirect( length ); // Direct buffers (like the HttpClient uses)
+      buffer.put( encoded, offset, length ).flip();
+      decoder.decode( buffer, output );
+      assertThat( buffer.hasRemaining() ).isFalse();
+    }
+    decoder.finish( output );
+    return output.toByteArray();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static byte[] gzip( final byte[] bytes ) throws IOException
+  {
+    final ByteArrayOutputStream result = new ByteArrayOutputStream();
+    try( final GZIPOutputStream os = new GZIPOutputStream( result ) ) {
+      os.write( bytes );
+    }
+    return result.toByteArray();
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static byte[] deflate( final byte[] bytes, final boolean nowrap )
+  {
+    final Deflater deflater = new Deflater( Deflater.DEFAULT_COMPRESSION, nowrap );
+    deflater.setInput( bytes );
+    deflater.finish();
+    final ByteArrayOutputStream result = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[ 1024 ];
+    while( !deflater.finished() ) {
+      result.write( buffer, 0, deflater.deflate( buffer ) );
+    }
+    deflater.end();
+    return result.toByteArray();
+  }
+}
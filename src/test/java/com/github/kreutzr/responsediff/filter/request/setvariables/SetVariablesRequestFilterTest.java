@@ -3,6 +3,13 @@ package com.github.kreutzr.responsediff.filter.request.setvariables;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -10,6 +17,7 @@ import java.util.Map;
 import java.util.TreeMap;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.github.kreutzr.responsediff.TestSetHandler;
 import com.github.kreutzr.responsediff.XmlHeader;
@@ -21,6 +29,11 @@ import com.github.kreutzr.responsediff.XmlTest;
 
 public class SetVariablesRequestFilterTest
 {
+  @TempDir
+  Path tempDir_;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
   private XmlHeader createXmlHeader( final String name, final String value )
   {
     final XmlHeader xmlHeader = new XmlHeader();
@@ -164,4 +177,163 @@ public class SetVariablesRequestFilterTest
       assertTrue( false, "Unreachable" );
     }
   }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatJsonLinesSourceIsStreamedWithStride() throws Exception
+  {
+    // Given
+    final Path sourcePath = tempDir_.resolve( "variables.jsonl" );
+    final List< String > lines = new ArrayList<>();
+    for( int i=0; i < 10; i++ ) {
+      lines.add( "{ \"ID\" : \"id-" + i + "\", \"NUMBER\" : " + i + " }" );
+      if( i == 4 ) {
+        lines.add( "" ); // Blank lines are ignored
+      }
+    }
+    Files.write( sourcePath, lines, StandardCharsets.UTF_8 );
+
+    final SetVariablesRequestFilter filter = new SetVariablesRequestFilter();
+    filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__SOURCE, sourcePath.toString() );
+    filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__OFFSET, "1" );
+    filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__STRIDE, "4" );
+
+    // When
+    final List< String > endpoints = new ArrayList<>();
+    for( int i=0; i < 4; i++ ) {
+      final XmlRequest xmlRequest = new XmlRequest();
+      xmlRequest.setEndpoint( "/items/${ID}?number=${NUMBER}" );
+      filter.apply( xmlRequest, TestSetHandler.CANDIDATE, new XmlTest() );
+      filter.next();
+      endpoints.add( xmlRequest.getEndpoint() );
+    }
+
+    // Then
+    // Rows 1, 5 and 9 are used. Afterwards the file is read again from its beginning.
+    assertThat( endpoints ).containsExactly( "/items/id-1?number=1", "/items/id-5?number=5", "/items/id-9?number=9", "/items/id-1?number=1" );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatCsvSourceIsStreamed() throws Exception
+  {
+    // Given
+    final Path sourcePath = tempDir_.resolve( "variables.txt" );
+    Files.write( sourcePath, List.of(
+      "ID; TEXT",
+      "a;\"some; text\"",
+      "b;\"say \"\"hello\"\"\""
+    ), StandardCharsets.UTF_8 );
+
+    final SetVariablesRequestFilter filter = new SetVariablesRequestFilter();
+    filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__SOURCE,        sourcePath.toString() );
+    filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__SOURCE_FORMAT, SetVariablesRequestFilter.SOURCE_FORMAT__CSV );
+    filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__CSV_SEPARATOR, ";" );
+
+    // When
+    final List< String > bodies = new ArrayList<>();
+    for( int i=0; i < 2; i++ ) {
+      final XmlRequest xmlRequest = new XmlRequest();
+      xmlRequest.setEndpoint( "/items/${ID}" );
+      xmlRequest.setBody( "${ID}: ${TEXT}" );
+      filter.apply( xmlRequest, TestSetHandler.CANDIDATE, new XmlTest() );
+      filter.next();
+      bodies.add( xmlRequest.getBody() );
+    }
+
+    // Then
+    assertThat( bodies ).containsExactly( "a: some; text", "b: say \"hello\"" );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatJdbcSourceIsStreamed() throws Exception
+  {
+    // Given
+    final String url = "jdbc:h2:" + tempDir_.resolve( "variables" ).toAbsolutePath();
+    try( final Connection connection = DriverManager.getConnection( url, "sa", "" );
+         final Statement statement = connection.createStatement()
+    ) {
+      statement.execute( "CREATE TABLE items ( id INT PRIMARY KEY, name VARCHAR( 20 ) )" );
+      for( int i=0; i < 7; i++ ) {
+        statement.execute( "INSERT INTO items VALUES ( " + i + ", 'name-" + i + "' )" );
+      }
+    }
+
+    final SetVariablesRequestFilter filter = new SetVariablesRequestFilter();
+    filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__SOURCE,     url );
+    filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__USER,       "sa" );
+    filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__QUERY,      "SELECT id AS \"ID\", name AS \"NAME\" FROM items ORDER BY id" );
+    filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__FETCH_SIZE, "2" );
+    filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__OFFSET,     "1" );
+    filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__STRIDE,     "3" );
+
+    // When
+    final List< String > endpoints = new ArrayList<>();
+    for( int i=0; i < 3; i++ ) {
+      final XmlRequest xmlRequest = new XmlRequest();
+      xmlRequest.setEndpoint( "/items/${ID}?name=${NAME}" );
+      filter.apply( xmlRequest, TestSetHandler.CANDIDATE, new XmlTest() );
+      filter.next();
+      endpoints.add( xmlRequest.getEndpoint() );
+    }
+
+    // Then
+    // Rows 1 and 4 are used. Afterwards the query is executed again.
+    assertThat( endpoints ).containsExactly( "/items/1?name=name-1", "/items/4?name=name-4", "/items/1?name=name-1" );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatJdbcConnectionIsReleasedOnClose() throws Exception
+  {
+    // Given
+    final String url = "jdbc:h2:" + tempDir_.resolve( "variables" ).toAbsolutePath();
+    try( final Connection connection = DriverManager.getConnection( url, "sa", "" );
+         final Statement statement = connection.createStatement()
+    ) {
+      statement.execute( "CREATE TABLE items ( id INT PRIMARY KEY )" );
+      statement.execute( "INSERT INTO items VALUES ( 1 )" );
+
+      final SetVariablesRequestFilter filter = new SetVariablesRequestFilter();
+      filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__SOURCE, url );
+      filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__USER,   "sa" );
+      filter.setFilterParameter( SetVariablesRequestFilter.PARAMETER_NAME__QUERY,  "SELECT id AS \"ID\" FROM items" );
+
+      final XmlRequest xmlRequest = new XmlRequest();
+      xmlRequest.setEndpoint( "/items/${ID}" );
+      filter.apply( xmlRequest, TestSetHandler.CANDIDATE, new XmlTest() );
+      final int sessionsBeforeClose = countSessions( statement );
+
+      // When
+      filter.close();
+
+      // Then
+      assertThat( xmlRequest.getEndpoint() ).isEqualTo( "/items/1" );
+      assertThat( sessionsBeforeClose ).isEqualTo( 2 );
+      assertThat( countSessions( statement ) ).isEqualTo( 1 ); // Only the connection of this test is left
+
+      // The filter may be used again after it was closed
+      final XmlRequest nextXmlRequest = new XmlRequest();
+      nextXmlRequest.setEndpoint( "/items/${ID}" );
+      filter.apply( nextXmlRequest, TestSetHandler.CANDIDATE, new XmlTest() );
+      filter.close();
+      assertThat( nextXmlRequest.getEndpoint() ).isEqualTo( "/items/1" );
+      assertThat( countSessions( statement ) ).isEqualTo( 1 );
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static int countSessions( final Statement statement ) throws Exception
+  {
+    try( final ResultSet resultSet = statement.executeQuery( "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS" ) ) {
+      resultSet.next();
+      return resultSet.getInt( 1 );
+    }
+  }
 }
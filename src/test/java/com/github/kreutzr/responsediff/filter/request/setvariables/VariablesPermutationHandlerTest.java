@@ -2,10 +2,13 @@ package com.github.kreutzr.responsediff.filter.request.setvariables;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 
@@ -77,4 +80,112 @@ public class VariablesPermutationHandlerTest
     var.next();
     assertThat( var.getIndexes().toString() ).isEqualTo( "{A=0, B=0, C=0, D=0, E=0, F=0}" );
   }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatPairwiseStrategyCoversAllPairsWithFewCombinations()
+  {
+    // Given
+    final Map< String, List< Object > > variables = new HashMap<>();
+    for( final String name : Arrays.asList( "A", "B", "C", "D", "E", "F" ) ) {
+      variables.put( name, Arrays.asList( "x", "y", "z" ) );
+    }
+    variables.put( "G", null );
+
+    final VariablesPermutationHandler var = new VariablesPermutationHandler();
+    var.init( variables, VariablesPermutationHandler.Strategy.PAIRWISE, 2, 1, 0L );
+
+    // When
+    final int combinationCount = 20; // The cartesian product holds 3^6 = 729 combinations
+    final Set< String > pairs = new HashSet<>();
+    for( int i=0; i < combinationCount; i++ ) {
+      pairs.addAll( toPairs( var.getIndexes() ) );
+      assertThat( var.getIndexes().get( "G" ) ).isZero();
+      var.next();
+    }
+
+    // Then
+    assertThat( pairs ).hasSize( 15 * 3 * 3 + 6 * 3 ); // 15 pairs of variables with 9 value pairs each + 6 pairs with the trivial variable G
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatNwiseStrategyCoversAllTriples()
+  {
+    // Given
+    final Map< String, List< Object > > variables = new HashMap<>();
+    for( final String name : Arrays.asList( "A", "B", "C", "D", "E" ) ) {
+      variables.put( name, Arrays.asList( "x", "y" ) );
+    }
+
+    final VariablesPermutationHandler var = new VariablesPermutationHandler();
+    var.init( variables, VariablesPermutationHandler.Strategy.NWISE, 3, 1, 0L );
+
+    // When
+    final int combinationCount = 20; // The cartesian product holds 2^5 = 32 combinations
+    final Set< String > triples = new HashSet<>();
+    for( int i=0; i < combinationCount; i++ ) {
+      final Map< String, Integer > indexes = var.getIndexes();
+      final List< String > names = new ArrayList<>( indexes.keySet() );
+      for( int a=0; a < names.size(); a++ ) {
+        for( int b=a+1; b < names.size(); b++ ) {
+          for( int c=b+1; c < names.size(); c++ ) {
+            triples.add( names.get( a ) + indexes.get( names.get( a ) ) + names.get( b ) + indexes.get( names.get( b ) ) + names.get( c ) + indexes.get( names.get( c ) ) );
+          }
+        }
+      }
+      var.next();
+    }
+
+    // Then
+    assertThat( triples ).hasSize( 10 * 2 * 2 * 2 ); // 10 triples of variables with 8 value triples each
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  @Test
+  public void testThatRandomStrategyIsReproducible()
+  {
+    // Given
+    final Map< String, List< Object > > variables = new HashMap<>();
+    variables.put( "A", Arrays.asList( "a", "b", "c", "d" ) );
+    variables.put( "B", Arrays.asList( "e", "f", "g" ) );
+    variables.put( "C", Arrays.asList( ) );
+
+    final VariablesPermutationHandler var1 = new VariablesPermutationHandler();
+    var1.init( variables, VariablesPermutationHandler.Strategy.RANDOM, 2, 5, 42L );
+    final VariablesPermutationHandler var2 = new VariablesPermutationHandler();
+    var2.init( variables, VariablesPermutationHandler.Strategy.RANDOM, 2, 5, 42L );
+
+    // When
+    final List< String > combinations1 = new ArrayList<>();
+    final List< String > combinations2 = new ArrayList<>();
+    for( int i=0; i < 10; i++ ) {
+      combinations1.add( var1.getIndexes().toString() );
+      combinations2.add( var2.getIndexes().toString() );
+      var1.next();
+      var2.next();
+    }
+
+    // Then
+    assertThat( combinations1 ).isEqualTo( combinations2 );
+    assertThat( combinations1.subList( 5, 10 ) ).isEqualTo( combinations1.subList( 0, 5 ) ); // The sample starts again after 5 combinations
+    assertThat( combinations1 ).allMatch( combination -> combination.contains( "C=0" ) );
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static List< String > toPairs( final Map< String, Integer > indexes )
+  {
+    final List< String > result = new ArrayList<>();
+    final List< String > names = new ArrayList<>( indexes.keySet() );
+    for( int a=0; a < names.size(); a++ ) {
+      for( int b=a+1; b < names.size(); b++ ) {
+        result.add( names.get( a ) + indexes.get( names.get( a ) ) + names.get( b ) + indexes.get( names.get( b ) ) );
+      }
+    }
+    return result;
+  }
 }